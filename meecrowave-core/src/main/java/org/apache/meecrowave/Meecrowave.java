@@ -23,6 +23,7 @@ import static java.util.Collections.emptySet;
 import static java.util.Comparator.comparing;
 import static java.util.Locale.ROOT;
 import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 
 import java.io.File;
@@ -41,6 +42,7 @@ import java.net.ServerSocket;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -49,6 +51,7 @@ import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -56,7 +59,13 @@ import java.util.Properties;
 import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
@@ -102,6 +111,7 @@ import org.apache.meecrowave.cxf.ConfigurableBus;
 import org.apache.meecrowave.cxf.CxfCdiAutoSetup;
 import org.apache.meecrowave.cxf.Cxfs;
 import org.apache.meecrowave.io.IO;
+import org.apache.meecrowave.jfr.JfrValve;
 import org.apache.meecrowave.lang.Substitutor;
 import org.apache.meecrowave.logging.jul.Log4j2Logger;
 import org.apache.meecrowave.logging.log4j2.Log4j2Shutdown;
@@ -112,6 +122,8 @@ import org.apache.meecrowave.logging.tomcat.LogFacade;
 import org.apache.meecrowave.openwebbeans.OWBAutoSetup;
 import org.apache.meecrowave.service.Priotities;
 import org.apache.meecrowave.service.ValueTransformer;
+import org.apache.meecrowave.startup.BootReport;
+import org.apache.meecrowave.startup.Warmup;
 import org.apache.meecrowave.tomcat.CDIInstanceManager;
 import org.apache.meecrowave.tomcat.LoggingAccessLogPattern;
 import org.apache.meecrowave.tomcat.MeecrowaveContextConfig;
@@ -142,10 +154,15 @@ public class Meecrowave implements AutoCloseable {
     protected volatile Thread hook;
 
     // we can undeploy webapps with that later
-    private final Map<String, Runnable> contexts = new HashMap<>();
+    private static final Runnable DEPLOYING = () -> {};
+    private final Map<String, Runnable> contexts = new ConcurrentHashMap<>();
     private Runnable postTask;
     private boolean clearCatalinaSystemProperties;
     private boolean deleteBase;
+    private BootReport bootReport = new BootReport();
+    private final Object pauseLock = new Object();
+    private int warmingUp; // contexts being warmed up, connectors are paused while it is > 0
+    private List<Connector> pausedConnectors;
 
     public Meecrowave() {
         this(new Builder());
@@ -166,6 +183,13 @@ public class Meecrowave implements AutoCloseable {
         return base;
     }
 
+    /**
+     * @return the durations of the startup phases of the last {@link #start()} and of the deployments.
+     */
+    public BootReport getBootReport() {
+        return bootReport;
+    }
+
     public Tomcat getTomcat() {
         return tomcat;
     }
@@ -174,8 +198,38 @@ public class Meecrowave implements AutoCloseable {
         return tomcat != null && tomcat.getHost().getState() == LifecycleState.STARTED;
     }
 
+    /**
+     * @param root the context to undeploy.
+     * @throws IllegalStateException if the context is still deploying.
+     */
     public void undeploy(final String root) {
-        ofNullable(this.contexts.remove(root)).ifPresent(Runnable::run);
+        ofNullable(removeUndeployer(root)).ifPresent(Runnable::run);
+    }
+
+    /**
+     * Undeploys the contexts concurrently (up to deployment-parallelism at once).
+     *
+     * @param roots the contexts to undeploy.
+     */
+    public void undeploy(final Collection<String> roots) {
+        roots.forEach(this::ensureNotDeploying); // before removing any context to not leak the ones removed before
+        runConcurrently("undeploy", roots.stream()
+                .map(root -> ofNullable(removeUndeployer(root)).map(undeployer -> new NamedTask(root, undeployer)).orElse(null))
+                .filter(Objects::nonNull)
+                .collect(toList()));
+    }
+
+    private Runnable removeUndeployer(final String root) {
+        ensureNotDeploying(root);
+        final Runnable undeployer = contexts.get(root);
+        return undeployer != null && contexts.remove(root, undeployer) ? undeployer : null;
+    }
+
+    // the deployment registers its undeployer once done, removing the placeholder would lose the undeployment
+    private void ensureNotDeploying(final String root) {
+        if (contexts.get(root) == DEPLOYING) {
+            throw new IllegalStateException("'" + root + "' is still deploying, it can't be undeployed yet");
+        }
     }
 
     public Meecrowave deployClasspath(final DeploymentMeta meta) {
@@ -219,16 +273,50 @@ public class Meecrowave implements AutoCloseable {
         return deployWebapp(new DeploymentMeta(context, warOrDir, null, null));
     }
 
+    /**
+     * Deploys independent webapps concurrently (up to deployment-parallelism at once).
+     * All deployments are attempted, the failures are reported together once they are all done.
+     *
+     * @param metas the webapps to deploy.
+     * @return this.
+     */
+    public Meecrowave deployWebapps(final Collection<DeploymentMeta> metas) {
+        runConcurrently("deploy", metas.stream()
+                .map(meta -> new NamedTask(meta.context, () -> deploy(meta)))
+                .collect(toList()));
+        reportBoot(); // once all are deployed, the deployment threads don't write it concurrently
+        return this;
+    }
+
     public Meecrowave deployWebapp(final DeploymentMeta meta) {
-        if (contexts.containsKey(meta.context)) {
+        deploy(meta);
+        reportBoot();
+        return this;
+    }
+
+    private void deploy(final DeploymentMeta meta) {
+        if (contexts.putIfAbsent(meta.context, DEPLOYING) != null) {
             throw new IllegalArgumentException("Already deployed: '" + meta.context + "'");
         }
+        try {
+            doDeployWebapp(meta);
+        } catch (final RuntimeException | Error e) {
+            contexts.remove(meta.context, DEPLOYING);
+            throw e;
+        }
+    }
+
+    private void doDeployWebapp(final DeploymentMeta meta) {
         // always nice to see the deployment with something else than internals
         final String base = tomcat.getService().findConnectors().length > 0 ?
                 (configuration.getActiveProtocol() + "://" + tomcat.getHost().getName() + ':' + configuration.getActivePort()) : "";
         new LogFacade(Meecrowave.class.getName()).info("--------------- " + base + meta.context);
+        try (final BootReport.Phase deployPhase = bootReport.start("deploy", meta.context)) {
+            deployContext(meta);
+        }
+    }
 
-
+    private void deployContext(final DeploymentMeta meta) {
         final OWBJarScanner scanner = new OWBJarScanner();
         final StandardContext ctx = new StandardContext() {
             @Override
@@ -277,53 +365,23 @@ public class Meecrowave implements AutoCloseable {
             ctx1.setAttribute("meecrowave.configuration", getConfiguration());
             ctx1.setAttribute("meecrowave.instance", Meecrowave.this);
 
-            new OWBAutoSetup().onStartup(c, ctx1);
+            bootReport.run("cdi-boot", null, () -> new OWBAutoSetup().onStartup(c, ctx1));
             if (Cxfs.IS_PRESENT) {
-                new CxfCdiAutoSetup().onStartup(c, ctx1);
+                bootReport.run("cxf-setup", null, () -> new CxfCdiAutoSetup().onStartup(c, ctx1));
             }
             new TomcatAutoInitializer().onStartup(c, ctx1);
 
             if (configuration.isInjectServletContainerInitializer()) {
-                final Field f;
-                try { // now cdi is on, we can inject cdi beans in ServletContainerInitializer
-                    f = StandardContext.class.getDeclaredField("initializers");
-                    if (!f.isAccessible()) {
-                        f.setAccessible(true);
-                    }
-                } catch (final Exception e) {
-                    throw new IllegalStateException("Bad tomcat version", e);
-                }
-
-                final List<AutoCloseable> cc;
-                try {
-                    cc = ((Map<ServletContainerInitializer, Set<Class<?>>>) f.get(ctx)).keySet().stream()
-                            .filter(i -> !i.getClass().getName().startsWith(Meecrowave.class.getName()))
-                            .map(i -> {
-                                try {
-                                    return this.inject(i);
-                                } catch (final IllegalArgumentException iae) {
-                                    return null;
-                                }
-                            })
-                            .filter(Objects::nonNull)
-                            .collect(toList());
-                } catch (final IllegalAccessException e) {
-                    throw new IllegalStateException("Can't read initializers", e);
-                }
-                releaseSCI.set(() -> cc.forEach(closeable -> {
-                    try {
-                        closeable.close();
-                    } catch (final Exception e) {
-                        throw new IllegalStateException(e);
-                    }
-                }));
+                releaseSCI.set(injectInitializers(ctx));
             }
         };
 
         ctx.addLifecycleListener(new MeecrowaveContextConfig(configuration, meta.docBase != null, meecrowaveInitializer, meta.redeployCallback));
+        final AtomicReference<BootReport> previousReport = new AtomicReference<>();
         ctx.addLifecycleListener(event -> {
             switch (event.getType()) {
                 case Lifecycle.BEFORE_START_EVENT:
+                    previousReport.set(bootReport.bind()); // let extensions and filters report their phases
                     if (configuration.getWebSessionCookieConfig() != null) {
                         final Properties p = new Properties();
                         try {
@@ -354,6 +412,7 @@ public class Meecrowave implements AutoCloseable {
                     break;
                 case Lifecycle.AFTER_START_EVENT:
                     ctx.getResources().setCachingAllowed(configuration.isWebResourceCached());
+                    BootReport.restore(previousReport.getAndSet(null));
                     break;
                 case Lifecycle.BEFORE_INIT_EVENT:
                     if (configuration.getLoginConfig() != null) {
@@ -403,23 +462,132 @@ public class Meecrowave implements AutoCloseable {
             StandardContext.class.cast(ctx).setAntiResourceLocking(true);
         }
         configuration.getInitializers().forEach(i -> ctx.addServletContainerInitializer(i, emptySet()));
-        configuration.getGlobalContextConfigurers().forEach(it -> it.accept(ctx));
+        configuration.getGlobalContextConfigurers().forEach(it -> bootReport.run("context-customizer", it.getClass().getName(), () -> it.accept(ctx)));
 
         final Host host = tomcat.getHost();
-        host.addChild(ctx);
+        final Warmup warmup = configuration.getWarmup() != null && host.getState().isAvailable() ? createWarmup() : null;
+        if (warmup != null) {
+            pauseConnectors();
+        }
+        try {
+            try (final BootReport.Phase startPhase = bootReport.start("context-start", meta.context)) {
+                host.addChild(ctx);
+            } finally {
+                if (previousReport.get() != null) { // start failed
+                    BootReport.restore(previousReport.getAndSet(null));
+                }
+            }
+            if (warmup != null) {
+                bootReport.run("warmup", meta.context, () -> warmup(warmup, meta.context));
+            }
+        } finally {
+            if (warmup != null) {
+                resumeConnectors();
+            }
+        }
 
         final ClassLoader classLoader = ctx.getLoader().getClassLoader();
         if (host.getState().isAvailable()) {
             fire(new StartListening(findFirstConnector(), host, ctx), classLoader);
         }
-        contexts.put(meta.context, () -> {
+        final Runnable undeployer = () -> {
             if (host.getState().isAvailable()) {
                 fire(new StopListening(findFirstConnector(), host, ctx), classLoader);
             }
             ofNullable(releaseSCI.get()).ifPresent(Runnable::run);
-            tomcat.getHost().removeChild(ctx);
-        });
-        return this;
+            host.removeChild(ctx);
+        };
+        if (!contexts.replace(meta.context, DEPLOYING, undeployer)) { // closed while deploying
+            undeployer.run();
+        }
+    }
+
+    private Runnable injectInitializers(final StandardContext ctx) {
+        try (final BootReport.Phase injectionPhase = bootReport.start("sci-injection")) {
+            final Field f;
+            try { // now cdi is on, we can inject cdi beans in ServletContainerInitializer
+                f = StandardContext.class.getDeclaredField("initializers");
+                if (!f.isAccessible()) {
+                    f.setAccessible(true);
+                }
+            } catch (final Exception e) {
+                throw new IllegalStateException("Bad tomcat version", e);
+            }
+
+            final List<AutoCloseable> cc;
+            try {
+                cc = ((Map<ServletContainerInitializer, Set<Class<?>>>) f.get(ctx)).keySet().stream()
+                        .filter(i -> !i.getClass().getName().startsWith(Meecrowave.class.getName()))
+                        .map(i -> {
+                            try {
+                                return this.inject(i);
+                            } catch (final IllegalArgumentException iae) {
+                                return null;
+                            }
+                        })
+                        .filter(Objects::nonNull)
+                        .collect(toList());
+            } catch (final IllegalAccessException e) {
+                throw new IllegalStateException("Can't read initializers", e);
+            }
+            return () -> cc.forEach(closeable -> {
+                try {
+                    closeable.close();
+                } catch (final Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+    }
+
+    // replays the warm-up requests through a loopback connector created for it since the others are paused
+    private void warmup(final Warmup warmup, final String context) {
+        final LogFacade logger = new LogFacade(Meecrowave.class.getName());
+        final Connector connector = new Connector();
+        connector.setPort(0);
+        connector.setProperty("address", "127.0.0.1");
+        tomcat.getService().addConnector(connector);
+        try {
+            logger.info("Warm-up of '" + context + "': " + warmup.run("http://127.0.0.1:" + connector.getLocalPort(), context));
+        } finally {
+            tomcat.getService().removeConnector(connector);
+            try {
+                connector.destroy();
+            } catch (final LifecycleException e) {
+                logger.warn("Can't destroy the warm-up connector: " + e.getMessage());
+            }
+        }
+    }
+
+    private Warmup createWarmup() {
+        try {
+            return new Warmup(Warmup.parse(Paths.get(configuration.getWarmup())),
+                    configuration.getWarmupIterations(), configuration.getWarmupStability());
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Can't read warm-up requests from " + configuration.getWarmup(), e);
+        }
+    }
+
+    private void pauseConnectors() {
+        synchronized (pauseLock) {
+            if (warmingUp++ > 0) {
+                return;
+            }
+            pausedConnectors = Stream.of(tomcat.getService().findConnectors())
+                    .filter(it -> it.getState().isAvailable())
+                    .collect(toList());
+            pausedConnectors.forEach(Connector::pause);
+        }
+    }
+
+    private void resumeConnectors() {
+        synchronized (pauseLock) {
+            if (--warmingUp > 0) {
+                return;
+            }
+            pausedConnectors.forEach(Connector::resume);
+            pausedConnectors = null;
+        }
     }
 
     public Meecrowave bake() {
@@ -432,6 +600,14 @@ public class Meecrowave implements AutoCloseable {
     }
 
     public Meecrowave start() {
+        bootReport = new BootReport();
+        try (final BootReport.Phase startPhase = bootReport.start("start")) {
+            doStart();
+        }
+        return this;
+    }
+
+    private void doStart() {
         final Map<String, String> systemPropsToRestore = new HashMap<>();
 
         if (configuration.getMeecrowaveProperties() != null && !"meecrowave.properties".equals(configuration.getMeecrowaveProperties())) {
@@ -469,29 +645,7 @@ public class Meecrowave implements AutoCloseable {
 
         tomcat = new InternalTomcat();
 
-        { // setup
-            base = new File(newBaseDir());
-
-            // create the temp dir folder.
-            File tempDir;
-            if (configuration.getTempDir() == null || configuration.getTempDir().length() == 0) {
-                tempDir = createDirectory(base, "temp");
-            } else {
-                tempDir = new File(configuration.getTempDir());
-                if (!tempDir.exists()) {
-                    tempDir.mkdirs();
-                }
-            }
-
-            try {
-                workDir = createDirectory(base, "work");
-            } catch (final IllegalStateException ise) {
-                // in case we could not create that directory we create it in the temp dir folder
-                workDir = createDirectory(tempDir, "work");
-            }
-
-            synchronize(new File(base, "conf"), configuration.getConf());
-        }
+        setupBaseDirectory();
 
         final Properties props = configuration.getProperties();
         Substitutor substitutor = null;
@@ -516,44 +670,7 @@ public class Meecrowave implements AutoCloseable {
 
         final boolean initialized;
         if (configuration.getServerXml() != null) {
-            final File file = new File(conf, "server.xml");
-            if (!file.equals(configuration.getServerXml())) {
-                try (final InputStream is = new FileInputStream(configuration.getServerXml());
-                     final FileOutputStream fos = new FileOutputStream(file)) {
-                    IO.copy(is, fos);
-                } catch (final IOException e) {
-                    throw new IllegalStateException(e);
-                }
-            }
-
-            // respect config (host/port) of the Configuration
-            final QuickServerXmlParser ports = QuickServerXmlParser.parse(file);
-            if (configuration.isKeepServerXmlAsThis()) {
-                configuration.setHttpPort(Integer.parseInt(ports.http()));
-                configuration.setStopPort(Integer.parseInt(ports.stop()));
-            } else {
-                final Map<String, String> replacements = new HashMap<>();
-                replacements.put(ports.http(), String.valueOf(configuration.getHttpPort()));
-                replacements.put(ports.https(), String.valueOf(configuration.getHttpsPort()));
-                replacements.put(ports.stop(), String.valueOf(configuration.getStopPort()));
-
-                String serverXmlContent;
-                try (final InputStream stream = new FileInputStream(file)) {
-                    serverXmlContent = IO.toString(stream);
-                    for (final Map.Entry<String, String> pair : replacements.entrySet()) {
-                        serverXmlContent = serverXmlContent.replace(pair.getKey(), pair.getValue());
-                    }
-                } catch (final IOException e) {
-                    throw new IllegalStateException(e);
-                }
-                try (final OutputStream os = new FileOutputStream(file)) {
-                    os.write(serverXmlContent.getBytes(StandardCharsets.UTF_8));
-                } catch (final IOException e) {
-                    throw new IllegalStateException(e);
-                }
-            }
-
-            tomcat.server(createServer(file.getAbsolutePath()));
+            setupServerXml(conf);
             initialized = true;
         } else {
             tomcat.getServer().setPort(configuration.getStopPort());
@@ -602,6 +719,9 @@ public class Meecrowave implements AutoCloseable {
             tomcat.setHost(host);
         }
 
+        if (configuration.isJfrEvents()) { // first valve to measure the whole host pipeline
+            tomcat.getHost().getPipeline().addValve(new JfrValve());
+        }
         ofNullable(configuration.getTomcatAccessLogPattern())
                 .ifPresent(pattern -> tomcat.getHost().getPipeline().addValve(new LoggingAccessLogPattern(pattern)));
         final List<Valve> valves = buildValves();
@@ -614,6 +734,156 @@ public class Meecrowave implements AutoCloseable {
             tomcat.getEngine().setRealm(configuration.getRealm());
         }
 
+        try (final BootReport.Phase connectorsPhase = bootReport.start("connectors")) {
+            createConnectors();
+        }
+
+        if (configuration.getUsers() != null) {
+            for (final Map.Entry<String, String> user : configuration.getUsers().entrySet()) {
+                tomcat.addUser(user.getKey(), user.getValue());
+            }
+        }
+        if (configuration.getRoles() != null) {
+            for (final Map.Entry<String, String> user : configuration.getRoles().entrySet()) {
+                for (final String role : user.getValue().split(" *, *")) {
+                    tomcat.addRole(user.getKey(), role);
+                }
+            }
+        }
+
+        StreamSupport.stream(ServiceLoader.load(Meecrowave.InstanceCustomizer.class).spliterator(), false)
+                .peek(i -> {
+                    if (MeecrowaveAwareInstanceCustomizer.class.isInstance(i)) {
+                        MeecrowaveAwareInstanceCustomizer.class.cast(i).setMeecrowave(this);
+                    }
+                })
+                .sorted(Priotities::sortByPriority)
+                .forEach(c -> bootReport.run("instance-customizer", c.getClass().getName(), () -> c.accept(tomcat)));
+        configuration.getInstanceCustomizers().forEach(c -> bootReport.run("instance-customizer", c.getClass().getName(), () -> c.accept(tomcat)));
+
+        StreamSupport.stream(ServiceLoader.load(Meecrowave.ContextCustomizer.class).spliterator(), false)
+                .peek(i -> {
+                    if (MeecrowaveAwareContextCustomizer.class.isInstance(i)) {
+                        MeecrowaveAwareContextCustomizer.class.cast(i).setMeecrowave(this);
+                    }
+                })
+                .sorted(Priotities::sortByPriority)
+                .forEach(configuration::addGlobalContextCustomizer);
+
+        beforeStart();
+
+
+        if (configuration.isInitializeClientBus() && Cxfs.IS_PRESENT && !Cxfs.hasDefaultBus()) {
+            initializeClientBus();
+        }
+
+        try (final BootReport.Phase tomcatPhase = bootReport.start("tomcat-start")) {
+            if (!initialized) {
+                tomcat.init();
+            }
+
+            tomcat.getHost().addLifecycleListener(event -> {
+                if (!Host.class.isInstance(event.getSource())) {
+                    return;
+                }
+                broadcastHostEvent(event.getType(), Host.class.cast(event.getSource()));
+            });
+
+            tomcat.start();
+        } catch (final LifecycleException e) {
+            throw new IllegalStateException(e);
+        }
+        ofNullable(configuration.getPidFile()).ifPresent(pidFile -> {
+            if (pidFile.getParentFile() != null && !pidFile.getParentFile().isDirectory() && !pidFile.getParentFile().mkdirs()) {
+                throw new IllegalArgumentException("Can't create " + pidFile);
+            }
+            final String pid = ManagementFactory.getRuntimeMXBean().getName();
+            final int at = pid.indexOf('@');
+            try (final Writer w = new FileWriter(pidFile)) {
+                w.write(at > 0 ? pid.substring(0, at) : pid);
+            } catch (final IOException e) {
+                throw new IllegalStateException("Can't write the pid in " + pid, e);
+            }
+        });
+        if (configuration.isUseShutdownHook()) {
+            hook = new Thread(() -> {
+                hook = null; // prevent close to remove the hook which would throw an exception
+                close();
+            }, "meecrowave-stop-hook");
+            Runtime.getRuntime().addShutdownHook(hook);
+        }
+    }
+
+    private void setupBaseDirectory() {
+        try (final BootReport.Phase basePhase = bootReport.start("base-directory")) {
+            base = new File(newBaseDir());
+
+            // create the temp dir folder.
+            File tempDir;
+            if (configuration.getTempDir() == null || configuration.getTempDir().length() == 0) {
+                tempDir = createDirectory(base, "temp");
+            } else {
+                tempDir = new File(configuration.getTempDir());
+                if (!tempDir.exists()) {
+                    tempDir.mkdirs();
+                }
+            }
+
+            try {
+                workDir = createDirectory(base, "work");
+            } catch (final IllegalStateException ise) {
+                // in case we could not create that directory we create it in the temp dir folder
+                workDir = createDirectory(tempDir, "work");
+            }
+
+            synchronize(new File(base, "conf"), configuration.getConf());
+        }
+    }
+
+    private void setupServerXml(final File conf) {
+        try (final BootReport.Phase serverXmlPhase = bootReport.start("server-xml")) {
+            final File file = new File(conf, "server.xml");
+            if (!file.equals(configuration.getServerXml())) {
+                try (final InputStream is = new FileInputStream(configuration.getServerXml());
+                     final FileOutputStream fos = new FileOutputStream(file)) {
+                    IO.copy(is, fos);
+                } catch (final IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            // respect config (host/port) of the Configuration
+            final QuickServerXmlParser ports = QuickServerXmlParser.parse(file);
+            if (configuration.isKeepServerXmlAsThis()) {
+                configuration.setHttpPort(Integer.parseInt(ports.http()));
+                configuration.setStopPort(Integer.parseInt(ports.stop()));
+            } else {
+                final Map<String, String> replacements = new HashMap<>();
+                replacements.put(ports.http(), String.valueOf(configuration.getHttpPort()));
+                replacements.put(ports.https(), String.valueOf(configuration.getHttpsPort()));
+                replacements.put(ports.stop(), String.valueOf(configuration.getStopPort()));
+
+                String serverXmlContent;
+                try (final InputStream stream = new FileInputStream(file)) {
+                    serverXmlContent = IO.toString(stream);
+                    for (final Map.Entry<String, String> pair : replacements.entrySet()) {
+                        serverXmlContent = serverXmlContent.replace(pair.getKey(), pair.getValue());
+                    }
+                } catch (final IOException e) {
+                    throw new IllegalStateException(e);
+                }
+                try (final OutputStream os = new FileOutputStream(file)) {
+                    os.write(serverXmlContent.getBytes(StandardCharsets.UTF_8));
+                } catch (final IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            tomcat.server(createServer(file.getAbsolutePath()));
+        }
+    }
+
+    private void createConnectors() {
         if (tomcat.getRawConnector() == null && !configuration.isSkipHttp()) {
             final Connector connector = createConnector();
             connector.setPort(configuration.getHttpPort());
@@ -700,85 +970,46 @@ public class Meecrowave implements AutoCloseable {
         if (!configuration.isSkipHttp() && !configuration.isSsl() && !configuration.getConnectors().isEmpty()) {
             tomcat.setConnector(configuration.getConnectors().iterator().next());
         }
+    }
 
-        if (configuration.getUsers() != null) {
-            for (final Map.Entry<String, String> user : configuration.getUsers().entrySet()) {
-                tomcat.addUser(user.getKey(), user.getValue());
-            }
-        }
-        if (configuration.getRoles() != null) {
-            for (final Map.Entry<String, String> user : configuration.getRoles().entrySet()) {
-                for (final String role : user.getValue().split(" *, *")) {
-                    tomcat.addRole(user.getKey(), role);
-                }
-            }
-        }
-
-        StreamSupport.stream(ServiceLoader.load(Meecrowave.InstanceCustomizer.class).spliterator(), false)
-                .peek(i -> {
-                    if (MeecrowaveAwareInstanceCustomizer.class.isInstance(i)) {
-                        MeecrowaveAwareInstanceCustomizer.class.cast(i).setMeecrowave(this);
-                    }
-                })
-                .sorted(Priotities::sortByPriority)
-                .forEach(c -> c.accept(tomcat));
-        configuration.getInstanceCustomizers().forEach(c -> c.accept(tomcat));
-
-        StreamSupport.stream(ServiceLoader.load(Meecrowave.ContextCustomizer.class).spliterator(), false)
-                .peek(i -> {
-                    if (MeecrowaveAwareContextCustomizer.class.isInstance(i)) {
-                        MeecrowaveAwareContextCustomizer.class.cast(i).setMeecrowave(this);
-                    }
-                })
-                .sorted(Priotities::sortByPriority)
-                .forEach(configuration::addGlobalContextCustomizer);
-
-        beforeStart();
-
-
-        if (configuration.isInitializeClientBus() && Cxfs.IS_PRESENT && !Cxfs.hasDefaultBus()) {
+    private void initializeClientBus() {
+        try (final BootReport.Phase busPhase = bootReport.start("client-bus")) {
             clientBus = new ConfigurableBus();
             clientBus.initProviders(configuration,
                     ofNullable(Thread.currentThread().getContextClassLoader()).orElseGet(ClassLoader::getSystemClassLoader));
             clientBus.addClientLifecycleListener();
         }
+    }
 
-        try {
-            if (!initialized) {
-                tomcat.init();
+    // synchronized and written in a temporary file moved over the previous report so readers never see a partial one
+    private synchronized void reportBoot() {
+        final String format = configuration.getBootReport();
+        if ("text".equalsIgnoreCase(format)) {
+            new LogFacade(Meecrowave.class.getName()).info(bootReport.toText());
+        } else if ("json".equalsIgnoreCase(format)) {
+            new LogFacade(Meecrowave.class.getName()).info(bootReport.toJson());
+        }
+        ofNullable(configuration.getBootReportFile()).map(File::new).ifPresent(file -> {
+            final File parent = file.getAbsoluteFile().getParentFile();
+            if (!parent.isDirectory() && !parent.mkdirs()) {
+                throw new IllegalArgumentException("Can't create " + parent);
             }
-
-            tomcat.getHost().addLifecycleListener(event -> {
-                if (!Host.class.isInstance(event.getSource())) {
-                    return;
+            try {
+                final Path tmp = Files.createTempFile(parent.toPath(), file.getName(), ".tmp");
+                try {
+                    Files.write(tmp, bootReport.toJson().getBytes(StandardCharsets.UTF_8));
+                    try {
+                        Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (final AtomicMoveNotSupportedException amnse) {
+                        Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                } finally {
+                    Files.deleteIfExists(tmp);
                 }
-                broadcastHostEvent(event.getType(), Host.class.cast(event.getSource()));
-            });
-
-            tomcat.start();
-        } catch (final LifecycleException e) {
-            throw new IllegalStateException(e);
-        }
-        ofNullable(configuration.getPidFile()).ifPresent(pidFile -> {
-            if (pidFile.getParentFile() != null && !pidFile.getParentFile().isDirectory() && !pidFile.getParentFile().mkdirs()) {
-                throw new IllegalArgumentException("Can't create " + pidFile);
-            }
-            final String pid = ManagementFactory.getRuntimeMXBean().getName();
-            final int at = pid.indexOf('@');
-            try (final Writer w = new FileWriter(pidFile)) {
-                w.write(at > 0 ? pid.substring(0, at) : pid);
             } catch (final IOException e) {
-                throw new IllegalStateException("Can't write the pid in " + pid, e);
+                new LogFacade(Meecrowave.class.getName()).warn("Can't write the boot report in " + file + ": " + e.getMessage());
             }
         });
-        if (configuration.isUseShutdownHook()) {
-            hook = new Thread(() -> {
-                hook = null; // prevent close to remove the hook which would throw an exception
-                close();
-            }, "meecrowave-stop-hook");
-            Runtime.getRuntime().addShutdownHook(hook);
-        }
-        return this;
     }
 
     private boolean isCertificateFromClasspath(final String certificate) {
@@ -916,6 +1147,62 @@ public class Meecrowave implements AutoCloseable {
         return valves;
     }
 
+    private void runConcurrently(final String action, final Collection<NamedTask> tasks) {
+        final int parallelism = Math.min(tasks.size(), configuration.getDeploymentParallelism() < 0 ?
+                Runtime.getRuntime().availableProcessors() : configuration.getDeploymentParallelism());
+        final Map<String, Throwable> errors = new TreeMap<>();
+        if (parallelism <= 1) {
+            tasks.forEach(task -> {
+                try {
+                    task.task.run();
+                } catch (final RuntimeException | Error e) {
+                    errors.put(task.name, e);
+                }
+            });
+        } else {
+            final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            final AtomicInteger threads = new AtomicInteger();
+            final ExecutorService pool = Executors.newFixedThreadPool(parallelism, r -> {
+                final Thread thread = new Thread(r, "meecrowave-" + action + "-" + threads.incrementAndGet());
+                thread.setContextClassLoader(loader); // classpath deployments rely on it
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                final Map<String, Future<?>> futures = new LinkedHashMap<>();
+                tasks.forEach(task -> futures.put(task.name, pool.submit(task.task)));
+                for (final Map.Entry<String, Future<?>> future : futures.entrySet()) {
+                    try {
+                        future.getValue().get();
+                    } catch (final ExecutionException ee) {
+                        errors.put(future.getKey(), ee.getCause());
+                    } catch (final InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        errors.put(future.getKey(), ie);
+                    }
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+        if (errors.isEmpty()) {
+            return;
+        }
+        if (errors.size() == 1 && tasks.size() == 1) { // keep the original error for a single context
+            final Throwable error = errors.values().iterator().next();
+            if (RuntimeException.class.isInstance(error)) {
+                throw RuntimeException.class.cast(error);
+            }
+            if (Error.class.isInstance(error)) {
+                throw Error.class.cast(error);
+            }
+        }
+        final IllegalStateException failure = new IllegalStateException("Can't " + action + " " +
+                errors.keySet().stream().map(it -> "'" + it + "'").collect(joining(", ")));
+        errors.values().forEach(failure::addSuppressed);
+        throw failure;
+    }
+
     protected void beforeStart() {
         // no-op
     }
@@ -951,7 +1238,9 @@ public class Meecrowave implements AutoCloseable {
             }
         }
         try {
-            contexts.values().forEach(Runnable::run);
+            runConcurrently("undeploy", contexts.entrySet().stream()
+                    .map(it -> new NamedTask(it.getKey(), it.getValue()))
+                    .collect(toList()));
         } finally {
             try {
                 tomcat.stop();
@@ -1019,9 +1308,26 @@ public class Meecrowave implements AutoCloseable {
         } else {
             connector = new Connector();
         }
+        if (configuration.isVirtualThreads()) {
+            useVirtualThreads(connector, properties);
+        }
         return connector;
     }
 
+    // the endpoint replaces its thread pool by a virtual thread per task executor, needs Java 21
+    private void useVirtualThreads(final Connector connector, final Properties properties) {
+        if (properties != null && (properties.getProperty("connector.useVirtualThreads") != null
+                || properties.getProperty("connector.attributes.useVirtualThreads") != null)) {
+            return; // explicitly configured
+        }
+        if (Runtime.version().feature() < 21) {
+            new LogFacade(Meecrowave.class.getName()).warn("virtual-threads is ignored, it requires Java 21 and the runtime is "
+                    + Runtime.version().feature());
+            return;
+        }
+        connector.setProperty("useVirtualThreads", "true");
+    }
+
     private static Server createServer(final String serverXml) {
         final Catalina catalina = new Catalina() {
             // skip few init we don't need *here*
@@ -1565,6 +1871,61 @@ public class Meecrowave implements AutoCloseable {
             return this;
         }
 
+        public Builder scanningIndex(final String scanningIndex) {
+            setScanningIndex(scanningIndex);
+            return this;
+        }
+
+        public Builder scanningParallelism(final int scanningParallelism) {
+            setScanningParallelism(scanningParallelism);
+            return this;
+        }
+
+        public Builder deploymentParallelism(final int deploymentParallelism) {
+            setDeploymentParallelism(deploymentParallelism);
+            return this;
+        }
+
+        public Builder virtualThreads(final boolean virtualThreads) {
+            setVirtualThreads(virtualThreads);
+            return this;
+        }
+
+        public Builder warmup(final String warmup) {
+            setWarmup(warmup);
+            return this;
+        }
+
+        public Builder warmupIterations(final int warmupIterations) {
+            setWarmupIterations(warmupIterations);
+            return this;
+        }
+
+        public Builder warmupStability(final int warmupStability) {
+            setWarmupStability(warmupStability);
+            return this;
+        }
+
+        public Builder jfrEvents(final boolean jfrEvents) {
+            setJfrEvents(jfrEvents);
+            return this;
+        }
+
+        public Builder scanningReport(final boolean scanningReport) {
+            setScanningReport(scanningReport);
+            return this;
+        }
+
+        public Builder bootReport(final String bootReport) {
+            setBootReport(bootReport);
+            return this;
+        }
+
+        public Builder bootReportFile(final String bootReportFile) {
+            setBootReportFile(bootReportFile);
+            return this;
+        }
+
         public Builder webSessionTimeout(final int webSessionTimeout) {
             setWebSessionTimeout(webSessionTimeout);
             return this;
@@ -1951,6 +2312,17 @@ public class Meecrowave implements AutoCloseable {
         }
     }
 
+    // a deployment or undeployment run by runConcurrently, the name identifies it in errors
+    private static class NamedTask {
+        private final String name;
+        private final Runnable task;
+
+        private NamedTask(final String name, final Runnable task) {
+            this.name = name;
+            this.task = task;
+        }
+    }
+
     // just to type it and allow some extensions to use a ServiceLoader
     public interface ConfigurationCustomizer extends Consumer<Configuration> {
     }
@@ -244,6 +244,46 @@ public class Configuration {
     @CliOption(name = "scanning-package-exclude", description = "A forced exclude list of packages names (comma separated values)")
     private String scanningPackageExcludes;
 
+    @CliOption(name = "scanning-index", description = "A scanning index generated at build time (meecrowave:scanning-index) " +
+            "used instead of scanning the classpath when it matches it, defaults to ${meecrowave.base}/conf/scanning.index if it exists")
+    private String scanningIndex;
+
+    @CliOption(name = "scanning-parallelism", description = "Number of threads reading the classes of the scanned archives, " +
+            "0 or 1 reads them sequentially, a negative value uses the number of available processors")
+    private int scanningParallelism;
+
+    @CliOption(name = "deployment-parallelism", description = "Number of contexts deployed or undeployed at the same time " +
+            "when several are deployed together (--webapps), 0 or 1 deploys them sequentially, a negative value uses the number of available processors")
+    private int deploymentParallelism;
+
+    @CliOption(name = "virtual-threads", description = "Execute the requests of the connectors created by Meecrowave on virtual threads " +
+            "instead of a platform thread pool, ignored before Java 21")
+    private boolean virtualThreads;
+
+    @CliOption(name = "warmup", description = "A file of requests (METHOD URI [CONTENT-TYPE BODY] per line or an access log) " +
+            "replayed on each deployed context while the connectors are paused, before the context is listening")
+    private String warmup;
+
+    @CliOption(name = "warmup-iterations", description = "Maximum number of times the warm-up requests are replayed")
+    private int warmupIterations = 20;
+
+    @CliOption(name = "warmup-stability", description = "The warm-up stops before warmup-iterations when the duration " +
+            "of an iteration is within this percentage of the previous one twice in a row, 0 always runs all the iterations")
+    private int warmupStability = 10;
+
+    @CliOption(name = "jfr-events", description = "Emit JFR events for the request pipeline of this instance (Tomcat valve, CXF dispatch and invocation, " +
+            "JSON reading/writing, CDI request context, JPA/JTA interceptors), nothing is measured when disabled")
+    private boolean jfrEvents;
+
+    @CliOption(name = "scanning-report", description = "Log the scanning decision (kept or skipped and why) of each jar and package")
+    private boolean scanningReport;
+
+    @CliOption(name = "boot-report", description = "Logs the durations of the startup phases after each deployment: 'text' or 'json'")
+    private String bootReport;
+
+    @CliOption(name = "boot-report-file", description = "Writes the JSON report of the startup phases durations in this file after each deployment")
+    private String bootReportFile;
+
     @CliOption(name = "web-session-timeout", description = "Force the session timeout for webapps")
     private Integer webSessionTimeout;
 
@@ -362,6 +402,17 @@ public class Configuration {
         scanningExcludes = toCopy.scanningExcludes;
         scanningPackageIncludes = toCopy.scanningPackageIncludes;
         scanningPackageExcludes = toCopy.scanningPackageExcludes;
+        scanningIndex = toCopy.scanningIndex;
+        scanningParallelism = toCopy.scanningParallelism;
+        scanningReport = toCopy.scanningReport;
+        deploymentParallelism = toCopy.deploymentParallelism;
+        virtualThreads = toCopy.virtualThreads;
+        warmup = toCopy.warmup;
+        warmupIterations = toCopy.warmupIterations;
+        warmupStability = toCopy.warmupStability;
+        jfrEvents = toCopy.jfrEvents;
+        bootReport = toCopy.bootReport;
+        bootReportFile = toCopy.bootReportFile;
         webSessionTimeout = toCopy.webSessionTimeout;
         webSessionCookieConfig = toCopy.webSessionCookieConfig;
         useTomcatDefaults = toCopy.useTomcatDefaults;
@@ -521,6 +572,94 @@ public class Configuration {
         extensions.put(type, value);
     }
 
+    public String getScanningIndex() {
+        return scanningIndex;
+    }
+
+    public void setScanningIndex(final String scanningIndex) {
+        this.scanningIndex = scanningIndex;
+    }
+
+    public int getScanningParallelism() {
+        return scanningParallelism;
+    }
+
+    public void setScanningParallelism(final int scanningParallelism) {
+        this.scanningParallelism = scanningParallelism;
+    }
+
+    public String getBootReport() {
+        return bootReport;
+    }
+
+    public void setBootReport(final String bootReport) {
+        this.bootReport = bootReport;
+    }
+
+    public String getBootReportFile() {
+        return bootReportFile;
+    }
+
+    public void setBootReportFile(final String bootReportFile) {
+        this.bootReportFile = bootReportFile;
+    }
+
+    public int getDeploymentParallelism() {
+        return deploymentParallelism;
+    }
+
+    public void setDeploymentParallelism(final int deploymentParallelism) {
+        this.deploymentParallelism = deploymentParallelism;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(final boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public String getWarmup() {
+        return warmup;
+    }
+
+    public void setWarmup(final String warmup) {
+        this.warmup = warmup;
+    }
+
+    public int getWarmupIterations() {
+        return warmupIterations;
+    }
+
+    public void setWarmupIterations(final int warmupIterations) {
+        this.warmupIterations = warmupIterations;
+    }
+
+    public int getWarmupStability() {
+        return warmupStability;
+    }
+
+    public void setWarmupStability(final int warmupStability) {
+        this.warmupStability = warmupStability;
+    }
+
+    public boolean isJfrEvents() {
+        return jfrEvents;
+    }
+
+    public void setJfrEvents(final boolean jfrEvents) {
+        this.jfrEvents = jfrEvents;
+    }
+
+    public boolean isScanningReport() {
+        return scanningReport;
+    }
+
+    public void setScanningReport(final boolean scanningReport) {
+        this.scanningReport = scanningReport;
+    }
+
     public String getScanningIncludes() {
         return scanningIncludes;
     }
@@ -1356,6 +1495,17 @@ public class Configuration {
                 Objects.equals(scanningExcludes, that.scanningExcludes) &&
                 Objects.equals(scanningPackageIncludes, that.scanningPackageIncludes) &&
                 Objects.equals(scanningPackageExcludes, that.scanningPackageExcludes) &&
+                Objects.equals(scanningIndex, that.scanningIndex) &&
+                scanningParallelism == that.scanningParallelism &&
+                scanningReport == that.scanningReport &&
+                deploymentParallelism == that.deploymentParallelism &&
+                virtualThreads == that.virtualThreads &&
+                warmupIterations == that.warmupIterations &&
+                warmupStability == that.warmupStability &&
+                jfrEvents == that.jfrEvents &&
+                Objects.equals(warmup, that.warmup) &&
+                Objects.equals(bootReport, that.bootReport) &&
+                Objects.equals(bootReportFile, that.bootReportFile) &&
                 Objects.equals(webSessionTimeout, that.webSessionTimeout) &&
                 Objects.equals(webSessionCookieConfig, that.webSessionCookieConfig) &&
                 Objects.equals(sharedLibraries, that.sharedLibraries) &&
@@ -1376,7 +1526,7 @@ public class Configuration {
                 jaxrsAutoActivateBeanValidation, jaxrsLogProviders, jsonpBufferStrategy, jsonpMaxStringLen, jsonpMaxReadBufferLen, jsonpMaxWriteBufferLen,
                 jsonpSupportsComment, jsonpPrettify, jsonbEncoding, jsonbNulls, jsonbIJson, jsonbPrettify, jsonbBinaryStrategy, jsonbNamingStrategy, jsonbOrderStrategy,
                 loggingGlobalSetup, cxfServletParams, tomcatScanning, tomcatAutoSetup, tomcatJspDevelopment, useShutdownHook, tomcatFilter, scanningIncludes,
-                scanningExcludes, scanningPackageIncludes, scanningPackageExcludes, webSessionTimeout, webSessionCookieConfig, useTomcatDefaults, tomcatWrapLoader,
+                scanningExcludes, scanningPackageIncludes, scanningPackageExcludes, scanningIndex, scanningParallelism, virtualThreads, warmup, warmupIterations, warmupStability, jfrEvents, bootReport, bootReportFile, webSessionTimeout, webSessionCookieConfig, useTomcatDefaults, tomcatWrapLoader,
                 tomcatNoJmx, sharedLibraries, useLog4j2JulLogManager, injectServletContainerInitializer, tomcatAccessLogPattern, meecrowaveProperties,
                 jaxwsSupportIfAvailable, defaultSSLHostConfigName, initializeClientBus, extensions, instanceCustomizers, initializers, antiResourceLocking, contextConfigurers);
     }
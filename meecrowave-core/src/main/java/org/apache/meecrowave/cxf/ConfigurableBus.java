@@ -22,6 +22,7 @@ import static java.util.Collections.singletonList;
 import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.toList;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
@@ -65,6 +66,7 @@ import jakarta.json.stream.JsonParserFactory;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
 import jakarta.ws.rs.ext.Provider;
 
 import org.apache.cxf.bus.extension.ExtensionManagerBus;
@@ -75,6 +77,8 @@ import org.apache.johnzon.core.JsonGeneratorFactoryImpl;
 import org.apache.johnzon.core.JsonParserFactoryImpl;
 import org.apache.johnzon.jaxrs.jsonb.jaxrs.JsonbJaxrsProvider;
 import org.apache.meecrowave.configuration.Configuration;
+import org.apache.meecrowave.jfr.Jfr;
+import org.apache.meecrowave.jfr.MessageBodyEvent;
 
 public class ConfigurableBus extends ExtensionManagerBus {
     public void initProviders(final Configuration builder,
@@ -118,13 +122,16 @@ public class ConfigurableBus extends ExtensionManagerBus {
                                         ofNullable(builder.getJsonpBufferStrategy()).ifPresent(
                                                 s -> put(AbstractJsonFactory.BUFFER_STRATEGY, s));
                                     }});
+                            final DelegateJsonProvider jsonProvider = new DelegateJsonProvider(provider, readerFactory, writerFactory);
+                            final ConfiguredJsonbJaxrsProvider<?> jsonbProvider = new ConfiguredJsonbJaxrsProvider(
+                                    builder.getJsonbEncoding(), builder.isJsonbNulls(),
+                                    builder.isJsonbIJson(), builder.isJsonbPrettify(),
+                                    builder.getJsonbBinaryStrategy(), builder.getJsonbNamingStrategy(),
+                                    builder.getJsonbOrderStrategy(),
+                                    jsonProvider);
                             return Stream.<Object>of(
-                                    new ConfiguredJsonbJaxrsProvider(
-                                            builder.getJsonbEncoding(), builder.isJsonbNulls(),
-                                            builder.isJsonbIJson(), builder.isJsonbPrettify(),
-                                            builder.getJsonbBinaryStrategy(), builder.getJsonbNamingStrategy(),
-                                            builder.getJsonbOrderStrategy(),
-                                            new DelegateJsonProvider(provider, readerFactory, writerFactory)))
+                                    jsonbProvider,
+                                    new StreamingJsonbJaxrsProvider(jsonbProvider.jsonb, jsonProvider))
                                     .collect(toList());
                         });
 
@@ -160,7 +167,12 @@ public class ConfigurableBus extends ExtensionManagerBus {
     @Produces({MediaType.APPLICATION_JSON, "application/*+json"})
     @Consumes({MediaType.APPLICATION_JSON, "application/*+json"})
     public static class ConfiguredJsonbJaxrsProvider<T> extends JsonbJaxrsProvider<T> {
+        private static final int SELECTION_CACHE_SIZE = 1024;
+
         private final Jsonb jsonb;
+        // CXF asks every candidate provider for each request and response entity, decisions only depend on the types
+        private final ProviderSelectionCache readable = new ProviderSelectionCache(SELECTION_CACHE_SIZE);
+        private final ProviderSelectionCache writeable = new ProviderSelectionCache(SELECTION_CACHE_SIZE);
 
         private ConfiguredJsonbJaxrsProvider(final String encoding,
                                              final boolean nulls,
@@ -194,13 +206,67 @@ public class ConfigurableBus extends ExtensionManagerBus {
         @Override
         public boolean isReadable(final Class<?> type, final Type genericType,
                                   final Annotation[] annotations, final MediaType mediaType) {
-            return super.isReadable(type, genericType, annotations, mediaType) || JsonValue.class.isAssignableFrom(type);
+            return readable.get(type, genericType, mediaType,
+                    () -> !StreamingJsonbJaxrsProvider.isStreamed(type)
+                            && (super.isReadable(type, genericType, annotations, mediaType) || JsonValue.class.isAssignableFrom(type)));
         }
 
         @Override
         public boolean isWriteable(final Class<?> type, final Type genericType,
                                    final Annotation[] annotations, final MediaType mediaType) {
-            return super.isWriteable(type, genericType, annotations, mediaType) || JsonValue.class.isAssignableFrom(type);
+            return writeable.get(type, genericType, mediaType,
+                    () -> !StreamingJsonbJaxrsProvider.isStreamed(type)
+                            && (super.isWriteable(type, genericType, annotations, mediaType) || JsonValue.class.isAssignableFrom(type)));
+        }
+
+        @Override
+        public T readFrom(final Class<T> type, final Type genericType, final Annotation[] annotations,
+                          final MediaType mediaType, final MultivaluedMap<String, String> httpHeaders,
+                          final InputStream entityStream) throws IOException {
+            if (!Jfr.isEnabled()) {
+                return super.readFrom(type, genericType, annotations, mediaType, httpHeaders, entityStream);
+            }
+            final MessageBodyEvent event = new MessageBodyEvent();
+            try {
+                return super.readFrom(type, genericType, annotations, mediaType, httpHeaders, entityStream);
+            } finally {
+                event.mediaType = String.valueOf(mediaType);
+                event.finish((genericType == null ? type : genericType).getTypeName());
+            }
+        }
+
+        @Override
+        public void writeTo(final T t, final Class<?> type, final Type genericType, final Annotation[] annotations,
+                            final MediaType mediaType, final MultivaluedMap<String, Object> httpHeaders,
+                            final OutputStream entityStream) throws IOException {
+            if (!Jfr.isEnabled()) {
+                super.writeTo(t, type, genericType, annotations, mediaType, httpHeaders, entityStream);
+                return;
+            }
+            final MessageBodyEvent event = new MessageBodyEvent();
+            try {
+                super.writeTo(t, type, genericType, annotations, mediaType, httpHeaders, entityStream);
+            } finally {
+                event.write = true;
+                event.mediaType = String.valueOf(mediaType);
+                event.finish((genericType == null ? type : genericType).getTypeName());
+            }
+        }
+
+        public ProviderSelectionCache getReadableCache() {
+            return readable;
+        }
+
+        public ProviderSelectionCache getWriteableCache() {
+            return writeable;
+        }
+
+        /**
+         * Forgets the decisions, they reference the classes of the application being undeployed.
+         */
+        public void clearSelectionCaches() {
+            readable.clear();
+            writeable.clear();
         }
     }
 
@@ -18,6 +18,7 @@
  */
 package org.apache.meecrowave.cxf;
 
+import org.apache.cxf.Bus;
 import org.apache.cxf.cdi.CXFCdiServlet;
 import org.apache.cxf.common.util.ReflectionUtil;
 import org.apache.cxf.endpoint.Endpoint;
@@ -35,7 +36,11 @@ import org.apache.cxf.transport.http.DestinationRegistry;
 import org.apache.cxf.transport.servlet.ServletDestination;
 import org.apache.meecrowave.Meecrowave;
 import org.apache.meecrowave.configuration.Configuration;
+import org.apache.meecrowave.jfr.JaxrsDispatchEvent;
+import org.apache.meecrowave.jfr.Jfr;
+import org.apache.meecrowave.lang.PrefixTrie;
 import org.apache.meecrowave.logging.tomcat.LogFacade;
+import org.apache.meecrowave.startup.BootReport;
 
 import jakarta.servlet.DispatcherType;
 import jakarta.servlet.Filter;
@@ -63,12 +68,11 @@ import java.util.EnumSet;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
-import java.util.stream.Stream;
 
 import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toList;
 
 // this look a bit complicated but it just:
 // - wraps cxf in a filter to support plain resources when not conflicting with application path
@@ -86,6 +90,13 @@ public class CxfCdiAutoSetup implements ServletContainerInitializer {
 
             @Override
             public void init(final FilterConfig filterConfig) throws ServletException {
+                final BootReport report = BootReport.current();
+                try (final BootReport.Phase phase = report == null ? null : report.start("cxf-servlet-init")) {
+                    doInit(filterConfig);
+                }
+            }
+
+            private void doInit(final FilterConfig filterConfig) throws ServletException {
                 delegate.init(new ServletConfig() {
                     @Override
                     public String getServletName() {
@@ -116,20 +127,19 @@ public class CxfCdiAutoSetup implements ServletContainerInitializer {
                     return;
                 }
                 final HttpServletRequest http = HttpServletRequest.class.cast(request);
-                final String path = http.getRequestURI().substring(http.getContextPath().length());
-                final Optional<String> app = Stream.of(delegate.prefixes).filter(path::startsWith).findAny();
-                if (app.isPresent()) {
-                    delegate.service(new HttpServletRequestWrapper(http) { // fake servlet pathInfo and path
-                        @Override
-                        public String getPathInfo() {
-                            return path;
-                        }
-
-                        @Override
-                        public String getServletPath() {
-                            return servletPath;
-                        }
-                    }, response);
+                final String uri = http.getRequestURI();
+                final int contextLength = http.getContextPath().length();
+                if (delegate.prefixes.matches(uri, contextLength)) {
+                    if (!Jfr.isEnabled()) {
+                        delegate.service(new DispatchedRequest(http, uri, contextLength, servletPath), response);
+                        return;
+                    }
+                    final JaxrsDispatchEvent event = new JaxrsDispatchEvent();
+                    try {
+                        delegate.service(new DispatchedRequest(http, uri, contextLength, servletPath), response);
+                    } finally {
+                        event.finish(http.getMethod() + ' ' + uri);
+                    }
                 } else {
                     chain.doFilter(request, response);
                 }
@@ -313,8 +323,37 @@ public class CxfCdiAutoSetup implements ServletContainerInitializer {
         }
     }
 
+    // fakes the servlet path and path info for CXF, the request outlives the filter call when asynchronous so it is not reused
+    private static final class DispatchedRequest extends HttpServletRequestWrapper {
+        private final String uri;
+        private final int contextLength;
+        private final String servletPath;
+        private String pathInfo;
+
+        private DispatchedRequest(final HttpServletRequest request, final String uri, final int contextLength,
+                                  final String servletPath) {
+            super(request);
+            this.uri = uri;
+            this.contextLength = contextLength;
+            this.servletPath = servletPath;
+        }
+
+        @Override
+        public String getPathInfo() {
+            if (pathInfo == null) {
+                pathInfo = uri.substring(contextLength);
+            }
+            return pathInfo;
+        }
+
+        @Override
+        public String getServletPath() {
+            return servletPath;
+        }
+    }
+
     private static class MeecrowaveCXFCdiServlet extends CXFCdiServlet {
-        private String[] prefixes;
+        private PrefixTrie prefixes; // addresses of the CXF destinations
 
         @Override
         public void init(final ServletConfig sc) throws ServletException {
@@ -324,12 +363,29 @@ public class CxfCdiAutoSetup implements ServletContainerInitializer {
             final LogFacade log = new LogFacade(CxfCdiAutoSetup.class.getName());
             final String transportId = sc.getInitParameter(TRANSPORT_ID);
             final DestinationRegistry registry = getDestinationRegistryFromBusOrDefault(transportId);
-            prefixes = registry.getDestinations().stream()
+            prefixes = PrefixTrie.of(registry.getDestinations().stream()
                     .filter(ServletDestination.class::isInstance)
                     .map(ServletDestination.class::cast)
                     .map(getServletDestinationPath(sc, log))
                     .filter(Objects::nonNull)
-                    .toArray(String[]::new);
+                    .collect(toList()));
+        }
+
+        @Override
+        public void destroy() {
+            final Bus bus = getBus();
+            try {
+                super.destroy();
+            } finally { // the json provider can be shared with the client bus and outlive the application
+                ofNullable(bus)
+                        .map(b -> b.getProperty("org.apache.cxf.jaxrs.bus.providers"))
+                        .filter(Collection.class::isInstance)
+                        .map(providers -> (Collection<?>) providers)
+                        .ifPresent(providers -> providers.stream()
+                                .filter(ConfigurableBus.ConfiguredJsonbJaxrsProvider.class::isInstance)
+                                .map(ConfigurableBus.ConfiguredJsonbJaxrsProvider.class::cast)
+                                .forEach(ConfigurableBus.ConfiguredJsonbJaxrsProvider::clearSelectionCaches));
+            }
         }
 
         private Function<ServletDestination, String> getServletDestinationPath(ServletConfig sc, LogFacade log)
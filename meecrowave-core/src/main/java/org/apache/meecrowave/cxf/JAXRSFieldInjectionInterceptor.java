@@ -26,6 +26,8 @@ import java.lang.annotation.Annotation;
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import jakarta.annotation.Priority;
 import jakarta.interceptor.AroundConstruct;
@@ -49,6 +51,7 @@ import org.apache.webbeans.intercept.ConstructorInterceptorInvocationContext;
 @JAXRSFieldInjectionInterceptor.Binding
 public class JAXRSFieldInjectionInterceptor implements Serializable {
     private final AtomicBoolean injected = new AtomicBoolean();
+    private final Lock lock = new ReentrantLock(); // not a monitor to not pin virtual threads waiting for the first injection
 
     @AroundConstruct
     public Object injectContexts(final InvocationContext ic) throws Exception {
@@ -82,7 +85,8 @@ public class JAXRSFieldInjectionInterceptor implements Serializable {
                 if (ApplicationInfo.class.isInstance(appInfo)) {
                     application = ApplicationInfo.class.cast(appInfo).getProvider();
                 }
-                synchronized (this) {
+                lock.lock();
+                try {
                     if (injected.get()) {
                         return;
                     }
@@ -92,6 +96,8 @@ public class JAXRSFieldInjectionInterceptor implements Serializable {
                             application,
                             ProviderFactory.getInstance(current));
                     injected.compareAndSet(false, true);
+                } finally {
+                    lock.unlock();
                 }
             }
         }
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.cxf;
+
+import org.apache.cxf.interceptor.OutgoingChainInterceptor;
+import org.apache.cxf.jaxrs.model.OperationResourceInfo;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.service.model.BindingOperationInfo;
+import org.apache.meecrowave.jfr.Jfr;
+import org.apache.meecrowave.jfr.ResourceInvocationEvent;
+
+/**
+ * Starts a {@link ResourceInvocationEvent} before the service invocation, it is ended by {@link End}
+ * or when the invocation fails and the in chain unwinds.
+ */
+public class JfrInvocationInterceptor extends AbstractPhaseInterceptor<Message> {
+    public JfrInvocationInterceptor() {
+        super(Phase.PRE_INVOKE);
+    }
+
+    @Override
+    public void handleMessage(final Message message) {
+        if (Jfr.isEnabled() && !isRequestor(message)) {
+            message.getExchange().put(ResourceInvocationEvent.class, new ResourceInvocationEvent());
+        }
+    }
+
+    @Override
+    public void handleFault(final Message message) {
+        finish(message.getExchange());
+    }
+
+    private static void finish(final Exchange exchange) {
+        final Object event = exchange.remove(ResourceInvocationEvent.class.getName());
+        if (event != null) {
+            ResourceInvocationEvent.class.cast(event).finish(operation(exchange));
+        }
+    }
+
+    private static String operation(final Exchange exchange) {
+        final OperationResourceInfo ori = exchange.get(OperationResourceInfo.class);
+        if (ori != null) {
+            return ori.getClassResourceInfo().getServiceClass().getName() + '#' + ori.getMethodToInvoke().getName();
+        }
+        final BindingOperationInfo boi = exchange.getBindingOperationInfo();
+        return boi == null ? null : boi.getName().toString();
+    }
+
+    public static class End extends AbstractPhaseInterceptor<Message> {
+        public End() {
+            super(Phase.POST_INVOKE);
+            addBefore(OutgoingChainInterceptor.class.getName());
+        }
+
+        @Override
+        public void handleMessage(final Message message) {
+            finish(message.getExchange());
+        }
+    }
+}
@@ -64,6 +64,11 @@ public class MeecrowaveBus implements Bus, ClassUnwrapper {
             }
         }
 
+        if (builder != null && builder.isJfrEvents() && delegate.getInInterceptors().stream().noneMatch(JfrInvocationInterceptor.class::isInstance)) {
+            delegate.getInInterceptors().add(new JfrInvocationInterceptor());
+            delegate.getInInterceptors().add(new JfrInvocationInterceptor.End());
+        }
+
         setProperty(ClassUnwrapper.class.getName(), this);
         setExtension(appLoader, ClassLoader.class); // ServletController locks on the classloader otherwise
     }
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.cxf;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+import jakarta.ws.rs.core.MediaType;
+
+/**
+ * Bounded memo of the {@code isReadable}/{@code isWriteable} decisions of a provider
+ * keyed by the entity type, generic type and media type.
+ * The media type comes from the request so the keys are not bounded by the application,
+ * once full the oldest decisions are evicted (FIFO, no lock on the lookups).
+ *
+ * It references application classes so it must be cleared when the application is undeployed.
+ */
+public class ProviderSelectionCache {
+    private final int maxSize;
+    private final Map<Key, Boolean> decisions = new ConcurrentHashMap<>();
+    private final Queue<Key> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ProviderSelectionCache(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public boolean get(final Class<?> type, final Type genericType, final MediaType mediaType,
+                       final BooleanSupplier decision) {
+        final Key key = new Key(type, genericType, mediaType);
+        final Boolean cached = decisions.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        final boolean value = decision.getAsBoolean();
+        if (decisions.putIfAbsent(key, value) == null) {
+            insertionOrder.add(key);
+            while (decisions.size() > maxSize) {
+                final Key eldest = insertionOrder.poll();
+                if (eldest == null) {
+                    break;
+                }
+                decisions.remove(eldest);
+            }
+        }
+        return value;
+    }
+
+    public void clear() {
+        decisions.clear();
+        insertionOrder.clear();
+    }
+
+    public int size() {
+        return decisions.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private static final class Key {
+        private final Class<?> type;
+        private final Type genericType;
+        private final MediaType mediaType;
+        private final int hash;
+
+        private Key(final Class<?> type, final Type genericType, final MediaType mediaType) {
+            this.type = type;
+            this.genericType = genericType;
+            this.mediaType = mediaType;
+            // MediaType#hashCode lowercases and concatenates its parts, equals() doesn't allocate
+            this.hash = 31 * type.hashCode() + Objects.hashCode(genericType);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!Key.class.isInstance(o)) {
+                return false;
+            }
+            final Key other = Key.class.cast(o);
+            return type == other.type
+                    && Objects.equals(genericType, other.genericType)
+                    && (mediaType == other.mediaType || (mediaType != null && mediaType.equals(other.mediaType)));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,397 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.cxf;
+
+import static java.util.Optional.ofNullable;
+
+import java.io.BufferedReader;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import jakarta.json.JsonValue;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.spi.JsonProvider;
+import jakarta.json.stream.JsonParser;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+import org.apache.meecrowave.jfr.Jfr;
+import org.apache.meecrowave.jfr.MessageBodyEvent;
+
+/**
+ * Writes {@link Stream}, {@link Iterator} and {@link Flow.Publisher} entities item per item - as a JSON array
+ * or one JSON document per line for {@value #NDJSON} - and reads {@link Stream} and {@link Iterator} request bodies
+ * lazily, so large collections are never materialized.
+ *
+ * The output is flushed every {@value #FLUSH_BATCH} items, it is also the demand requested to publishers.
+ */
+@Provider
+@Produces({MediaType.APPLICATION_JSON, "application/*+json", StreamingJsonbJaxrsProvider.NDJSON})
+@Consumes({MediaType.APPLICATION_JSON, "application/*+json", StreamingJsonbJaxrsProvider.NDJSON})
+public class StreamingJsonbJaxrsProvider implements MessageBodyWriter<Object>, MessageBodyReader<Object> {
+    public static final String NDJSON = "application/x-ndjson";
+
+    private static final int FLUSH_BATCH = 128;
+
+    private final Jsonb jsonb;
+    private final JsonProvider provider;
+
+    StreamingJsonbJaxrsProvider(final Jsonb jsonb, final JsonProvider provider) {
+        this.jsonb = jsonb;
+        this.provider = provider;
+    }
+
+    public static boolean isStreamed(final Class<?> type) {
+        return Stream.class.isAssignableFrom(type) || Iterator.class.isAssignableFrom(type) || Flow.Publisher.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public boolean isWriteable(final Class<?> type, final Type genericType,
+                               final Annotation[] annotations, final MediaType mediaType) {
+        return isStreamed(type);
+    }
+
+    @Override
+    public boolean isReadable(final Class<?> type, final Type genericType,
+                              final Annotation[] annotations, final MediaType mediaType) {
+        return type == Stream.class || type == Iterator.class;
+    }
+
+    @Override
+    public long getSize(final Object entity, final Class<?> type, final Type genericType,
+                        final Annotation[] annotations, final MediaType mediaType) {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(final Object entity, final Class<?> type, final Type genericType,
+                        final Annotation[] annotations, final MediaType mediaType,
+                        final MultivaluedMap<String, Object> httpHeaders, final OutputStream entityStream) throws IOException {
+        if (!Jfr.isEnabled()) {
+            doWriteTo(entity, genericType, mediaType, entityStream);
+            return;
+        }
+        final MessageBodyEvent event = new MessageBodyEvent();
+        try {
+            doWriteTo(entity, genericType, mediaType, entityStream);
+        } finally {
+            event.write = true;
+            event.mediaType = String.valueOf(mediaType);
+            event.finish((genericType == null ? type : genericType).getTypeName());
+        }
+    }
+
+    @Override
+    public Object readFrom(final Class<Object> type, final Type genericType,
+                           final Annotation[] annotations, final MediaType mediaType,
+                           final MultivaluedMap<String, String> httpHeaders, final InputStream entityStream) {
+        if (!Jfr.isEnabled()) {
+            return doReadFrom(type, genericType, mediaType, entityStream);
+        }
+        final MessageBodyEvent event = new MessageBodyEvent(); // the items are read lazily, only the opening is measured
+        try {
+            return doReadFrom(type, genericType, mediaType, entityStream);
+        } finally {
+            event.mediaType = String.valueOf(mediaType);
+            event.finish((genericType == null ? type : genericType).getTypeName());
+        }
+    }
+
+    private void doWriteTo(final Object entity, final Type genericType, final MediaType mediaType,
+                           final OutputStream entityStream) throws IOException {
+        final ItemWriter writer = new ItemWriter(
+                new OutputStreamWriter(entityStream, charset(mediaType)), isNdjson(mediaType), itemType(genericType));
+        writer.start();
+        if (Flow.Publisher.class.isInstance(entity)) {
+            writePublisher(Flow.Publisher.class.cast(entity), writer);
+        } else if (Stream.class.isInstance(entity)) {
+            try (final Stream<?> stream = Stream.class.cast(entity)) {
+                writeIterator(stream.iterator(), writer);
+            }
+        } else {
+            writeIterator(Iterator.class.cast(entity), writer);
+        }
+        writer.end();
+    }
+
+    private Object doReadFrom(final Class<Object> type, final Type genericType, final MediaType mediaType,
+                              final InputStream entityStream) {
+        final Reader reader = new InputStreamReader(entityStream, charset(mediaType));
+        final Type itemType = ofNullable(itemType(genericType)).orElse(Object.class);
+        final Iterator<Object> iterator = isNdjson(mediaType) ?
+                new LineIterator(new BufferedReader(reader), itemType) :
+                new ArrayIterator(provider.createParser(reader), itemType);
+        if (Iterator.class == (Class<?>) type) {
+            return iterator;
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+    }
+
+    private void writeIterator(final Iterator<?> iterator, final ItemWriter writer) throws IOException {
+        while (iterator.hasNext()) {
+            writer.write(iterator.next());
+        }
+    }
+
+    // the items are written by the publisher threads, this one only waits for the completion
+    private void writePublisher(final Flow.Publisher<?> publisher, final ItemWriter writer) throws IOException {
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        publisher.subscribe(new Flow.Subscriber<Object>() {
+            private Flow.Subscription subscription;
+            private long received;
+
+            @Override
+            public void onSubscribe(final Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(FLUSH_BATCH);
+            }
+
+            @Override
+            public void onNext(final Object item) {
+                if (done.isDone()) {
+                    return;
+                }
+                try {
+                    writer.write(item);
+                } catch (final IOException | RuntimeException e) {
+                    subscription.cancel();
+                    done.completeExceptionally(e);
+                    return;
+                }
+                if (++received % FLUSH_BATCH == 0) {
+                    subscription.request(FLUSH_BATCH);
+                }
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(null);
+            }
+        });
+        try {
+            done.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (IOException.class.isInstance(cause)) {
+                throw IOException.class.cast(cause);
+            }
+            if (RuntimeException.class.isInstance(cause)) {
+                throw RuntimeException.class.cast(cause);
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static Type itemType(final Type genericType) {
+        if (ParameterizedType.class.isInstance(genericType)) {
+            final Type[] arguments = ParameterizedType.class.cast(genericType).getActualTypeArguments();
+            if (arguments.length == 1 && (Class.class.isInstance(arguments[0]) || ParameterizedType.class.isInstance(arguments[0]))) {
+                return arguments[0];
+            }
+        }
+        return null;
+    }
+
+    private static boolean isNdjson(final MediaType mediaType) {
+        return mediaType != null && "application".equalsIgnoreCase(mediaType.getType()) && "x-ndjson".equalsIgnoreCase(mediaType.getSubtype());
+    }
+
+    private static Charset charset(final MediaType mediaType) {
+        return ofNullable(mediaType)
+                .map(m -> m.getParameters().get(MediaType.CHARSET_PARAMETER))
+                .map(Charset::forName)
+                .orElse(StandardCharsets.UTF_8);
+    }
+
+    private final class ItemWriter {
+        private final Writer writer;
+        private final Writer item; // jsonb closes and flushes the writer after each item
+        private final boolean ndjson;
+        private final Type type;
+        private long count;
+
+        private ItemWriter(final Writer writer, final boolean ndjson, final Type type) {
+            this.writer = writer;
+            this.ndjson = ndjson;
+            this.type = type;
+            this.item = new FilterWriter(writer) {
+                @Override
+                public void flush() {
+                    // no-op, see FLUSH_BATCH
+                }
+
+                @Override
+                public void close() {
+                    // no-op
+                }
+            };
+        }
+
+        private void start() throws IOException {
+            if (!ndjson) {
+                writer.write('[');
+            }
+        }
+
+        private void write(final Object value) throws IOException {
+            if (!ndjson && count > 0) {
+                writer.write(',');
+            }
+            if (value == null) {
+                writer.write("null");
+            } else {
+                jsonb.toJson(value, type == null ? value.getClass() : type, item);
+            }
+            if (ndjson) {
+                writer.write('\n');
+            }
+            if (++count % FLUSH_BATCH == 0) {
+                writer.flush();
+            }
+        }
+
+        private void end() throws IOException {
+            if (!ndjson) {
+                writer.write(']');
+            }
+            writer.flush();
+        }
+    }
+
+    private final class ArrayIterator implements Iterator<Object> {
+        private final JsonParser parser;
+        private final Type type;
+        private JsonValue next;
+        private boolean started;
+        private boolean ended;
+
+        private ArrayIterator(final JsonParser parser, final Type type) {
+            this.parser = parser;
+            this.type = type;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (ended) {
+                return false;
+            }
+            if (!started) {
+                started = true;
+                if (!parser.hasNext() || parser.next() != JsonParser.Event.START_ARRAY) {
+                    throw new BadRequestException("Expected a JSON array");
+                }
+            }
+            if (!parser.hasNext() || parser.next() == JsonParser.Event.END_ARRAY) {
+                ended = true;
+                return false;
+            }
+            next = parser.getValue();
+            return true;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final JsonValue value = next;
+            next = null;
+            return value == JsonValue.NULL ? null : jsonb.fromJson(value.toString(), type);
+        }
+    }
+
+    private final class LineIterator implements Iterator<Object> {
+        private final BufferedReader reader;
+        private final Type type;
+        private String next;
+        private boolean ended;
+
+        private LineIterator(final BufferedReader reader, final Type type) {
+            this.reader = reader;
+            this.type = type;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !ended) {
+                final String line;
+                try {
+                    line = reader.readLine();
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (line == null) {
+                    ended = true;
+                } else if (!line.trim().isEmpty()) {
+                    next = line;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final String line = next;
+            next = null;
+            return jsonb.fromJson(line, type);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.jfr;
+
+import java.lang.reflect.Method;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.apache.meecrowave.Interceptor")
+@Label("Interceptor")
+@Category({"Meecrowave", "Interceptor"})
+@Description("JPA or JTA interceptor boundary, the operation is the intercepted class and method")
+public class InterceptorEvent extends MeecrowaveEvent {
+    @Label("Interceptor")
+    String interceptor;
+
+    public InterceptorEvent(final String interceptor) {
+        this.interceptor = interceptor;
+    }
+
+    /**
+     * @param method the intercepted method, the operation name is only computed when the event is committed.
+     */
+    public void finish(final Method method) {
+        end();
+        if (shouldCommit()) {
+            commit(method.getDeclaringClass().getName() + '#' + method.getName());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.jfr;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Holder of the correlation id of the current request when its Meecrowave instance enables the JFR events
+ * ({@code jfr-events} option).
+ *
+ * There is no JVM wide switch: the {@link JfrValve} of an instance starts the correlation and the instrumented code
+ * only creates events when {@link #isEnabled()}, i.e. on the threads serving the requests of such an instance.
+ */
+public final class Jfr {
+    public static final String CORRELATION_ID_HEADER = "X-Request-Id";
+
+    private static final AtomicLong IDS = new AtomicLong();
+    private static final ThreadLocal<String> CORRELATION_ID = new ThreadLocal<>();
+
+    private Jfr() {
+        // no-op
+    }
+
+    public static boolean isEnabled() {
+        return CORRELATION_ID.get() != null;
+    }
+
+    public static String getCorrelationId() {
+        return CORRELATION_ID.get();
+    }
+
+    // registering an already registered event is ignored
+    static void register() {
+        Stream.of(
+                RequestEvent.class, JaxrsDispatchEvent.class, ResourceInvocationEvent.class,
+                MessageBodyEvent.class, RequestContextEvent.class, InterceptorEvent.class)
+                .forEach(FlightRecorder::register);
+    }
+
+    /**
+     * @param id the correlation id of the request.
+     * @return the previous correlation id of the thread to restore with {@link #restoreCorrelationId(String)}.
+     */
+    static String startCorrelation(final String id) {
+        final String previous = CORRELATION_ID.get();
+        CORRELATION_ID.set(id);
+        return previous;
+    }
+
+    static String nextId() {
+        return Long.toString(IDS.incrementAndGet(), 36);
+    }
+
+    static void restoreCorrelationId(final String previous) {
+        if (previous == null) {
+            CORRELATION_ID.remove();
+        } else {
+            CORRELATION_ID.set(previous);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.jfr;
+
+import java.io.IOException;
+
+import jakarta.servlet.ServletException;
+
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+
+/**
+ * Sets the correlation id of the request - {@value Jfr#CORRELATION_ID_HEADER} header or a generated one -
+ * and emits a {@link RequestEvent} around the rest of the pipeline.
+ *
+ * Only added to the instances enabling the JFR events, it is what enables them for the request threads.
+ * The id is kept as a request attribute so async dispatches keep the one of the initial request.
+ */
+public class JfrValve extends ValveBase {
+    private static final String CORRELATION_ID_ATTRIBUTE = JfrValve.class.getName() + ".correlationId";
+
+    public JfrValve() {
+        super(true);
+        Jfr.register();
+    }
+
+    @Override
+    public void invoke(final Request request, final Response response) throws IOException, ServletException {
+        String id = (String) request.getAttribute(CORRELATION_ID_ATTRIBUTE);
+        if (id == null) {
+            id = request.getHeader(Jfr.CORRELATION_ID_HEADER);
+            if (id == null || id.isEmpty()) {
+                id = Jfr.nextId();
+            }
+            request.setAttribute(CORRELATION_ID_ATTRIBUTE, id);
+        }
+        final String previous = Jfr.startCorrelation(id);
+        final RequestEvent event = new RequestEvent();
+        try {
+            getNext().invoke(request, response);
+        } finally {
+            if (event.isEnabled()) {
+                event.status = response.getStatus();
+                event.finish(request.getMethod() + ' ' + request.getRequestURI());
+            }
+            Jfr.restoreCorrelationId(previous);
+        }
+    }
+}
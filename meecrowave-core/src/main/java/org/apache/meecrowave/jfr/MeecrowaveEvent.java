@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.jfr;
+
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Registered;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base of the Meecrowave events, only created when {@link Jfr#isEnabled()}.
+ */
+@Registered(false)
+@StackTrace(false)
+public abstract class MeecrowaveEvent extends Event {
+    @Label("Operation")
+    protected String operation;
+
+    @Label("Correlation Id")
+    protected String correlationId;
+
+    protected MeecrowaveEvent() {
+        begin();
+    }
+
+    /**
+     * Ends the event and commits it if the recording keeps it (enabled and above the threshold).
+     *
+     * @param operation the operation name, only computed when the event is committed.
+     */
+    public void finish(final String operation) {
+        end();
+        if (shouldCommit()) {
+            commit(operation);
+        }
+    }
+
+    protected void commit(final String operation) {
+        this.operation = operation;
+        this.correlationId = Jfr.getCorrelationId();
+        commit();
+    }
+}
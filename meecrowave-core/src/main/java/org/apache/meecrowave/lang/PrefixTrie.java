@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.lang;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable character trie of prefixes, lookups walk the tested name once and don't allocate.
+ * Used by the scanning filters (jar and package names) and the CXF dispatch (request URI from the context path end).
+ */
+public final class PrefixTrie {
+    private static final PrefixTrie EMPTY = new PrefixTrie(new Node(null, new char[0], new Node[0]));
+
+    private final Node root;
+
+    private PrefixTrie(final Node root) {
+        this.root = root;
+    }
+
+    public static PrefixTrie of(final Collection<String> prefixes) {
+        if (prefixes == null || prefixes.isEmpty()) {
+            return EMPTY;
+        }
+        final Builder root = new Builder();
+        for (final String prefix : prefixes) {
+            Builder current = root;
+            for (int i = 0; i < prefix.length(); i++) {
+                current = current.children.computeIfAbsent(prefix.charAt(i), k -> new Builder());
+            }
+            current.prefix = prefix;
+        }
+        return new PrefixTrie(root.build());
+    }
+
+    public boolean isEmpty() {
+        return root.labels.length == 0 && root.prefix == null;
+    }
+
+    /**
+     * @param name the tested value.
+     * @return true if one of the prefixes starts the name.
+     */
+    public boolean matches(final String name) {
+        return find(name, 0, false) != null;
+    }
+
+    /**
+     * @param name the tested value.
+     * @param offset where the tested part starts in the name.
+     * @return true if one of the prefixes starts the name from the offset.
+     */
+    public boolean matches(final String name, final int offset) {
+        return find(name, offset, false) != null;
+    }
+
+    /**
+     * @param name a dotted name (package or class).
+     * @return true if one of the prefixes is the name or one of its parent packages.
+     */
+    public boolean matchesSegments(final String name) {
+        return find(name, 0, true) != null;
+    }
+
+    /**
+     * @param name the tested value.
+     * @param segments if true the prefix must end on a dot of the name or be the name.
+     * @return the shortest prefix of the name or null if none matches.
+     */
+    public String find(final String name, final boolean segments) {
+        return find(name, 0, segments);
+    }
+
+    /**
+     * @param name the tested value.
+     * @param offset where the tested part starts in the name, avoids a substring for a request URI for instance.
+     * @param segments if true the prefix must end on a dot of the name or be the name.
+     * @return the shortest prefix of the name from the offset or null if none matches.
+     */
+    public String find(final String name, final int offset, final boolean segments) {
+        Node current = root;
+        final int length = name.length();
+        for (int i = offset; ; i++) {
+            if (current.prefix != null && (!segments || i == length || name.charAt(i) == '.')) {
+                return current.prefix;
+            }
+            if (i == length) {
+                return null;
+            }
+            current = current.child(name.charAt(i));
+            if (current == null) {
+                return null;
+            }
+        }
+    }
+
+    private static final class Node {
+        private final String prefix; // not null when a prefix ends on this node
+        private final char[] labels; // sorted
+        private final Node[] children;
+
+        private Node(final String prefix, final char[] labels, final Node[] children) {
+            this.prefix = prefix;
+            this.labels = labels;
+            this.children = children;
+        }
+
+        private Node child(final char c) {
+            final char[] l = labels;
+            if (l.length < 8) { // most nodes have a single child
+                for (int i = 0; i < l.length; i++) {
+                    if (l[i] == c) {
+                        return children[i];
+                    }
+                }
+                return null;
+            }
+            final int idx = Arrays.binarySearch(l, c);
+            return idx < 0 ? null : children[idx];
+        }
+    }
+
+    private static final class Builder {
+        private final Map<Character, Builder> children = new TreeMap<>();
+        private String prefix;
+
+        private Node build() {
+            final char[] labels = new char[children.size()];
+            final Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (final Map.Entry<Character, Builder> child : children.entrySet()) {
+                labels[i] = child.getKey();
+                nodes[i] = child.getValue().build();
+                i++;
+            }
+            return new Node(prefix, labels, nodes);
+        }
+    }
+}
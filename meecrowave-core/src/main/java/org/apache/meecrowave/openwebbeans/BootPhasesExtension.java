@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.openwebbeans;
+
+import jakarta.annotation.Priority;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.spi.AfterBeanDiscovery;
+import jakarta.enterprise.inject.spi.AfterDeploymentValidation;
+import jakarta.enterprise.inject.spi.AfterTypeDiscovery;
+import jakarta.enterprise.inject.spi.BeforeBeanDiscovery;
+import jakarta.enterprise.inject.spi.Extension;
+
+import org.apache.meecrowave.startup.BootReport;
+
+/**
+ * Splits the CDI boot in the boot report: each container lifecycle event (all its extension observers)
+ * and what happens between them (type discovery, bean discovery, validation).
+ * Observers are registered first and last for each event, it is a no-op when no report is bound to the thread.
+ */
+public class BootPhasesExtension implements Extension {
+    private BootReport report;
+    private BootReport.Phase current;
+
+    void beforeBeanDiscoveryStart(@Observes @Priority(Integer.MIN_VALUE) final BeforeBeanDiscovery event) {
+        report = BootReport.current();
+        next("cdi:BeforeBeanDiscovery");
+    }
+
+    void beforeBeanDiscoveryEnd(@Observes @Priority(Integer.MAX_VALUE) final BeforeBeanDiscovery event) {
+        next("cdi:type-discovery");
+    }
+
+    void afterTypeDiscoveryStart(@Observes @Priority(Integer.MIN_VALUE) final AfterTypeDiscovery event) {
+        next("cdi:AfterTypeDiscovery");
+    }
+
+    void afterTypeDiscoveryEnd(@Observes @Priority(Integer.MAX_VALUE) final AfterTypeDiscovery event) {
+        next("cdi:bean-discovery");
+    }
+
+    void afterBeanDiscoveryStart(@Observes @Priority(Integer.MIN_VALUE) final AfterBeanDiscovery event) {
+        next("cdi:AfterBeanDiscovery");
+    }
+
+    void afterBeanDiscoveryEnd(@Observes @Priority(Integer.MAX_VALUE) final AfterBeanDiscovery event) {
+        next("cdi:validation");
+    }
+
+    void afterDeploymentValidationStart(@Observes @Priority(Integer.MIN_VALUE) final AfterDeploymentValidation event) {
+        next("cdi:AfterDeploymentValidation");
+    }
+
+    void afterDeploymentValidationEnd(@Observes @Priority(Integer.MAX_VALUE) final AfterDeploymentValidation event) {
+        next(null);
+        report = null;
+    }
+
+    private void next(final String phase) {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+        if (report != null && phase != null) {
+            current = report.start(phase);
+        }
+    }
+}
@@ -19,25 +19,27 @@
 package org.apache.meecrowave.openwebbeans;
 
 import org.apache.meecrowave.configuration.Configuration;
+import org.apache.meecrowave.lang.PrefixTrie;
 import org.apache.xbean.finder.filter.Filter;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
 
 import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toList;
 
 public class KnownClassesFilter implements Filter { // one easy and efficient solution for fatjars
-    private static final String[] EMPTY_ARRAY = new String[0];
-
     // this has to be configured from the root config
-    private String[] forced = EMPTY_ARRAY;
-    private String[] skipped = EMPTY_ARRAY;
+    private PrefixTrie forced = PrefixTrie.of(null);
+    private PrefixTrie skipped = PrefixTrie.of(null);
 
-    private final Filter delegateAccept;
-    private final Filter delegateSkip;
+    private final OptimizedExclusionFilter delegateAccept;
+    private final OptimizedExclusionFilter delegateSkip;
     private boolean skipAll = false;
+    private ScanningReport report;
 
     public KnownClassesFilter() {
         final Set<String> excluded = new HashSet<>();
@@ -173,24 +175,34 @@ public class KnownClassesFilter implements Filter { // one easy and efficient so
     }
 
     public void init(final Configuration config) {
-        forced = buildArray(config.getScanningPackageIncludes()).orElse(forced);
-        skipped = buildArray(config.getScanningPackageExcludes()).orElse(skipped);
+        final Optional<List<String>> forcedConfig = buildList(config.getScanningPackageIncludes());
+        final Optional<List<String>> skippedConfig = buildList(config.getScanningPackageExcludes());
+        forced = forcedConfig.map(PrefixTrie::of).orElse(forced);
+        skipped = skippedConfig.map(PrefixTrie::of).orElse(skipped);
 
         // if we only got one skip and this is '*' then we skip all packages
-       skipAll = skipped.length == 1 && "*".equals(skipped[0]);
+       skipAll = skippedConfig.map(it -> it.size() == 1 && "*".equals(it.get(0))).orElse(skipAll);
+    }
+
+    void setReport(final ScanningReport report) {
+        this.report = report;
     }
 
-    private Optional<String[]> buildArray(final String config) {
+    private Optional<List<String>> buildList(final String config) {
         return ofNullable(config)
                 .map(v -> Stream.of(v.split(","))
                         .map(String::trim)
                         .filter(i -> !i.isEmpty())
-                        .toArray(String[]::new));
+                        .collect(toList()));
     }
 
     @Override
     public boolean accept(final String name) {
-        if (forced != null && startsWith(forced, name)) {
+        if (report != null) {
+            return explain(name);
+        }
+
+        if (forced.matches(name)) {
             return true;
         }
 
@@ -200,39 +212,56 @@ public class KnownClassesFilter implements Filter { // one easy and efficient so
         }
 
         // skip has the same logic than forced
-        if (skipped != null && skipped.length > 0 && startsWith(skipped, name)) {
+        if (skipped.matches(name)) {
             return false;
         }
 
         return delegateAccept.accept(name) || !delegateSkip.accept(name);
     }
 
-    private static boolean startsWith(final String[] array, String name) {
-        for (final String prefix : array) {
-            if (name.startsWith(prefix)) {
-                return true;
-            }
+    private boolean explain(final String name) {
+        final String include = forced.find(name, false);
+        if (include != null) {
+            report.clazz(name, true, "scanning package include '" + include + "'");
+            return true;
+        }
+        if (skipAll) {
+            report.clazz(name, false, "scanning package exclude '*'");
+            return false;
         }
-        return false;
+        final String exclude = skipped.find(name, false);
+        if (exclude != null) {
+            report.clazz(name, false, "scanning package exclude '" + exclude + "'");
+            return false;
+        }
+        final String known = delegateAccept.find(name);
+        if (known != null) {
+            report.clazz(name, true, "known CDI package '" + known + "'");
+            return true;
+        }
+        final String skip = delegateSkip.find(name);
+        if (skip != null) {
+            report.clazz(name, false, "excluded package '" + skip + "'");
+            return false;
+        }
+        report.clazz(name, true, "no exclusion matches");
+        return true;
     }
 
     private static class OptimizedExclusionFilter implements Filter {
-        private final Set<String> included;
+        private final PrefixTrie included;
 
         private OptimizedExclusionFilter(final Set<String> exclusions) {
-            included = exclusions;
+            included = PrefixTrie.of(exclusions);
         }
 
         @Override
         public boolean accept(final String name) {
-            int dot = name.indexOf('.');
-            while (dot > 0) {
-                if (included.contains(name.substring(0, dot))) {
-                    return true;
-                }
-                dot = name.indexOf('.', dot + 1);
-            }
-            return included.contains(name);
+            return included.matchesSegments(name);
+        }
+
+        private String find(final String name) {
+            return included.find(name, true);
         }
     }
 }
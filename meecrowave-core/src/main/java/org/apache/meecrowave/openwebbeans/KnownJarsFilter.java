@@ -26,6 +26,7 @@ import java.util.HashSet;
 import java.util.stream.Stream;
 
 import org.apache.meecrowave.configuration.Configuration;
+import org.apache.meecrowave.lang.PrefixTrie;
 import org.apache.tomcat.JarScanFilter;
 import org.apache.tomcat.JarScanType;
 
@@ -360,8 +361,13 @@ public class KnownJarsFilter implements JarScanFilter {
         add("ziplock-");
     }};
 
+    private final PrefixTrie forceIncludesTrie;
+    private final PrefixTrie excludesTrie;
+    private ScanningReport report;
+
     public KnownJarsFilter() {
-        // no-op
+        forceIncludesTrie = PrefixTrie.of(forceIncludes);
+        excludesTrie = PrefixTrie.of(excludes);
     }
 
     KnownJarsFilter(final Configuration config) {
@@ -371,12 +377,39 @@ public class KnownJarsFilter implements JarScanFilter {
         });
         ofNullable(config.getScanningExcludes())
                 .ifPresent(i -> excludes.addAll(Stream.of(i.split(",")).map(String::trim).filter(j -> !j.isEmpty()).collect(toSet())));
+        forceIncludesTrie = PrefixTrie.of(forceIncludes);
+        excludesTrie = PrefixTrie.of(excludes);
+    }
+
+    void setReport(final ScanningReport report) {
+        this.report = report;
     }
 
     @Override
     public boolean check(final JarScanType jarScanType, final String jarName) {
-        return forceIncludes.stream().anyMatch(jarName::startsWith) ||
-                (excludes.stream().noneMatch(jarName::startsWith) && !isGeronimoSpecJar(jarName));
+        if (report != null) {
+            return explain(jarName);
+        }
+        return forceIncludesTrie.matches(jarName) || (!excludesTrie.matches(jarName) && !isGeronimoSpecJar(jarName));
+    }
+
+    private boolean explain(final String jarName) {
+        final String include = forceIncludesTrie.find(jarName, false);
+        if (include != null) {
+            report.jar(jarName, true, "scanning include '" + include + "'");
+            return true;
+        }
+        final String exclude = excludesTrie.find(jarName, false);
+        if (exclude != null) {
+            report.jar(jarName, false, "excluded jar prefix '" + exclude + "'");
+            return false;
+        }
+        if (isGeronimoSpecJar(jarName)) {
+            report.jar(jarName, false, "geronimo specification jar");
+            return false;
+        }
+        report.jar(jarName, true, "no exclusion matches");
+        return true;
     }
 
     private boolean isGeronimoSpecJar(final String jarName) {
@@ -78,6 +78,7 @@ public class MeecrowaveExtension implements Extension {
                     || name.startsWith("org.apache.meecrowave.openwebbeans.")
                     || name.startsWith("org.apache.meecrowave.runner.")
                     || name.startsWith("org.apache.meecrowave.service.")
+                    || name.startsWith("org.apache.meecrowave.startup.")
                     || name.startsWith("org.apache.meecrowave.tomcat.")
                     || name.startsWith("org.apache.meecrowave.watching.")
                     || name.equals("org.apache.meecrowave.Meecrowave"));
@@ -20,6 +20,8 @@ package org.apache.meecrowave.openwebbeans;
 
 import org.apache.meecrowave.Meecrowave;
 import org.apache.meecrowave.configuration.Configuration;
+import org.apache.meecrowave.jfr.Jfr;
+import org.apache.meecrowave.jfr.RequestContextEvent;
 import org.apache.webbeans.annotation.DefaultLiteral;
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.configurator.BeanConfiguratorImpl;
@@ -36,6 +38,9 @@ import jakarta.servlet.FilterRegistration;
 import jakarta.servlet.ServletContainerInitializer;
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletRequestEvent;
+import jakarta.servlet.http.HttpServletRequest;
 import java.util.EnumSet;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -74,6 +79,23 @@ public class OWBAutoSetup implements ServletContainerInitializer {
             // skip
         }
 
+        @Override
+        public void requestInitialized(final ServletRequestEvent event) {
+            if (!Jfr.isEnabled()) {
+                super.requestInitialized(event);
+                return;
+            }
+            final RequestContextEvent jfrEvent = new RequestContextEvent();
+            try {
+                super.requestInitialized(event);
+            } finally {
+                final ServletRequest request = event.getServletRequest();
+                jfrEvent.finish(HttpServletRequest.class.isInstance(request) ?
+                        HttpServletRequest.class.cast(request).getMethod() + ' ' + HttpServletRequest.class.cast(request).getRequestURI() :
+                        null);
+            }
+        }
+
         private void doContextInitialized(final ServletContextEvent event) {
             try {
                 final WebBeansContext instance = WebBeansContext.getInstance();
@@ -30,10 +30,13 @@ import org.apache.webbeans.spi.BeanArchiveService;
 import org.apache.webbeans.util.WebBeansUtil;
 import org.apache.webbeans.web.scanner.WebScannerService;
 import org.apache.xbean.finder.AnnotationFinder;
+import org.apache.xbean.finder.ClassLoaders;
 import org.apache.xbean.finder.filter.Filter;
+import org.apache.xbean.finder.util.Files;
 
 import jakarta.servlet.ServletContext;
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -41,15 +44,22 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
 import static java.util.Optional.of;
 import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 import static org.apache.tomcat.JarScanType.PLUGGABILITY;
 
@@ -66,6 +76,15 @@ public class OWBTomcatWebScannerService extends WebScannerService {
     private String docBase;
     private String shared;
     private Consumer<File> fileVisitor;
+    private int scanningParallelism;
+    private ScanningReport report;
+    private Filter classFilter;
+
+    private ScanningIndex index;
+    private boolean indexScanned;
+    private Map<BeanArchiveService.BeanArchiveInformation, Set<Class<?>>> indexedBeanClassesPerBda;
+    private Collection<ScanningIndex.Archive> reused = emptyList();
+    private Map<BeanArchiveService.BeanArchiveInformation, Set<Class<?>>> mergedBeanClassesPerBda;
 
     public OWBTomcatWebScannerService() {
         this(null, null);
@@ -113,6 +132,9 @@ public class OWBTomcatWebScannerService extends WebScannerService {
         if (finderAccessor != null) {
             return finderAccessor.get();
         }
+        if (index != null) { // nothing was scanned
+            return finder;
+        }
         return super.getFinder();
     }
 
@@ -121,6 +143,21 @@ public class OWBTomcatWebScannerService extends WebScannerService {
         if (delegate != null) {
             return delegate.getBeanClassesPerBda();
         }
+        if (index != null) {
+            if (indexedBeanClassesPerBda == null) {
+                indexedBeanClassesPerBda = loadIndexedBeanClasses(index.getArchives());
+            }
+            return indexedBeanClassesPerBda;
+        }
+        if (!reused.isEmpty()) {
+            if (mergedBeanClassesPerBda == null) {
+                final Map<BeanArchiveService.BeanArchiveInformation, Set<Class<?>>> merged = new HashMap<>();
+                super.getBeanClassesPerBda().forEach((bda, classes) -> merged.put(bda, new HashSet<>(classes)));
+                loadIndexedBeanClasses(reused).forEach((bda, classes) -> merged.computeIfAbsent(bda, k -> new HashSet<>()).addAll(classes));
+                mergedBeanClassesPerBda = merged;
+            }
+            return mergedBeanClassesPerBda;
+        }
         return super.getBeanClassesPerBda();
     }
 
@@ -131,6 +168,11 @@ public class OWBTomcatWebScannerService extends WebScannerService {
         } else {
             super.release();
         }
+        index = null;
+        indexScanned = false;
+        indexedBeanClassesPerBda = null;
+        reused = emptyList();
+        mergedBeanClassesPerBda = null;
     }
 
     @Override
@@ -138,11 +180,134 @@ public class OWBTomcatWebScannerService extends WebScannerService {
         if (delegate != null) {
             return delegate.getBeanClasses();
         }
+        if (index != null || !reused.isEmpty()) {
+            return getBeanClassesPerBda().values().stream().flatMap(Collection::stream).collect(toSet());
+        }
         return super.getBeanClasses();
     }
 
+    /**
+     * When set, {@link #scan()} uses the index instead of scanning the classpath.
+     *
+     * @param index a scanning index validated against the current classpath.
+     */
+    public void setIndex(final ScanningIndex index) {
+        this.index = index;
+    }
+
+    public ScanningIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * When set, {@link #scan()} only reads the bytecode of the archives not in this list,
+     * the bean classes of these ones are the indexed ones. It is used by redeployments to only rescan what changed.
+     *
+     * @param reused the unchanged archives, see {@link ScanningIndex#findUnchanged(String, Collection)}.
+     */
+    public void setReusedArchives(final Collection<ScanningIndex.Archive> reused) {
+        this.reused = reused;
+    }
+
+    /**
+     * @param loader the application loader.
+     * @return the jars and directories of the loader this scanner handles (not part of the JVM and not filtered).
+     */
+    public Collection<File> findScannableArchives(final ClassLoader loader) {
+        final Set<URL> found;
+        try {
+            found = ClassLoaders.findUrls(loader);
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+        final String javaHome = new File(System.getProperty("java.home")).getAbsolutePath();
+        return found.stream()
+                .filter(u -> "file".equals(u.getProtocol()))
+                .map(Files::toFile)
+                .filter(File::exists)
+                .filter(f -> !f.getAbsolutePath().startsWith(javaHome))
+                .filter(f -> f.isDirectory() || filter == null || filter.check(PLUGGABILITY, f.getName()))
+                .distinct()
+                .sorted()
+                .collect(toList());
+    }
+
+    /**
+     * Captures the result of {@link #scan()} to reuse it at next startups.
+     *
+     * @param fingerprint the scanning configuration, see {@link ScanningIndex#fingerprint(Configuration)}.
+     * @param classpath the scannable archives, see {@link #findScannableArchives(ClassLoader)}.
+     * @param webComponents the web components per scanned URL.
+     * @param handlesTypes the {@code @HandlesTypes} matches per type name.
+     * @return the index of the scanned classpath.
+     */
+    public ScanningIndex createIndex(final String fingerprint, final Collection<File> classpath,
+                                     final Map<String, Collection<Class<?>>> webComponents,
+                                     final Map<String, Collection<String>> handlesTypes) {
+        return createIndex(fingerprint, classpath, webComponents, handlesTypes, ScanningIndex::checksum);
+    }
+
+    /**
+     * Same as {@link #createIndex(String, Collection, Map, Map)} with another archive checksum.
+     */
+    public ScanningIndex createIndex(final String fingerprint, final Collection<File> classpath,
+                                     final Map<String, Collection<Class<?>>> webComponents,
+                                     final Map<String, Collection<String>> handlesTypes,
+                                     final ScanningIndex.ArchiveChecksum checksum) {
+        // keyed by file and not by archive name, jars with the same name can be in different directories
+        final Set<File> files = classpath.stream().map(File::getAbsoluteFile).collect(toSet());
+
+        final Set<String> beanClasses = getBeanClasses().stream().map(Class::getName).collect(toSet());
+        final Map<File, String> keys = new HashMap<>();
+        final Map<File, Set<String>> beanClassesPerArchive = new HashMap<>();
+        archive.classesByUrl().forEach((url, classes) -> {
+            final Set<String> archiveBeans = classes.getClassNames().stream().filter(beanClasses::contains).collect(toSet());
+            final File file = ofNullable(toArchiveFile(url)).map(File::getAbsoluteFile).orElse(null);
+            if (file == null || !files.contains(file)) {
+                if (!archiveBeans.isEmpty()) {
+                    throw new IllegalStateException("Can't index " + url + ", it is not in the application classpath");
+                }
+                return;
+            }
+            keys.put(file, url);
+            beanClassesPerArchive.computeIfAbsent(file, k -> new TreeSet<>()).addAll(archiveBeans);
+        });
+
+        final Map<File, String> beansXmls = new HashMap<>();
+        getBeanXmls().forEach(url -> {
+            final String value = url.toExternalForm();
+            final File file = ofNullable(toArchiveFile(value)).map(File::getAbsoluteFile).orElse(null);
+            if (file == null || !files.contains(file)) {
+                throw new IllegalStateException("Can't index " + value + ", it is not in the application classpath");
+            }
+            final int sep = value.indexOf("!/");
+            beansXmls.put(file, sep > 0 ?
+                    value.substring(sep + "!/".length()) :
+                    file.toPath().relativize(Files.toFile(url).toPath()).toString().replace(File.separatorChar, '/'));
+        });
+
+        final List<ScanningIndex.Archive> archives = classpath.stream().map(File::getAbsoluteFile).map(file -> {
+            final String key = keys.get(file);
+            try {
+                return new ScanningIndex.Archive(
+                        ScanningIndex.nameOf(file), checksum.compute(file), key != null && key.startsWith("jar:"), beansXmls.get(file),
+                        beanClassesPerArchive.getOrDefault(file, emptySet()),
+                        ofNullable(key).map(webComponents::get).orElse(emptyList()).stream()
+                                .map(Class::getName).sorted().collect(toList()));
+            } catch (final IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }).collect(toList());
+        return new ScanningIndex(fingerprint, archives, handlesTypes);
+    }
+
     @Override
     public void scan() {
+        if (delegate == null && index != null) {
+            releaseReport(false); // nothing is filtered
+            scanFromIndex();
+            return;
+        }
         if (delegate != null) {
             if (getFinder() == null) {
                 delegate.scan();
@@ -201,12 +366,124 @@ public class OWBTomcatWebScannerService extends WebScannerService {
                         .forEach(fileVisitor);
             }
         }
+        releaseReport(true);
         urls.clear(); // no more needed
         filter = null;
         docBase = null;
         shared = null;
     }
 
+    private void releaseReport(final boolean log) {
+        if (report == null) {
+            return;
+        }
+        if (log) {
+            logger.info("Scanning report:");
+            report.toLines().forEach(line -> logger.info("    " + line));
+        }
+        if (KnownClassesFilter.class.isInstance(classFilter)) {
+            KnownClassesFilter.class.cast(classFilter).setReport(null);
+        }
+        report = null;
+        classFilter = null;
+    }
+
+    @Override
+    protected AnnotationFinder initFinder() {
+        if (finder != null || (scanningParallelism <= 1 && reused.isEmpty())) {
+            return super.initFinder();
+        }
+        final WebBeansContext webBeansContext = webBeansContext();
+        final Map<String, URL> urls = getScannedUrls();
+        if (scanningParallelism <= 1) {
+            archive = new CdiArchive(
+                    webBeansContext.getBeanArchiveService(), WebBeansUtil.getCurrentClassLoader(),
+                    urls, webBeansContext.getService(Filter.class), getAdditionalArchive());
+            finder = new OwbAnnotationFinder(archive);
+            return finder;
+        }
+        final ForkJoinPool pool = new ForkJoinPool(scanningParallelism);
+        try {
+            archive = new ParallelCdiArchive(
+                    webBeansContext.getBeanArchiveService(), WebBeansUtil.getCurrentClassLoader(),
+                    urls, webBeansContext.getService(Filter.class), getAdditionalArchive(), pool);
+            finder = new OwbAnnotationFinder(archive);
+        } finally {
+            pool.shutdownNow();
+        }
+        return finder;
+    }
+
+    private Map<String, URL> getScannedUrls() {
+        if (reused.isEmpty()) {
+            return getBeanDeploymentUrls();
+        }
+        final Set<File> files = reused.stream().map(it -> it.getFile().getAbsoluteFile()).collect(toSet());
+        final Map<String, URL> urls = new HashMap<>(getBeanDeploymentUrls());
+        urls.keySet().removeIf(url -> ofNullable(toArchiveFile(url)).map(File::getAbsoluteFile).filter(files::contains).isPresent());
+        logger.info("Rescanning " + urls.size() + " changed archives, reusing " + reused.size() + " unchanged ones");
+        return urls;
+    }
+
+    private void scanFromIndex() {
+        if (indexScanned) {
+            return;
+        }
+        indexScanned = true;
+        index.getArchives().stream()
+                .filter(it -> it.getBeansXml() != null)
+                .forEach(it -> addWebBeansXmlLocation(it.getBeansXmlUrl()));
+        logger.info("OpenWebBeans scanning skipped, using the scanning index (" + index.getArchives().size() + " archives)");
+        if (fileVisitor != null) {
+            index.getArchives().stream()
+                    .map(ScanningIndex.Archive::getFile)
+                    .filter(File::isDirectory)
+                    .forEach(fileVisitor);
+        }
+        urls.clear();
+        filter = null;
+        docBase = null;
+        shared = null;
+    }
+
+    private Map<BeanArchiveService.BeanArchiveInformation, Set<Class<?>>> loadIndexedBeanClasses(
+            final Collection<ScanningIndex.Archive> archives) {
+        final ClassLoader loader = WebBeansUtil.getCurrentClassLoader();
+        final BeanArchiveService beanArchiveService = webBeansContext().getBeanArchiveService();
+        final Map<BeanArchiveService.BeanArchiveInformation, Set<Class<?>>> classes = new HashMap<>();
+        archives.stream().filter(it -> !it.getBeanClasses().isEmpty()).forEach(indexed -> {
+            final Set<Class<?>> beans = classes.computeIfAbsent(beanArchiveService.getBeanArchiveInformation(
+                    indexed.getBeansXml() != null ? indexed.getBeansXmlUrl() : indexed.getUrl()), k -> new HashSet<>());
+            indexed.getBeanClasses().forEach(name -> {
+                try {
+                    beans.add(loader.loadClass(name));
+                } catch (final ClassNotFoundException | NoClassDefFoundError e) {
+                    logger.warn("Can't load indexed class " + name + ": " + e.getMessage());
+                }
+            });
+        });
+        return classes;
+    }
+
+    // jar:file:/foo.jar!/META-INF/beans.xml, file:/foo.jar, file:/classes/META-INF/beans.xml -> the archive file
+    private static File toArchiveFile(final String url) {
+        String path = url.startsWith("jar:") ? url.substring("jar:".length()) : url;
+        final int sep = path.indexOf("!/");
+        if (sep > 0) {
+            path = path.substring(0, sep);
+        } else if (path.endsWith("META-INF/beans.xml")) {
+            path = path.substring(0, path.length() - "META-INF/beans.xml".length());
+        }
+        if (!path.startsWith("file:")) {
+            return null;
+        }
+        try {
+            return Files.toFile(new URL(path));
+        } catch (final MalformedURLException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private File toFile(final String url) {
         try {
             return new File(new URL(url).getFile());
@@ -326,11 +603,25 @@ public class OWBTomcatWebScannerService extends WebScannerService {
         if (this.filter == null) {
             this.filter = new KnownJarsFilter(config);
         }
+        if (config != null) {
+            scanningParallelism = config.getScanningParallelism() < 0 ?
+                    Runtime.getRuntime().availableProcessors() : config.getScanningParallelism();
+        }
 
         final Filter userFilter = webBeansContext().getService(Filter.class);
         if (KnownClassesFilter.class.isInstance(userFilter)) {
             KnownClassesFilter.class.cast(userFilter).init(config);
         }
+        if (config != null && config.isScanningReport()) {
+            report = new ScanningReport();
+            classFilter = userFilter;
+            if (KnownJarsFilter.class.isInstance(this.filter)) {
+                KnownJarsFilter.class.cast(this.filter).setReport(report);
+            }
+            if (KnownClassesFilter.class.isInstance(userFilter)) {
+                KnownClassesFilter.class.cast(userFilter).setReport(report);
+            }
+        }
     }
 
     @Override
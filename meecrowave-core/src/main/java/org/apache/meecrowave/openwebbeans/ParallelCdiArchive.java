@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.openwebbeans;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.webbeans.corespi.scanner.xbean.CdiArchive;
+import org.apache.webbeans.spi.BeanArchiveService;
+import org.apache.xbean.finder.archive.Archive;
+import org.apache.xbean.finder.filter.Filter;
+
+/**
+ * A {@link CdiArchive} which reads the bytecode of its classes on a pool when the finder iterates over it
+ * (once, at creation). Entries keep the archive order so the finder result is the same as a sequential scan.
+ */
+public class ParallelCdiArchive extends CdiArchive {
+    private static final int CHUNK_SIZE = 1024;
+
+    private final ForkJoinPool pool;
+    private boolean prefetched;
+
+    public ParallelCdiArchive(final BeanArchiveService beanArchiveService, final ClassLoader loader,
+                              final Map<String, URL> urls, final Filter userFilter, final Archive customArchive,
+                              final ForkJoinPool pool) {
+        super(beanArchiveService, loader, urls, userFilter, customArchive);
+        this.pool = pool;
+    }
+
+    @Override
+    public Iterator<Entry> iterator() {
+        if (prefetched) {
+            return super.iterator();
+        }
+        prefetched = true;
+
+        final List<Entry> entries = new ArrayList<>();
+        super.iterator().forEachRemaining(entries::add);
+        return new PrefetchingIterator<>(entries, PrefetchedEntry::new, pool, CHUNK_SIZE);
+    }
+
+    private static class PrefetchedEntry implements Entry {
+        private final String name;
+        private final byte[] bytecode;
+        private final IOException error;
+
+        private PrefetchedEntry(final Entry entry) {
+            this.name = entry.getName();
+            byte[] bytes = null;
+            IOException failure = null;
+            try (final InputStream stream = entry.getBytecode()) {
+                bytes = stream.readAllBytes();
+            } catch (final IOException e) {
+                failure = e;
+            }
+            this.bytecode = bytes;
+            this.error = failure;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public InputStream getBytecode() throws IOException {
+            if (error != null) { // same behavior as the sequential reading
+                throw error;
+            }
+            return new ByteArrayInputStream(bytecode);
+        }
+    }
+}
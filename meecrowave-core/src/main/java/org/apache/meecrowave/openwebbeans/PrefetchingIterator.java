@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.openwebbeans;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Iterates over {@code loader.apply(item)} in the order of the items but computes the values on a pool,
+ * one chunk ahead of the consumer. It keeps the consumer sequential and deterministic while the loading
+ * (I/O, inflating) is parallel and only two chunks are in memory.
+ */
+class PrefetchingIterator<T, R> implements Iterator<R> {
+    private final List<T> items;
+    private final Function<T, R> loader;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    private int start;
+    private Object[] current;
+    private int index;
+    private ForkJoinTask<Object[]> next;
+
+    PrefetchingIterator(final List<T> items, final Function<T, R> loader, final ForkJoinPool pool, final int chunkSize) {
+        this.items = items;
+        this.loader = loader;
+        this.pool = pool;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.next = submit(0);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return (current != null && index < current.length) || next != null;
+    }
+
+    @Override
+    public R next() {
+        if (current == null || index == current.length) {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            current = await(next);
+            index = 0;
+            start += current.length;
+            next = submit(start);
+        }
+        final Object value = current[index];
+        current[index++] = null; // release it early, the consumer is done with it
+        return (R) value;
+    }
+
+    private ForkJoinTask<Object[]> submit(final int from) {
+        if (from >= items.size()) {
+            return null;
+        }
+        final int to = Math.min(items.size(), from + chunkSize);
+        return pool.submit(() -> IntStream.range(from, to).parallel()
+                .mapToObj(i -> loader.apply(items.get(i)))
+                .toArray());
+    }
+
+    private Object[] await(final ForkJoinTask<Object[]> task) {
+        try {
+            return task.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (RuntimeException.class.isInstance(cause)) {
+                throw RuntimeException.class.cast(cause);
+            }
+            if (Error.class.isInstance(cause)) {
+                throw Error.class.cast(cause);
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,427 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.openwebbeans;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableCollection;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Optional.ofNullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.meecrowave.configuration.Configuration;
+
+/**
+ * Result of the CDI and Servlet scanning of a classpath: bean classes per archive,
+ * {@code @WebServlet}/{@code @WebFilter}/{@code @WebListener} classes and {@code @HandlesTypes} matches.
+ *
+ * It is written at build time and read at startup to skip the bytecode scanning. Each archive carries a checksum
+ * (jar entries names/sizes/CRC or directory files names/sizes/dates) so an index not matching the runtime classpath
+ * is ignored and the classpath is scanned as usual.
+ *
+ * Jars are identified by their file name (so the index stays valid when the jars are copied in a bundle)
+ * and their checksum (two jars with the same name in different directories don't collide),
+ * directories by their absolute path.
+ */
+public final class ScanningIndex {
+    public static final String DEFAULT_LOCATION = "conf/scanning.index";
+
+    private static final int MAGIC = 0x4D575349; // MWSI
+    private static final int VERSION = 1;
+
+    private final String fingerprint;
+    private final Map<String, Archive> archives;
+    private final Map<String, Collection<String>> handlesTypes;
+
+    public ScanningIndex(final String fingerprint, final Collection<Archive> archives,
+                         final Map<String, Collection<String>> handlesTypes) {
+        this.fingerprint = fingerprint;
+        this.archives = new LinkedHashMap<>();
+        archives.forEach(it -> this.archives.put(key(it.getName(), it.getChecksum()), it));
+        this.handlesTypes = new TreeMap<>(handlesTypes);
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public Collection<Archive> getArchives() {
+        return unmodifiableCollection(archives.values());
+    }
+
+    /**
+     * @return classes matching a {@code @HandlesTypes} type (annotated, implementing or extending it) per type name.
+     */
+    public Map<String, Collection<String>> getHandlesTypes() {
+        return unmodifiableMap(handlesTypes);
+    }
+
+    /**
+     * Checks the index matches the runtime classpath and binds each archive to its runtime location.
+     *
+     * @param expectedFingerprint the scanning configuration of the runtime.
+     * @param classpath the runtime archives (jars and directories) which would be scanned.
+     * @return null if the index can be used, the reason why it can't otherwise.
+     */
+    public String validate(final String expectedFingerprint, final Collection<File> classpath) {
+        if (!Objects.equals(fingerprint, expectedFingerprint)) {
+            return "scanning configuration changed";
+        }
+        if (classpath.size() != archives.size()) {
+            return "classpath has " + classpath.size() + " archives, index has " + archives.size();
+        }
+        final Map<String, File> files = new HashMap<>();
+        for (final File file : classpath) {
+            final String name = nameOf(file);
+            final String key;
+            try {
+                key = key(name, checksum(file));
+            } catch (final IOException e) {
+                return "can't read " + file + ": " + e.getMessage();
+            }
+            if (!archives.containsKey(key)) {
+                return archives.values().stream().anyMatch(it -> it.getName().equals(name)) ?
+                        name + " changed" : name + " is not indexed";
+            }
+            if (files.putIfAbsent(key, file) != null) {
+                return name + " is duplicated";
+            }
+        }
+        archives.forEach((key, archive) -> archive.file = files.get(key));
+        return null;
+    }
+
+    /**
+     * Compares the index with the runtime classpath archive per archive, used to only rescan what changed.
+     *
+     * @param expectedFingerprint the scanning configuration of the runtime.
+     * @param classpath the runtime archives (jars and directories) which would be scanned.
+     * @return the indexed archives which didn't change, bound to their runtime location.
+     */
+    public Collection<Archive> findUnchanged(final String expectedFingerprint, final Collection<File> classpath) {
+        return findUnchanged(expectedFingerprint, classpath, ScanningIndex::checksum);
+    }
+
+    /**
+     * @param expectedFingerprint the scanning configuration of the runtime.
+     * @param classpath the runtime archives (jars and directories) which would be scanned.
+     * @param checksum the function used to create the checksums of this index, {@link #stamp(File)} for instance.
+     * @return the indexed archives which didn't change, bound to their runtime location.
+     */
+    public Collection<Archive> findUnchanged(final String expectedFingerprint, final Collection<File> classpath,
+                                             final ArchiveChecksum checksum) {
+        if (!Objects.equals(fingerprint, expectedFingerprint)) {
+            return emptyList();
+        }
+        final Collection<Archive> unchanged = new ArrayList<>();
+        for (final File file : classpath) {
+            try {
+                final Archive archive = archives.get(key(nameOf(file), checksum.compute(file)));
+                if (archive != null && !unchanged.contains(archive)) { // a duplicated jar is rescanned
+                    archive.file = file;
+                    unchanged.add(archive);
+                }
+            } catch (final IOException e) {
+                // rescanned
+            }
+        }
+        return unchanged;
+    }
+
+    /**
+     * @param replacements archives replacing the ones with the same name and checksum.
+     * @return a copy of this index using the replacements.
+     */
+    public ScanningIndex withArchives(final Collection<Archive> replacements) {
+        final Map<String, Archive> merged = new LinkedHashMap<>(archives);
+        replacements.forEach(it -> merged.replace(key(it.getName(), it.getChecksum()), it));
+        return new ScanningIndex(fingerprint, merged.values(), handlesTypes);
+    }
+
+    public void write(final Path output) throws IOException {
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (final OutputStream stream = Files.newOutputStream(output)) {
+            write(stream);
+        }
+    }
+
+    public void write(final OutputStream stream) throws IOException {
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(ofNullable(fingerprint).orElse(""));
+        out.writeInt(archives.size());
+        for (final Archive archive : archives.values()) {
+            out.writeUTF(archive.name);
+            out.writeLong(archive.checksum);
+            out.writeBoolean(archive.jarUrl);
+            out.writeUTF(ofNullable(archive.beansXml).orElse(""));
+            writeStrings(out, archive.beanClasses);
+            writeStrings(out, archive.webComponents);
+        }
+        out.writeInt(handlesTypes.size());
+        for (final Map.Entry<String, Collection<String>> entry : handlesTypes.entrySet()) {
+            out.writeUTF(entry.getKey());
+            writeStrings(out, entry.getValue());
+        }
+        out.flush();
+    }
+
+    public static ScanningIndex read(final Path input) throws IOException {
+        try (final InputStream stream = Files.newInputStream(input)) {
+            return read(stream);
+        }
+    }
+
+    public static ScanningIndex read(final InputStream stream) throws IOException {
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a scanning index");
+        }
+        final int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported scanning index version: " + version);
+        }
+        final String fingerprint = in.readUTF();
+        final int archiveCount = in.readInt();
+        final List<Archive> archives = new ArrayList<>(archiveCount);
+        for (int i = 0; i < archiveCount; i++) {
+            final String name = in.readUTF();
+            final long checksum = in.readLong();
+            final boolean jarUrl = in.readBoolean();
+            final String beansXml = in.readUTF();
+            archives.add(new Archive(name, checksum, jarUrl, beansXml.isEmpty() ? null : beansXml,
+                    readStrings(in), readStrings(in)));
+        }
+        final int typeCount = in.readInt();
+        final Map<String, Collection<String>> handlesTypes = new HashMap<>(typeCount);
+        for (int i = 0; i < typeCount; i++) {
+            handlesTypes.put(in.readUTF(), readStrings(in));
+        }
+        return new ScanningIndex(fingerprint, archives, handlesTypes);
+    }
+
+    /**
+     * @param configuration the runtime configuration.
+     * @return a key changing when the configuration impacting the scanning changes.
+     */
+    public static String fingerprint(final Configuration configuration) {
+        return String.join("|", Stream.of(
+                configuration.getScanningIncludes(), configuration.getScanningExcludes(),
+                configuration.getScanningPackageIncludes(), configuration.getScanningPackageExcludes(),
+                configuration.getTomcatFilter())
+                .map(it -> ofNullable(it).orElse(""))
+                .toArray(String[]::new));
+    }
+
+    private static String key(final String name, final long checksum) {
+        return name + '#' + Long.toHexString(checksum);
+    }
+
+    public static String nameOf(final File file) {
+        return file.isDirectory() ? file.getAbsolutePath() : file.getName();
+    }
+
+    /**
+     * @param file a jar or a directory.
+     * @return a checksum which doesn't depend on the file dates for jars (they are copied in bundles).
+     */
+    public static long checksum(final File file) throws IOException {
+        final CRC32 crc = new CRC32();
+        if (file.isDirectory()) {
+            final Path root = file.toPath();
+            try (final Stream<Path> files = Files.walk(root)) {
+                files.filter(Files::isRegularFile).sorted().forEach(it -> {
+                    final File f = it.toFile();
+                    update(crc, root.relativize(it).toString().replace(File.separatorChar, '/'));
+                    update(crc, f.length());
+                    update(crc, f.lastModified());
+                });
+            }
+            return crc.getValue();
+        }
+        try (final ZipFile zip = new ZipFile(file)) { // only reads the central directory
+            update(crc, file.length());
+            final Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                final ZipEntry entry = entries.nextElement();
+                update(crc, entry.getName());
+                update(crc, entry.getSize());
+                update(crc, entry.getCrc());
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Cheap alternative to {@link #checksum(File)} when the directories are watched: jars are only stat-ed,
+     * the directories are not read at all and must be compared by the caller.
+     *
+     * @param file a jar or a directory.
+     * @return a checksum of the jar size and date, 0 for a directory.
+     */
+    public static long stamp(final File file) {
+        if (file.isDirectory()) {
+            return 0;
+        }
+        final CRC32 crc = new CRC32();
+        update(crc, file.length());
+        update(crc, file.lastModified());
+        return crc.getValue();
+    }
+
+    private static void update(final CRC32 crc, final String value) {
+        crc.update(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void update(final CRC32 crc, final long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            crc.update((int) (value >>> (i * 8)));
+        }
+    }
+
+    private static void writeStrings(final DataOutputStream out, final Collection<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (final String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static Collection<String> readStrings(final DataInputStream in) throws IOException {
+        final int size = in.readInt();
+        final List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(in.readUTF());
+        }
+        return values;
+    }
+
+    @FunctionalInterface
+    public interface ArchiveChecksum {
+        long compute(File file) throws IOException;
+    }
+
+    public static class Archive {
+        private final String name;
+        private final long checksum;
+        private final boolean jarUrl;
+        private final String beansXml;
+        private final Collection<String> beanClasses;
+        private final Collection<String> webComponents;
+        private volatile File file; // runtime location, set by validate()
+
+        /**
+         * @param name the archive name, see {@link ScanningIndex#nameOf(File)}.
+         * @param checksum the archive checksum, see {@link ScanningIndex#checksum(File)}.
+         * @param jarUrl was the archive identified with a {@code jar:} URL by the scanner.
+         * @param beansXml the path of the beans.xml in the archive if any.
+         * @param beanClasses the bean classes of this archive.
+         * @param webComponents the {@code @WebServlet}/{@code @WebFilter}/{@code @WebListener} classes of this archive.
+         */
+        public Archive(final String name, final long checksum, final boolean jarUrl, final String beansXml,
+                       final Collection<String> beanClasses, final Collection<String> webComponents) {
+            this.name = name;
+            this.checksum = checksum;
+            this.jarUrl = jarUrl;
+            this.beansXml = beansXml;
+            this.beanClasses = beanClasses;
+            this.webComponents = webComponents;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getChecksum() {
+            return checksum;
+        }
+
+        public boolean isJarUrl() {
+            return jarUrl;
+        }
+
+        public String getBeansXml() {
+            return beansXml;
+        }
+
+        public Collection<String> getBeanClasses() {
+            return unmodifiableCollection(beanClasses);
+        }
+
+        public Collection<String> getWebComponents() {
+            return unmodifiableCollection(webComponents);
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        /**
+         * @return the runtime URL of the archive, in the form the scanner uses.
+         */
+        public URL getUrl() {
+            try {
+                final URL url = file.toURI().toURL();
+                return jarUrl ? new URL("jar:" + url.toExternalForm() + "!/") : url;
+            } catch (final MalformedURLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        public URL getBeansXmlUrl() {
+            if (beansXml == null) {
+                return null;
+            }
+            try {
+                return file.isDirectory() ?
+                        new File(file, beansXml).toURI().toURL() :
+                        new URL("jar:" + file.toURI().toURL().toExternalForm() + "!/" + beansXml);
+            } catch (final MalformedURLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
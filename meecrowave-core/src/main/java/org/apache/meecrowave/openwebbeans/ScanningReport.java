@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.openwebbeans;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the decision of the scanning filters for each jar and package (kept or skipped and why)
+ * when the scanning-report option is enabled.
+ */
+public class ScanningReport {
+    private final Map<String, Decision> jars = new ConcurrentHashMap<>();
+    private final Map<String, Decision> packages = new ConcurrentHashMap<>();
+
+    void jar(final String name, final boolean kept, final String reason) {
+        jars.putIfAbsent(name, new Decision(kept, reason));
+    }
+
+    void clazz(final String className, final boolean kept, final String reason) {
+        final int sep = className.lastIndexOf('.');
+        packages.putIfAbsent(sep < 0 ? "" : className.substring(0, sep), new Decision(kept, reason));
+    }
+
+    public Map<String, Decision> getJars() {
+        return new TreeMap<>(jars);
+    }
+
+    public Map<String, Decision> getPackages() {
+        return new TreeMap<>(packages);
+    }
+
+    public List<String> toLines() {
+        final List<String> lines = new ArrayList<>(jars.size() + packages.size() + 2);
+        lines.add("Jars:");
+        getJars().forEach((name, decision) -> lines.add("    " + decision.format(name)));
+        lines.add("Packages:");
+        getPackages().forEach((name, decision) -> lines.add("    " + decision.format(name.isEmpty() ? "<default>" : name)));
+        return lines;
+    }
+
+    public static class Decision {
+        private final boolean kept;
+        private final String reason;
+
+        private Decision(final boolean kept, final String reason) {
+            this.kept = kept;
+            this.reason = reason;
+        }
+
+        public boolean isKept() {
+            return kept;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        private String format(final String name) {
+            return (kept ? "[kept]    " : "[skipped] ") + name + " (" + reason + ")";
+        }
+    }
+}
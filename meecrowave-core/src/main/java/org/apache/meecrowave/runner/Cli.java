@@ -79,8 +79,15 @@ public class Cli implements Runnable, AutoCloseable {
             final String ctx = line.getOptionValue("context", "");
             final String fixedCtx = !ctx.isEmpty() && !ctx.startsWith("/") ? '/' + ctx : ctx;
             final String war = line.getOptionValue("webapp");
+            final String wars = line.getOptionValue("webapps");
             meecrowave.start();
-            if (war == null) {
+            if (wars != null) {
+                meecrowave.deployWebapps(Stream.of(wars.split(","))
+                        .map(String::trim)
+                        .filter(it -> !it.isEmpty())
+                        .map(Cli::toDeploymentMeta)
+                        .collect(toList()));
+            } else if (war == null) {
                 meecrowave.deployClasspath(new Meecrowave.DeploymentMeta(
                         ctx,
                         ofNullable(line.getOptionValue("docbase")).map(File::new).orElseGet(() ->
@@ -100,6 +107,22 @@ public class Cli implements Runnable, AutoCloseable {
         }
     }
 
+    // [context=]location, the context defaults to the file name without .war (ROOT being the root context)
+    private static Meecrowave.DeploymentMeta toDeploymentMeta(final String webapp) {
+        final int sep = webapp.indexOf('=');
+        final File location = new File(sep < 0 ? webapp : webapp.substring(sep + 1));
+        final String context;
+        if (sep < 0) {
+            final String name = location.getName().endsWith(".war") ?
+                    location.getName().substring(0, location.getName().length() - ".war".length()) : location.getName();
+            context = "ROOT".equals(name) ? "" : '/' + name;
+        } else {
+            final String value = webapp.substring(0, sep);
+            context = !value.isEmpty() && !value.startsWith("/") ? '/' + value : value;
+        }
+        return new Meecrowave.DeploymentMeta(context, location, null, null);
+    }
+
     protected void doWait(final Meecrowave meecrowave, final CommandLine line) {
         meecrowave.getTomcat().getServer().await();
     }
@@ -296,6 +319,8 @@ public class Cli implements Runnable, AutoCloseable {
             options.addOption(null, "context", true, "The context to use to deploy the webapp");
             options.addOption(null, "webapp", true, "Location of the webapp, if not set the classpath will be deployed");
             options.addOption(null, "docbase", true, "Location of the docbase for a classpath deployment");
+            options.addOption(null, "webapps", true, "Comma separated list of [context=]location webapps deployed concurrently " +
+                    "(see deployment-parallelism), the context defaults to the file name");
             final List<Field> fields = Stream.of(Configuration.class.getDeclaredFields())
                     .filter(f -> f.isAnnotationPresent(CliOption.class))
                     .collect(toList());
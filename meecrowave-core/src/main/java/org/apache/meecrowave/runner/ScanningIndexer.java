@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.runner;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import jakarta.enterprise.inject.Vetoed;
+
+import org.apache.meecrowave.Meecrowave;
+import org.apache.meecrowave.logging.tomcat.LogFacade;
+import org.apache.meecrowave.tomcat.MeecrowaveContextConfig;
+
+/**
+ * Scans the classpath (thread context classloader) as a classpath deployment would do
+ * and writes the result as a {@link org.apache.meecrowave.openwebbeans.ScanningIndex}, the application is not started.
+ *
+ * Usage: {@code ScanningIndexer <output> [option=value]...} where options are the {@link Cli} ones
+ * (scanning-include, scanning-exclude, ...).
+ */
+@Vetoed
+public final class ScanningIndexer {
+    private ScanningIndexer() {
+        // no-op
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Usage: ScanningIndexer <output> [option=value]...");
+        }
+        final Properties options = new Properties();
+        Stream.of(args).skip(1).forEach(option -> {
+            final int sep = option.indexOf('=');
+            if (sep <= 0) {
+                throw new IllegalArgumentException("Invalid option '" + option + "', expected option=value");
+            }
+            options.setProperty(option.substring(0, sep), option.substring(sep + 1));
+        });
+        generate(Paths.get(args[0]), options);
+    }
+
+    public static void generate(final Path output, final Properties options) throws IOException {
+        final Meecrowave.Builder builder = new Meecrowave.Builder();
+        builder.loadFromProperties(options);
+        builder.setSkipHttp(true);
+        builder.setUseShutdownHook(false);
+        builder.setTomcatScanning(true);
+        builder.getProperties().setProperty(MeecrowaveContextConfig.SCANNING_INDEX_OUTPUT, output.toAbsolutePath().toString());
+
+        Files.deleteIfExists(output);
+        try (final Meecrowave meecrowave = new Meecrowave(builder)) {
+            meecrowave.start();
+            try {
+                meecrowave.deployClasspath();
+            } catch (final RuntimeException re) { // the context is marked as failed once indexed
+                new LogFacade(ScanningIndexer.class.getName()).debug(re.getMessage(), re);
+            }
+        }
+        if (!Files.exists(output)) {
+            throw new IllegalStateException("Scanning index " + output + " was not generated, check the logs");
+        }
+    }
+}
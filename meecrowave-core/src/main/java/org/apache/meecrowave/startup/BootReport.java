@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.startup;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the durations of the startup phases (server setup, customizers, deployments, CDI and JAX-RS boot...).
+ * Each phase is also a {@link StartupPhaseEvent} JFR event so a recording started with the JVM captures them.
+ *
+ * Phases opened by the same thread while another one is open are nested in it.
+ */
+public class BootReport {
+    private static final ThreadLocal<BootReport> CURRENT = new ThreadLocal<>();
+
+    private final long origin = System.nanoTime();
+    private final List<Phase> phases = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Phase> open = new ThreadLocal<>();
+
+    /**
+     * @return the report bound to the current thread (during a context startup) or null.
+     */
+    public static BootReport current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds this report to the current thread for code not having access to the Meecrowave instance (CDI extensions).
+     *
+     * @return the previously bound report to restore with {@link #restore(BootReport)}.
+     */
+    public BootReport bind() {
+        final BootReport previous = CURRENT.get();
+        CURRENT.set(this);
+        return previous;
+    }
+
+    public static void restore(final BootReport previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public Phase start(final String name) {
+        return start(name, null);
+    }
+
+    /**
+     * @param name the phase name.
+     * @param detail what the phase is about (customizer class, context...) if relevant.
+     * @return the started phase to close once done.
+     */
+    public Phase start(final String name, final String detail) {
+        final Phase phase = new Phase(this, open.get(), name, detail);
+        open.set(phase);
+        phases.add(phase);
+        return phase;
+    }
+
+    /**
+     * Executes a task in a phase.
+     */
+    public void run(final String name, final String detail, final Runnable task) {
+        try (final Phase phase = start(name, detail)) {
+            task.run();
+        }
+    }
+
+    public List<Phase> getPhases() {
+        return unmodifiableList(phases);
+    }
+
+    /**
+     * @return a human readable report, one line per phase, nested phases are indented.
+     */
+    public String toText() {
+        final StringBuilder out = new StringBuilder("Boot report (ms):\n");
+        for (final Phase phase : phases) {
+            out.append(String.format(Locale.ROOT, "  %10.3f %10s ",
+                    phase.getStart() / 1_000_000., phase.isDone() ? String.format(Locale.ROOT, "%.3f", phase.getDuration() / 1_000_000.) : "-"));
+            for (int i = 0; i < phase.getDepth(); i++) {
+                out.append("  ");
+            }
+            out.append(phase.getName());
+            if (phase.getDetail() != null) {
+                out.append(" [").append(phase.getDetail()).append(']');
+            }
+            out.append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * @return the report as a JSON object: {@code {"phases":[{"name":..., "detail":..., "depth":..., "startMs":..., "durationMs":...}]}}.
+     */
+    public String toJson() {
+        final List<String> values = new ArrayList<>(phases.size());
+        for (final Phase phase : phases) {
+            values.add("{\"name\":" + quote(phase.getName()) +
+                    (phase.getDetail() != null ? ",\"detail\":" + quote(phase.getDetail()) : "") +
+                    ",\"depth\":" + phase.getDepth() +
+                    ",\"startMs\":" + String.format(Locale.ROOT, "%.3f", phase.getStart() / 1_000_000.) +
+                    (phase.isDone() ? ",\"durationMs\":" + String.format(Locale.ROOT, "%.3f", phase.getDuration() / 1_000_000.) : "") +
+                    '}');
+        }
+        return "{\"phases\":[" + String.join(",", values) + "]}";
+    }
+
+    @Override
+    public String toString() {
+        return toText();
+    }
+
+    private static String quote(final String value) {
+        final StringBuilder out = new StringBuilder(value.length() + 2).append('"');
+        for (final char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        return out.append('"').toString();
+    }
+
+    public static class Phase implements AutoCloseable {
+        private final BootReport report;
+        private final Phase parent;
+        private final String name;
+        private final String detail;
+        private final int depth;
+        private final long start;
+        private final StartupPhaseEvent event = new StartupPhaseEvent();
+        private volatile long duration = -1;
+
+        private Phase(final BootReport report, final Phase parent, final String name, final String detail) {
+            this.report = report;
+            this.parent = parent;
+            this.name = name;
+            this.detail = detail;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+            this.event.begin();
+            this.start = System.nanoTime();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * @return the start of the phase in nanoseconds since the report creation.
+         */
+        public long getStart() {
+            return start - report.origin;
+        }
+
+        /**
+         * @return the duration in nanoseconds, -1 if the phase is not yet done.
+         */
+        public long getDuration() {
+            return duration;
+        }
+
+        public boolean isDone() {
+            return duration >= 0;
+        }
+
+        /**
+         * Ends the phase, calling it multiple times is fine.
+         */
+        @Override
+        public void close() {
+            if (duration >= 0) {
+                return;
+            }
+            duration = System.nanoTime() - start;
+            if (report.open.get() == this) {
+                if (parent == null) {
+                    report.open.remove();
+                } else {
+                    report.open.set(parent);
+                }
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = name;
+                event.detail = detail;
+                event.depth = depth;
+                event.commit();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return name + (detail == null ? "" : " [" + detail + "]") + ": " +
+                    (isDone() ? NANOSECONDS.toMillis(duration) + "ms" : "running");
+        }
+    }
+}
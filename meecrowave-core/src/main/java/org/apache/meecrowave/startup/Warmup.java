@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.startup;
+
+import static java.util.Collections.unmodifiableList;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replays requests against a freshly deployed context before the connectors serve it,
+ * it lets the JIT, the JAX-RS/JSON-B caches and the lazy CDI proxies warm up.
+ *
+ * The file contains one request per line, blank lines and lines starting with {@code #} are ignored:
+ * <ul>
+ *     <li>{@code METHOD URI [CONTENT-TYPE BODY]}, for instance {@code POST /api/user application/json {"name":"warmup"}},</li>
+ *     <li>or an access log line ({@code "GET /api/user?id=1 HTTP/1.1"} part), only GET, HEAD and OPTIONS are replayed then.</li>
+ * </ul>
+ * URIs include the context path, the requests of other contexts are skipped.
+ *
+ * Requests are replayed sequentially until the duration of an iteration is stable
+ * (within the stability percentage of the previous one twice in a row) or for the maximum number of iterations.
+ */
+public class Warmup {
+    private static final Pattern ACCESS_LOG = Pattern.compile("\"([A-Z]+) (\\S+) HTTP/[0-9.]+\"");
+
+    private final List<Request> requests;
+    private final int iterations;
+    private final int stability;
+
+    public Warmup(final List<Request> requests, final int iterations, final int stability) {
+        this.requests = requests;
+        this.iterations = iterations;
+        this.stability = stability;
+    }
+
+    public static List<Request> parse(final Path file) throws IOException {
+        final List<Request> requests = new ArrayList<>();
+        for (final String rawLine : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            final String line = rawLine.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            final Matcher accessLog = ACCESS_LOG.matcher(line);
+            if (accessLog.find()) {
+                final String method = accessLog.group(1);
+                if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)) {
+                    requests.add(new Request(method, accessLog.group(2), null, null));
+                }
+                continue;
+            }
+            final String[] parts = line.split("\\s+", 4);
+            if (parts.length < 2 || parts.length == 3 || !parts[1].startsWith("/")) {
+                throw new IllegalArgumentException("Invalid warm-up request '" + line + "' in " + file
+                        + ", expected 'METHOD URI [CONTENT-TYPE BODY]'");
+            }
+            requests.add(new Request(parts[0].toUpperCase(Locale.ROOT), parts[1],
+                    parts.length == 4 ? parts[2] : null, parts.length == 4 ? parts[3] : null));
+        }
+        return requests;
+    }
+
+    /**
+     * @param base the scheme, host and port to call.
+     * @param context the context path ("" for the root context).
+     * @return the warm-up statistics.
+     */
+    public Result run(final String base, final String context) {
+        final List<Request> selected = new ArrayList<>(requests.size());
+        for (final Request request : requests) {
+            if (context.isEmpty() || request.uri.equals(context) || request.uri.startsWith(context + '/')
+                    || request.uri.startsWith(context + '?')) {
+                selected.add(request);
+            }
+        }
+        final List<Long> durations = new ArrayList<>();
+        int failures = 0;
+        if (selected.isEmpty()) {
+            return new Result(0, durations, failures);
+        }
+        int stableIterations = 0;
+        for (int i = 0; i < Math.max(1, iterations) && stableIterations < 2; i++) {
+            final long start = System.nanoTime();
+            for (final Request request : selected) {
+                if (!request.call(base)) {
+                    failures++;
+                }
+            }
+            final long duration = System.nanoTime() - start;
+            if (!durations.isEmpty() && stability > 0) {
+                final long previous = durations.get(durations.size() - 1);
+                stableIterations = Math.abs(duration - previous) * 100 <= previous * stability ? stableIterations + 1 : 0;
+            }
+            durations.add(duration);
+        }
+        return new Result(selected.size(), durations, failures);
+    }
+
+    public static class Request {
+        private final String method;
+        private final String uri;
+        private final String contentType;
+        private final String body;
+
+        public Request(final String method, final String uri, final String contentType, final String body) {
+            this.method = method;
+            this.uri = uri;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getUri() {
+            return uri;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        private boolean call(final String base) {
+            HttpURLConnection connection = null;
+            try {
+                connection = HttpURLConnection.class.cast(new URL(base + uri).openConnection());
+                connection.setRequestMethod(method);
+                connection.setConnectTimeout(30000);
+                connection.setReadTimeout(30000);
+                if (body != null) {
+                    connection.setDoOutput(true);
+                    connection.setRequestProperty("Content-Type", contentType);
+                    try (final OutputStream stream = connection.getOutputStream()) {
+                        stream.write(body.getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+                final int status = connection.getResponseCode();
+                try (final InputStream stream = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                    if (stream != null) { // consume the response to reuse the connection
+                        stream.readAllBytes();
+                    }
+                }
+                return status < 400;
+            } catch (final IOException e) {
+                if (connection != null) {
+                    connection.disconnect();
+                }
+                return false;
+            }
+        }
+    }
+
+    public static class Result {
+        private final int requests;
+        private final List<Long> durations;
+        private final int failures;
+
+        private Result(final int requests, final List<Long> durations, final int failures) {
+            this.requests = requests;
+            this.durations = unmodifiableList(durations);
+            this.failures = failures;
+        }
+
+        public int getRequests() {
+            return requests;
+        }
+
+        /**
+         * @return the duration of each iteration in nanoseconds.
+         */
+        public List<Long> getDurations() {
+            return durations;
+        }
+
+        public int getFailures() {
+            return failures;
+        }
+
+        @Override
+        public String toString() {
+            if (durations.isEmpty()) {
+                return "no warm-up request";
+            }
+            return requests + " requests replayed " + durations.size() + " times, first iteration "
+                    + durations.get(0) / 1_000_000 + "ms, last iteration " + durations.get(durations.size() - 1) / 1_000_000 + "ms"
+                    + (failures > 0 ? ", " + failures + " failed calls" : "");
+        }
+    }
+}
@@ -18,20 +18,29 @@
  */
 package org.apache.meecrowave.tomcat;
 
+import static java.util.Collections.emptyList;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
 import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toList;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Modifier;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -50,6 +59,7 @@ import org.apache.meecrowave.Meecrowave;
 import org.apache.meecrowave.configuration.Configuration;
 import org.apache.meecrowave.logging.tomcat.LogFacade;
 import org.apache.meecrowave.openwebbeans.OWBTomcatWebScannerService;
+import org.apache.meecrowave.openwebbeans.ScanningIndex;
 import org.apache.meecrowave.watching.ReloadOnChangeController;
 import org.apache.tomcat.JarScanner;
 import org.apache.tomcat.util.bcel.classfile.ClassParser;
@@ -60,13 +70,23 @@ import org.apache.webbeans.corespi.scanner.xbean.OwbAnnotationFinder;
 import org.apache.webbeans.spi.ScannerService;
 
 public class MeecrowaveContextConfig extends ContextConfig {
+    /**
+     * Property ({@link Configuration#getProperties()}) set by the build tools to write the scanning index
+     * instead of deploying the application.
+     */
+    public static final String SCANNING_INDEX_OUTPUT = "meecrowave.scanning-index.output";
+
     private final Configuration configuration;
     private final Map<String, Collection<Class<?>>> webClasses = new HashMap<>();
     private final boolean fixDocBase;
     private final ServletContainerInitializer intializer;
     private final Consumer<Context> redeployCallback;
     private OwbAnnotationFinder finder;
+    private ScanningIndex index;
+    private Map<String, Collection<String>> handlesTypes;
     private ReloadOnChangeController watcher;
+    private ScanningIndex redeployIndex; // scan result kept in memory when watching to only rescan changed archives
+    private Collection<ScanningIndex.Archive> reused = emptyList();
 
     public MeecrowaveContextConfig(final Configuration configuration, final boolean fixDocBase, final ServletContainerInitializer intializer, final Consumer<Context> redeployCallback) {
         this.configuration = configuration;
@@ -97,6 +117,7 @@ public class MeecrowaveContextConfig extends ContextConfig {
         }
 
         // eagerly start CDI to scan only once and not twice (tomcat+CDI)
+        final ReloadOnChangeController previousWatcher = watcher; // knows which directories changed since the last deployment
         final ClassLoader loader = context.getLoader().getClassLoader(); // should already be started at that point
         final Thread thread = Thread.currentThread();
         final ClassLoader old = thread.getContextClassLoader();
@@ -112,18 +133,59 @@ public class MeecrowaveContextConfig extends ContextConfig {
                     watcher = new ReloadOnChangeController(context, configuration.getWatcherBouncing(), redeployCallback);
                     scannerService.setFileVisitor(f -> watcher.register(f));
                 }
-                scannerService.scan();
-                finder = scannerService.getFinder();
-                finder.link();
-                final CdiArchive archive = CdiArchive.class.cast(finder.getArchive());
-                Stream.of(WebServlet.class, WebFilter.class, WebListener.class)
-                        .forEach(marker -> finder.findAnnotatedClasses(marker).stream()
-                                .filter(c -> !Modifier.isAbstract(c.getModifiers()) && Modifier.isPublic(c.getModifiers()))
-                                .forEach(webComponent -> webClasses.computeIfAbsent(
-                                        archive.classesByUrl().entrySet().stream()
-                                                .filter(e -> e.getValue().getClassNames().contains(webComponent.getName()))
-                                                .findFirst().get().getKey(), k -> new HashSet<>())
-                                        .add(webComponent)));
+                final String indexOutput = configuration.getProperties().getProperty(SCANNING_INDEX_OUTPUT);
+                if (indexOutput == null) {
+                    index = loadScanningIndex(scannerService, loader);
+                }
+                if (index != null) {
+                    scannerService.setIndex(index);
+                    scannerService.scan();
+                    index.getArchives().forEach(archive -> loadWebComponents(archive, loader));
+                } else {
+                    final Collection<File> classpath = indexOutput != null || watcher != null ?
+                            scannerService.findScannableArchives(loader) : null;
+                    if (watcher != null && redeployIndex != null) {
+                        // jars are compared with their stamp, directories with the changes the previous watcher saw
+                        reused = redeployIndex.findUnchanged(ScanningIndex.fingerprint(configuration), classpath.stream()
+                                .filter(f -> !f.isDirectory() || (previousWatcher != null && !previousWatcher.hasChanged(f)))
+                                .collect(toList()), ScanningIndex::stamp);
+                        scannerService.setReusedArchives(reused);
+                    }
+                    scannerService.scan();
+                    finder = scannerService.getFinder();
+                    finder.link();
+                    final CdiArchive archive = CdiArchive.class.cast(finder.getArchive());
+                    final Map<String, String> urlByClass = new HashMap<>(); // one pass instead of one archive lookup per component
+                    archive.classesByUrl().forEach((url, classes) -> classes.getClassNames().forEach(name -> urlByClass.putIfAbsent(name, url)));
+                    Stream.of(WebServlet.class, WebFilter.class, WebListener.class)
+                            .forEach(marker -> finder.findAnnotatedClasses(marker).stream()
+                                    .filter(c -> !Modifier.isAbstract(c.getModifiers()) && Modifier.isPublic(c.getModifiers()))
+                                    .forEach(webComponent -> webClasses.computeIfAbsent(
+                                            urlByClass.get(webComponent.getName()), k -> new HashSet<>())
+                                            .add(webComponent)));
+                    reused.forEach(archive -> loadWebComponents(archive, loader));
+                    if (indexOutput != null) {
+                        handlesTypes = new TreeMap<>();
+                        super.webConfig();
+                        writeScanningIndex(scannerService, classpath, Paths.get(indexOutput));
+                        ok = false; // the index is the only thing we wanted, don't start the application
+                        return;
+                    }
+                    if (watcher != null) {
+                        handlesTypes = new TreeMap<>();
+                        super.webConfig();
+                        try {
+                            redeployIndex = scannerService.createIndex( // no checksum computed, see stamp()
+                                    ScanningIndex.fingerprint(configuration), classpath, webClasses, handlesTypes, ScanningIndex::stamp)
+                                    .withArchives(reused);
+                        } catch (final RuntimeException re) { // classes out of the classpath, stay on full scans
+                            redeployIndex = null;
+                            new LogFacade(MeecrowaveContextConfig.class.getName()).debug(
+                                    "Redeployments will rescan all archives: " + re.getMessage());
+                        }
+                        return;
+                    }
+                }
             }
 
             super.webConfig();
@@ -131,6 +193,59 @@ public class MeecrowaveContextConfig extends ContextConfig {
             thread.setContextClassLoader(old);
             webClasses.clear();
             finder = null;
+            index = null;
+            handlesTypes = null;
+            reused = emptyList();
+        }
+    }
+
+    private void loadWebComponents(final ScanningIndex.Archive archive, final ClassLoader loader) {
+        archive.getWebComponents().forEach(name -> {
+            try {
+                webClasses.computeIfAbsent(archive.getUrl().toExternalForm(), k -> new HashSet<>())
+                        .add(loader.loadClass(name));
+            } catch (final ClassNotFoundException | NoClassDefFoundError e) {
+                new LogFacade(MeecrowaveContextConfig.class.getName()).error("Can't load " + name);
+            }
+        });
+    }
+
+    private ScanningIndex loadScanningIndex(final OWBTomcatWebScannerService scannerService, final ClassLoader loader) {
+        final Path location = ofNullable(configuration.getScanningIndex())
+                .map(Paths::get)
+                .map(it -> it.isAbsolute() || System.getProperty("meecrowave.base") == null ?
+                        it : Paths.get(System.getProperty("meecrowave.base")).resolve(it))
+                .orElseGet(() -> ofNullable(System.getProperty("meecrowave.base"))
+                        .map(base -> Paths.get(base).resolve(ScanningIndex.DEFAULT_LOCATION))
+                        .filter(Files::exists)
+                        .orElse(null));
+        if (location == null) {
+            return null;
+        }
+        final LogFacade logger = new LogFacade(MeecrowaveContextConfig.class.getName());
+        try {
+            final ScanningIndex index = ScanningIndex.read(location);
+            final String error = index.validate(ScanningIndex.fingerprint(configuration), scannerService.findScannableArchives(loader));
+            if (error != null) {
+                logger.warn("Ignoring scanning index " + location + " (" + error + "), scanning the classpath");
+                return null;
+            }
+            logger.info("Using scanning index " + location);
+            return index;
+        } catch (final IOException | RuntimeException e) {
+            logger.warn("Can't read scanning index " + location + " (" + e.getMessage() + "), scanning the classpath");
+            return null;
+        }
+    }
+
+    private void writeScanningIndex(final OWBTomcatWebScannerService scannerService, final Collection<File> classpath,
+                                    final Path output) {
+        try {
+            scannerService.createIndex(ScanningIndex.fingerprint(configuration), classpath, webClasses, handlesTypes)
+                    .write(output);
+            new LogFacade(MeecrowaveContextConfig.class.getName()).info("Wrote scanning index " + output);
+        } catch (final IOException e) {
+            throw new IllegalStateException("Can't write " + output, e);
         }
     }
 
@@ -198,13 +313,40 @@ public class MeecrowaveContextConfig extends ContextConfig {
                     return;
                 }
                 Stream.of(ht.value()).forEach(t -> {
+                    if (index != null) {
+                        final Collection<String> indexed = index.getHandlesTypes().get(t.getName());
+                        if (indexed == null) {
+                            new LogFacade(MeecrowaveContextConfig.class.getName()).warn(
+                                    "@HandlesTypes(" + t.getName() + ") of " + sci + " is not in the scanning index");
+                            return;
+                        }
+                        final ClassLoader loader = context.getLoader().getClassLoader();
+                        indexed.forEach(name -> {
+                            try {
+                                classes.add(loader.loadClass(name));
+                            } catch (final ClassNotFoundException | NoClassDefFoundError e) {
+                                new LogFacade(MeecrowaveContextConfig.class.getName()).error("Can't load " + name);
+                            }
+                        });
+                        return;
+                    }
+                    final Collection<? extends Class<?>> found;
                     if (t.isAnnotation()) {
                         final Class<? extends Annotation> annotation = Class.class.cast(t);
-                        classes.addAll(finder.findAnnotatedClasses(annotation));
+                        found = finder.findAnnotatedClasses(annotation);
                     } else if (t.isInterface()) {
-                        classes.addAll(finder.findImplementations(t));
+                        found = finder.findImplementations(t);
                     } else {
-                        classes.addAll(finder.findSubclasses(t));
+                        found = finder.findSubclasses(t);
+                    }
+                    final Collection<Class<?>> matches = new HashSet<>(found);
+                    if (!reused.isEmpty() && redeployIndex != null) { // matches of the archives which were not rescanned
+                        matches.addAll(findReusedHandledTypes(t));
+                    }
+                    classes.addAll(matches);
+                    if (handlesTypes != null) {
+                        handlesTypes.computeIfAbsent(t.getName(), k -> new TreeSet<>())
+                                .addAll(matches.stream().map(Class::getName).collect(toList()));
                     }
                 });
             });
@@ -212,4 +354,25 @@ public class MeecrowaveContextConfig extends ContextConfig {
             ok = false;
         }
     }
+
+    // the index has the matches of the previous deployment, the ones still matching are kept, the rescanned archives found the others
+    private Collection<Class<?>> findReusedHandledTypes(final Class<?> type) {
+        final Collection<String> indexed = redeployIndex.getHandlesTypes().get(type.getName());
+        if (indexed == null) {
+            return emptyList();
+        }
+        final ClassLoader loader = context.getLoader().getClassLoader();
+        final Collection<Class<?>> matching = new ArrayList<>(indexed.size());
+        for (final String name : indexed) {
+            try {
+                final Class<?> clazz = loader.loadClass(name);
+                if (type.isAnnotation() ? clazz.isAnnotationPresent(Class.class.cast(type)) : type != clazz && type.isAssignableFrom(clazz)) {
+                    matching.add(clazz);
+                }
+            } catch (final ClassNotFoundException | NoClassDefFoundError e) {
+                // deleted
+            }
+        }
+        return matching;
+    }
 }
@@ -18,6 +18,7 @@
  */
 package org.apache.meecrowave.tomcat;
 
+import org.apache.meecrowave.openwebbeans.OWBTomcatWebScannerService;
 import org.apache.tomcat.Jar;
 import org.apache.tomcat.JarScanFilter;
 import org.apache.tomcat.JarScanType;
@@ -37,6 +38,7 @@ import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.stream.Stream;
 
 public class OWBJarScanner implements JarScanner {
     private JarScanFilter filter; // not yet used
@@ -51,11 +53,17 @@ public class OWBJarScanner implements JarScanner {
                     return;
                 }
                 final OwbAnnotationFinder finder = WebScannerService.class.cast(scannerService).getFinder();
-                if (finder == null) {
+                final Stream<String> urls;
+                if (finder != null) {
+                    urls = CdiArchive.class.cast(finder.getArchive()).classesByUrl().keySet().stream();
+                } else if (OWBTomcatWebScannerService.class.isInstance(scannerService)
+                        && OWBTomcatWebScannerService.class.cast(scannerService).getIndex() != null) {
+                    urls = OWBTomcatWebScannerService.class.cast(scannerService).getIndex().getArchives().stream()
+                            .map(it -> it.getUrl().toExternalForm());
+                } else {
                     return;
                 }
-                CdiArchive.class.cast(finder.getArchive())
-                        .classesByUrl().keySet().stream()
+                urls
                         .filter(u -> !"jar:file://!/".equals(u)) // not a fake in memory url
                         .forEach(u -> {
                             try {
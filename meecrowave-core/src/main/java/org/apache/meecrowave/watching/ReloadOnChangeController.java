@@ -23,6 +23,7 @@ import static java.util.Optional.ofNullable;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -32,25 +33,35 @@ import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.concurrent.CountDownLatch;
+import java.util.LinkedHashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 import org.apache.catalina.Context;
 import org.apache.meecrowave.logging.tomcat.LogFacade;
 
+/**
+ * Watches the class directories of a context and redeploys it once no change happened during the bouncing duration.
+ * Each change (re)schedules the redeployment so a build writing many files triggers a single one.
+ */
 public class ReloadOnChangeController implements AutoCloseable, Runnable {
     private final Context context;
     private final long bouncing;
     private final Consumer<Context> redeployCallback;
-    private final Collection<Path> paths = new ArrayList<>();
+    private final Collection<Path> paths = new LinkedHashSet<>();
+    private final Collection<Path> changed = ConcurrentHashMap.newKeySet();
+    private final AtomicReference<ScheduledFuture<?>> pendingRedeploy = new AtomicReference<>();
     private WatchService watchService;
-    private Thread bouncer;
+    private ScheduledThreadPoolExecutor redeployer;
+    private volatile Thread redeployerThread;
     private Thread watcher;
     private volatile boolean running = true;
-    private volatile long redeployMarker = System.nanoTime();
 
     public ReloadOnChangeController(final Context context, final int watcherBouncing, final Consumer<Context> redeployCallback) {
         this.context = context;
@@ -59,7 +70,16 @@ public class ReloadOnChangeController implements AutoCloseable, Runnable {
     }
 
     public void register(final File folder) {
-        paths.add(folder.toPath());
+        paths.add(folder.toPath().toAbsolutePath().normalize());
+    }
+
+    /**
+     * @param folder a folder of the classpath.
+     * @return true if a change was seen in this folder or if it is not watched, used to only rescan what changed.
+     */
+    public boolean hasChanged(final File folder) {
+        final Path path = folder.toPath().toAbsolutePath().normalize();
+        return watchService == null || !paths.contains(path) || changed.contains(path);
     }
 
     public void start() {
@@ -77,6 +97,14 @@ public class ReloadOnChangeController implements AutoCloseable, Runnable {
                     .warn("Hot reloading will not be available", ex);
         }
 
+        redeployer = new ScheduledThreadPoolExecutor(1, r -> {
+            final Thread thread = new Thread(r, "meecrowave-watcher-redeployer");
+            thread.setDaemon(true);
+            redeployerThread = thread;
+            return thread;
+        });
+        redeployer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
         watcher = new Thread(this);
         watcher.setName("meecrowave-watcher-controller");
         watcher.start();
@@ -86,6 +114,31 @@ public class ReloadOnChangeController implements AutoCloseable, Runnable {
         redeployCallback.accept(context);
     }
 
+    // debouncing: a change cancels the pending redeployment and schedules a new one
+    private void scheduleRedeploy() {
+        if (!running) {
+            return;
+        }
+        final ScheduledFuture<?> next;
+        try {
+            next = redeployer.schedule(() -> {
+                if (!running) {
+                    return;
+                }
+                new LogFacade(ReloadOnChangeController.class.getName()).info("Redeploying " + context.getName());
+                redeploy();
+            }, bouncing, TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException ree) { // closed meanwhile
+            return;
+        }
+        final ScheduledFuture<?> previous = pendingRedeploy.getAndSet(next);
+        if (previous == null || previous.isDone()) {
+            new LogFacade(ReloadOnChangeController.class.getName()).info("Marking to redeploy " + context.getName());
+        } else {
+            previous.cancel(false);
+        }
+    }
+
     @Override
     public void close() {
         if (!running) {
@@ -93,11 +146,15 @@ public class ReloadOnChangeController implements AutoCloseable, Runnable {
         }
         running = false;
         final long waitMs = bouncing * 2 + 5000 /*margin if redeploying, we can make it configurable later*/;
-        if (bouncer != null) {
-            try {
-                bouncer.join(waitMs);
-            } catch (final InterruptedException e) {
-                Thread.interrupted();
+        if (redeployer != null) {
+            redeployer.shutdown();
+            // the redeployment stops the context which closes this controller, don't wait for ourself
+            if (Thread.currentThread() != redeployerThread) {
+                try {
+                    redeployer.awaitTermination(waitMs, TimeUnit.MILLISECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
             }
         }
         if (watcher != null) {
@@ -127,44 +184,6 @@ public class ReloadOnChangeController implements AutoCloseable, Runnable {
             return;
         }
 
-        final CountDownLatch latch = new CountDownLatch(1);
-        bouncer = new Thread(() -> { // simple bouncing impl
-            long last = redeployMarker;
-            latch.countDown();
-
-            boolean needsRedeploy = false;
-            long antepenultiem = -1;
-            while (running) {
-                if (redeployMarker > last) {
-                    antepenultiem = last;
-                    last = redeployMarker;
-                    needsRedeploy = true;
-                } else if (needsRedeploy) {
-                    antepenultiem = last;
-                }
-
-                try {
-                    Thread.sleep(bouncing);
-                } catch (final InterruptedException e) {
-                    Thread.interrupted();
-                    break;
-                }
-
-                if (needsRedeploy && last == antepenultiem) {
-                    new LogFacade(ReloadOnChangeController.class.getName()).info("Redeploying " + context.getName());
-                    redeploy();
-                }
-            }
-        });
-        bouncer.setName("meecrowave-watcher-redeployer");
-        bouncer.start();
-        try {
-            latch.await(1, TimeUnit.MINUTES);
-        } catch (final InterruptedException e) {
-            Thread.interrupted();
-            return;
-        }
-
         paths.forEach(p -> {
             try {
                 Files.walkFileTree(p, new SimpleFileVisitor<Path>() {
@@ -181,37 +200,37 @@ public class ReloadOnChangeController implements AutoCloseable, Runnable {
 
         try {
             while (running) {
-                final WatchKey watchKey = watchService.poll(bouncing, TimeUnit.MILLISECONDS);
+                final WatchKey watchKey = watchService.poll(bouncing, TimeUnit.MILLISECONDS); // timeout only to check running
                 if (watchKey == null) {
-                    Thread.sleep(bouncing);
                     continue;
                 }
 
                 boolean foundNew = false;
                 for (final WatchEvent<?> event : watchKey.pollEvents()) {
-                    final Path path = Path.class.cast(event.context());
-                    final WatchEvent.Kind<?> kind = event.kind();
-                    if (!isIgnored(kind, path)) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
                         foundNew = true;
-
-                        final File file = path.toAbsolutePath().toFile();
-                        if (file.isDirectory()) {
-                            if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
-                                try {
-                                    path.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
-                                            StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
-                                } catch (final IOException e) {
-                                    new LogFacade(ReloadOnChangeController.class.getName()).warn(e.getMessage());
-                                }
-                            }
+                        changed.addAll(paths);
+                        continue;
+                    }
+                    final Path path = Path.class.cast(watchKey.watchable()).resolve(Path.class.cast(event.context()));
+                    final WatchEvent.Kind<?> kind = event.kind();
+                    if (isIgnored(kind, path)) {
+                        continue;
+                    }
+                    foundNew = true;
+                    paths.stream().filter(path::startsWith).forEach(changed::add);
+                    if (kind == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                        try {
+                            path.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                        } catch (final IOException e) {
+                            new LogFacade(ReloadOnChangeController.class.getName()).warn(e.getMessage());
                         }
-                        break;
                     }
                 }
 
                 if (foundNew) {
-                    new LogFacade(ReloadOnChangeController.class.getName()).info("Marking to redeploy " + context.getName());
-                    redeployMarker = System.nanoTime();
+                    scheduleRedeploy();
                 }
 
                 if (!watchKey.reset()) { // deletion
@@ -220,6 +239,8 @@ public class ReloadOnChangeController implements AutoCloseable, Runnable {
             }
         } catch (final InterruptedException ie) {
             Thread.interrupted();
+        } catch (final ClosedWatchServiceException cwse) {
+            // closed
         }
     }
 
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave;
+
+import static java.util.stream.Collectors.toSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.core.MediaType;
+
+import org.apache.meecrowave.jfr.Jfr;
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class JfrEventsTest {
+    @Test
+    public void run() throws Exception {
+        final java.nio.file.Path dump = Files.createTempFile("meecrowave-", ".jfr");
+        try (final Meecrowave container = new Meecrowave(new Meecrowave.Builder()
+                .randomHttpPort()
+                .jfrEvents(true)
+                .includePackages(Endpoint.class.getName()))
+                .bake()) {
+            try (final Recording recording = new Recording()) {
+                Stream.of("Request", "JaxrsDispatch", "ResourceInvocation", "MessageBody", "RequestContext")
+                        .forEach(name -> recording.enable("org.apache.meecrowave." + name).withThreshold(Duration.ZERO));
+                recording.start();
+
+                final Client client = ClientBuilder.newClient();
+                try {
+                    assertEquals("{\"name\":\"jfr\"}", client.target("http://localhost:" + container.getConfiguration().getHttpPort())
+                            .path("JfrEventsTest")
+                            .request(MediaType.APPLICATION_JSON_TYPE)
+                            .header(Jfr.CORRELATION_ID_HEADER, "test-id")
+                            .get(String.class));
+                } finally {
+                    client.close();
+                }
+
+                recording.stop();
+                recording.dump(dump);
+            }
+
+            final List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+            final Set<String> types = events.stream().map(e -> e.getEventType().getName()).collect(toSet());
+            Stream.of("Request", "JaxrsDispatch", "ResourceInvocation", "MessageBody", "RequestContext")
+                    .forEach(name -> assertTrue(name, types.contains("org.apache.meecrowave." + name)));
+            events.forEach(e -> assertEquals(e.getEventType().getName(), "test-id", e.getString("correlationId")));
+            assertTrue(events.stream().anyMatch(e -> (Endpoint.class.getName() + "#get").equals(e.getString("operation"))));
+        } finally {
+            Files.delete(dump);
+        }
+        assertFalse(Jfr.isEnabled());
+    }
+
+    @Test
+    public void perInstance() throws Exception {
+        final java.nio.file.Path dump = Files.createTempFile("meecrowave-", ".jfr");
+        try (final Meecrowave enabled = new Meecrowave(new Meecrowave.Builder()
+                .randomHttpPort()
+                .jfrEvents(true)
+                .includePackages(Endpoint.class.getName()))
+                .bake();
+             final Meecrowave disabled = new Meecrowave(new Meecrowave.Builder()
+                .randomHttpPort()
+                .includePackages(Endpoint.class.getName()))
+                .bake()) {
+            try (final Recording recording = new Recording()) {
+                Stream.of("Request", "JaxrsDispatch", "ResourceInvocation", "MessageBody", "RequestContext")
+                        .forEach(name -> recording.enable("org.apache.meecrowave." + name).withThreshold(Duration.ZERO));
+                recording.start();
+
+                final Client client = ClientBuilder.newClient();
+                try {
+                    assertEquals("[{\"name\":\"jfr\"}]", client.target("http://localhost:" + enabled.getConfiguration().getHttpPort())
+                            .path("JfrEventsTest/stream")
+                            .request(MediaType.APPLICATION_JSON_TYPE)
+                            .header(Jfr.CORRELATION_ID_HEADER, "enabled")
+                            .get(String.class));
+                    assertEquals("{\"name\":\"jfr\"}", client.target("http://localhost:" + disabled.getConfiguration().getHttpPort())
+                            .path("JfrEventsTest")
+                            .request(MediaType.APPLICATION_JSON_TYPE)
+                            .header(Jfr.CORRELATION_ID_HEADER, "disabled")
+                            .get(String.class));
+                } finally {
+                    client.close();
+                }
+
+                recording.stop();
+                recording.dump(dump);
+            }
+
+            final List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+            assertFalse(events.isEmpty());
+            events.forEach(e -> assertEquals(e.getEventType().getName(), "enabled", e.getString("correlationId")));
+            assertTrue(events.stream().anyMatch(e -> "org.apache.meecrowave.MessageBody".equals(e.getEventType().getName())
+                    && e.getString("operation").startsWith(Stream.class.getName())));
+        } finally {
+            Files.delete(dump);
+        }
+    }
+
+    public static class Item {
+        public String name;
+    }
+
+    @ApplicationScoped
+    @Path("JfrEventsTest")
+    public static class Endpoint {
+        @GET
+        @Produces(MediaType.APPLICATION_JSON)
+        public Item get() {
+            final Item item = new Item();
+            item.name = "jfr";
+            return item;
+        }
+
+        @GET
+        @Path("stream")
+        @Produces(MediaType.APPLICATION_JSON)
+        public Stream<Item> stream() {
+            return Stream.of(get());
+        }
+    }
+}
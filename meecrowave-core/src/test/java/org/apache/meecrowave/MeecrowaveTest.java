@@ -45,8 +45,11 @@ import java.net.URLStreamHandler;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
 import static java.util.Arrays.asList;
@@ -181,6 +184,76 @@ public class MeecrowaveTest {
         }
     }
 
+    @Test
+    public void concurrentWebapps() throws IOException {
+        final List<Meecrowave.DeploymentMeta> metas = new ArrayList<>();
+        for (final String name : asList("first", "second", "third")) {
+            final File root = new File("target/MeecrowaveTest/concurrentWebapps/" + name);
+            FileUtils.mkDir(root);
+            try (final Writer indexHtml = new FileWriter(new File(root, "index.html"))) {
+                indexHtml.write(name);
+            }
+            metas.add(new Meecrowave.DeploymentMeta("/" + name, root, null, null));
+        }
+        try (final Meecrowave meecrowave = new Meecrowave(new Meecrowave.Builder()
+                .randomHttpPort()
+                .deploymentParallelism(3)
+                .bootReportFile("target/MeecrowaveTest/concurrentWebapps/boot-report.json")
+                .includePackages("org.superbiz.app")).start()) {
+            meecrowave.deployWebapps(metas);
+            final String report = new String(Files.readAllBytes(
+                    Path.of("target/MeecrowaveTest/concurrentWebapps/boot-report.json")), StandardCharsets.UTF_8);
+            assertTrue(report, report.startsWith("{\"phases\":[") && report.endsWith("]}"));
+            for (final String name : asList("first", "second", "third")) { // written once all are deployed
+                assertTrue(report, report.contains("\"name\":\"deploy\",\"detail\":\"/" + name + "\""));
+            }
+            final String base = "http://localhost:" + meecrowave.getConfiguration().getHttpPort();
+            assertEquals("first", slurp(new URL(base + "/first/index.html")));
+            assertEquals("second", slurp(new URL(base + "/second/index.html")));
+            assertEquals("third", slurp(new URL(base + "/third/index.html")));
+
+            try {
+                meecrowave.deployWebapps(metas.subList(0, 2));
+                fail("contexts are already deployed");
+            } catch (final IllegalStateException ise) {
+                assertEquals("Can't deploy '/first', '/second'", ise.getMessage());
+                assertEquals(2, ise.getSuppressed().length);
+            }
+
+            meecrowave.undeploy(asList("/first", "/second"));
+            assertNotAvailable(new URL(base + "/first/index.html"));
+            assertNotAvailable(new URL(base + "/second/index.html"));
+            assertEquals("third", slurp(new URL(base + "/third/index.html")));
+        }
+    }
+
+    @Test
+    public void undeployWhileDeploying() throws IOException {
+        final File root = new File("target/MeecrowaveTest/undeployWhileDeploying");
+        FileUtils.mkDir(root);
+        try (final Writer indexHtml = new FileWriter(new File(root, "index.html"))) {
+            indexHtml.write("deployed");
+        }
+        try (final Meecrowave meecrowave = new Meecrowave(new Meecrowave.Builder()
+                .randomHttpPort()
+                .includePackages("org.superbiz.app")).start()) {
+            final AtomicReference<Exception> undeployError = new AtomicReference<>();
+            meecrowave.deployWebapp(new Meecrowave.DeploymentMeta("/deploying", root, context -> {
+                try {
+                    meecrowave.undeploy("/deploying");
+                } catch (final IllegalStateException ise) {
+                    undeployError.set(ise);
+                }
+            }, null));
+            assertTrue(IllegalStateException.class.isInstance(undeployError.get()));
+            final String base = "http://localhost:" + meecrowave.getConfiguration().getHttpPort();
+            assertEquals("deployed", slurp(new URL(base + "/deploying/index.html")));
+
+            meecrowave.undeploy("/deploying"); // the undeployer is registered once deployed
+            assertNotAvailable(new URL(base + "/deploying/index.html"));
+        }
+    }
+
     private static void copyClass(File targetRoot, String classFile) throws IOException {
         final File targetFile = new File(targetRoot, "WEB-INF/classes/" + classFile);
         if (!targetFile.exists()) {
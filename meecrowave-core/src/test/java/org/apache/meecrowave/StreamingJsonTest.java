@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave;
+
+import static java.util.stream.Collectors.joining;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Iterator;
+import java.util.concurrent.Flow;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.client.WebTarget;
+import jakarta.ws.rs.core.MediaType;
+
+import org.apache.meecrowave.cxf.StreamingJsonbJaxrsProvider;
+import org.junit.Test;
+
+public class StreamingJsonTest {
+    @Test
+    public void run() {
+        try (final Meecrowave container = new Meecrowave(new Meecrowave.Builder()
+                .randomHttpPort()
+                .includePackages(Endpoint.class.getName()))
+                .bake()) {
+            final Client client = ClientBuilder.newClient();
+            try {
+                final WebTarget target = client.target("http://localhost:" + container.getConfiguration().getHttpPort())
+                        .path("StreamingJsonTest");
+                final String array = "[{\"name\":\"0\"},{\"name\":\"1\"},{\"name\":\"2\"}]";
+                final String lines = "{\"name\":\"0\"}\n{\"name\":\"1\"}\n{\"name\":\"2\"}\n";
+                assertEquals(array, target.path("stream").request(MediaType.APPLICATION_JSON_TYPE).get(String.class));
+                assertEquals(lines, target.path("iterator").request(StreamingJsonbJaxrsProvider.NDJSON).get(String.class));
+                assertEquals(array, target.path("publisher").request(MediaType.APPLICATION_JSON_TYPE).get(String.class));
+                assertEquals("0,1,2", target.path("read").request(MediaType.TEXT_PLAIN_TYPE)
+                        .post(Entity.entity(array, MediaType.APPLICATION_JSON_TYPE), String.class));
+                assertEquals("0,1,2", target.path("read").request(MediaType.TEXT_PLAIN_TYPE)
+                        .post(Entity.entity(lines, StreamingJsonbJaxrsProvider.NDJSON), String.class));
+            } finally {
+                client.close();
+            }
+        }
+    }
+
+    public static class Item {
+        public String name;
+
+        public Item() {
+            // no-op
+        }
+
+        private Item(final int index) {
+            name = Integer.toString(index);
+        }
+    }
+
+    @ApplicationScoped
+    @Path("StreamingJsonTest")
+    public static class Endpoint {
+        @GET
+        @Path("stream")
+        @Produces(MediaType.APPLICATION_JSON)
+        public Stream<Item> stream() {
+            return IntStream.range(0, 3).mapToObj(Item::new);
+        }
+
+        @GET
+        @Path("iterator")
+        @Produces(StreamingJsonbJaxrsProvider.NDJSON)
+        public Iterator<Item> iterator() {
+            return stream().iterator();
+        }
+
+        @GET
+        @Path("publisher")
+        @Produces(MediaType.APPLICATION_JSON)
+        public Flow.Publisher<Item> publisher() {
+            return subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+                private int next;
+
+                @Override
+                public void request(final long n) {
+                    for (long i = 0; i < n && next < 3; i++) {
+                        subscriber.onNext(new Item(next++));
+                    }
+                    if (next == 3) {
+                        next++;
+                        subscriber.onComplete();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    next = 4;
+                }
+            });
+        }
+
+        @POST
+        @Path("read")
+        @Consumes({MediaType.APPLICATION_JSON, StreamingJsonbJaxrsProvider.NDJSON})
+        @Produces(MediaType.TEXT_PLAIN)
+        public String read(final Stream<Item> items) {
+            return items.map(it -> it.name).collect(joining(","));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave;
+
+import static jakarta.ws.rs.core.MediaType.TEXT_PLAIN;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+
+/**
+ * Calls a blocking JAX-RS endpoint (a sleep simulating a database call) with a fixed number of concurrent requests,
+ * once on the Tomcat platform thread pool (connector.attributes.maxThreads) and once with virtual-threads.
+ * Virtual threads are only used on Java 21 and later.
+ *
+ * Usage: {@code VirtualThreadsBenchmark [requests=20000] [concurrency=1000] [latencyMs=50] [maxThreads=200]}, not run by the build.
+ */
+public final class VirtualThreadsBenchmark {
+    private VirtualThreadsBenchmark() {
+        // no-op
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final int requests = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        final int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        final int latency = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        final String maxThreads = args.length > 3 ? args[3] : "200";
+
+        System.out.println("Java " + Runtime.version().feature() + ", " + requests + " requests, " + concurrency
+                + " concurrent, " + latency + "ms of latency, " + Runtime.getRuntime().availableProcessors() + " processors");
+        run("platform (" + maxThreads + " threads)", false, maxThreads, requests, concurrency, latency);
+        run("virtual threads", true, maxThreads, requests, concurrency, latency);
+    }
+
+    private static void run(final String name, final boolean virtualThreads, final String maxThreads,
+                            final int requests, final int concurrency, final int latency) throws Exception {
+        final Meecrowave.Builder builder = new Meecrowave.Builder()
+                .randomHttpPort()
+                .virtualThreads(virtualThreads)
+                .includePackages(VirtualThreadsBenchmark.class.getName());
+        builder.property("connector.attributes.maxThreads", maxThreads);
+        builder.property("connector.attributes.maxConnections", Integer.toString(concurrency * 2));
+        final ExecutorService clientPool = Executors.newFixedThreadPool(4);
+        try (final Meecrowave meecrowave = new Meecrowave(builder).bake()) {
+            final HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientPool)
+                    .build();
+            final HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:"
+                    + meecrowave.getConfiguration().getHttpPort() + "/VirtualThreadsBenchmark/blocking?latency=" + latency)).build();
+
+            call(client, request, Math.min(requests, concurrency * 2), concurrency); // warm up
+            final long start = System.nanoTime();
+            final long[] durations = call(client, request, requests, concurrency);
+            final long total = System.nanoTime() - start;
+
+            Arrays.sort(durations);
+            System.out.printf("%-24s %8.0f req/s, p50 %6.1f ms, p99 %6.1f ms, max %6.1f ms%n", name,
+                    requests / (total / 1_000_000_000.), durations[durations.length / 2] / 1_000_000.,
+                    durations[(int) (durations.length * .99)] / 1_000_000., durations[durations.length - 1] / 1_000_000.);
+        } finally {
+            clientPool.shutdownNow();
+        }
+    }
+
+    private static long[] call(final HttpClient client, final HttpRequest request,
+                               final int requests, final int concurrency) throws InterruptedException {
+        final long[] durations = new long[requests];
+        final Semaphore inFlight = new Semaphore(concurrency);
+        final CompletableFuture<?>[] calls = new CompletableFuture<?>[requests];
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            final int index = i;
+            final long start = System.nanoTime();
+            calls[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                durations[index] = System.nanoTime() - start;
+                inFlight.release();
+                if (error != null || response.statusCode() != 200) {
+                    throw new IllegalStateException("Request failed: " + (error != null ? error : response.statusCode()));
+                }
+            });
+        }
+        CompletableFuture.allOf(calls).orTimeout(5, TimeUnit.MINUTES).join();
+        return durations;
+    }
+
+    @Path("VirtualThreadsBenchmark/blocking")
+    @ApplicationScoped
+    public static class Blocking {
+        @GET
+        @Produces(TEXT_PLAIN)
+        public String get(@QueryParam("latency") final long latency) throws InterruptedException {
+            Thread.sleep(latency); // blocking database call
+            return "ok";
+        }
+    }
+}
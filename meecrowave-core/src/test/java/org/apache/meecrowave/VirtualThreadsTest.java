@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave;
+
+import static jakarta.ws.rs.core.MediaType.TEXT_PLAIN;
+import static jakarta.ws.rs.core.MediaType.TEXT_PLAIN_TYPE;
+import static org.junit.Assert.assertEquals;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+
+import org.junit.Test;
+
+public class VirtualThreadsTest {
+    @Test
+    public void requestThread() {
+        try (final Meecrowave meecrowave = new Meecrowave(
+                new Meecrowave.Builder()
+                        .randomHttpPort()
+                        .virtualThreads(true)
+                        .includePackages(VirtualThreadsTest.class.getName())).bake()) {
+            final Client client = ClientBuilder.newClient();
+            try {
+                // before Java 21 the option is ignored and the platform pool is kept
+                assertEquals(Runtime.version().feature() >= 21, client.target("http://localhost:" + meecrowave.getConfiguration().getHttpPort())
+                        .path("VirtualThreadsTest/thread")
+                        .request(TEXT_PLAIN_TYPE)
+                        .get(String.class)
+                        .startsWith("VirtualThread"));
+            } finally {
+                client.close();
+            }
+        }
+    }
+
+    @Path("VirtualThreadsTest/thread")
+    @ApplicationScoped
+    public static class CurrentThread {
+        @GET
+        @Produces(TEXT_PLAIN)
+        public String get() {
+            return Thread.currentThread().toString();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.cxf;
+
+import static java.util.Arrays.asList;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.apache.meecrowave.lang.PrefixTrie;
+
+/**
+ * Compares the dispatch decision of the cxf-cdi filter (is the request for a JAX-RS application) done with a substring and
+ * a stream over the application addresses with {@link PrefixTrie}, for 1, 10 and 100 applications.
+ * Half of the requests target an application, the other half falls through to the other servlets.
+ *
+ * Usage: {@code DispatchBenchmark [requests=5000000]}, not run by the build.
+ */
+public final class DispatchBenchmark {
+    private DispatchBenchmark() {
+        // no-op
+    }
+
+    public static void main(final String[] args) {
+        final int requests = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        final String context = "/shop";
+        for (final int applications : new int[]{1, 10, 100}) {
+            final String[] addresses = new String[applications];
+            for (int i = 0; i < applications; i++) {
+                addresses[i] = "/api" + i;
+            }
+            final PrefixTrie prefixes = PrefixTrie.of(asList(addresses));
+            final String[] uris = new String[64];
+            for (int i = 0; i < uris.length; i++) {
+                uris[i] = i % 2 == 0 ?
+                        context + addresses[i % applications] + "/customers/" + i + "/orders" :
+                        context + "/static/images/product-" + i + ".png";
+            }
+
+            for (int warmup = 0; warmup < 3; warmup++) { // let the JIT compile both paths
+                stream(uris, addresses, context, requests / 10);
+                trie(uris, prefixes, context, requests / 10);
+            }
+            run(applications + " apps, stream", requests, () -> stream(uris, addresses, context, requests));
+            run(applications + " apps, trie", requests, () -> trie(uris, prefixes, context, requests));
+        }
+    }
+
+    private static void run(final String name, final int requests, final Task task) {
+        long best = Long.MAX_VALUE;
+        long matched = 0;
+        for (int i = 0; i < 5; i++) {
+            final long start = System.nanoTime();
+            matched = task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-20s %12.0f requests/s (%d dispatched to CXF)%n", name, requests / (best / 1_000_000_000.), matched);
+    }
+
+    private static long stream(final String[] uris, final String[] addresses, final String context, final int requests) {
+        long matched = 0;
+        for (int i = 0; i < requests; i++) {
+            final String path = uris[i & 63].substring(context.length());
+            final Optional<String> app = Stream.of(addresses).filter(path::startsWith).findAny();
+            if (app.isPresent()) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    private static long trie(final String[] uris, final PrefixTrie prefixes, final String context, final int requests) {
+        long matched = 0;
+        for (int i = 0; i < requests; i++) {
+            if (prefixes.matches(uris[i & 63], context.length())) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    private interface Task {
+        long run();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.cxf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.ws.rs.core.MediaType;
+
+import org.junit.Test;
+
+public class ProviderSelectionCacheTest {
+    @Test
+    public void memoize() {
+        final ProviderSelectionCache cache = new ProviderSelectionCache(10);
+        final AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(cache.get(String.class, String.class, new MediaType("application", "json"), () -> calls.incrementAndGet() > 0));
+        }
+        assertFalse(cache.get(String.class, String.class, new MediaType("text", "plain"), () -> calls.incrementAndGet() < 0));
+        assertEquals(2, calls.get());
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertTrue(cache.get(String.class, String.class, new MediaType("application", "json"), () -> calls.incrementAndGet() > 0));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void bounded() {
+        final ProviderSelectionCache cache = new ProviderSelectionCache(1);
+        final AtomicInteger calls = new AtomicInteger();
+        cache.get(String.class, null, null, () -> calls.incrementAndGet() > 0);
+        cache.get(Integer.class, null, null, () -> calls.incrementAndGet() > 0);
+        cache.get(Integer.class, null, null, () -> calls.incrementAndGet() > 0);
+        cache.get(String.class, null, null, () -> calls.incrementAndGet() > 0);
+        assertEquals(1, cache.size());
+        assertEquals(3, calls.get());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void evictsOldest() {
+        final ProviderSelectionCache cache = new ProviderSelectionCache(2);
+        final AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 100; i++) { // a client sending many media types
+            cache.get(String.class, null, new MediaType("application", "x-" + i), () -> calls.incrementAndGet() > 0);
+        }
+        assertEquals(2, cache.size());
+        cache.get(String.class, null, new MediaType("application", "json"), () -> calls.incrementAndGet() > 0);
+        cache.get(String.class, null, new MediaType("application", "json"), () -> calls.incrementAndGet() > 0);
+        assertEquals(101, calls.get()); // new decisions are still cached once full
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.size());
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.lang;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class PrefixTrieTest {
+    @Test
+    public void prefixes() {
+        final PrefixTrie trie = PrefixTrie.of(asList("cxf-", "cxf-core", "tomcat-", "a"));
+        assertTrue(trie.matches("cxf-core-4.0.jar"));
+        assertTrue(trie.matches("tomcat-"));
+        assertTrue(trie.matches("a.jar"));
+        assertFalse(trie.matches("cx"));
+        assertFalse(trie.matches("tomcat.jar"));
+        assertFalse(trie.matches(""));
+        assertEquals("cxf-", trie.find("cxf-core-4.0.jar", false)); // shortest
+        assertNull(trie.find("b.jar", false));
+    }
+
+    @Test
+    public void segments() {
+        final PrefixTrie trie = PrefixTrie.of(asList("org.apache.cxf", "javax"));
+        assertTrue(trie.matchesSegments("org.apache.cxf"));
+        assertTrue(trie.matchesSegments("org.apache.cxf.jaxrs.Foo"));
+        assertTrue(trie.matchesSegments("javax.Foo"));
+        assertFalse(trie.matchesSegments("org.apache.cxfx.Foo"));
+        assertFalse(trie.matchesSegments("javaxx.Foo"));
+        assertFalse(trie.matchesSegments("org.apache"));
+        assertTrue(trie.matches("org.apache.cxfx.Foo"));
+    }
+
+    @Test
+    public void empty() {
+        final PrefixTrie trie = PrefixTrie.of(emptyList());
+        assertTrue(trie.isEmpty());
+        assertFalse(trie.matches("foo"));
+        assertFalse(trie.matchesSegments("foo"));
+    }
+
+    @Test
+    public void offset() {
+        final PrefixTrie trie = PrefixTrie.of(asList("/api", "/api/v2", "/admin"));
+        assertTrue(trie.matches("/ctx/api/users", "/ctx".length()));
+        assertTrue(trie.matches("/api", 0));
+        assertTrue(trie.matches("/admin/", 0));
+        assertTrue(trie.matches("/apix", 0)); // same as String#startsWith
+        assertFalse(trie.matches("/ap", 0));
+        assertFalse(trie.matches("/ctx/api", 0));
+        assertFalse(trie.matches("/other", 0));
+        assertFalse(trie.matches("/ctx", "/ctx".length()));
+        assertEquals("/api", trie.find("/ctx/api/v2/users", "/ctx".length(), false));
+        assertEquals("org.apache.cxf", PrefixTrie.of(singletonList("org.apache.cxf")).find("lib:org.apache.cxf.Bus", 4, true));
+    }
+
+    @Test
+    public void root() {
+        final PrefixTrie trie = PrefixTrie.of(singletonList(""));
+        assertTrue(trie.matches("/anything", 0));
+        assertTrue(trie.matches("", 0));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.openwebbeans;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class PrefetchingIteratorTest {
+    @Test
+    public void keepsOrder() {
+        final List<Integer> items = IntStream.range(0, 1000).boxed().collect(toList());
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final PrefetchingIterator<Integer, String> iterator = new PrefetchingIterator<>(items, i -> {
+                if (i % 7 == 0) { // make some loads slower to shuffle completion order
+                    Thread.yield();
+                }
+                return "#" + i;
+            }, pool, 64);
+            final List<String> values = new ArrayList<>();
+            iterator.forEachRemaining(values::add);
+            assertEquals(items.stream().map(i -> "#" + i).collect(toList()), values);
+            assertFalse(iterator.hasNext());
+            try {
+                iterator.next();
+                fail();
+            } catch (final NoSuchElementException nsee) {
+                // ok
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void empty() {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            assertFalse(new PrefetchingIterator<>(new ArrayList<String>(), String::length, pool, 8).hasNext());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void propagatesFailures() {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            new PrefetchingIterator<>(IntStream.range(0, 10).boxed().collect(toList()), i -> {
+                if (i == 5) {
+                    throw new IllegalArgumentException("5");
+                }
+                return i;
+            }, pool, 2).forEachRemaining(i -> {});
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
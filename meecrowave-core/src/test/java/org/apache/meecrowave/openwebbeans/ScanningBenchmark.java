@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.openwebbeans;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Reads the class entries of a synthetic classpath (jars of generated class-like entries) as the finder does,
+ * sequentially then with {@link PrefetchingIterator} for several parallelism values.
+ * The consumer stays single threaded (like the bytecode parsing of the finder).
+ *
+ * Usage: {@code ScanningBenchmark [jars=240] [entriesPerJar=150] [iterations=5]}, not run by the build.
+ */
+public final class ScanningBenchmark {
+    private ScanningBenchmark() {
+        // no-op
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final int jarCount = args.length > 0 ? Integer.parseInt(args[0]) : 240;
+        final int entriesPerJar = args.length > 1 ? Integer.parseInt(args[1]) : 150;
+        final int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        final File root = new File("target/scanning-benchmark");
+        final List<ZipFile> jars = createClasspath(root, jarCount, entriesPerJar);
+        try {
+            final List<Object[]> entries = new ArrayList<>();
+            for (final ZipFile jar : jars) {
+                final Enumeration<? extends ZipEntry> it = jar.entries();
+                while (it.hasMoreElements()) {
+                    entries.add(new Object[]{jar, it.nextElement()});
+                }
+            }
+            System.out.println(jarCount + " jars, " + entries.size() + " classes, "
+                    + Runtime.getRuntime().availableProcessors() + " processors");
+
+            run("sequential", iterations, () -> {
+                long checksum = 0;
+                for (final Object[] entry : entries) {
+                    checksum += consume(read(entry));
+                }
+                return checksum;
+            });
+            for (int parallelism = 2; parallelism <= Runtime.getRuntime().availableProcessors() * 2; parallelism *= 2) {
+                final ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    run("parallelism=" + parallelism, iterations, () -> {
+                        long checksum = 0;
+                        final PrefetchingIterator<Object[], byte[]> iterator =
+                                new PrefetchingIterator<>(entries, ScanningBenchmark::read, pool, 1024);
+                        while (iterator.hasNext()) {
+                            checksum += consume(iterator.next());
+                        }
+                        return checksum;
+                    });
+                } finally {
+                    pool.shutdownNow();
+                }
+            }
+        } finally {
+            for (final ZipFile jar : jars) {
+                jar.close();
+            }
+        }
+    }
+
+    private static void run(final String name, final int iterations, final Task task) {
+        final long checksum = task.run(); // warm up, all runs must give the same checksum
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < iterations; i++) {
+            final long start = System.nanoTime();
+            if (task.run() != checksum) {
+                throw new IllegalStateException("Inconsistent run");
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-16s %8.1f ms (checksum %d)%n", name, best / 1_000_000., checksum);
+    }
+
+    private static byte[] read(final Object[] entry) {
+        try (final InputStream stream = ZipFile.class.cast(entry[0]).getInputStream(ZipEntry.class.cast(entry[1]))) {
+            return stream.readAllBytes();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long consume(final byte[] bytes) { // cheap stand-in for the bytecode visit
+        final CRC32 crc = new CRC32();
+        crc.update(bytes, 0, Math.min(bytes.length, 512));
+        return crc.getValue();
+    }
+
+    private static List<ZipFile> createClasspath(final File root, final int jarCount, final int entriesPerJar) throws IOException {
+        root.mkdirs();
+        final Random random = new Random(1234);
+        final List<ZipFile> jars = new ArrayList<>(jarCount);
+        for (int j = 0; j < jarCount; j++) {
+            final File jar = new File(root, "lib-" + j + ".jar");
+            if (!jar.exists()) {
+                try (final ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar))) {
+                    for (int e = 0; e < entriesPerJar; e++) {
+                        out.putNextEntry(new ZipEntry("org/lib" + j + "/Class" + e + ".class"));
+                        out.write(classLike(random));
+                        out.closeEntry();
+                    }
+                }
+            }
+            jars.add(new ZipFile(jar));
+        }
+        return jars;
+    }
+
+    private static byte[] classLike(final Random random) { // compressible like a constant pool
+        final byte[] bytes = new byte[2048 + random.nextInt(8192)];
+        final byte[] words = "java/lang/Object;Ljakarta/enterprise/context/ApplicationScoped;<init>()V".getBytes();
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = random.nextInt(4) == 0 ? (byte) random.nextInt(256) : words[i % words.length];
+        }
+        return bytes;
+    }
+
+    private interface Task {
+        long run();
+    }
+}
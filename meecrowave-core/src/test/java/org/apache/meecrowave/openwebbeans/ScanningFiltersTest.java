@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.openwebbeans;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.meecrowave.configuration.Configuration;
+import org.junit.Test;
+
+public class ScanningFiltersTest {
+    @Test
+    public void classesFilter() {
+        final KnownClassesFilter filter = new KnownClassesFilter();
+        assertFalse(filter.accept("org.apache.cxf.Bus"));
+        assertFalse(filter.accept("javax.inject.Inject"));
+        assertTrue(filter.accept("org.apache.meecrowave.oauth2.OAuth2Configurer"));
+        assertTrue(filter.accept("org.apache.cxfx.Foo"));
+        assertTrue(filter.accept("com.app.Service"));
+
+        final Configuration configuration = new Configuration();
+        configuration.setScanningPackageIncludes("org.apache.cxf.cdi");
+        configuration.setScanningPackageExcludes("com.app.internal");
+        filter.init(configuration);
+        final ScanningReport report = new ScanningReport();
+        filter.setReport(report);
+        assertTrue(filter.accept("org.apache.cxf.cdi.Extension"));
+        assertFalse(filter.accept("com.app.internal.Hidden"));
+        assertFalse(filter.accept("org.apache.cxf.Bus"));
+        assertTrue(filter.accept("com.app.Service"));
+        assertEquals("scanning package include 'org.apache.cxf.cdi'", report.getPackages().get("org.apache.cxf.cdi").getReason());
+        assertEquals("scanning package exclude 'com.app.internal'", report.getPackages().get("com.app.internal").getReason());
+        assertEquals("excluded package 'org.apache.cxf'", report.getPackages().get("org.apache.cxf").getReason());
+        assertTrue(report.getPackages().get("com.app").isKept());
+    }
+
+    @Test
+    public void jarsFilter() {
+        final Configuration configuration = new Configuration();
+        configuration.setScanningExcludes("my-lib-");
+        final KnownJarsFilter filter = new KnownJarsFilter(configuration);
+        final ScanningReport report = new ScanningReport();
+        filter.setReport(report);
+        assertFalse(filter.check(null, "cxf-core-4.0.jar"));
+        assertFalse(filter.check(null, "my-lib-1.0.jar"));
+        assertFalse(filter.check(null, "geronimo-jta_1.1_spec-1.0.jar"));
+        assertTrue(filter.check(null, "cxf-integration-cdi-4.0.jar"));
+        assertTrue(filter.check(null, "app-1.0.jar"));
+        assertEquals("excluded jar prefix 'my-lib-'", report.getJars().get("my-lib-1.0.jar").getReason());
+        assertEquals("geronimo specification jar", report.getJars().get("geronimo-jta_1.1_spec-1.0.jar").getReason());
+        assertEquals("scanning include 'cxf-integration-cdi'", report.getJars().get("cxf-integration-cdi-4.0.jar").getReason());
+        assertTrue(report.getJars().get("app-1.0.jar").isKept());
+
+        filter.setReport(null);
+        assertFalse(filter.check(null, "cxf-core-4.0.jar"));
+        assertTrue(filter.check(null, "app-1.0.jar"));
+    }
+}
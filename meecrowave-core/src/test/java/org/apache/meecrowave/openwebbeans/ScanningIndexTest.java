@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.openwebbeans;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Test;
+
+public class ScanningIndexTest {
+    @Test
+    public void roundTrip() throws IOException {
+        final File jar = jar("roundtrip.jar", "a");
+        final ScanningIndex index = new ScanningIndex("fp", singletonList(new ScanningIndex.Archive(
+                ScanningIndex.nameOf(jar), ScanningIndex.checksum(jar), true, "META-INF/beans.xml",
+                asList("org.app.A", "org.app.B"), singletonList("org.app.MyServlet"))),
+                singletonMap("jakarta.ws.rs.Path", singletonList("org.app.A")));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.write(out);
+        final ScanningIndex read = ScanningIndex.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals("fp", read.getFingerprint());
+        assertEquals(singletonMap("jakarta.ws.rs.Path", singletonList("org.app.A")), read.getHandlesTypes());
+        assertEquals(1, read.getArchives().size());
+
+        final ScanningIndex.Archive archive = read.getArchives().iterator().next();
+        assertEquals("roundtrip.jar", archive.getName());
+        assertEquals(asList("org.app.A", "org.app.B"), new ArrayList<>(archive.getBeanClasses()));
+        assertEquals(singletonList("org.app.MyServlet"), new ArrayList<>(archive.getWebComponents()));
+
+        assertNull(read.validate("fp", singletonList(jar)));
+        assertEquals("jar:" + jar.toURI().toURL().toExternalForm() + "!/", archive.getUrl().toExternalForm());
+        assertEquals("jar:" + jar.toURI().toURL().toExternalForm() + "!/META-INF/beans.xml", archive.getBeansXmlUrl().toExternalForm());
+    }
+
+    @Test
+    public void mismatch() throws IOException {
+        final File jar = jar("mismatch.jar", "a");
+        final ScanningIndex index = new ScanningIndex("fp", singletonList(new ScanningIndex.Archive(
+                ScanningIndex.nameOf(jar), ScanningIndex.checksum(jar), true, null, emptyList(), emptyList())),
+                singletonMap("t", emptyList()));
+        assertNull(index.validate("fp", singletonList(jar)));
+        assertEquals("scanning configuration changed", index.validate("other", singletonList(jar)));
+
+        final File other = jar("other.jar", "a");
+        assertEquals("classpath has 2 archives, index has 1", index.validate("fp", asList(jar, other)));
+        assertEquals("other.jar is not indexed", index.validate("fp", singletonList(other)));
+
+        jar("mismatch.jar", "b");
+        assertEquals("mismatch.jar changed", index.validate("fp", singletonList(jar)));
+    }
+
+    @Test
+    public void unchangedArchives() throws IOException {
+        final File kept = jar("kept.jar", "a");
+        final File changed = jar("changed.jar", "a");
+        final ScanningIndex index = new ScanningIndex("fp", asList(
+                new ScanningIndex.Archive(ScanningIndex.nameOf(kept), ScanningIndex.checksum(kept), true, null,
+                        singletonList("org.app.Kept"), emptyList()),
+                new ScanningIndex.Archive(ScanningIndex.nameOf(changed), ScanningIndex.checksum(changed), true, null,
+                        singletonList("org.app.Old"), emptyList())),
+                singletonMap("t", emptyList()));
+        jar("changed.jar", "b");
+        final File added = jar("added.jar", "a");
+
+        final Collection<ScanningIndex.Archive> unchanged = index.findUnchanged("fp", asList(kept, changed, added));
+        assertEquals(singletonList("kept.jar"), unchanged.stream().map(ScanningIndex.Archive::getName).collect(toList()));
+        assertEquals(kept, unchanged.iterator().next().getFile());
+        assertTrue(index.findUnchanged("other", asList(kept, changed)).isEmpty());
+
+        final ScanningIndex rescanned = new ScanningIndex("fp", asList(
+                new ScanningIndex.Archive("kept.jar", ScanningIndex.checksum(kept), true, null, emptyList(), emptyList()),
+                new ScanningIndex.Archive("changed.jar", 1, true, null, singletonList("org.app.New"), emptyList())),
+                singletonMap("t", emptyList()));
+        assertEquals(asList("[org.app.Kept]", "[org.app.New]"), rescanned.withArchives(unchanged).getArchives().stream()
+                .map(it -> it.getBeanClasses().toString())
+                .collect(toList()));
+    }
+
+    @Test
+    public void unchangedArchivesFromStamps() throws IOException {
+        final File jar = jar("stamped.jar", "a");
+        final File classes = new File("target/ScanningIndexTest/classes");
+        classes.mkdirs();
+        final ScanningIndex index = new ScanningIndex("fp", asList(
+                new ScanningIndex.Archive(ScanningIndex.nameOf(jar), ScanningIndex.stamp(jar), true, null,
+                        singletonList("org.app.Jar"), emptyList()),
+                new ScanningIndex.Archive(ScanningIndex.nameOf(classes), ScanningIndex.stamp(classes), false, null,
+                        singletonList("org.app.Dir"), emptyList())),
+                singletonMap("t", emptyList()));
+        assertEquals(0, ScanningIndex.stamp(classes)); // the caller knows if a directory changed
+        assertEquals(2, index.findUnchanged("fp", asList(jar, classes), ScanningIndex::stamp).size());
+
+        assertTrue(jar.setLastModified(jar.lastModified() - 60000));
+        assertEquals(singletonList(ScanningIndex.nameOf(classes)), index.findUnchanged("fp", asList(jar, classes), ScanningIndex::stamp)
+                .stream().map(ScanningIndex.Archive::getName).collect(toList()));
+    }
+
+    @Test
+    public void sameNameInDifferentDirectories() throws IOException {
+        final File first = jar("first/lib.jar", "a");
+        final File second = jar("second/lib.jar", "b");
+        final ScanningIndex index = new ScanningIndex("fp", asList(
+                new ScanningIndex.Archive(ScanningIndex.nameOf(first), ScanningIndex.checksum(first), true, null,
+                        singletonList("org.app.First"), emptyList()),
+                new ScanningIndex.Archive(ScanningIndex.nameOf(second), ScanningIndex.checksum(second), true, null,
+                        singletonList("org.app.Second"), emptyList())),
+                singletonMap("t", emptyList()));
+        assertEquals(2, index.getArchives().size());
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.write(out);
+        final ScanningIndex read = ScanningIndex.read(new ByteArrayInputStream(out.toByteArray()));
+        assertNull(read.validate("fp", asList(first, second)));
+        read.getArchives().forEach(it -> assertEquals(
+                it.getBeanClasses().contains("org.app.First") ? first : second, it.getFile()));
+
+        jar("second/lib.jar", "c");
+        assertEquals("lib.jar changed", read.validate("fp", asList(first, second)));
+        final Collection<ScanningIndex.Archive> unchanged = read.findUnchanged("fp", asList(first, second));
+        assertEquals(1, unchanged.size());
+        assertEquals(first, unchanged.iterator().next().getFile());
+        assertEquals(singletonList("org.app.First"), new ArrayList<>(unchanged.iterator().next().getBeanClasses()));
+    }
+
+    @Test
+    public void checksumIgnoresDates() throws IOException {
+        final File jar = jar("dates.jar", "a");
+        final long checksum = ScanningIndex.checksum(jar);
+        assertEquals(checksum, ScanningIndex.checksum(jar));
+        jar.setLastModified(jar.lastModified() - 60000);
+        assertEquals(checksum, ScanningIndex.checksum(jar));
+        assertNotEquals(checksum, ScanningIndex.checksum(jar("dates.jar", "ab")));
+    }
+
+    private static File jar(final String name, final String content) throws IOException {
+        final File file = new File("target/ScanningIndexTest/" + name);
+        file.getParentFile().mkdirs();
+        try (final ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+            out.putNextEntry(new ZipEntry("org/app/Content.txt"));
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+        return file;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.startup;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.apache.meecrowave.Meecrowave;
+import org.junit.Test;
+
+public class BootReportTest {
+    @Test
+    public void meecrowave() {
+        try (final Meecrowave meecrowave = new Meecrowave(new Meecrowave.Builder()
+                .randomHttpPort()
+                .includePackages(BootReportTest.class.getName()))
+                .bake()) {
+            final List<String> names = meecrowave.getBootReport().getPhases().stream()
+                    .map(BootReport.Phase::getName)
+                    .collect(toList());
+            assertTrue(names.toString(), names.containsAll(asList(
+                    "start", "base-directory", "connectors", "tomcat-start",
+                    "deploy", "context-start", "cdi-boot", "cdi:BeforeBeanDiscovery", "cdi:AfterDeploymentValidation",
+                    "cxf-setup")));
+            assertTrue(meecrowave.getBootReport().getPhases().stream()
+                    .filter(p -> p.getName().equals("deploy") || p.getName().equals("start"))
+                    .allMatch(BootReport.Phase::isDone));
+        }
+    }
+
+    @Test
+    public void nesting() {
+        final BootReport report = new BootReport();
+        try (final BootReport.Phase start = report.start("start")) {
+            report.run("customizer", "org.app.\"My\"Customizer", () -> {});
+            try (final BootReport.Phase deploy = report.start("deploy", "/app")) {
+                report.run("cdi-boot", null, () -> {});
+            }
+        }
+        report.run("after", null, () -> {});
+
+        final List<BootReport.Phase> phases = report.getPhases();
+        assertEquals(asList("start:0", "customizer:1", "deploy:1", "cdi-boot:2", "after:0"),
+                phases.stream().map(p -> p.getName() + ':' + p.getDepth()).collect(toList()));
+        assertTrue(phases.stream().allMatch(BootReport.Phase::isDone));
+        assertTrue(phases.get(0).getDuration() >= phases.get(2).getDuration());
+
+        final String json = report.toJson();
+        assertTrue(json, json.startsWith("{\"phases\":[{\"name\":\"start\",\"depth\":0,\"startMs\":"));
+        assertTrue(json, json.contains("\"detail\":\"org.app.\\\"My\\\"Customizer\""));
+        final String text = report.toText();
+        assertTrue(text, text.contains("    cdi-boot\n"));
+        assertTrue(text, text.contains("  deploy [/app]\n"));
+    }
+
+    @Test
+    public void openPhase() {
+        final BootReport report = new BootReport();
+        final BootReport.Phase phase = report.start("long");
+        assertFalse(phase.isDone());
+        assertEquals(-1, phase.getDuration());
+        assertFalse(report.toJson(), report.toJson().contains("durationMs"));
+        phase.close();
+        final long duration = phase.getDuration();
+        phase.close();
+        assertEquals(duration, phase.getDuration());
+    }
+
+    @Test
+    public void bind() {
+        assertNull(BootReport.current());
+        final BootReport report = new BootReport();
+        final BootReport previous = report.bind();
+        try {
+            assertSame(report, BootReport.current());
+        } finally {
+            BootReport.restore(previous);
+        }
+        assertNull(BootReport.current());
+    }
+}
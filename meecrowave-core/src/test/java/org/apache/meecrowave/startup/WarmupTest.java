@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.startup;
+
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static jakarta.ws.rs.core.MediaType.TEXT_PLAIN;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+
+import org.apache.meecrowave.Meecrowave;
+import org.junit.Test;
+
+public class WarmupTest {
+    @Test
+    public void parse() throws IOException {
+        final File file = write("parse",
+                "# comment",
+                "",
+                "GET /api/hello",
+                "post /api/user application/json {\"name\": \"warm up\"}",
+                "127.0.0.1 - - [18/Oct/2026:10:00:00 +0000] \"GET /api/hello?id=1 HTTP/1.1\" 200 12",
+                "127.0.0.1 - - [18/Oct/2026:10:00:01 +0000] \"DELETE /api/user/1 HTTP/1.1\" 204 -");
+        final List<Warmup.Request> requests = Warmup.parse(file.toPath());
+        assertEquals(3, requests.size());
+        assertEquals("GET /api/hello", requests.get(0).getMethod() + ' ' + requests.get(0).getUri());
+        assertEquals("POST", requests.get(1).getMethod());
+        assertEquals("application/json", requests.get(1).getContentType());
+        assertEquals("{\"name\": \"warm up\"}", requests.get(1).getBody());
+        assertEquals("/api/hello?id=1", requests.get(2).getUri());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalid() throws IOException {
+        Warmup.parse(write("invalid", "POST /api/user application/json").toPath());
+    }
+
+    @Test
+    public void beforeListening() throws IOException {
+        final File file = write("beforeListening",
+                "GET /WarmupTest/endpoint",
+                "POST /WarmupTest/endpoint application/json {}",
+                "GET /other/endpoint");
+        Endpoint.CALLS.set(0);
+        try (final Meecrowave meecrowave = new Meecrowave(new Meecrowave.Builder()
+                .randomHttpPort()
+                .warmup(file.getAbsolutePath())
+                .warmupIterations(5)
+                .warmupStability(0)
+                .includePackages(WarmupTest.class.getName()))
+                .bake()) {
+            assertEquals(10, Endpoint.CALLS.get());
+            assertTrue(meecrowave.getBootReport().getPhases().stream().map(BootReport.Phase::getName).collect(toList()).contains("warmup"));
+            assertEquals(1, meecrowave.getTomcat().getService().findConnectors().length); // warm-up connector removed
+        }
+    }
+
+    private static File write(final String name, final String... lines) throws IOException {
+        final File file = new File("target/WarmupTest/" + name + ".txt");
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Path("WarmupTest/endpoint")
+    @ApplicationScoped
+    public static class Endpoint {
+        private static final AtomicInteger CALLS = new AtomicInteger();
+
+        @GET
+        @Produces(TEXT_PLAIN)
+        public String get() {
+            CALLS.incrementAndGet();
+            return "ok";
+        }
+
+        @POST
+        @Consumes(APPLICATION_JSON)
+        @Produces(TEXT_PLAIN)
+        public String post(final String body) {
+            CALLS.incrementAndGet();
+            return body;
+        }
+    }
+}
@@ -90,6 +90,17 @@ public class MeecrowaveExtension {
     private String scanningExcludes;
     private String scanningPackageIncludes;
     private String scanningPackageExcludes;
+    private String scanningIndex;
+    private int scanningParallelism;
+    private boolean scanningReport;
+    private int deploymentParallelism;
+    private boolean virtualThreads;
+    private String warmup;
+    private int warmupIterations = 20;
+    private int warmupStability = 10;
+    private boolean jfrEvents;
+    private String bootReport;
+    private String bootReportFile;
     private boolean tomcatNoJmx = true;
     private boolean injectServletContainerInitializer = true;
     private String tomcatAccessLogPattern;
@@ -654,6 +665,94 @@ public class MeecrowaveExtension {
         this.scanningPackageExcludes = scanningPackageExcludes;
     }
 
+    public String getScanningIndex() {
+        return scanningIndex;
+    }
+
+    public void setScanningIndex(String scanningIndex) {
+        this.scanningIndex = scanningIndex;
+    }
+
+    public int getScanningParallelism() {
+        return scanningParallelism;
+    }
+
+    public void setScanningParallelism(int scanningParallelism) {
+        this.scanningParallelism = scanningParallelism;
+    }
+
+    public boolean isScanningReport() {
+        return scanningReport;
+    }
+
+    public void setScanningReport(boolean scanningReport) {
+        this.scanningReport = scanningReport;
+    }
+
+    public int getDeploymentParallelism() {
+        return deploymentParallelism;
+    }
+
+    public void setDeploymentParallelism(int deploymentParallelism) {
+        this.deploymentParallelism = deploymentParallelism;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public String getWarmup() {
+        return warmup;
+    }
+
+    public void setWarmup(String warmup) {
+        this.warmup = warmup;
+    }
+
+    public int getWarmupIterations() {
+        return warmupIterations;
+    }
+
+    public void setWarmupIterations(int warmupIterations) {
+        this.warmupIterations = warmupIterations;
+    }
+
+    public int getWarmupStability() {
+        return warmupStability;
+    }
+
+    public void setWarmupStability(int warmupStability) {
+        this.warmupStability = warmupStability;
+    }
+
+    public boolean isJfrEvents() {
+        return jfrEvents;
+    }
+
+    public void setJfrEvents(boolean jfrEvents) {
+        this.jfrEvents = jfrEvents;
+    }
+
+    public String getBootReport() {
+        return bootReport;
+    }
+
+    public void setBootReport(String bootReport) {
+        this.bootReport = bootReport;
+    }
+
+    public String getBootReportFile() {
+        return bootReportFile;
+    }
+
+    public void setBootReportFile(String bootReportFile) {
+        this.bootReportFile = bootReportFile;
+    }
+
     public boolean isTomcatNoJmx() {
         return tomcatNoJmx;
     }
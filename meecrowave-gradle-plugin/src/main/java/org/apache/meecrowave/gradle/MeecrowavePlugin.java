@@ -68,5 +68,10 @@ public class MeecrowavePlugin implements Plugin<Project> {
             put("group", "Embedded Application Server");
             put("description", "Starts a meecrowave!");
         }}, NAME);
+        project.task(new HashMap<String, Object>() {{
+            put("type", MeecrowaveScanningIndexTask.class);
+            put("group", "Embedded Application Server");
+            put("description", "Generates the meecrowave scanning index");
+        }}, NAME + "ScanningIndex");
     }
 }
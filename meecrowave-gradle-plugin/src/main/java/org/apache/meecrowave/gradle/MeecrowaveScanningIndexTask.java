@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.gradle;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Writes the scanning index of the application (see the scanningIndex option of the meecrowave task)
+ * so the classpath is not scanned at startup.
+ */
+public class MeecrowaveScanningIndexTask extends DefaultTask {
+    private Configuration classpath;
+
+    @Input
+    @Optional
+    private File output;
+
+    @Input
+    @Optional
+    private List<File> modules;
+
+    @Input
+    @Optional
+    private Collection<String> applicationScopes = new HashSet<>(asList("compile", "runtime"));
+
+    /**
+     * Runtime options impacting the scanning (scanning-include, scanning-exclude, ...).
+     */
+    @Input
+    @Optional
+    private Map<String, String> options = new HashMap<>();
+
+    @TaskAction
+    public void generate() {
+        if (classpath == null) {
+            classpath = getProject().getConfigurations().getByName(MeecrowavePlugin.NAME);
+        }
+        if (output == null) {
+            output = new File(getProject().getBuildDir(), "meecrowave/scanning.index");
+        }
+
+        final Collection<URL> urls = new LinkedHashSet<>(64);
+        addFiles(modules, urls);
+        for (final Configuration cc : getProject().getConfigurations()) {
+            if (applicationScopes.contains(cc.getName())) {
+                addFiles(cc.getFiles(), urls);
+            }
+        }
+        addFiles(classpath.getFiles(), urls);
+
+        final String[] args = Stream.concat(
+                Stream.of(output.getAbsolutePath()),
+                options.entrySet().stream().map(e -> e.getKey() + '=' + e.getValue()))
+                .toArray(String[]::new);
+
+        final Thread thread = Thread.currentThread();
+        final ClassLoader tccl = thread.getContextClassLoader();
+        // platform loader as parent: the index must only see the application classpath
+        try (final URLClassLoader loader = new URLClassLoader(urls.toArray(new URL[urls.size()]), ClassLoader.getPlatformClassLoader())) {
+            thread.setContextClassLoader(loader);
+            loader.loadClass("org.apache.meecrowave.runner.ScanningIndexer")
+                    .getMethod("main", String[].class)
+                    .invoke(null, (Object) args);
+        } catch (final InvocationTargetException ite) {
+            throw new GradleException(ite.getTargetException().getMessage(), ite.getTargetException());
+        } catch (final Exception e) {
+            throw new GradleException(e.getMessage(), e);
+        } finally {
+            thread.setContextClassLoader(tccl);
+        }
+        getLogger().info("Scanning index written to " + output);
+    }
+
+    private void addFiles(final Collection<File> files, final Collection<URL> urls) {
+        if (files == null || files.isEmpty()) {
+            return;
+        }
+        for (final File f : files) {
+            try {
+                urls.add(f.toURI().toURL());
+            } catch (final MalformedURLException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+    }
+
+    public Configuration getClasspath() {
+        return classpath;
+    }
+
+    public void setClasspath(final Configuration classpath) {
+        this.classpath = classpath;
+    }
+
+    public File getOutput() {
+        return output;
+    }
+
+    public void setOutput(final File output) {
+        this.output = output;
+    }
+
+    public List<File> getModules() {
+        return modules;
+    }
+
+    public void setModules(final List<File> modules) {
+        this.modules = modules;
+    }
+
+    public Collection<String> getApplicationScopes() {
+        return applicationScopes;
+    }
+
+    public void setApplicationScopes(final Collection<String> applicationScopes) {
+        this.applicationScopes = applicationScopes;
+    }
+
+    public Map<String, String> getOptions() {
+        return options;
+    }
+
+    public void setOptions(final Map<String, String> options) {
+        this.options = options;
+    }
+}
@@ -336,6 +336,50 @@ public class MeecrowaveTask extends DefaultTask {
     @Optional
     private String scanningPackageExcludes;
 
+    @Input
+    @Optional
+    private String scanningIndex;
+
+    @Input
+    @Optional
+    private int scanningParallelism;
+
+    @Input
+    @Optional
+    private boolean scanningReport;
+
+    @Input
+    @Optional
+    private int deploymentParallelism;
+
+    @Input
+    @Optional
+    private boolean virtualThreads;
+
+    @Input
+    @Optional
+    private String warmup;
+
+    @Input
+    @Optional
+    private int warmupIterations = 20;
+
+    @Input
+    @Optional
+    private int warmupStability = 10;
+
+    @Input
+    @Optional
+    private boolean jfrEvents;
+
+    @Input
+    @Optional
+    private String bootReport;
+
+    @Input
+    @Optional
+    private String bootReportFile;
+
     @Input
     @Optional
     private String tomcatAccessLogPattern;
@@ -1141,6 +1185,94 @@ public class MeecrowaveTask extends DefaultTask {
         this.scanningPackageExcludes = scanningPackageExcludes;
     }
 
+    public String getScanningIndex() {
+        return scanningIndex;
+    }
+
+    public void setScanningIndex(final String scanningIndex) {
+        this.scanningIndex = scanningIndex;
+    }
+
+    public int getScanningParallelism() {
+        return scanningParallelism;
+    }
+
+    public void setScanningParallelism(final int scanningParallelism) {
+        this.scanningParallelism = scanningParallelism;
+    }
+
+    public boolean isScanningReport() {
+        return scanningReport;
+    }
+
+    public void setScanningReport(final boolean scanningReport) {
+        this.scanningReport = scanningReport;
+    }
+
+    public int getDeploymentParallelism() {
+        return deploymentParallelism;
+    }
+
+    public void setDeploymentParallelism(final int deploymentParallelism) {
+        this.deploymentParallelism = deploymentParallelism;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(final boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public String getWarmup() {
+        return warmup;
+    }
+
+    public void setWarmup(final String warmup) {
+        this.warmup = warmup;
+    }
+
+    public int getWarmupIterations() {
+        return warmupIterations;
+    }
+
+    public void setWarmupIterations(final int warmupIterations) {
+        this.warmupIterations = warmupIterations;
+    }
+
+    public int getWarmupStability() {
+        return warmupStability;
+    }
+
+    public void setWarmupStability(final int warmupStability) {
+        this.warmupStability = warmupStability;
+    }
+
+    public boolean isJfrEvents() {
+        return jfrEvents;
+    }
+
+    public void setJfrEvents(final boolean jfrEvents) {
+        this.jfrEvents = jfrEvents;
+    }
+
+    public String getBootReport() {
+        return bootReport;
+    }
+
+    public void setBootReport(final String bootReport) {
+        this.bootReport = bootReport;
+    }
+
+    public String getBootReportFile() {
+        return bootReportFile;
+    }
+
+    public void setBootReportFile(final String bootReportFile) {
+        this.bootReportFile = bootReportFile;
+    }
+
     public boolean isTomcatNoJmx() {
         return tomcatNoJmx;
     }
@@ -23,12 +23,27 @@ import jakarta.interceptor.AroundInvoke;
 import jakarta.interceptor.InvocationContext;
 import java.io.Serializable;
 
+import org.apache.meecrowave.jfr.InterceptorEvent;
+import org.apache.meecrowave.jfr.Jfr;
+
 public abstract class JpaInterceptorBase implements Serializable {
     @Inject
     private JpaExtension extension;
 
     @AroundInvoke
     public Object inTransaction(final InvocationContext context) throws Exception {
+        if (!Jfr.isEnabled()) {
+            return doInTransaction(context);
+        }
+        final InterceptorEvent event = new InterceptorEvent(getClass().getSimpleName());
+        try {
+            return doInTransaction(context);
+        } finally {
+            event.finish(context.getMethod());
+        }
+    }
+
+    private Object doInTransaction(final InvocationContext context) throws Exception {
         final EntityManagerContext entityManagerContext = extension.getEntityManagerContext();
         final boolean owner = entityManagerContext.enter(isTransactional());
         try {
@@ -16,6 +16,9 @@
  */
 package org.apache.meecrowave.jta;
 
+import org.apache.meecrowave.jfr.InterceptorEvent;
+import org.apache.meecrowave.jfr.Jfr;
+
 import jakarta.enterprise.inject.spi.AnnotatedMethod;
 import jakarta.enterprise.inject.spi.AnnotatedType;
 import jakarta.enterprise.inject.spi.CDI;
@@ -29,6 +32,8 @@ import jakarta.transaction.TransactionManager;
 import jakarta.transaction.TransactionRolledbackException;
 import jakarta.transaction.Transactional;
 import jakarta.transaction.TransactionalException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.util.concurrent.ConcurrentHashMap;
@@ -42,7 +47,7 @@ public abstract class InterceptorBase implements Serializable {
     private static final IllegalStateException ILLEGAL_STATE_EXCEPTION = new IllegalStateException("Can't use UserTransaction from @Transaction call");
     private static final ThreadLocal<RuntimeException> ERROR = new ThreadLocal<>();
 
-    private transient volatile ConcurrentMap<Method, Boolean> rollback = new ConcurrentHashMap<>();
+    private transient ConcurrentMap<Method, Boolean> rollback = new ConcurrentHashMap<>();
 
     @Inject
     private JtaConfig config;
@@ -51,6 +56,18 @@ public abstract class InterceptorBase implements Serializable {
     protected TransactionManager transactionManager;
 
     protected Object intercept(final InvocationContext ic) throws Exception {
+        if (!Jfr.isEnabled()) {
+            return doIntercept(ic);
+        }
+        final InterceptorEvent event = new InterceptorEvent(getClass().getSimpleName());
+        try {
+            return doIntercept(ic);
+        } finally {
+            event.finish(ic.getMethod());
+        }
+    }
+
+    private Object doIntercept(final InvocationContext ic) throws Exception {
         final boolean forbidsUt = doesForbidUtUsage();
         final RuntimeException oldEx;
         final IllegalStateException illegalStateException;
@@ -76,13 +93,6 @@ public abstract class InterceptorBase implements Serializable {
             Exception error = unwrap(e);
             if (error != null && (!config.isHandleExceptionOnlyForClient() || isNewTransaction(state))) {
                 final Method method = ic.getMethod();
-                if (rollback == null) {
-                    synchronized (this) {
-                        if (rollback == null) {
-                            rollback = new ConcurrentHashMap<>();
-                        }
-                    }
-                }
                 Boolean doRollback = rollback.get(method);
                 if (doRollback != null) {
                     if (doRollback && isTransactionActive(state.current)) {
@@ -133,7 +143,16 @@ public abstract class InterceptorBase implements Serializable {
     protected abstract void commit(final State state);
 
     private void resetError(final RuntimeException oldEx) {
-        ERROR.set(oldEx);
+        if (oldEx == null) { // don't keep an entry per pooled thread
+            ERROR.remove();
+        } else {
+            ERROR.set(oldEx);
+        }
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        rollback = new ConcurrentHashMap<>();
     }
 
     protected void setRollbackOnly() throws SystemException {
@@ -0,0 +1,294 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.maven;
+
+import static java.util.Locale.ENGLISH;
+import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toList;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.BindException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Runs the bundle with its own script and {@code -XX:ArchiveClassesAtExit} to dump a dynamic AppCDS archive
+ * of the classes loaded during the startup and the warm-up requests.
+ *
+ * Using the script ensures the archive is created with the exact classpath (order included) the bundle will run with,
+ * the JVM ignores the archive otherwise. The classpath is recorded with absolute paths so the location of the training
+ * run is written next to the archive ({@value #LOCATION}), the scripts warn when the bundle runs from another one
+ * since JVMs before Java 19 ignore the archive then.
+ */
+final class AppCdsTraining {
+    static final String ARCHIVE = "conf/meecrowave.jsa";
+    static final String LOCATION = ARCHIVE + ".location";
+    private static final List<String> RUNTIME_FOLDERS = List.of("logs", "temp", "work");
+
+    private final File distro;
+    private final File workDir;
+    private final Log log;
+    private int httpPort;
+    private int stopPort;
+    private long timeout;
+    private Collection<String> warmupUrls;
+    private Collection<String> args;
+
+    AppCdsTraining(final File distro, final File workDir, final Log log) {
+        this.distro = distro;
+        this.workDir = workDir;
+        this.log = log;
+    }
+
+    AppCdsTraining ports(final int http, final int stop) {
+        this.httpPort = http;
+        this.stopPort = stop;
+        return this;
+    }
+
+    AppCdsTraining timeout(final long timeout, final TimeUnit unit) {
+        this.timeout = unit.toMillis(timeout);
+        return this;
+    }
+
+    AppCdsTraining warmup(final Collection<String> urls) {
+        this.warmupUrls = urls;
+        return this;
+    }
+
+    AppCdsTraining args(final Collection<String> args) {
+        this.args = args;
+        return this;
+    }
+
+    void run() throws MojoExecutionException {
+        final File archive = new File(distro, ARCHIVE);
+        final File location = new File(distro, LOCATION);
+        for (final File file : List.of(archive, location)) {
+            if (file.exists() && !file.delete()) {
+                throw new MojoExecutionException("Can't delete " + file);
+            }
+        }
+        final int http = httpPort > 0 ? httpPort : randomPort();
+        final int stop = stopPort > 0 ? stopPort : randomPort();
+
+        final boolean windows = System.getProperty("os.name", "").toLowerCase(ENGLISH).contains("win");
+        final List<String> command = new ArrayList<>();
+        if (windows) {
+            command.addAll(List.of("cmd", "/c", "bin\\meecrowave.bat"));
+        } else {
+            command.addAll(List.of("sh", "bin/meecrowave.sh"));
+        }
+        command.addAll(List.of("run", "--http=" + http, "--stop=" + stop));
+        ofNullable(args).ifPresent(command::addAll);
+
+        workDir.mkdirs();
+        final File output = new File(workDir, "app-cds-training.log");
+        final ProcessBuilder builder = new ProcessBuilder(command)
+                .directory(distro)
+                .redirectErrorStream(true)
+                .redirectOutput(output);
+        final Map<String, String> environment = builder.environment();
+        environment.put("JAVA_OPTS", ofNullable(environment.get("JAVA_OPTS")).map(it -> it + ' ').orElse("") +
+                "-XX:ArchiveClassesAtExit=\"" + archive.getAbsolutePath() + '"');
+        environment.put("MEECROWAVE_CDS_ARCHIVE", archive.getAbsolutePath()); // ensure the script doesn't use another one
+        environment.remove("MEECROWAVE_BASE");
+        environment.remove("MEECROWAVE_HOME");
+        if (!environment.containsKey("JAVA_HOME") && !environment.containsKey("JRE_HOME")) {
+            environment.put("JAVA_HOME", System.getProperty("java.home")); // archive must match the runtime JVM
+        }
+
+        final Collection<File> existing = runtimeFiles();
+        log.info("Starting AppCDS training run (output in " + output + ")");
+        final Process process;
+        try {
+            process = builder.start();
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Can't start the training run: " + e.getMessage(), e);
+        }
+        try {
+            awaitStarted(process, stop, output);
+            warmup(http);
+            stop(process, stop);
+        } catch (final MojoExecutionException | RuntimeException e) {
+            process.destroyForcibly();
+            throw e;
+        }
+
+        if (!archive.isFile()) {
+            throw new MojoExecutionException("AppCDS archive was not generated, check " + output +
+                    " (it requires a JVM >= 13 and the same JVM must be used at runtime)");
+        }
+        writeLocation(distro);
+        log.info("Generated " + archive + " (" + archive.length() / 1024 + "kB), " +
+                "unless the runtime uses Java >= 19 the bundle must run from " + distro.getAbsolutePath());
+        cleanRuntimeFiles(existing);
+    }
+
+    static void writeLocation(final File distro) throws MojoExecutionException {
+        final File location = new File(distro, LOCATION);
+        try {
+            Files.write(location.toPath(), distro.getCanonicalPath().getBytes(StandardCharsets.UTF_8));
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Can't write " + location + ": " + e.getMessage(), e);
+        }
+    }
+
+    // the stop port is only bound once the application is deployed and the server awaits its shutdown
+    private void awaitStarted(final Process process, final int stop, final File output) throws MojoExecutionException {
+        final long end = System.currentTimeMillis() + timeout;
+        while (System.currentTimeMillis() < end) {
+            if (!process.isAlive()) {
+                throw new MojoExecutionException("Training run exited with status " + process.exitValue() + ", see " + output);
+            }
+            if (isBound(stop)) {
+                return;
+            }
+            sleep(250);
+        }
+        throw new MojoExecutionException("Training run didn't start in " + timeout + "ms, see " + output);
+    }
+
+    private void warmup(final int http) {
+        for (final String url : ofNullable(warmupUrls).orElseGet(Collections::emptyList)) {
+            final String target = url.startsWith("http://") || url.startsWith("https://") ?
+                    url : "http://localhost:" + http + (url.startsWith("/") ? "" : "/") + url;
+            try {
+                final HttpURLConnection connection = HttpURLConnection.class.cast(new URL(target).openConnection());
+                connection.setConnectTimeout((int) Math.min(Integer.MAX_VALUE, timeout));
+                connection.setReadTimeout((int) Math.min(Integer.MAX_VALUE, timeout));
+                final int status = connection.getResponseCode();
+                try (final InputStream stream = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                    if (stream != null) {
+                        stream.transferTo(OutputStream.nullOutputStream());
+                    }
+                }
+                if (status >= 400) {
+                    log.warn("Warm-up request " + target + " returned HTTP " + status);
+                } else {
+                    log.info("Warm-up request " + target + " returned HTTP " + status);
+                }
+                connection.disconnect();
+            } catch (final IOException e) {
+                log.warn("Warm-up request " + target + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void stop(final Process process, final int stop) throws MojoExecutionException {
+        try (final Socket socket = new Socket(InetAddress.getByName("localhost"), stop);
+             final OutputStream stream = socket.getOutputStream()) {
+            stream.write("SHUTDOWN".getBytes(StandardCharsets.UTF_8));
+            stream.flush();
+        } catch (final IOException e) {
+            log.warn("Can't send the shutdown command: " + e.getMessage());
+        }
+        try {
+            // the archive is dumped at exit so the process must end gracefully
+            if (!process.waitFor(timeout, TimeUnit.MILLISECONDS)) {
+                process.destroy();
+                if (!process.waitFor(timeout, TimeUnit.MILLISECONDS)) {
+                    throw new MojoExecutionException("Training run didn't stop in " + timeout + "ms");
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while waiting for the training run", e);
+        }
+    }
+
+    private Collection<File> runtimeFiles() {
+        final Collection<File> files = new ArrayList<>();
+        for (final String folder : RUNTIME_FOLDERS) {
+            ofNullable(new File(distro, folder).listFiles()).map(List::of).ifPresent(files::addAll);
+        }
+        files.addAll(RUNTIME_FOLDERS.stream().map(it -> new File(distro, it)).filter(File::exists).collect(toList()));
+        return files;
+    }
+
+    // removes what the training run created (logs, work directory), the bundle must stay as built
+    private void cleanRuntimeFiles(final Collection<File> existing) {
+        for (final String folder : RUNTIME_FOLDERS) {
+            final File root = new File(distro, folder);
+            if (!existing.contains(root)) {
+                delete(root);
+                continue;
+            }
+            ofNullable(root.listFiles()).map(List::of).orElseGet(Collections::emptyList).stream()
+                    .filter(it -> !existing.contains(it))
+                    .forEach(AppCdsTraining::delete);
+        }
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                delete(child);
+            }
+        }
+        if (!file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    private static boolean isBound(final int port) {
+        try (final ServerSocket socket = new ServerSocket(port, 1, InetAddress.getByName("localhost"))) {
+            return false;
+        } catch (final BindException be) {
+            return true;
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
+    private static int randomPort() throws MojoExecutionException {
+        try (final ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (final IOException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
+
+    private static void sleep(final long ms) throws MojoExecutionException {
+        try {
+            Thread.sleep(ms);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while waiting for the training run", e);
+        }
+    }
+}
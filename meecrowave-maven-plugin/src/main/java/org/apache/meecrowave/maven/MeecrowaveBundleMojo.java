@@ -68,11 +68,14 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 import java.util.zip.GZIPOutputStream;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Locale.ENGLISH;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
@@ -127,6 +130,47 @@ public class MeecrowaveBundleMojo extends AbstractMojo {
     @Parameter(property = "meecrowave.root-name")
     private String rootName;
 
+    /**
+     * Generates conf/scanning.index from the bundle libs to skip the classpath scanning at startup.
+     */
+    @Parameter(property = "meecrowave.scanning-index", defaultValue = "false")
+    private boolean scanningIndex;
+
+    /**
+     * Runtime options impacting the scanning (scanning-include, scanning-exclude, ...) used to generate the index.
+     */
+    @Parameter
+    private Map<String, String> scanningIndexOptions;
+
+    /**
+     * Starts the bundle once (training run) to generate a dynamic AppCDS archive (conf/meecrowave.jsa)
+     * the bin scripts then use automatically. The bundle must then run with the same JVM as the build.
+     */
+    @Parameter(property = "meecrowave.app-cds", defaultValue = "false")
+    private boolean appCds;
+
+    /**
+     * URLs requested during the training run once the application is started,
+     * relative ones are resolved against http://localhost:{appCdsHttpPort}.
+     */
+    @Parameter
+    private List<String> appCdsWarmupUrls;
+
+    /**
+     * Extra arguments of the training run (Cli options).
+     */
+    @Parameter
+    private List<String> appCdsArgs;
+
+    @Parameter(property = "meecrowave.app-cds.http", defaultValue = "0")
+    private int appCdsHttpPort; // 0 means random
+
+    @Parameter(property = "meecrowave.app-cds.stop", defaultValue = "0")
+    private int appCdsStopPort; // 0 means random
+
+    @Parameter(property = "meecrowave.app-cds.timeout", defaultValue = "120")
+    private long appCdsTimeout; // in seconds, for the startup, each warm-up request and the shutdown
+
     @Parameter(defaultValue = "${project.build.directory}", readonly = true)
     private File buildDirectory;
 
@@ -247,6 +291,11 @@ public class MeecrowaveBundleMojo extends AbstractMojo {
                 setVersion(findVersion());
             }});
         }
+        if (scanningIndex) {
+            final File[] jars = new File(distroFolder, "lib").listFiles((dir, name) -> name.endsWith(".jar"));
+            ScanningIndexes.generate(jars == null ? emptyList() : asList(jars),
+                    new File(distroFolder, "conf/scanning.index"), scanningIndexOptions);
+        }
 
         for (final String ext : asList("sh", "bat")) {
             try (final BufferedReader reader = new BufferedReader(new InputStreamReader(
@@ -277,6 +326,15 @@ public class MeecrowaveBundleMojo extends AbstractMojo {
             });
         }
 
+        if (appCds) {
+            new AppCdsTraining(distroFolder, new File(buildDirectory, "meecrowave-app-cds"), getLog())
+                    .ports(appCdsHttpPort, appCdsStopPort)
+                    .timeout(appCdsTimeout, TimeUnit.SECONDS)
+                    .warmup(appCdsWarmupUrls)
+                    .args(appCdsArgs)
+                    .run();
+        }
+
         final Path prefix = skipArchiveRootFolder ? distroFolder.toPath() : distroFolder.getParentFile().toPath();
         for (final String format : formats) {
             getLog().info(format + "-ing Custom Meecrowave Distribution");
@@ -290,6 +290,39 @@ public class MeecrowaveRunMojo extends AbstractMojo {
     @Parameter(property = "meecrowave.scanning-package-exclude")
     private String scanningPackageExcludes;
 
+    @Parameter(property = "meecrowave.scanning-index")
+    private String scanningIndex;
+
+    @Parameter(property = "meecrowave.scanning-parallelism", defaultValue = "0")
+    private int scanningParallelism;
+
+    @Parameter(property = "meecrowave.scanning-report", defaultValue = "false")
+    private boolean scanningReport;
+
+    @Parameter(property = "meecrowave.deployment-parallelism", defaultValue = "0")
+    private int deploymentParallelism;
+
+    @Parameter(property = "meecrowave.virtual-threads", defaultValue = "false")
+    private boolean virtualThreads;
+
+    @Parameter(property = "meecrowave.warmup")
+    private String warmup;
+
+    @Parameter(property = "meecrowave.warmup-iterations", defaultValue = "20")
+    private int warmupIterations;
+
+    @Parameter(property = "meecrowave.warmup-stability", defaultValue = "10")
+    private int warmupStability;
+
+    @Parameter(property = "meecrowave.jfr-events", defaultValue = "false")
+    private boolean jfrEvents;
+
+    @Parameter(property = "meecrowave.boot-report")
+    private String bootReport;
+
+    @Parameter(property = "meecrowave.boot-report-file")
+    private String bootReportFile;
+
     @Parameter(property = "meecrowave.force-log4j2-shutdown", defaultValue = "true")
     private boolean forceLog4j2Shutdown;
 
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.maven;
+
+import static java.util.stream.Collectors.toList;
+import static org.apache.maven.plugins.annotations.ResolutionScope.RUNTIME_PLUS_SYSTEM;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Scans the application classpath at build time and writes an index Meecrowave uses at startup instead of scanning
+ * (set it with {@code --scanning-index} or put it in {@code ${meecrowave.base}/conf/scanning.index}).
+ * If the runtime classpath or the scanning configuration doesn't match the index, it is ignored.
+ */
+@Mojo(name = "scanning-index", defaultPhase = LifecyclePhase.PACKAGE, requiresDependencyResolution = RUNTIME_PLUS_SYSTEM)
+public class MeecrowaveScanningIndexMojo extends AbstractMojo {
+    @Parameter(property = "meecrowave.scanning-index.output", defaultValue = "${project.build.directory}/meecrowave/scanning.index")
+    private File output;
+
+    @Parameter(property = "meecrowave.scopes", defaultValue = "compile,runtime")
+    private Collection<String> scopes;
+
+    /**
+     * Runtime options impacting the scanning (scanning-include, scanning-exclude, scanning-package-include, ...).
+     */
+    @Parameter
+    private Map<String, String> options;
+
+    @Parameter(property = "meecrowave.skip", defaultValue = "false")
+    private boolean skip;
+
+    @Parameter(defaultValue = "${project.build.directory}/${project.build.finalName}.${project.packaging}", readonly = true)
+    private File app;
+
+    @Parameter(defaultValue = "${project.build.outputDirectory}", readonly = true)
+    private File classes;
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (skip) {
+            getLog().warn(getClass().getSimpleName() + " skipped");
+            return;
+        }
+
+        final List<File> classpath = project.getArtifacts().stream()
+                .filter(a -> scopes == null ?
+                        Artifact.SCOPE_COMPILE.equals(a.getScope()) || Artifact.SCOPE_RUNTIME.equals(a.getScope()) :
+                        scopes.contains(a.getScope()))
+                .map(Artifact::getFile)
+                .collect(toList());
+        classpath.add(app.isFile() ? app : classes); // the packaged application jar is what is deployed if it exists
+        ScanningIndexes.generate(classpath, output, options);
+        getLog().info("Scanning index written to " + output);
+    }
+}
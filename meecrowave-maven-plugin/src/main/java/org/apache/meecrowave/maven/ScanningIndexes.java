@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.maven;
+
+import static java.util.Optional.ofNullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.maven.plugin.MojoExecutionException;
+
+final class ScanningIndexes {
+    private ScanningIndexes() {
+        // no-op
+    }
+
+    /**
+     * Runs the scanning indexer of the application meecrowave-core in a loader isolated from the plugin one
+     * to index exactly the runtime classpath.
+     */
+    static void generate(final Collection<File> classpath, final File output, final Map<String, String> options)
+            throws MojoExecutionException {
+        final URL[] urls = classpath.stream().map(f -> {
+            try {
+                return f.toURI().toURL();
+            } catch (final MalformedURLException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }).toArray(URL[]::new);
+        final String[] args = Stream.concat(
+                Stream.of(output.getAbsolutePath()),
+                ofNullable(options).orElseGet(Collections::emptyMap).entrySet().stream().map(e -> e.getKey() + '=' + e.getValue()))
+                .toArray(String[]::new);
+
+        final Thread thread = Thread.currentThread();
+        final ClassLoader old = thread.getContextClassLoader();
+        try (final URLClassLoader loader = new URLClassLoader(urls, ClassLoader.getPlatformClassLoader())) {
+            thread.setContextClassLoader(loader);
+            loader.loadClass("org.apache.meecrowave.runner.ScanningIndexer")
+                    .getMethod("main", String[].class)
+                    .invoke(null, (Object) args);
+        } catch (final ClassNotFoundException cnfe) {
+            throw new MojoExecutionException("meecrowave-core must be a dependency of the application to generate a scanning index", cnfe);
+        } catch (final InvocationTargetException ite) {
+            throw new MojoExecutionException(ite.getTargetException().getMessage(), ite.getTargetException());
+        } catch (final IOException | ReflectiveOperationException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        } finally {
+            thread.setContextClassLoader(old);
+        }
+    }
+}
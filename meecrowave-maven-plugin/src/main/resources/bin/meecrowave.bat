@@ -261,6 +261,20 @@ rem Register custom URL handlers
 rem Do this here so custom URL handles (specifically 'war:...') can be used in the security policy
 set "JAVA_OPTS=%JAVA_OPTS% -Djava.protocol.handler.pkgs=org.apache.MEECROWAVE.webresources"
 
+rem Use the class data sharing archive of the bundle (generated with appCds option) if it exists
+if not "%MEECROWAVE_CDS_ARCHIVE%" == "" goto gotCdsArchive
+set "MEECROWAVE_CDS_ARCHIVE=%MEECROWAVE_BASE%\conf\meecrowave.jsa"
+:gotCdsArchive
+if not exist "%MEECROWAVE_CDS_ARCHIVE%" goto noCdsArchive
+rem The archive references the jars with absolute paths, JVMs before Java 19 ignore it (with a cds warning) once moved
+if not exist "%MEECROWAVE_CDS_ARCHIVE%.location" goto gotCdsLocation
+set /p MEECROWAVE_CDS_LOCATION=<"%MEECROWAVE_CDS_ARCHIVE%.location"
+if /i "%MEECROWAVE_CDS_LOCATION%" == "%MEECROWAVE_HOME%" goto gotCdsLocation
+echo WARNING: %MEECROWAVE_CDS_ARCHIVE% was generated in %MEECROWAVE_CDS_LOCATION%, a JVM before Java 19 ignores it in %MEECROWAVE_HOME% (-Xlog:cds shows it), regenerate it with the bundle at its runtime location
+:gotCdsLocation
+set "JAVA_OPTS=%JAVA_OPTS% -XX:SharedArchiveFile="%MEECROWAVE_CDS_ARCHIVE%""
+:noCdsArchive
+
 if not "%LOGGING_CONFIG%" == "" goto noJuliConfig
 set LOGGING_CONFIG="-Dmeecrowave.script.nologgingconfig"
 if not exist "%MEECROWAVE_BASE%\conf\logging.properties" goto noJuliConfig
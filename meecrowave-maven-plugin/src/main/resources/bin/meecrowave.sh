@@ -216,6 +216,25 @@ if [ -z "$JSSE_OPTS" ] ; then
 fi
 JAVA_OPTS="$JAVA_OPTS $JSSE_OPTS"
 
+# Use the class data sharing archive of the bundle (generated with appCds option) if it exists
+if [ -z "$MEECROWAVE_CDS_ARCHIVE" ]; then
+  MEECROWAVE_CDS_ARCHIVE="$MEECROWAVE_BASE"/conf/meecrowave.jsa
+fi
+if [ -r "$MEECROWAVE_CDS_ARCHIVE" ]; then
+  # the archive references the jars with absolute paths, JVMs before Java 19 ignore it (with a cds warning) once moved
+  if [ -r "$MEECROWAVE_CDS_ARCHIVE".location ] && ! $cygwin; then
+    MEECROWAVE_CDS_LOCATION=`cat "$MEECROWAVE_CDS_ARCHIVE".location`
+    if [ "$MEECROWAVE_CDS_LOCATION" != "`cd "$MEECROWAVE_HOME" >/dev/null; pwd -P`" ]; then
+      echo "WARNING: $MEECROWAVE_CDS_ARCHIVE was generated in $MEECROWAVE_CDS_LOCATION, a JVM before Java 19 ignores it" \
+        "in $MEECROWAVE_HOME (-Xlog:cds shows it), regenerate it with the bundle at its runtime location"
+    fi
+  fi
+  if $cygwin; then
+    MEECROWAVE_CDS_ARCHIVE=`cygpath --absolute --windows "$MEECROWAVE_CDS_ARCHIVE"`
+  fi
+  JAVA_OPTS="$JAVA_OPTS -XX:SharedArchiveFile=\"$MEECROWAVE_CDS_ARCHIVE\""
+fi
+
 # Register custom URL handlers
 # Do this here so custom URL handles (specifically 'war:...') can be used in the security policy
 JAVA_OPTS="$JAVA_OPTS -Djava.protocol.handler.pkgs=org.apache.tomcat.webresources"
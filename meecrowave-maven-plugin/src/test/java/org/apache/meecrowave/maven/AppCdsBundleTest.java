@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.maven;
+
+import static java.util.Locale.ENGLISH;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Test;
+
+// runs the bundle script with a fake java to check what it does with the AppCDS archive once the bundle is unpacked
+public class AppCdsBundleTest {
+    @Test
+    public void warnsWhenUnpackedElsewhere() throws Exception {
+        assumeFalse(System.getProperty("os.name", "").toLowerCase(ENGLISH).contains("win"));
+
+        final File base = new File("target/" + getClass().getSimpleName());
+        final File distro = new File(base, "build/app-distribution");
+        Stream.of("bin", "conf", "lib").forEach(it -> new File(distro, it).mkdirs());
+        try (final InputStream script = Thread.currentThread().getContextClassLoader().getResourceAsStream("bin/meecrowave.sh")) {
+            Files.write(new File(distro, "bin/meecrowave.sh").toPath(), new String(script.readAllBytes(), StandardCharsets.UTF_8)
+                    .replace("${main}", "org.apache.meecrowave.runner.Cli")
+                    .replace("${logManager}", "org.apache.juli.ClassLoaderLogManager")
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        Files.write(new File(distro, AppCdsTraining.ARCHIVE).toPath(), new byte[]{1}); // content is only read by the JVM
+        AppCdsTraining.writeLocation(distro);
+
+        final File jre = new File(base, "jre");
+        final File java = new File(jre, "bin/java");
+        java.getParentFile().mkdirs();
+        Files.write(java.toPath(), "#!/bin/sh\necho \"java $@\"\n".getBytes(StandardCharsets.UTF_8));
+        assertTrue(java.setExecutable(true));
+
+        final String inPlace = run(distro, jre);
+        assertTrue(inPlace, inPlace.contains("-XX:SharedArchiveFile="));
+        assertFalse(inPlace, inPlace.contains("WARNING"));
+
+        final File zip = new File(base, "build/app-distribution.zip");
+        zip(distro, zip);
+        final File unpacked = new File(base, "unpacked");
+        unzip(zip, unpacked);
+        final File installed = new File(unpacked, distro.getName());
+        assertEquals(distro.getCanonicalPath(), Files.readString(new File(installed, AppCdsTraining.LOCATION).toPath()));
+
+        final String moved = run(installed, jre);
+        assertTrue(moved, moved.contains("-XX:SharedArchiveFile="));
+        assertTrue(moved, moved.contains("WARNING: ") && moved.contains("was generated in " + distro.getCanonicalPath()));
+    }
+
+    private static String run(final File distro, final File jre) throws IOException, InterruptedException {
+        final ProcessBuilder builder = new ProcessBuilder("sh", "bin/meecrowave.sh", "run")
+                .directory(distro)
+                .redirectErrorStream(true);
+        Stream.of("JAVA_HOME", "JAVA_OPTS", "MEECROWAVE_HOME", "MEECROWAVE_BASE", "MEECROWAVE_CDS_ARCHIVE")
+                .forEach(builder.environment()::remove);
+        builder.environment().put("JRE_HOME", jre.getAbsolutePath());
+        final Process process = builder.start();
+        final String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals(output, 0, process.waitFor());
+        return output;
+    }
+
+    private static void zip(final File folder, final File zip) throws IOException {
+        final Path root = folder.getParentFile().toPath();
+        final List<Path> files;
+        try (final Stream<Path> walk = Files.walk(folder.toPath())) {
+            files = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        try (final ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip.toPath()))) {
+            for (final Path file : files) {
+                out.putNextEntry(new ZipEntry(root.relativize(file).toString().replace(File.separatorChar, '/')));
+                Files.copy(file, out);
+                out.closeEntry();
+            }
+        }
+    }
+
+    private static void unzip(final File zip, final File target) throws IOException {
+        try (final ZipFile file = new ZipFile(zip)) {
+            final Enumeration<? extends ZipEntry> entries = file.entries();
+            while (entries.hasMoreElements()) {
+                final ZipEntry entry = entries.nextElement();
+                final File output = new File(target, entry.getName());
+                output.getParentFile().mkdirs();
+                try (final InputStream in = file.getInputStream(entry);
+                     final OutputStream out = Files.newOutputStream(output.toPath())) {
+                    in.transferTo(out);
+                }
+            }
+        }
+    }
+}
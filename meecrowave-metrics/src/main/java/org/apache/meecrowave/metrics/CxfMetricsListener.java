@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.metrics;
+
+import static java.util.Optional.ofNullable;
+
+import java.util.Collection;
+
+import jakarta.enterprise.inject.spi.CDI;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.ServletRequestEvent;
+import jakarta.servlet.ServletRequestListener;
+
+import org.apache.cxf.Bus;
+import org.apache.meecrowave.cxf.ConfigurableBus;
+import org.apache.meecrowave.cxf.MeecrowaveBus;
+
+/**
+ * Adds the metrics interceptors to the bus once CDI is started and removes them with the context:
+ * the bus can be the client one which outlives the context.
+ * It also releases the in-flight requests whose response never reached the SEND phase.
+ */
+class CxfMetricsListener implements ServletContextListener, ServletRequestListener {
+    private final MetricsRegistry registry;
+    private Bus bus;
+    private MetricsInInterceptor in;
+    private MetricsOutInterceptor out;
+    private MetricsOutInterceptor outFault;
+
+    CxfMetricsListener(final MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void contextInitialized(final ServletContextEvent sce) {
+        bus = CDI.current().select(MeecrowaveBus.class).get();
+        in = new MetricsInInterceptor(registry, sce.getServletContext());
+        out = new MetricsOutInterceptor(registry, false);
+        outFault = new MetricsOutInterceptor(registry, true);
+        bus.getInInterceptors().add(in);
+        bus.getOutInterceptors().add(out);
+        bus.getOutFaultInterceptors().add(outFault);
+        ofNullable(bus.getProperty("org.apache.cxf.jaxrs.bus.providers"))
+                .filter(Collection.class::isInstance)
+                .map(providers -> (Collection<?>) providers)
+                .flatMap(providers -> providers.stream()
+                        .filter(ConfigurableBus.ConfiguredJsonbJaxrsProvider.class::isInstance)
+                        .map(ConfigurableBus.ConfiguredJsonbJaxrsProvider.class::cast)
+                        .findFirst())
+                .ifPresent(provider -> {
+                    registry.addSelectionCache("read", provider.getReadableCache());
+                    registry.addSelectionCache("write", provider.getWriteableCache());
+                });
+    }
+
+    @Override
+    public void requestDestroyed(final ServletRequestEvent sre) {
+        final Object request = sre.getServletRequest().getAttribute(MetricsInInterceptor.IN_FLIGHT);
+        if (request != null) {
+            InFlightRequest.class.cast(request).release();
+        }
+    }
+
+    @Override
+    public void contextDestroyed(final ServletContextEvent sce) {
+        if (bus == null) {
+            return;
+        }
+        bus.getInInterceptors().remove(in);
+        bus.getOutInterceptors().remove(out);
+        bus.getOutFaultInterceptors().remove(outFault);
+        registry.clear();
+        bus = null;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.metrics;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A request counted in the in-flight gauge, released either by the SEND phase of the response
+ * or, when there is none (one-way calls, aborted chains, failures while writing the response), by the end of the HTTP request.
+ */
+final class InFlightRequest {
+    private final LongAdder inFlight;
+    private final long start = System.nanoTime();
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    InFlightRequest(final LongAdder inFlight) {
+        this.inFlight = inFlight;
+        inFlight.increment();
+    }
+
+    long getStart() {
+        return start;
+    }
+
+    /**
+     * @return {@code true} for the first call, the one decrementing the gauge.
+     */
+    boolean release() {
+        if (released.compareAndSet(false, true)) {
+            inFlight.decrement();
+            return true;
+        }
+        return false;
+    }
+}
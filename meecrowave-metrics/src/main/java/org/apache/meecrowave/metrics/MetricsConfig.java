@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.metrics;
+
+import org.apache.meecrowave.runner.Cli;
+import org.apache.meecrowave.runner.cli.CliOption;
+
+public class MetricsConfig implements Cli.Options {
+    @CliOption(name = "metrics-active", description = "Should JAX-RS/JAX-WS requests be measured and exposed in Prometheus format")
+    private boolean active = true;
+
+    @CliOption(name = "metrics-path", description = "The path (relative to the context) of the Prometheus/OpenMetrics text endpoint")
+    private String path = "/metrics";
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public String getPath() {
+        return path;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.metrics;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletRequest;
+
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageUtils;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.transport.http.AbstractHTTPDestination;
+
+/**
+ * Marks the start of a server request of the context, {@link MetricsOutInterceptor} records it.
+ */
+public class MetricsInInterceptor extends AbstractPhaseInterceptor<Message> {
+    static final String IN_FLIGHT = MetricsInInterceptor.class.getName() + ".inFlight";
+
+    private final MetricsRegistry registry;
+    private final ServletContext context;
+
+    public MetricsInInterceptor(final MetricsRegistry registry, final ServletContext context) {
+        super(Phase.RECEIVE);
+        this.registry = registry;
+        this.context = context;
+    }
+
+    @Override
+    public void handleMessage(final Message message) {
+        // the bus can be shared by several contexts and by the clients
+        if (MessageUtils.isRequestor(message) || message.get(AbstractHTTPDestination.HTTP_CONTEXT) != context) {
+            return;
+        }
+        final InFlightRequest request = new InFlightRequest(registry.getInFlight());
+        message.getExchange().put(IN_FLIGHT, request);
+        final Object servletRequest = message.get(AbstractHTTPDestination.HTTP_REQUEST);
+        if (servletRequest != null) { // released by CxfMetricsListener if the response never reaches SEND
+            ServletRequest.class.cast(servletRequest).setAttribute(IN_FLIGHT, request);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.metrics;
+
+import org.apache.cxf.jaxrs.model.OperationResourceInfo;
+import org.apache.cxf.jaxrs.model.URITemplate;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.service.model.BindingOperationInfo;
+
+/**
+ * Records the latency and status of the requests started by {@link MetricsInInterceptor},
+ * it is registered on the out and out fault chains.
+ */
+public class MetricsOutInterceptor extends AbstractPhaseInterceptor<Message> {
+    private final MetricsRegistry registry;
+    private final int defaultStatus;
+
+    public MetricsOutInterceptor(final MetricsRegistry registry, final boolean fault) {
+        super(Phase.SEND);
+        this.registry = registry;
+        this.defaultStatus = fault ? 500 : 200;
+    }
+
+    @Override
+    public void handleMessage(final Message message) {
+        final Exchange exchange = message.getExchange();
+        final Object inFlight = exchange.remove(MetricsInInterceptor.IN_FLIGHT);
+        if (inFlight == null) {
+            return;
+        }
+        final InFlightRequest request = InFlightRequest.class.cast(inFlight);
+        if (!request.release()) { // the HTTP request already ended
+            return;
+        }
+        final long duration = System.nanoTime() - request.getStart();
+
+        final Integer status = Integer.class.cast(message.get(Message.RESPONSE_CODE));
+        final OperationResourceInfo ori = exchange.get(OperationResourceInfo.class);
+        final OperationMetrics operation = ori != null ?
+                registry.operation(ori, k -> name(exchange, ori)) :
+                registry.operation(exchange.getBindingOperationInfo(), k -> BindingOperationInfo.class.cast(k).getName().getLocalPart());
+        operation.record(duration, status == null ? defaultStatus : status);
+    }
+
+    private static String name(final Exchange exchange, final OperationResourceInfo ori) {
+        final String address = exchange.getEndpoint() != null ? exchange.getEndpoint().getEndpointInfo().getAddress() : "";
+        final String path = join(join(address, value(ori.getClassResourceInfo().getURITemplate())), value(ori.getURITemplate()));
+        return (ori.getHttpMethod() == null ? "*" : ori.getHttpMethod()) + " " + path;
+    }
+
+    private static String value(final URITemplate template) { // null for sub-resources
+        return template == null ? null : template.getValue();
+    }
+
+    private static String join(final String base, final String path) {
+        if (path == null || path.isEmpty() || "/".equals(path)) {
+            return base;
+        }
+        if (base.endsWith("/")) {
+            return base + (path.startsWith("/") ? path.substring(1) : path);
+        }
+        return base + (path.startsWith("/") ? path : '/' + path);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.apache.meecrowave.cxf.ProviderSelectionCache;
+
+/**
+ * Metrics of a context, operations are keyed by their CXF model instance
+ * ({@code OperationResourceInfo} or {@code BindingOperationInfo}) which is stable for the endpoint lifetime.
+ */
+public class MetricsRegistry {
+    private final Map<Object, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private final OperationMetrics unmatched = new OperationMetrics("unmatched");
+    private final LongAdder inFlight = new LongAdder();
+    private final Map<String, ProviderSelectionCache> selectionCaches = new ConcurrentHashMap<>();
+
+    public OperationMetrics operation(final Object key, final Function<Object, String> name) {
+        if (key == null) {
+            return unmatched;
+        }
+        final OperationMetrics existing = operations.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        return operations.computeIfAbsent(key, k -> new OperationMetrics(name.apply(k)));
+    }
+
+    public LongAdder getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * @param direction {@code read} or {@code write}.
+     * @param cache the provider selection cache of the default JSON-B provider.
+     */
+    public void addSelectionCache(final String direction, final ProviderSelectionCache cache) {
+        selectionCaches.put(direction, cache);
+    }
+
+    public Map<String, ProviderSelectionCache> getSelectionCaches() {
+        return selectionCaches;
+    }
+
+    public Collection<OperationMetrics> getOperations() {
+        final List<OperationMetrics> all = new ArrayList<>(operations.values());
+        all.sort(Comparator.comparing(OperationMetrics::getName));
+        if (unmatched.getLatency().cumulativeCounts()[LatencyHistogram.BOUNDS_SECONDS.length] > 0) {
+            all.add(unmatched);
+        }
+        return all;
+    }
+
+    public void clear() {
+        operations.clear();
+        selectionCaches.clear();
+    }
+}
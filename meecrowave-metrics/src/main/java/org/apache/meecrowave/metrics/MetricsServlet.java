@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.metrics;
+
+import java.io.IOException;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.apache.catalina.Service;
+
+/**
+ * Exposes the context metrics and the Tomcat connectors ones in Prometheus text format.
+ */
+public class MetricsServlet extends HttpServlet {
+    private final MetricsRegistry registry;
+    private final Service service;
+
+    public MetricsServlet(final MetricsRegistry registry, final Service service) {
+        this.registry = registry;
+        this.service = service;
+    }
+
+    @Override
+    protected void doGet(final HttpServletRequest req, final HttpServletResponse resp) throws IOException {
+        final StringBuilder out = new StringBuilder(4096);
+        final PrometheusWriter writer = new PrometheusWriter(out).registry(registry);
+        if (service != null) {
+            writer.tomcat(service);
+        }
+        resp.setContentType(PrometheusWriter.CONTENT_TYPE);
+        resp.getWriter().write(out.toString());
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.metrics;
+
+import static java.util.Collections.emptySet;
+
+import jakarta.servlet.ServletRegistration;
+
+import org.apache.catalina.Context;
+import org.apache.meecrowave.Meecrowave;
+import org.apache.meecrowave.cxf.Cxfs;
+import org.apache.meecrowave.logging.tomcat.LogFacade;
+
+/**
+ * Registers the metrics endpoint in each context and, when CXF is there, the interceptors measuring the requests.
+ */
+public class MetricsSetup implements Meecrowave.MeecrowaveAwareContextCustomizer {
+    private Meecrowave meecrowave;
+
+    @Override
+    public void setMeecrowave(final Meecrowave meecrowave) {
+        this.meecrowave = meecrowave;
+    }
+
+    @Override
+    public void accept(final Context context) {
+        final MetricsConfig config = meecrowave.getConfiguration().getExtension(MetricsConfig.class);
+        if (!config.isActive()) {
+            return;
+        }
+
+        final MetricsRegistry registry = new MetricsRegistry();
+        context.addServletContainerInitializer((classes, servletContext) -> {
+            final ServletRegistration.Dynamic servlet = servletContext.addServlet("meecrowave-metrics",
+                    new MetricsServlet(registry, meecrowave.getTomcat() == null ? null : meecrowave.getTomcat().getService()));
+            if (servlet == null) { // already registered by the application
+                return;
+            }
+            servlet.addMapping(config.getPath());
+            if (Cxfs.IS_PRESENT) {
+                servletContext.addListener(new CxfMetricsListener(registry));
+            }
+            new LogFacade(MetricsSetup.class.getName()).info("Metrics available on " + servletContext.getContextPath() + config.getPath());
+        }, emptySet());
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and response statuses of an operation.
+ */
+public class OperationMetrics {
+    private static final int MAX_STATUS = 600;
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicReferenceArray<LongAdder> statuses = new AtomicReferenceArray<>(MAX_STATUS);
+
+    public OperationMetrics(final String name) {
+        this.name = name;
+    }
+
+    public void record(final long nanos, final int status) {
+        latency.record(nanos);
+        final int index = status < 0 || status >= MAX_STATUS ? 0 : status;
+        LongAdder counter = statuses.get(index);
+        if (counter == null) {
+            statuses.compareAndSet(index, null, new LongAdder());
+            counter = statuses.get(index);
+        }
+        counter.increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return the response count per status, 0 being used for unknown statuses.
+     */
+    public Map<Integer, Long> getStatuses() {
+        final Map<Integer, Long> counts = new TreeMap<>();
+        for (int i = 0; i < MAX_STATUS; i++) {
+            final LongAdder counter = statuses.get(i);
+            if (counter != null) {
+                counts.put(i, counter.sum());
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.function.ToLongFunction;
+
+import org.apache.catalina.Service;
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.apache.meecrowave.cxf.ProviderSelectionCache;
+
+/**
+ * Prometheus text exposition format (version 0.0.4), also readable by OpenMetrics scrapers.
+ */
+final class PrometheusWriter {
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final StringBuilder out;
+
+    PrometheusWriter(final StringBuilder out) {
+        this.out = out;
+    }
+
+    PrometheusWriter registry(final MetricsRegistry registry) {
+        final Collection<OperationMetrics> operations = registry.getOperations();
+
+        family("meecrowave_request_duration_seconds", "histogram", "Duration of the JAX-RS/JAX-WS requests.");
+        for (final OperationMetrics operation : operations) {
+            final String label = "operation=\"" + escape(operation.getName()) + "\"";
+            final long[] counts = operation.getLatency().cumulativeCounts();
+            for (int i = 0; i < LatencyHistogram.BOUNDS_SECONDS.length; i++) {
+                sample("meecrowave_request_duration_seconds_bucket", label + ",le=\"" + LatencyHistogram.BOUNDS_SECONDS[i] + "\"", counts[i]);
+            }
+            final long count = counts[LatencyHistogram.BOUNDS_SECONDS.length];
+            sample("meecrowave_request_duration_seconds_bucket", label + ",le=\"+Inf\"", count);
+            sample("meecrowave_request_duration_seconds_sum", label, operation.getLatency().getSumSeconds());
+            sample("meecrowave_request_duration_seconds_count", label, count);
+        }
+
+        family("meecrowave_responses_total", "counter", "Responses per operation and status (0 when unknown).");
+        for (final OperationMetrics operation : operations) {
+            final String label = "operation=\"" + escape(operation.getName()) + "\",status=\"";
+            for (final Map.Entry<Integer, Long> status : operation.getStatuses().entrySet()) {
+                sample("meecrowave_responses_total", label + status.getKey() + "\"", status.getValue());
+            }
+        }
+
+        family("meecrowave_requests_in_flight", "gauge", "JAX-RS/JAX-WS requests being processed.");
+        sample("meecrowave_requests_in_flight", null, registry.getInFlight().sum());
+
+        final Map<String, ProviderSelectionCache> caches = new TreeMap<>(registry.getSelectionCaches());
+        if (!caches.isEmpty()) {
+            family("meecrowave_jsonb_provider_selections_total", "counter",
+                    "isReadable/isWriteable decisions of the default JSON-B provider found in (hit) or missing from (miss) its cache.");
+            for (final Map.Entry<String, ProviderSelectionCache> cache : caches.entrySet()) {
+                final String label = "direction=\"" + escape(cache.getKey()) + "\",result=\"";
+                sample("meecrowave_jsonb_provider_selections_total", label + "hit\"", cache.getValue().getHits());
+                sample("meecrowave_jsonb_provider_selections_total", label + "miss\"", cache.getValue().getMisses());
+            }
+        }
+        return this;
+    }
+
+    PrometheusWriter tomcat(final Service service) {
+        final List<ConnectorStats> connectors = new ArrayList<>();
+        for (final Connector connector : service.findConnectors()) {
+            connectors.add(new ConnectorStats(connector));
+        }
+        connectorFamily(connectors, "meecrowave_connector_connections", "Open connections.", s -> s.connections);
+        connectorFamily(connectors, "meecrowave_connector_max_connections", "Maximum connections.", s -> s.maxConnections);
+        connectorFamily(connectors, "meecrowave_thread_pool_active_threads", "Threads processing a request.", s -> s.activeThreads);
+        connectorFamily(connectors, "meecrowave_thread_pool_threads", "Threads of the pool.", s -> s.threads);
+        connectorFamily(connectors, "meecrowave_thread_pool_max_threads", "Maximum threads of the pool.", s -> s.maxThreads);
+        connectorFamily(connectors, "meecrowave_thread_pool_queue_size", "Requests waiting for a thread.", s -> s.queueSize);
+        return this;
+    }
+
+    private void connectorFamily(final List<ConnectorStats> connectors, final String name, final String help,
+                                 final ToLongFunction<ConnectorStats> value) {
+        boolean header = false;
+        for (final ConnectorStats connector : connectors) {
+            final long v = value.applyAsLong(connector);
+            if (v < 0) { // not available for this connector (virtual threads, custom executor...)
+                continue;
+            }
+            if (!header) {
+                family(name, "gauge", help);
+                header = true;
+            }
+            sample(name, "connector=\"" + escape(connector.name) + "\"", v);
+        }
+    }
+
+    private void family(final String name, final String type, final String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private void sample(final String name, final String labels, final long value) {
+        sampleName(name, labels).append(value).append('\n');
+    }
+
+    private void sample(final String name, final String labels, final double value) {
+        sampleName(name, labels).append(String.format(Locale.ROOT, "%.9f", value)).append('\n');
+    }
+
+    private StringBuilder sampleName(final String name, final String labels) {
+        out.append(name);
+        if (labels != null) {
+            out.append('{').append(labels).append('}');
+        }
+        return out.append(' ');
+    }
+
+    static String escape(final String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static final class ConnectorStats {
+        private final String name;
+        private long connections = -1;
+        private long maxConnections = -1;
+        private long activeThreads = -1;
+        private long threads = -1;
+        private long maxThreads = -1;
+        private long queueSize = -1;
+
+        private ConnectorStats(final Connector connector) {
+            name = connector.getScheme() + "-" + (connector.getLocalPort() > 0 ? connector.getLocalPort() : connector.getPort());
+
+            final ProtocolHandler handler = connector.getProtocolHandler();
+            if (AbstractProtocol.class.isInstance(handler)) {
+                final AbstractProtocol<?> protocol = AbstractProtocol.class.cast(handler);
+                connections = protocol.getConnectionCount();
+                maxConnections = protocol.getMaxConnections();
+            }
+
+            final Executor executor = handler == null ? null : handler.getExecutor();
+            if (org.apache.tomcat.util.threads.ThreadPoolExecutor.class.isInstance(executor)) {
+                final org.apache.tomcat.util.threads.ThreadPoolExecutor pool = org.apache.tomcat.util.threads.ThreadPoolExecutor.class.cast(executor);
+                activeThreads = pool.getActiveCount();
+                threads = pool.getPoolSize();
+                maxThreads = pool.getMaximumPoolSize();
+                queueSize = pool.getQueue().size();
+            } else if (java.util.concurrent.ThreadPoolExecutor.class.isInstance(executor)) {
+                final java.util.concurrent.ThreadPoolExecutor pool = java.util.concurrent.ThreadPoolExecutor.class.cast(executor);
+                activeThreads = pool.getActiveCount();
+                threads = pool.getPoolSize();
+                maxThreads = pool.getMaximumPoolSize();
+                queueSize = pool.getQueue().size();
+            }
+        }
+    }
+}
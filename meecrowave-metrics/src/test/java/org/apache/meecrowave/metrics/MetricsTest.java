@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.spi.CDI;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.client.WebTarget;
+import jakarta.ws.rs.core.Response;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.transport.http.AbstractHTTPDestination;
+import org.apache.meecrowave.Meecrowave;
+import org.apache.meecrowave.cxf.MeecrowaveBus;
+import org.junit.Test;
+
+public class MetricsTest {
+    @Test
+    public void run() {
+        try (final Meecrowave container = new Meecrowave(new Meecrowave.Builder()
+                .randomHttpPort()
+                .includePackages(Endpoint.class.getName()))
+                .bake()) {
+            final Client client = ClientBuilder.newClient();
+            try {
+                final WebTarget base = client.target("http://localhost:" + container.getConfiguration().getHttpPort());
+                assertEquals("ok", base.path("MetricsTest/ok").request().get(String.class));
+                assertEquals("ok", base.path("MetricsTest/ok").request().get(String.class));
+                assertEquals(404, base.path("MetricsTest/missing/1").request().get().getStatus());
+
+                final Response response = base.path("metrics").request().get();
+                assertEquals(200, response.getStatus());
+                assertTrue(response.getMediaType().toString().startsWith("text/plain"));
+                final String metrics = response.readEntity(String.class);
+                assertTrue(metrics, metrics.contains("meecrowave_request_duration_seconds_count{operation=\"GET /MetricsTest/ok\"} 2\n"));
+                assertTrue(metrics, metrics.contains("meecrowave_request_duration_seconds_bucket{operation=\"GET /MetricsTest/ok\",le=\"+Inf\"} 2\n"));
+                assertTrue(metrics, metrics.contains("meecrowave_responses_total{operation=\"GET /MetricsTest/ok\",status=\"200\"} 2\n"));
+                assertTrue(metrics, metrics.contains("meecrowave_responses_total{operation=\"GET /MetricsTest/missing/{id}\",status=\"404\"} 1\n"));
+                assertTrue(metrics, metrics.contains("meecrowave_requests_in_flight 0\n"));
+                assertTrue(metrics, metrics.contains("meecrowave_connector_connections{connector=\"http-" + container.getConfiguration().getHttpPort() + "\"}"));
+            } finally {
+                client.close();
+            }
+        }
+    }
+
+    @Test
+    public void inFlightWithoutSend() {
+        try (final Meecrowave container = new Meecrowave(new Meecrowave.Builder()
+                .randomHttpPort()
+                .includePackages(Endpoint.class.getName()))
+                .bake()) {
+            final Bus bus = CDI.current().select(MeecrowaveBus.class).get();
+            final FailingInterceptor failing = new FailingInterceptor();
+            bus.getInInterceptors().add(failing);
+            final Client client = ClientBuilder.newClient();
+            try {
+                final WebTarget base = client.target("http://localhost:" + container.getConfiguration().getHttpPort());
+                assertEquals(500, base.path("MetricsTest/ok").request().header("MetricsTest", "fault").get().getStatus());
+                assertEquals(204, base.path("MetricsTest/ok").request().header("MetricsTest", "abort").get().getStatus());
+                assertEquals("ok", base.path("MetricsTest/ok").request().get(String.class));
+
+                final String metrics = base.path("metrics").request().get(String.class);
+                assertTrue(metrics, metrics.contains("meecrowave_requests_in_flight 0\n"));
+                assertTrue(metrics, metrics.contains("meecrowave_responses_total{operation=\"GET /MetricsTest/ok\",status=\"200\"} 1\n"));
+            } finally {
+                bus.getInInterceptors().remove(failing);
+                client.close();
+            }
+        }
+    }
+
+    // fails before the service invocation so before any out chain
+    public static class FailingInterceptor extends AbstractPhaseInterceptor<Message> {
+        public FailingInterceptor() {
+            super(Phase.READ);
+        }
+
+        @Override
+        public void handleMessage(final Message message) {
+            final HttpServletRequest request = HttpServletRequest.class.cast(message.get(AbstractHTTPDestination.HTTP_REQUEST));
+            if (request == null) {
+                return;
+            }
+            final String mode = request.getHeader("MetricsTest");
+            if ("fault".equals(mode)) {
+                throw new Fault(new IllegalStateException("failing on purpose"));
+            }
+            if ("abort".equals(mode)) { // as a security interceptor answering itself
+                HttpServletResponse.class.cast(message.get(AbstractHTTPDestination.HTTP_RESPONSE)).setStatus(204);
+                message.getInterceptorChain().abort();
+            }
+        }
+    }
+
+    @ApplicationScoped
+    @Path("MetricsTest")
+    public static class Endpoint {
+        @GET
+        @Path("ok")
+        public String ok() {
+            return "ok";
+        }
+
+        @GET
+        @Path("missing/{id}")
+        public String missing(@PathParam("id") final String id) {
+            throw new NotFoundException();
+        }
+    }
+}
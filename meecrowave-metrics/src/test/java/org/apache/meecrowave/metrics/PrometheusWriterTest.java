@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import jakarta.ws.rs.core.MediaType;
+
+import org.apache.meecrowave.cxf.ProviderSelectionCache;
+import org.junit.Test;
+
+public class PrometheusWriterTest {
+    @Test
+    public void histogram() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        final Object key = new Object();
+        final OperationMetrics operation = registry.operation(key, k -> "GET /\"quoted\"");
+        operation.record(TimeUnit.MICROSECONDS.toNanos(500), 200);
+        operation.record(TimeUnit.MILLISECONDS.toNanos(20), 200);
+        operation.record(TimeUnit.SECONDS.toNanos(20), 503);
+        registry.operation(null, k -> "ignored").record(1, 404);
+        registry.getInFlight().increment();
+
+        final StringBuilder out = new StringBuilder();
+        new PrometheusWriter(out).registry(registry);
+        final String label = "operation=\"GET /\\\"quoted\\\"\"";
+        assertEquals("" +
+                "# HELP meecrowave_request_duration_seconds Duration of the JAX-RS/JAX-WS requests.\n" +
+                "# TYPE meecrowave_request_duration_seconds histogram\n" +
+                bucket(label, "0.001", 1) + bucket(label, "0.0025", 1) + bucket(label, "0.005", 1) +
+                bucket(label, "0.01", 1) + bucket(label, "0.025", 2) + bucket(label, "0.05", 2) +
+                bucket(label, "0.1", 2) + bucket(label, "0.25", 2) + bucket(label, "0.5", 2) +
+                bucket(label, "1.0", 2) + bucket(label, "2.5", 2) + bucket(label, "5.0", 2) +
+                bucket(label, "10.0", 2) + bucket(label, "+Inf", 3) +
+                "meecrowave_request_duration_seconds_sum{" + label + "} 20.020500000\n" +
+                "meecrowave_request_duration_seconds_count{" + label + "} 3\n" +
+                unmatchedHistogram() +
+                "# HELP meecrowave_responses_total Responses per operation and status (0 when unknown).\n" +
+                "# TYPE meecrowave_responses_total counter\n" +
+                "meecrowave_responses_total{" + label + ",status=\"200\"} 2\n" +
+                "meecrowave_responses_total{" + label + ",status=\"503\"} 1\n" +
+                "meecrowave_responses_total{operation=\"unmatched\",status=\"404\"} 1\n" +
+                "# HELP meecrowave_requests_in_flight JAX-RS/JAX-WS requests being processed.\n" +
+                "# TYPE meecrowave_requests_in_flight gauge\n" +
+                "meecrowave_requests_in_flight 1\n", out.toString());
+    }
+
+    @Test
+    public void providerSelections() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        final ProviderSelectionCache cache = new ProviderSelectionCache(16);
+        cache.get(String.class, String.class, MediaType.APPLICATION_JSON_TYPE, () -> true);
+        cache.get(String.class, String.class, MediaType.APPLICATION_JSON_TYPE, () -> true);
+        cache.get(String.class, String.class, MediaType.APPLICATION_JSON_TYPE, () -> true);
+        registry.addSelectionCache("write", cache);
+        registry.addSelectionCache("read", new ProviderSelectionCache(16));
+
+        final StringBuilder out = new StringBuilder();
+        new PrometheusWriter(out).registry(registry);
+        final String output = out.toString();
+        final String selections = output.substring(output.indexOf("# HELP meecrowave_jsonb_provider_selections_total"));
+        assertEquals("" +
+                "# HELP meecrowave_jsonb_provider_selections_total isReadable/isWriteable decisions of the default JSON-B provider " +
+                "found in (hit) or missing from (miss) its cache.\n" +
+                "# TYPE meecrowave_jsonb_provider_selections_total counter\n" +
+                "meecrowave_jsonb_provider_selections_total{direction=\"read\",result=\"hit\"} 0\n" +
+                "meecrowave_jsonb_provider_selections_total{direction=\"read\",result=\"miss\"} 0\n" +
+                "meecrowave_jsonb_provider_selections_total{direction=\"write\",result=\"hit\"} 2\n" +
+                "meecrowave_jsonb_provider_selections_total{direction=\"write\",result=\"miss\"} 1\n", selections);
+    }
+
+    private static String unmatchedHistogram() {
+        final String label = "operation=\"unmatched\"";
+        final StringBuilder out = new StringBuilder();
+        for (final double bound : LatencyHistogram.BOUNDS_SECONDS) {
+            out.append(bucket(label, Double.toString(bound), 1));
+        }
+        return out.append(bucket(label, "+Inf", 1))
+                .append("meecrowave_request_duration_seconds_sum{").append(label).append("} 0.000000001\n")
+                .append("meecrowave_request_duration_seconds_count{").append(label).append("} 1\n")
+                .toString();
+    }
+
+    private static String bucket(final String label, final String le, final long count) {
+        return "meecrowave_request_duration_seconds_bucket{" + label + ",le=\"" + le + "\"} " + count + "\n";
+    }
+}
@@ -19,6 +19,7 @@
 package org.apache.meecrowave.proxy.servlet.configuration;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 
@@ -27,10 +28,25 @@ import jakarta.json.JsonObject;
 import jakarta.json.bind.annotation.JsonbTransient;
 import jakarta.ws.rs.client.Client;
 
+import org.apache.meecrowave.proxy.servlet.service.CaseInsensitiveSet;
+import org.apache.meecrowave.proxy.servlet.service.ConnectionPool;
+import org.apache.meecrowave.proxy.servlet.service.LoadBalancer;
+import org.apache.meecrowave.proxy.servlet.service.Resilience;
+import org.apache.meecrowave.proxy.servlet.service.RouteIndex;
+import org.apache.meecrowave.proxy.servlet.service.cache.ResponseCache;
+
 public class Routes {
     public JsonObject extensions; // placeholder for custom metadata usable in observers
     public Route defaultRoute;
     public Collection<Route> routes;
+    public Map<String, ConnectionPoolConfiguration> connectionPools;
+    public String routeMatching; // first-match (default) or longest-prefix
+
+    @JsonbTransient
+    public RouteIndex index;
+
+    @JsonbTransient
+    public Map<String, ConnectionPool> pools;
 
     @Override
     public String toString() {
@@ -42,6 +58,7 @@ public class Routes {
         public RequestConfiguration requestConfiguration;
         public ResponseConfiguration responseConfiguration;
         public ClientConfiguration clientConfiguration;
+        public CacheConfiguration cacheConfiguration;
         public JsonObject extensions; // placeholder for custom metadata usable in observers
 
         @JsonbTransient
@@ -53,6 +70,18 @@ public class Routes {
         @JsonbTransient
         public NotificationOptions notificationOptions;
 
+        @JsonbTransient
+        public LoadBalancer loadBalancer;
+
+        @JsonbTransient
+        public ResponseCache cache;
+
+        @JsonbTransient
+        public Resilience resilience;
+
+        @JsonbTransient
+        public ConnectionPool connectionPool;
+
         @Override
         public String toString() {
             return "Route{id='" + id + "', requestConfiguration=" + requestConfiguration + ", responseConfiguration=" + responseConfiguration + '}';
@@ -60,18 +89,24 @@ public class Routes {
     }
 
     public static class ExecutorConfiguration {
+        public String type; // platform (default) or virtual (java >= 21)
         public Integer core;
         public Integer max;
         public Long keepAlive;
         public Long shutdownTimeout;
+        public Integer queueSize; // platform only, <= 0 means unbounded
+        public String rejectionPolicy; // log (default), fail (503), caller-runs
 
         @Override
         public String toString() {
             return "ExecutorConfiguration{" +
-                    "core=" + core +
+                    "type='" + type + '\'' +
+                    ", core=" + core +
                     ", max=" + max +
                     ", keepAlive=" + keepAlive +
                     ", shutdownTimeout=" + shutdownTimeout +
+                    ", queueSize=" + queueSize +
+                    ", rejectionPolicy='" + rejectionPolicy + '\'' +
                     '}';
         }
     }
@@ -94,12 +129,94 @@ public class Routes {
         public TimeoutConfiguration timeouts;
         public ExecutorConfiguration executor;
         public SslConfiguration sslConfiguration;
+        public String connectionPool; // name of a shared pool, if set the route uses the client of the pool
+        public Map<String, String> properties; // client properties, implementation specific
+        public CircuitBreakerConfiguration circuitBreaker;
+        public RetryConfiguration retry;
+        public HedgingConfiguration hedging;
 
         @Override
         public String toString() {
             return "ClientConfiguration{" +
                     "timeouts=" + timeouts +
                     ", executor=" + executor +
+                    ", connectionPool='" + connectionPool + '\'' +
+                    ", circuitBreaker=" + circuitBreaker +
+                    ", retry=" + retry +
+                    ", hedging=" + hedging +
+                    '}';
+        }
+    }
+
+    public static class ConnectionPoolConfiguration {
+        public Integer maxConnectionsPerHost; // concurrent calls per origin, <= 0 means unlimited (default)
+        public Long acquireTimeout; // ms to wait for a free connection before failing with a 503, default 30000
+        public ExecutorConfiguration executor;
+        public TimeoutConfiguration timeouts;
+        public SslConfiguration sslConfiguration;
+        public Map<String, String> properties; // client properties (keep-alive, HTTP version, ...), implementation specific
+
+        @Override
+        public String toString() {
+            return "ConnectionPoolConfiguration{" +
+                    "maxConnectionsPerHost=" + maxConnectionsPerHost +
+                    ", acquireTimeout=" + acquireTimeout +
+                    ", executor=" + executor +
+                    ", timeouts=" + timeouts +
+                    ", properties=" + properties +
+                    '}';
+        }
+    }
+
+    public static class CircuitBreakerConfiguration {
+        public Integer failureRateThreshold; // percentage of failures opening the circuit, default 50
+        public Integer minimumRequests; // calls required in the window before evaluating the rate, default 20
+        public Integer windowSize; // number of last calls considered, default 100
+        public Long openDuration; // ms before probing the upstream again, default 30000
+        public Integer halfOpenRequests; // probes to close the circuit again, default 5
+
+        @Override
+        public String toString() {
+            return "CircuitBreakerConfiguration{" +
+                    "failureRateThreshold=" + failureRateThreshold +
+                    ", minimumRequests=" + minimumRequests +
+                    ", windowSize=" + windowSize +
+                    ", openDuration=" + openDuration +
+                    ", halfOpenRequests=" + halfOpenRequests +
+                    '}';
+        }
+    }
+
+    public static class RetryConfiguration {
+        public Integer maxAttempts; // including the first call, default 3
+        public Long backoff; // ms between attempts, default 0
+        public Collection<Integer> statuses; // retried statuses, default 502, 503 and 504
+        public Double budgetRatio; // retries allowed per request over the last 10s, default 0.2
+        public Integer minRetriesPerSecond; // retries always allowed, default 10
+
+        @Override
+        public String toString() {
+            return "RetryConfiguration{" +
+                    "maxAttempts=" + maxAttempts +
+                    ", backoff=" + backoff +
+                    ", statuses=" + statuses +
+                    ", budgetRatio=" + budgetRatio +
+                    ", minRetriesPerSecond=" + minRetriesPerSecond +
+                    '}';
+        }
+    }
+
+    public static class HedgingConfiguration {
+        public Double percentile; // latency percentile after which a hedged request is sent, default 95
+        public Long minDelay; // ms, lower bound of the hedging delay, default 10
+        public Integer maxHedges; // default 1
+
+        @Override
+        public String toString() {
+            return "HedgingConfiguration{" +
+                    "percentile=" + percentile +
+                    ", minDelay=" + minDelay +
+                    ", maxHedges=" + maxHedges +
                     '}';
         }
     }
@@ -125,14 +242,94 @@ public class Routes {
         }
     }
 
+    public static class CacheConfiguration {
+        public boolean enabled = true;
+        public Long maxSize; // bytes, in memory
+        public Long maxEntrySize; // bytes, bigger responses are not cached
+        public Long defaultTtl; // ms, used when the response has no explicit freshness
+        public String diskDirectory; // if set, entries evicted from memory go to this directory
+        public Long diskMaxSize; // bytes
+
+        @Override
+        public String toString() {
+            return "CacheConfiguration{" +
+                    "enabled=" + enabled +
+                    ", maxSize=" + maxSize +
+                    ", maxEntrySize=" + maxEntrySize +
+                    ", defaultTtl=" + defaultTtl +
+                    ", diskDirectory='" + diskDirectory + '\'' +
+                    ", diskMaxSize=" + diskMaxSize +
+                    '}';
+        }
+    }
+
     public static class ResponseConfiguration {
         public String target;
+        public List<String> targets; // if set, target is ignored and loadBalancing is used
+        public LoadBalancingConfiguration loadBalancing;
         public Collection<String> skippedHeaders;
         public Collection<String> skippedCookies;
 
+        @JsonbTransient
+        public CaseInsensitiveSet skippedHeaderNames; // compiled skippedHeaders
+
+        @JsonbTransient
+        public CaseInsensitiveSet skippedCookieNames; // compiled skippedCookies
+
+        @Override
+        public String toString() {
+            return "ResponseConfiguration{target='" + target + "', targets=" + targets + "}";
+        }
+    }
+
+    public static class LoadBalancingConfiguration {
+        public String strategy; // round-robin (default), least-in-flight, power-of-two-choices, consistent-hash
+        public String hashHeader;
+        public String hashCookie;
+        public HealthCheckConfiguration healthCheck;
+        public OutlierDetectionConfiguration outlierDetection;
+
+        @Override
+        public String toString() {
+            return "LoadBalancingConfiguration{" +
+                    "strategy='" + strategy + '\'' +
+                    ", hashHeader='" + hashHeader + '\'' +
+                    ", hashCookie='" + hashCookie + '\'' +
+                    ", healthCheck=" + healthCheck +
+                    ", outlierDetection=" + outlierDetection +
+                    '}';
+        }
+    }
+
+    public static class HealthCheckConfiguration {
+        public String path;
+        public Long interval;
+        public Long timeout;
+        public Integer healthyThreshold;
+        public Integer unhealthyThreshold;
+
+        @Override
+        public String toString() {
+            return "HealthCheckConfiguration{" +
+                    "path='" + path + '\'' +
+                    ", interval=" + interval +
+                    ", timeout=" + timeout +
+                    ", healthyThreshold=" + healthyThreshold +
+                    ", unhealthyThreshold=" + unhealthyThreshold +
+                    '}';
+        }
+    }
+
+    public static class OutlierDetectionConfiguration {
+        public Integer consecutiveFailures;
+        public Long ejectionDuration;
+
         @Override
         public String toString() {
-            return "ResponseConfiguration{target='" + target + "'}";
+            return "OutlierDetectionConfiguration{" +
+                    "consecutiveFailures=" + consecutiveFailures +
+                    ", ejectionDuration=" + ejectionDuration +
+                    '}';
         }
     }
 
@@ -143,6 +340,15 @@ public class Routes {
         public Collection<String> skippedHeaders;
         public Collection<String> skippedCookies;
 
+        @JsonbTransient
+        public CaseInsensitiveSet skippedHeaderNames; // compiled skippedHeaders
+
+        @JsonbTransient
+        public CaseInsensitiveSet skippedCookieNames; // compiled skippedCookies
+
+        @JsonbTransient
+        public String addedContentType; // Content-Type of addedHeaders, whatever its case
+
         @Override
         public String toString() {
             return "RequestConfiguration{method='" + method + "', prefix='" + prefix + "'}";
@@ -18,30 +18,33 @@
  */
 package org.apache.meecrowave.proxy.servlet.front;
 
+import static java.util.Collections.emptyMap;
 import static java.util.Collections.list;
 import static java.util.Optional.empty;
 import static java.util.Optional.ofNullable;
-import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toMap;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
+import java.nio.file.Path;
 import java.util.AbstractMap;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
 import jakarta.servlet.AsyncContext;
 import jakarta.servlet.ServletConfig;
 import jakarta.servlet.ServletException;
-import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
@@ -56,23 +59,46 @@ import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.NewCookie;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 
 import org.apache.meecrowave.proxy.servlet.configuration.Routes;
+import org.apache.meecrowave.proxy.servlet.service.BodyRelay;
+import org.apache.meecrowave.proxy.servlet.service.CaseInsensitiveSet;
+import org.apache.meecrowave.proxy.servlet.service.CircuitBreaker;
+import org.apache.meecrowave.proxy.servlet.service.CircuitBreakerOpenException;
 import org.apache.meecrowave.proxy.servlet.service.ConfigurationLoader;
+import org.apache.meecrowave.proxy.servlet.service.LoadBalancer;
+import org.apache.meecrowave.proxy.servlet.service.PooledBodyRelay;
+import org.apache.meecrowave.proxy.servlet.service.RoutesReloader;
 
 // IMPORTANT: don't make this class depending on meecrowave, cxf or our internals, use setup class
 public class ProxyServlet extends HttpServlet {
-    protected Routes routes;
+    private static final String ROUTES_ATTRIBUTE = ProxyServlet.class.getName() + ".routes";
+
+    protected RoutesReloader routesReloader;
     protected int prefixLength;
+    protected BodyRelay bodyRelay;
 
     @Override
     protected void service(final HttpServletRequest req, final HttpServletResponse resp) throws ServletException, IOException {
         final String prefix = req.getRequestURI().substring(prefixLength);
-        final Optional<Routes.Route> matchedRoute = findRoute(req, prefix);
-        if (!matchedRoute.isPresent()) {
-            super.service(req, resp);
-        } else {
-            doExecute(matchedRoute.orElseThrow(IllegalArgumentException::new), req, resp, prefix);
+        final RoutesReloader.Generation generation = routesReloader.acquire(); // routes can't be closed until released
+        boolean released = false;
+        try {
+            req.setAttribute(ROUTES_ATTRIBUTE, generation.getRoutes());
+            final Optional<Routes.Route> matchedRoute = findRoute(req, prefix);
+            if (!matchedRoute.isPresent()) {
+                super.service(req, resp);
+            } else {
+                final CompletionStage<HttpServletResponse> execution = doExecute(
+                        matchedRoute.orElseThrow(IllegalArgumentException::new), req, resp, prefix);
+                released = true;
+                execution.whenComplete((r, e) -> generation.release());
+            }
+        } finally {
+            if (!released) {
+                generation.release();
+            }
         }
     }
 
@@ -82,7 +108,15 @@ public class ProxyServlet extends HttpServlet {
         final AsyncContext asyncContext = req.startAsync();
         asyncContext.setTimeout(route.clientConfiguration.timeouts.execution);
 
-        return doRequest(route, req, resp, prefix)
+        CompletionStage<Response> request;
+        try {
+            request = doRequest(route, req, resp, prefix);
+        } catch (final RejectedExecutionException ree) { // executor saturated (rejection policy = fail)
+            final CompletableFuture<Response> failed = new CompletableFuture<>();
+            failed.completeExceptionally(ree);
+            request = failed;
+        }
+        return request
                 .thenAccept(response -> {
                     try {
                         forwardResponse(route, response, req, resp, identity());
@@ -96,7 +130,57 @@ public class ProxyServlet extends HttpServlet {
     protected CompletionStage<Response> doRequest(final Routes.Route route,
                                                   final HttpServletRequest req, final HttpServletResponse response,
                                                   final String prefix) throws IOException {
-        WebTarget target = route.client.target(route.responseConfiguration.target);
+        if (route.cache != null) {
+            return route.cache.execute(req, prefix, additionalHeaders -> {
+                try {
+                    return doResilientRequest(route, req, prefix, additionalHeaders);
+                } catch (final IOException e) {
+                    final CompletableFuture<Response> failed = new CompletableFuture<>();
+                    failed.completeExceptionally(e);
+                    return failed;
+                }
+            });
+        }
+        return doResilientRequest(route, req, prefix, emptyMap());
+    }
+
+    protected CompletionStage<Response> doResilientRequest(final Routes.Route route, final HttpServletRequest req,
+                                                           final String prefix, final Map<String, String> additionalHeaders) throws IOException {
+        if (route.resilience != null) {
+            return route.resilience.execute(isReplayable(req), () -> doBalancedRequest(route, req, prefix, additionalHeaders));
+        }
+        return doBalancedRequest(route, req, prefix, additionalHeaders);
+    }
+
+    protected CompletionStage<Response> doBalancedRequest(final Routes.Route route, final HttpServletRequest req,
+                                                          final String prefix, final Map<String, String> additionalHeaders) throws IOException {
+        if (route.loadBalancer != null) {
+            final LoadBalancer.Upstream upstream = route.loadBalancer.select(req);
+            final CompletionStage<Response> result;
+            try {
+                result = doPooledRequest(route, upstream.getTarget(), req, prefix, additionalHeaders);
+            } catch (final IOException | RuntimeException e) {
+                route.loadBalancer.release(upstream, false);
+                throw e;
+            }
+            return result.whenComplete((r, e) -> route.loadBalancer.release(upstream, e == null && r.getStatus() < 500));
+        }
+        return doPooledRequest(route, route.responseConfiguration.target, req, prefix, additionalHeaders);
+    }
+
+    protected CompletionStage<Response> doPooledRequest(final Routes.Route route, final String base,
+                                                        final HttpServletRequest req, final String prefix,
+                                                        final Map<String, String> additionalHeaders) throws IOException {
+        if (route.connectionPool != null) {
+            return route.connectionPool.execute(base, () -> doUpstreamRequest(route, base, req, prefix, additionalHeaders));
+        }
+        return doUpstreamRequest(route, base, req, prefix, additionalHeaders);
+    }
+
+    protected CompletionStage<Response> doUpstreamRequest(final Routes.Route route, final String base,
+                                                          final HttpServletRequest req, final String prefix,
+                                                          final Map<String, String> additionalHeaders) throws IOException {
+        WebTarget target = route.client.target(base);
         target = target.path(prefix);
 
         final Map<String, String> queryParams = ofNullable(req.getQueryString())
@@ -115,15 +199,16 @@ public class ProxyServlet extends HttpServlet {
             target = target.queryParam(q.getKey(), q.getValue());
         }
 
-        final String type = route.requestConfiguration.addedHeaders != null ?
-                route.requestConfiguration.addedHeaders.getOrDefault("Content-Type", req.getContentType()) :
-                req.getContentType();
+        final String addedType = route.requestConfiguration.addedContentType != null ?
+                route.requestConfiguration.addedContentType :
+                (route.requestConfiguration.addedHeaders != null ? route.requestConfiguration.addedHeaders.get("Content-Type") : null);
+        final String type = addedType != null ? addedType : req.getContentType();
         Invocation.Builder request = type != null ? target.request(type) : target.request();
 
         final Enumeration<String> headerNames = req.getHeaderNames();
         while (headerNames.hasMoreElements()) {
             final String name = headerNames.nextElement();
-            if (!filterHeader(route.requestConfiguration.skippedHeaders, name)) {
+            if (!filterHeader(route.requestConfiguration.skippedHeaderNames, route.requestConfiguration.skippedHeaders, name)) {
                 request = request.header(name, list(req.getHeaders(name)));
             }
         }
@@ -134,10 +219,15 @@ public class ProxyServlet extends HttpServlet {
             }
         }
 
+        for (final Map.Entry<String, String> header : additionalHeaders.entrySet()) {
+            request = request.header(header.getKey(), header.getValue());
+        }
+
         final Cookie[] cookies = req.getCookies();
         if (cookies != null) {
             for (final Cookie cookie : cookies) {
-                if (filterCookie(route.requestConfiguration.skippedCookies, cookie.getName(), cookie.getValue())) {
+                if (filterCookie(route.requestConfiguration.skippedCookieNames, route.requestConfiguration.skippedCookies,
+                        cookie.getName(), cookie.getValue())) {
                     continue;
                 }
                 request = request.cookie(
@@ -148,13 +238,20 @@ public class ProxyServlet extends HttpServlet {
         final CompletionStageRxInvoker rx = request.rx();
         final CompletionStage<Response> result;
         if (isWrite(req)) {
-            result = rx.method(req.getMethod(), Entity.entity(req.getInputStream(), ofNullable(req.getContentType()).orElse(MediaType.WILDCARD)));
+            final StreamingOutput payload = out -> bodyRelay.relay(req.getInputStream(), out);
+            result = rx.method(req.getMethod(), Entity.entity(payload, ofNullable(req.getContentType()).orElse(MediaType.WILDCARD)));
         } else {
             result = rx.method(req.getMethod());
         }
         return result;
     }
 
+    // the payload is streamed to the upstream so only requests without payload can be sent again
+    protected boolean isReplayable(final HttpServletRequest req) {
+        return HttpMethod.GET.equalsIgnoreCase(req.getMethod()) || HttpMethod.HEAD.equalsIgnoreCase(req.getMethod())
+                || HttpMethod.OPTIONS.equalsIgnoreCase(req.getMethod());
+    }
+
     protected boolean isWrite(final HttpServletRequest req) {
         return !HttpMethod.HEAD.equalsIgnoreCase(req.getMethod()) && !HttpMethod.GET.equalsIgnoreCase(req.getMethod());
     }
@@ -170,6 +267,10 @@ public class ProxyServlet extends HttpServlet {
                     return null;
                 }
             }
+            if (isUnavailable(error)) {
+                resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                return null;
+            }
             onDefaultError(resp, error);
         } catch (final IOException ioe) {
             getServletContext().log(ioe.getMessage(), ioe);
@@ -178,6 +279,20 @@ public class ProxyServlet extends HttpServlet {
         return null;
     }
 
+    private boolean isUnavailable(final Throwable error) {
+        Throwable current = error;
+        while (current != null) {
+            if (RejectedExecutionException.class.isInstance(current) || CircuitBreakerOpenException.class.isInstance(current)) {
+                return true;
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+            current = current.getCause();
+        }
+        return false;
+    }
+
     protected void onDefaultError(HttpServletResponse resp, Throwable error) throws IOException {
         resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
         error.printStackTrace(new PrintWriter(resp.getOutputStream()));
@@ -193,13 +308,20 @@ public class ProxyServlet extends HttpServlet {
             resp.setIntHeader(HttpHeaders.CONTENT_LENGTH, 0);
         }
         forwardCookies(route, response, resp);
-        writeOutput(resp, responseRewriter.apply(response.readEntity(InputStream.class)));
+        try {
+            writeOutput(resp, responseRewriter.apply(response.readEntity(InputStream.class)));
+        } finally { // releases the upstream connection (and its pool slot) even if the client went away
+            response.close();
+        }
     }
 
     protected void forwardCookies(final Routes.Route route, final Response response, final HttpServletResponse resp) {
-        response.getCookies().entrySet().stream()
-                .filter(cookie -> filterCookie(route.responseConfiguration.skippedCookies, cookie.getKey(), cookie.getValue().getValue()))
-                .forEach(cookie -> addCookie(resp, cookie));
+        for (final Map.Entry<String, NewCookie> cookie : response.getCookies().entrySet()) {
+            if (filterCookie(route.responseConfiguration.skippedCookieNames, route.responseConfiguration.skippedCookies,
+                    cookie.getKey(), cookie.getValue().getValue())) {
+                addCookie(resp, cookie);
+            }
+        }
     }
 
     protected void addCookie(final HttpServletResponse resp, final Map.Entry<String, NewCookie> cookie) {
@@ -216,10 +338,14 @@ public class ProxyServlet extends HttpServlet {
     }
 
     protected void forwardHeaders(final Routes.Route route, final Response response, final HttpServletResponse resp) {
-        response.getHeaders().entrySet().stream()
-                .filter(header -> filterHeader(route.responseConfiguration.skippedHeaders, header.getKey()))
-                .flatMap(entry -> entry.getValue().stream().map(value -> new AbstractMap.SimpleEntry<>(entry.getKey(), String.valueOf(value))))
-                .forEach(header -> resp.addHeader(header.getKey(), header.getValue()));
+        for (final Map.Entry<String, List<Object>> header : response.getHeaders().entrySet()) {
+            if (!filterHeader(route.responseConfiguration.skippedHeaderNames, route.responseConfiguration.skippedHeaders, header.getKey())) {
+                continue;
+            }
+            for (final Object value : header.getValue()) {
+                resp.addHeader(header.getKey(), String.valueOf(value));
+            }
+        }
     }
 
     protected boolean filterCookie(final Collection<String> blacklist, final String name, final String value) {
@@ -230,32 +356,82 @@ public class ProxyServlet extends HttpServlet {
         return  blacklist == null || blacklist.stream().anyMatch(it -> it.equalsIgnoreCase(name));
     }
 
-    private void writeOutput(final HttpServletResponse resp, final InputStream stream) throws IOException {
-        final int bufferSize = Math.max(128, Math.min(8192, stream.available()));
-        final byte[] buffer = new byte[bufferSize]; // todo: reusable (copier?)
-        final ServletOutputStream outputStream = resp.getOutputStream();
-        int read;
-        while ((read = stream.read(buffer)) >= 0) {
-            if (read > 0) {
-                outputStream.write(buffer, 0, read);
-            }
+    // compiled variants, the collection is only used for routes not created by the ConfigurationLoader
+    protected boolean filterCookie(final CaseInsensitiveSet compiled, final Collection<String> blacklist,
+                                   final String name, final String value) {
+        if (compiled == null) {
+            return filterCookie(blacklist, name, value);
         }
+        return value != null && compiled.contains(name);
+    }
+
+    protected boolean filterHeader(final CaseInsensitiveSet compiled, final Collection<String> blacklist, final String name) {
+        if (compiled == null) {
+            return filterHeader(blacklist, name);
+        }
+        return compiled.contains(name);
+    }
+
+    private void writeOutput(final HttpServletResponse resp, final InputStream stream) throws IOException {
+        bodyRelay.relay(stream, resp.getOutputStream());
     }
 
+    /**
+     * Finds the route of the request in the routes acquired for it, delegates to {@link #findRoute(Routes, HttpServletRequest, String)}.
+     */
     protected Optional<Routes.Route> findRoute(final HttpServletRequest req, final String prefix) {
-        return routes == null ? empty() : routes.routes.stream()
-                .filter(it -> it.requestConfiguration.method == null || it.requestConfiguration.method.equalsIgnoreCase(req.getMethod()))
-                .filter(it -> it.requestConfiguration.prefix == null || it.requestConfiguration.prefix.equalsIgnoreCase(prefix))
-                .findFirst();
+        final Object routes = req.getAttribute(ROUTES_ATTRIBUTE);
+        return findRoute(routes == null ? routesReloader.getRoutes() : Routes.class.cast(routes), req, prefix);
+    }
+
+    protected Optional<Routes.Route> findRoute(final Routes routes, final HttpServletRequest req, final String prefix) {
+        return routes == null || routes.index == null ? empty() : ofNullable(routes.index.match(req.getMethod(), prefix));
+    }
+
+    protected BodyRelay createBodyRelay() {
+        return get("body-relay").map(String::trim).map(clazz -> {
+            try {
+                return BodyRelay.class.cast(Thread.currentThread().getContextClassLoader()
+                        .loadClass(clazz).getConstructor().newInstance());
+            } catch (final Exception e) {
+                throw new IllegalArgumentException("Can't create body relay " + clazz, e);
+            }
+        }).orElseGet(() -> new PooledBodyRelay(
+                get("body-relay-buffer-size").map(Integer::parseInt).orElse(8192),
+                get("body-relay-pool-size").map(Integer::parseInt).orElse(Math.max(16, Runtime.getRuntime().availableProcessors() * 4))));
     }
 
     protected Optional<Routes> loadConfiguration() {
-        return get("configuration").flatMap(path -> new ConfigurationLoader(path) {
+        return get("configuration").map(this::createConfigurationLoader).flatMap(ConfigurationLoader::load);
+    }
+
+    protected ConfigurationLoader createConfigurationLoader(final String path) {
+        return new ConfigurationLoader(path) {
             @Override
             protected void log(final String message) {
                 getServletContext().log(message);
             }
-        }.load());
+
+            @Override
+            protected void onCircuitBreakerStateChange(final Routes.Route route,
+                                                       final CircuitBreaker.State previous, final CircuitBreaker.State state) {
+                ProxyServlet.this.onCircuitBreakerStateChange(route, previous, state);
+            }
+        };
+    }
+
+    protected void onCircuitBreakerStateChange(final Routes.Route route,
+                                               final CircuitBreaker.State previous, final CircuitBreaker.State state) {
+        getServletContext().log("Circuit breaker of route " + route.id + " moved from " + previous + " to " + state);
+    }
+
+    /**
+     * Reloads the routes, current ones are closed once their in-flight requests completed.
+     *
+     * @return true if the new routes are active, false if they can't be loaded and the current ones are kept.
+     */
+    public boolean reload() {
+        return routesReloader.reload();
     }
 
     @Override
@@ -265,36 +441,36 @@ public class ProxyServlet extends HttpServlet {
         prefixLength = get("mapping")
                 .map(it -> it.endsWith("/*") ? it.substring(0, it.length() - "/*".length()) : it)
                 .orElse("").length() + config.getServletContext().getContextPath().length();
-
-        final Optional<Routes> configuration = loadConfiguration();
-        if (!configuration.isPresent()) {
-            return;
-        }
-        routes = configuration.orElseThrow(IllegalArgumentException::new);
+        bodyRelay = createBodyRelay();
+        config.getServletContext().setAttribute(BodyRelay.class.getName() + '.' + config.getServletName(), bodyRelay);
+
+        routesReloader = new RoutesReloader(
+                loadConfiguration().orElse(null), this::loadConfiguration, this::closeRoutes,
+                get("reload-drain-timeout").map(Long::parseLong).orElse(60000L),
+                config.getServletContext()::log);
+        config.getServletContext().setAttribute(RoutesReloader.class.getName() + '.' + config.getServletName(), routesReloader);
+        get("reload-interval").map(Long::parseLong).filter(it -> it > 0).ifPresent(interval -> {
+            final Optional<Path> file = get("configuration").map(this::createConfigurationLoader).flatMap(ConfigurationLoader::findFile);
+            if (file.isPresent()) {
+                routesReloader.watch(file.orElseThrow(IllegalArgumentException::new), interval);
+            } else {
+                config.getServletContext().log("Routes are not a file, they will not be watched");
+            }
+        });
     }
 
     @Override
     public void destroy() {
-        if (routes != null && routes.routes != null) {
-            routes.routes.forEach(it -> {
-                if (it.executor != null) {
-                    it.executor.shutdown();
-                    try {
-                        if (!it.executor.awaitTermination(it.clientConfiguration.executor.shutdownTimeout, MILLISECONDS)) {
-                            getServletContext().log("Can't shutdown the client executor in " + it.clientConfiguration.executor.shutdownTimeout + "ms");
-                        }
-                    } catch (final InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                    }
-                }
-                if (it.client != null) {
-                    it.client.close();
-                }
-            });
+        if (routesReloader != null) {
+            routesReloader.close();
         }
         super.destroy();
     }
 
+    protected void closeRoutes(final Routes routes) {
+        ConfigurationLoader.close(routes, getServletContext()::log);
+    }
+
     private Optional<String> get(final String key) {
         return ofNullable(getServletConfig().getInitParameter(key));
     }
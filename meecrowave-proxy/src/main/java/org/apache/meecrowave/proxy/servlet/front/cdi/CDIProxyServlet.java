@@ -18,6 +18,7 @@
  */
 package org.apache.meecrowave.proxy.servlet.front.cdi;
 
+import static java.util.Optional.ofNullable;
 import static java.util.function.Function.identity;
 
 import java.io.IOException;
@@ -27,21 +28,31 @@ import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 
 import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.NotificationOptions;
 import jakarta.inject.Inject;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.ws.rs.core.Response;
 
 import org.apache.meecrowave.proxy.servlet.configuration.Routes;
 import org.apache.meecrowave.proxy.servlet.front.ProxyServlet;
+import org.apache.meecrowave.proxy.servlet.front.cdi.dispatch.EventDispatcher;
+import org.apache.meecrowave.proxy.servlet.front.cdi.dispatch.Snapshots;
 import org.apache.meecrowave.proxy.servlet.front.cdi.event.AfterResponse;
 import org.apache.meecrowave.proxy.servlet.front.cdi.event.BeforeRequest;
+import org.apache.meecrowave.proxy.servlet.front.cdi.event.CircuitBreakerStateChanged;
 import org.apache.meecrowave.proxy.servlet.front.cdi.event.OnRequest;
 import org.apache.meecrowave.proxy.servlet.front.cdi.event.OnResponse;
 import org.apache.meecrowave.proxy.servlet.front.cdi.extension.SpyExtension;
+import org.apache.meecrowave.proxy.servlet.service.CircuitBreaker;
 
 // IMPORTANT: don't make this class depending on meecrowave, cxf or our internals, use setup class
 public class CDIProxyServlet extends ProxyServlet {
+    // observers are notified in the dispatcher thread which already batches them
+    private static final NotificationOptions INLINE = NotificationOptions.ofExecutor(Runnable::run);
+
     @Inject
     private Event<BeforeRequest> beforeRequestEvent;
 
@@ -54,13 +65,43 @@ public class CDIProxyServlet extends ProxyServlet {
     @Inject
     private Event<OnResponse> onResponseEvent;
 
+    @Inject
+    private Event<CircuitBreakerStateChanged> circuitBreakerStateChangedEvent;
+
     @Inject
     private SpyExtension spy;
 
+    private EventDispatcher eventDispatcher;
+
+    @Override
+    public void init(final ServletConfig config) throws ServletException {
+        super.init(config);
+        if (spy.isHasAsyncBeforeEvent() || spy.isHasAsyncAfterEvent()) {
+            eventDispatcher = new EventDispatcher(
+                    config.getServletName(),
+                    ofNullable(config.getInitParameter("event-buffer-size")).map(Integer::parseInt).orElse(8192),
+                    ofNullable(config.getInitParameter("event-batch-size")).map(Integer::parseInt).orElse(256),
+                    EventDispatcher.DropPolicy.from(config.getInitParameter("event-drop-policy")),
+                    config.getServletContext()::log);
+            config.getServletContext().setAttribute(EventDispatcher.class.getName() + '.' + config.getServletName(), eventDispatcher);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (eventDispatcher != null) {
+            eventDispatcher.close();
+        }
+        super.destroy();
+    }
+
     @Override
     protected CompletionStage<HttpServletResponse> doExecute(final Routes.Route route,
                                                              final HttpServletRequest req, final HttpServletResponse resp,
                                                              final String prefix) throws IOException {
+        if (eventDispatcher != null) {
+            return doExecuteWithAsyncObservers(route, req, resp, prefix);
+        }
         final CompletionStage<HttpServletResponse> stage;
         if (spy.isHasBeforeEvent()) {
             final BeforeRequest event = new BeforeRequest(req, resp);
@@ -80,6 +121,50 @@ public class CDIProxyServlet extends ProxyServlet {
         });
     }
 
+    // @ObservesAsync observers get a snapshot of the exchange out of the request thread,
+    // they can't change the route (use a synchronous observer for that)
+    private CompletionStage<HttpServletResponse> doExecuteWithAsyncObservers(final Routes.Route route,
+                                                                             final HttpServletRequest req,
+                                                                             final HttpServletResponse resp,
+                                                                             final String prefix) throws IOException {
+        final HttpServletRequest requestSnapshot = Snapshots.request(req);
+        final Routes.Route actualRoute;
+        final String actualPrefix;
+        if (spy.isHasBeforeEvent()) {
+            final BeforeRequest event = new BeforeRequest(req, resp);
+            event.setRoute(route);
+            event.setPrefix(prefix);
+            beforeRequestEvent.fire(event);
+            actualRoute = event.getRoute();
+            actualPrefix = event.getPrefix();
+        } else {
+            actualRoute = route;
+            actualPrefix = prefix;
+        }
+        if (spy.isHasAsyncBeforeEvent()) {
+            final BeforeRequest event = new BeforeRequest(requestSnapshot, null);
+            event.setRoute(actualRoute);
+            event.setPrefix(actualPrefix);
+            eventDispatcher.publish(() -> beforeRequestEvent.fireAsync(event, INLINE).toCompletableFuture().join());
+        }
+        final CompletionStage<HttpServletResponse> stage = super.doExecute(actualRoute, req, resp, actualPrefix);
+        if (!spy.isHasAfterEvent() && !spy.isHasAsyncAfterEvent()) {
+            return stage;
+        }
+        return stage.handle((r, t) -> {
+            if (spy.isHasAfterEvent()) {
+                afterResponseEvent.fire(new AfterResponse(req, resp));
+            }
+            if (spy.isHasAsyncAfterEvent()) {
+                final AfterResponse event = new AfterResponse(requestSnapshot, Snapshots.response(resp));
+                event.setRoute(actualRoute);
+                event.setPrefix(actualPrefix);
+                eventDispatcher.publish(() -> afterResponseEvent.fireAsync(event, INLINE).toCompletableFuture().join());
+            }
+            return r;
+        });
+    }
+
     @Override
     protected CompletionStage<Response> doRequest(final Routes.Route route,
                                                   final HttpServletRequest req,
@@ -116,4 +201,11 @@ public class CDIProxyServlet extends ProxyServlet {
             super.forwardResponse(route, response, request, resp, identity());
         }
     }
+
+    @Override
+    protected void onCircuitBreakerStateChange(final Routes.Route route,
+                                               final CircuitBreaker.State previous, final CircuitBreaker.State state) {
+        super.onCircuitBreakerStateChange(route, previous, state);
+        circuitBreakerStateChangedEvent.fire(new CircuitBreakerStateChanged(route, previous, state));
+    }
 }
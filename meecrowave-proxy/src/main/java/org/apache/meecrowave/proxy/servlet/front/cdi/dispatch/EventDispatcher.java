@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.front.cdi.dispatch;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Delivers notifications out of the request threads: producers enqueue in a {@link RingBuffer},
+ * a single background thread drains it in batches.
+ *
+ * When the buffer is full the notification is dropped (and counted) or executed in the caller thread
+ * depending the {@link DropPolicy}.
+ */
+public class EventDispatcher implements AutoCloseable {
+    private final RingBuffer<Runnable> buffer;
+    private final int batchSize;
+    private final DropPolicy dropPolicy;
+    private final Consumer<String> logger;
+    private final Thread consumer;
+    private volatile boolean running = true;
+    private volatile boolean sleeping;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    public EventDispatcher(final String name, final int capacity, final int batchSize,
+                           final DropPolicy dropPolicy, final Consumer<String> logger) {
+        this.buffer = new RingBuffer<>(capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.dropPolicy = dropPolicy;
+        this.logger = logger;
+        this.consumer = new Thread(this::consume, "meecrowave-proxy-events#" + name);
+        this.consumer.setDaemon(true);
+        this.consumer.setContextClassLoader(Thread.currentThread().getContextClassLoader());
+        this.consumer.start();
+    }
+
+    /**
+     * @param notification what to execute in the background.
+     * @return true if the notification was enqueued or executed, false if it was dropped.
+     */
+    public boolean publish(final Runnable notification) {
+        if (running && buffer.offer(notification)) {
+            published.increment();
+            if (sleeping) {
+                LockSupport.unpark(consumer);
+            }
+            return true;
+        }
+        if (dropPolicy == DropPolicy.CALLER_RUNS) {
+            published.increment();
+            run(notification);
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    public long getPublished() {
+        return published.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getDispatched() {
+        return dispatched.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Stops accepting notifications and waits (up to 30s) for the pending ones.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "EventDispatcher{" +
+                "published=" + getPublished() +
+                ", dropped=" + getDropped() +
+                ", dispatched=" + getDispatched() +
+                ", failed=" + getFailed() +
+                ", batches=" + getBatches() +
+                '}';
+    }
+
+    private void consume() {
+        while (true) {
+            final int count = buffer.drain(this::run, batchSize);
+            if (count > 0) {
+                batches.increment();
+                continue;
+            }
+            if (!running) {
+                // a producer can have passed the running check just before close so drain what is left
+                while (buffer.drain(this::run, batchSize) > 0) {
+                    batches.increment();
+                }
+                return;
+            }
+            sleeping = true;
+            if (buffer.isEmpty() && running) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(100));
+            }
+            sleeping = false;
+        }
+    }
+
+    private void run(final Runnable notification) {
+        try {
+            notification.run();
+            dispatched.increment();
+        } catch (final RuntimeException re) {
+            failed.increment();
+            logger.accept("Event notification failed: " + re.getMessage());
+        }
+    }
+
+    public enum DropPolicy {
+        DROP, CALLER_RUNS;
+
+        public static DropPolicy from(final String value) {
+            if (value == null || value.trim().isEmpty()) {
+                return DROP;
+            }
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.front.cdi.dispatch;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock free queue for multiple producers and a single consumer.
+ * Each slot has a sequence telling if it is free for the producer of a position or readable by the consumer.
+ */
+class RingBuffer<T> {
+    private final int mask;
+    private final AtomicReferenceArray<T> values;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private long head; // consumer thread only
+
+    RingBuffer(final int capacity) {
+        final int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.values = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @param value the value to enqueue.
+     * @return false if the buffer is full.
+     */
+    boolean offer(final T value) {
+        long position = tail.get();
+        while (true) {
+            final int index = (int) position & mask;
+            final long available = sequences.get(index) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    values.set(index, value);
+                    sequences.set(index, position + 1); // publish
+                    return true;
+                }
+                position = tail.get();
+            } else if (available < 0) { // slot not yet consumed: full
+                return false;
+            } else { // another producer took this position
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Consumer side only.
+     *
+     * @param consumer the callback for each value.
+     * @param max the maximum number of values to dequeue.
+     * @return the number of values dequeued.
+     */
+    int drain(final Consumer<T> consumer, final int max) {
+        int count = 0;
+        while (count < max) {
+            final int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) { // not published yet
+                break;
+            }
+            final T value = values.get(index);
+            values.set(index, null);
+            sequences.set(index, head + mask + 1); // free for the producer of the next round
+            head++;
+            count++;
+            consumer.accept(value);
+        }
+        return count;
+    }
+
+    /**
+     * Consumer side only.
+     *
+     * @return true if there is nothing to consume.
+     */
+    boolean isEmpty() {
+        return sequences.get((int) head & mask) != head + 1;
+    }
+}
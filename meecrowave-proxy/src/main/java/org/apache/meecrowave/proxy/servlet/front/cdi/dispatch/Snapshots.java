@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.front.cdi.dispatch;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.enumeration;
+import static java.util.Collections.list;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Immutable copies of the request/response data an observer can read once the exchange is over
+ * (container objects are recycled). Other methods throw an {@link UnsupportedOperationException}.
+ */
+public final class Snapshots {
+    private Snapshots() {
+        // no-op
+    }
+
+    public static HttpServletRequest request(final HttpServletRequest request) {
+        final Map<String, Object> values = new HashMap<>();
+        values.put("getMethod", request.getMethod());
+        values.put("getRequestURI", request.getRequestURI());
+        values.put("getQueryString", request.getQueryString());
+        values.put("getContextPath", request.getContextPath());
+        values.put("getServletPath", request.getServletPath());
+        values.put("getPathInfo", request.getPathInfo());
+        values.put("getProtocol", request.getProtocol());
+        values.put("getScheme", request.getScheme());
+        values.put("getServerName", request.getServerName());
+        values.put("getServerPort", request.getServerPort());
+        values.put("getRemoteAddr", request.getRemoteAddr());
+        values.put("getRemotePort", request.getRemotePort());
+        values.put("getContentType", request.getContentType());
+        values.put("getContentLengthLong", request.getContentLengthLong());
+        values.put("getContentLength", request.getContentLength());
+        values.put("isSecure", request.isSecure());
+
+        final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        final List<String> names = list(request.getHeaderNames());
+        names.forEach(name -> headers.put(name, list(request.getHeaders(name))));
+        return create(HttpServletRequest.class, values, headers, names);
+    }
+
+    public static HttpServletResponse response(final HttpServletResponse response) {
+        final Map<String, Object> values = new HashMap<>();
+        values.put("getStatus", response.getStatus());
+        values.put("getContentType", response.getContentType());
+        values.put("getCharacterEncoding", response.getCharacterEncoding());
+        values.put("isCommitted", response.isCommitted());
+
+        final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        final Collection<String> names = new ArrayList<>(response.getHeaderNames());
+        names.forEach(name -> headers.put(name, new ArrayList<>(response.getHeaders(name))));
+        return create(HttpServletResponse.class, values, headers, names);
+    }
+
+    private static <T> T create(final Class<T> api, final Map<String, Object> values,
+                                final Map<String, List<String>> headers, final Collection<String> names) {
+        return api.cast(Proxy.newProxyInstance(Snapshots.class.getClassLoader(), new Class<?>[]{api}, (proxy, method, args) -> {
+            final String name = method.getName();
+            if (values.containsKey(name) && method.getParameterCount() == 0) {
+                return values.get(name);
+            }
+            switch (name) {
+                case "getHeader":
+                case "getHeaders": {
+                    final List<String> header = headers.getOrDefault(String.valueOf(args[0]), emptyList());
+                    if ("getHeader".equals(name)) {
+                        return header.isEmpty() ? null : header.get(0);
+                    }
+                    return HttpServletRequest.class == api ? enumeration(header) : header;
+                }
+                case "getHeaderNames":
+                    return HttpServletRequest.class == api ? enumeration(names) : names;
+                case "containsHeader":
+                    return headers.containsKey(String.valueOf(args[0]));
+                case "getIntHeader": {
+                    final List<String> header = headers.get(String.valueOf(args[0]));
+                    return header == null || header.isEmpty() ? -1 : Integer.parseInt(header.get(0));
+                }
+                case "toString":
+                    return api.getSimpleName() + "Snapshot" + values;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException(
+                            name + " is not available on a " + api.getSimpleName().toLowerCase(Locale.ROOT) + " snapshot");
+            }
+        }));
+    }
+}
@@ -30,15 +30,25 @@ import org.apache.meecrowave.proxy.servlet.front.cdi.event.OnResponse;
 public class SpyExtension implements Extension {
     private boolean hasBeforeEvent;
     private boolean hasAfterEvent;
+    private boolean hasAsyncBeforeEvent;
+    private boolean hasAsyncAfterEvent;
     private boolean hasOnRequestEvent;
     private boolean hasOnResponseEvent;
 
     void onBeforeObserver(@Observes final ProcessObserverMethod<BeforeRequest, ?> processObserverMethod) {
-        hasBeforeEvent = true;
+        if (processObserverMethod.getObserverMethod().isAsync()) {
+            hasAsyncBeforeEvent = true;
+        } else {
+            hasBeforeEvent = true;
+        }
     }
 
     void onAfterObserver(@Observes final ProcessObserverMethod<AfterResponse, ?> processObserverMethod) {
-        hasAfterEvent = true;
+        if (processObserverMethod.getObserverMethod().isAsync()) {
+            hasAsyncAfterEvent = true;
+        } else {
+            hasAfterEvent = true;
+        }
     }
 
     void onRequestObserver(@Observes final ProcessObserverMethod<OnRequest, ?> processObserverMethod) {
@@ -64,4 +74,12 @@ public class SpyExtension implements Extension {
     public boolean isHasAfterEvent() {
         return hasAfterEvent;
     }
+
+    public boolean isHasAsyncBeforeEvent() {
+        return hasAsyncBeforeEvent;
+    }
+
+    public boolean isHasAsyncAfterEvent() {
+        return hasAsyncAfterEvent;
+    }
 }
@@ -51,6 +51,18 @@ public class ProxyServletSetup implements Meecrowave.MeecrowaveAwareContextCusto
             }
             servlet.setInitParameter("mapping", config.mapping);
             servlet.setInitParameter("configuration", config.configuration);
+            if (config.bodyRelay != null) {
+                servlet.setInitParameter("body-relay", config.bodyRelay);
+            }
+            servlet.setInitParameter("body-relay-buffer-size", Integer.toString(config.bodyRelayBufferSize));
+            if (config.bodyRelayPoolSize > 0) {
+                servlet.setInitParameter("body-relay-pool-size", Integer.toString(config.bodyRelayPoolSize));
+            }
+            servlet.setInitParameter("reload-interval", Long.toString(config.reloadInterval));
+            servlet.setInitParameter("reload-drain-timeout", Long.toString(config.reloadDrainTimeout));
+            servlet.setInitParameter("event-buffer-size", Integer.toString(config.eventBufferSize));
+            servlet.setInitParameter("event-batch-size", Integer.toString(config.eventBatchSize));
+            servlet.setInitParameter("event-drop-policy", config.eventDropPolicy);
         }, null);
     }
 
@@ -86,5 +98,29 @@ public class ProxyServletSetup implements Meecrowave.MeecrowaveAwareContextCusto
 
         @CliOption(name = "proxy-async-timeout", description = "Asynchronous execution timeout.")
         private String asyncTimeout = "30000";
+
+        @CliOption(name = "proxy-body-relay", description = "Class (with a no-arg constructor) implementing BodyRelay to copy payloads, default copies through pooled buffers.")
+        private String bodyRelay;
+
+        @CliOption(name = "proxy-body-relay-buffer-size", description = "Size of the pooled buffers used to copy payloads.")
+        private int bodyRelayBufferSize = 8192;
+
+        @CliOption(name = "proxy-body-relay-pool-size", description = "How many payload buffers are pooled, default depends on the number of processors.")
+        private int bodyRelayPoolSize = -1;
+
+        @CliOption(name = "proxy-reload-interval", description = "How often (ms) the route file is checked for changes, <= 0 disables the hot reloading.")
+        private long reloadInterval = -1;
+
+        @CliOption(name = "proxy-reload-drain-timeout", description = "How long (ms) replaced routes can complete their in-flight requests before being closed.")
+        private long reloadDrainTimeout = 60000;
+
+        @CliOption(name = "proxy-event-buffer-size", description = "How many asynchronous (@ObservesAsync) event notifications can be pending.")
+        private int eventBufferSize = 8192;
+
+        @CliOption(name = "proxy-event-batch-size", description = "How many asynchronous event notifications are dispatched per batch.")
+        private int eventBatchSize = 256;
+
+        @CliOption(name = "proxy-event-drop-policy", description = "What to do when the asynchronous event buffer is full: drop or caller-runs.")
+        private String eventDropPolicy = "drop";
     }
 }
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Copies a request or response payload between the client and the proxied server.
+ *
+ * The copy is blocking: it runs on the route executor (after {@code startAsync}) or in the entity writing of the
+ * JAX-RS client, the streams are the servlet and client ones so it doesn't use servlet non-blocking I/O.
+ */
+public interface BodyRelay {
+    /**
+     * @param from the payload source.
+     * @param to where to write the payload.
+     * @return the number of relayed bytes.
+     * @throws IOException if the copy fails.
+     */
+    long relay(InputStream from, OutputStream to) throws IOException;
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Immutable set of header or cookie names with a case insensitive and allocation free lookup.
+ * Names are HTTP tokens so only ASCII letters are folded.
+ */
+public final class CaseInsensitiveSet {
+    private final String[] table; // lowercased names, open addressing with linear probing
+    private final int mask;
+    private final int size;
+
+    private CaseInsensitiveSet(final Collection<String> names) {
+        final Set<String> distinct = new LinkedHashSet<>();
+        for (final String name : names) {
+            if (name != null) {
+                distinct.add(name.toLowerCase(Locale.ROOT));
+            }
+        }
+        final int capacity = Integer.highestOneBit(Math.max(2, distinct.size() * 2) - 1) << 1; // load factor <= .5
+        this.table = new String[capacity];
+        this.mask = capacity - 1;
+        this.size = distinct.size();
+        for (final String name : distinct) {
+            int index = hash(name) & mask;
+            while (table[index] != null) {
+                index = (index + 1) & mask;
+            }
+            table[index] = name;
+        }
+    }
+
+    /**
+     * @param names the names to index.
+     * @return the set or null if names is null to keep the "not configured" semantic.
+     */
+    public static CaseInsensitiveSet of(final Collection<String> names) {
+        return names == null ? null : new CaseInsensitiveSet(names);
+    }
+
+    public boolean contains(final String name) {
+        if (name == null || size == 0) {
+            return false;
+        }
+        int index = hash(name) & mask;
+        while (true) {
+            final String candidate = table[index];
+            if (candidate == null) {
+                return false;
+            }
+            if (candidate.length() == name.length() && candidate.regionMatches(true, 0, name, 0, name.length())) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static int hash(final String value) {
+        int hash = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            hash = 31 * hash + c;
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+import org.apache.meecrowave.proxy.servlet.configuration.Routes;
+
+/**
+ * Count based circuit breaker: the circuit opens when the failure rate of the last calls reaches the threshold,
+ * after the open duration a few probe calls are let through (half open) and close it again if they all succeed.
+ */
+public class CircuitBreaker {
+    private final int failureRateThreshold;
+    private final int minimumRequests;
+    private final long openDuration;
+    private final int halfOpenRequests;
+    private final BiConsumer<State, State> listener;
+    private final LongSupplier clock;
+
+    private final boolean[] window; // true = failure
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(final Routes.CircuitBreakerConfiguration configuration, final BiConsumer<State, State> listener) {
+        this(configuration, listener, System::nanoTime);
+    }
+
+    CircuitBreaker(final Routes.CircuitBreakerConfiguration configuration, final BiConsumer<State, State> listener,
+                   final LongSupplier clock) {
+        this.failureRateThreshold = configuration.failureRateThreshold == null ? 50 : configuration.failureRateThreshold;
+        this.minimumRequests = configuration.minimumRequests == null ? 20 : configuration.minimumRequests;
+        this.openDuration = TimeUnit.MILLISECONDS.toNanos(configuration.openDuration == null ? 30000 : configuration.openDuration);
+        this.halfOpenRequests = Math.max(1, configuration.halfOpenRequests == null ? 5 : configuration.halfOpenRequests);
+        this.window = new boolean[Math.max(1, configuration.windowSize == null ? 100 : configuration.windowSize)];
+        this.listener = listener;
+        this.clock = clock;
+    }
+
+    /**
+     * @return true if the call can be done, in this case one of the on* methods must be called with its outcome.
+     */
+    public boolean tryAcquire() {
+        final boolean permitted;
+        boolean probing = false;
+        synchronized (this) {
+            switch (state) {
+                case CLOSED:
+                    permitted = true;
+                    break;
+                case OPEN:
+                    permitted = clock.getAsLong() - openedAt >= openDuration;
+                    if (permitted) {
+                        state = State.HALF_OPEN;
+                        halfOpenPermits = 1;
+                        halfOpenSuccesses = 0;
+                        probing = true;
+                    }
+                    break;
+                default: // HALF_OPEN
+                    permitted = halfOpenPermits < halfOpenRequests;
+                    if (permitted) {
+                        halfOpenPermits++;
+                    }
+            }
+        }
+        if (probing) {
+            listener.accept(State.OPEN, State.HALF_OPEN);
+        }
+        return permitted;
+    }
+
+    public void onSuccess() {
+        boolean closed = false;
+        synchronized (this) {
+            switch (state) {
+                case CLOSED:
+                    record(false);
+                    break;
+                case HALF_OPEN:
+                    if (++halfOpenSuccesses >= halfOpenRequests) {
+                        state = State.CLOSED;
+                        resetWindow();
+                        closed = true;
+                    }
+                    break;
+                default: // late result of a call started before the opening
+            }
+        }
+        if (closed) {
+            listener.accept(State.HALF_OPEN, State.CLOSED);
+        }
+    }
+
+    public void onFailure() {
+        State previous = null;
+        synchronized (this) {
+            switch (state) {
+                case CLOSED:
+                    record(true);
+                    if (windowCount >= minimumRequests && windowFailures * 100 >= failureRateThreshold * windowCount) {
+                        previous = open();
+                    }
+                    break;
+                case HALF_OPEN:
+                    previous = open();
+                    break;
+                default:
+            }
+        }
+        if (previous != null) {
+            listener.accept(previous, State.OPEN);
+        }
+    }
+
+    /**
+     * Releases a permit without recording an outcome (call not done for a local reason).
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+            halfOpenPermits--;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private State open() {
+        final State previous = state;
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+        return previous;
+    }
+
+    private void record(final boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void resetWindow() {
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+}
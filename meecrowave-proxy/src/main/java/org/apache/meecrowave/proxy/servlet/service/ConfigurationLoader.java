@@ -42,11 +42,19 @@ import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Consumer;
 import java.util.stream.Collector;
 import java.util.stream.Stream;
 
@@ -68,6 +76,7 @@ import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
 
 import org.apache.meecrowave.proxy.servlet.configuration.Routes;
+import org.apache.meecrowave.proxy.servlet.service.cache.ResponseCache;
 
 public abstract class ConfigurationLoader {
     private final String path;
@@ -84,9 +93,16 @@ public abstract class ConfigurationLoader {
         return doLoad(readContent());
     }
 
+    /**
+     * @return the routes file if the configuration is a file and not a classpath resource.
+     */
+    public Optional<Path> findFile() {
+        final Path routeFile = Paths.get(newSubstitutor().replace(path));
+        return Files.exists(routeFile) ? Optional.of(routeFile) : Optional.empty();
+    }
+
     protected String readContent() {
-        final SimpleSubstitutor simpleSubstitutor = new SimpleSubstitutor(
-                System.getProperties().stringPropertyNames().stream().collect(toMap(identity(), System::getProperty)));
+        final SimpleSubstitutor simpleSubstitutor = newSubstitutor();
         final String resource = simpleSubstitutor.replace(path);
         final Path routeFile = Paths.get(resource);
         final InputStream stream;
@@ -139,10 +155,53 @@ public abstract class ConfigurationLoader {
         } catch (final Exception e) {
             throw new IllegalArgumentException(e);
         }
-        routes.routes.forEach(this::init);
+        routes.pools = createPools(routes.connectionPools);
+        try {
+            routes.routes.forEach(route -> init(route, routes.pools));
+        } catch (final RuntimeException re) { // don't leak what the routes initialized before the failing one created
+            close(routes, this::log);
+            throw re;
+        }
+        routes.index = RouteIndex.of(routes.routes, "longest-prefix".equalsIgnoreCase(routes.routeMatching));
         return Optional.of(routes);
     }
 
+    /**
+     * Releases what {@link #load()} created for the routes: caches, load balancers, executors, clients and pools.
+     * Routes not (or partially) initialized are supported.
+     *
+     * @param routes the routes to close.
+     * @param logger where to log the executors not terminating in time.
+     */
+    public static void close(final Routes routes, final Consumer<String> logger) {
+        if (routes.routes != null) {
+            routes.routes.forEach(it -> {
+                if (it.cache != null) {
+                    it.cache.close();
+                }
+                if (it.loadBalancer != null) {
+                    it.loadBalancer.close();
+                }
+                if (it.executor != null) {
+                    it.executor.shutdown();
+                    try {
+                        if (!it.executor.awaitTermination(it.clientConfiguration.executor.shutdownTimeout, MILLISECONDS)) {
+                            logger.accept("Can't shutdown the client executor in " + it.clientConfiguration.executor.shutdownTimeout + "ms");
+                        }
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                if (it.client != null && it.connectionPool == null) { // pool clients are shared
+                    it.client.close();
+                }
+            });
+        }
+        if (routes.pools != null) {
+            routes.pools.values().forEach(ConnectionPool::close);
+        }
+    }
+
     protected Routes.Route merge(final Jsonb jsonb, final JsonBuilderFactory jsonFactory,
                                  final JsonObject template, final Routes.Route current) {
         final JsonObject merged = doMerge(jsonFactory, template, jsonb.fromJson(jsonb.toJson(current), JsonObject.class));
@@ -176,6 +235,11 @@ public abstract class ConfigurationLoader {
             }, JsonObjectBuilder::addAll, JsonObjectBuilder::build));
     }
 
+    private SimpleSubstitutor newSubstitutor() {
+        return new SimpleSubstitutor(
+                System.getProperties().stringPropertyNames().stream().collect(toMap(identity(), System::getProperty)));
+    }
+
     private String load(final InputStream stream) throws IOException {
         final ByteArrayOutputStream baos = new ByteArrayOutputStream();
         byte[] buffer = new byte[1024];
@@ -186,11 +250,111 @@ public abstract class ConfigurationLoader {
         return new String(baos.toByteArray(), StandardCharsets.UTF_8);
     }
 
-    private void init(final Routes.Route route) {
-        enforceClientConfiguration(route);
-        route.executor = createExecutor(route);
-        route.notificationOptions = NotificationOptions.ofExecutor(route.executor);
-        route.client = createClient(route);
+    private Map<String, ConnectionPool> createPools(final Map<String, Routes.ConnectionPoolConfiguration> configurations) {
+        if (configurations == null || configurations.isEmpty()) {
+            return emptyMap();
+        }
+        final Map<String, ConnectionPool> pools = new HashMap<>();
+        configurations.forEach((name, configuration) -> {
+            // reuse the route client setup with the pool configuration
+            final Routes.Route poolRoute = new Routes.Route();
+            poolRoute.id = "pool-" + name;
+            poolRoute.clientConfiguration = new Routes.ClientConfiguration();
+            poolRoute.clientConfiguration.executor = configuration.executor;
+            poolRoute.clientConfiguration.timeouts = configuration.timeouts;
+            poolRoute.clientConfiguration.sslConfiguration = configuration.sslConfiguration;
+            poolRoute.clientConfiguration.properties = configuration.properties;
+            enforceClientConfiguration(poolRoute);
+            final ExecutorService executor = createExecutor(poolRoute);
+            poolRoute.executor = executor;
+            pools.put(name, new ConnectionPool(
+                    name, createClient(poolRoute), executor,
+                    configuration.maxConnectionsPerHost == null ? -1 : configuration.maxConnectionsPerHost,
+                    configuration.acquireTimeout == null ? 30000L : configuration.acquireTimeout,
+                    this::log));
+        });
+        return pools;
+    }
+
+    private void init(final Routes.Route route, final Map<String, ConnectionPool> pools) {
+        compileFilters(route);
+        if (route.clientConfiguration != null && route.clientConfiguration.connectionPool != null) {
+            route.connectionPool = pools.get(route.clientConfiguration.connectionPool);
+            if (route.connectionPool == null) {
+                throw new IllegalArgumentException(
+                        "No connection pool '" + route.clientConfiguration.connectionPool + "' for route " + route.id);
+            }
+            ensureNoClientConfiguration(route);
+            enforceClientConfiguration(route);
+            // the pool owns the client and its executor, the route must not shut them down
+            route.client = route.connectionPool.getClient();
+            route.notificationOptions = NotificationOptions.ofExecutor(route.connectionPool.getExecutor());
+        } else {
+            enforceClientConfiguration(route);
+            route.executor = createExecutor(route);
+            route.notificationOptions = NotificationOptions.ofExecutor(route.executor);
+            route.client = createClient(route);
+        }
+        if (route.responseConfiguration != null && route.responseConfiguration.targets != null
+                && !route.responseConfiguration.targets.isEmpty()) {
+            route.loadBalancer = new LoadBalancer(
+                    route.id, route.responseConfiguration.targets,
+                    ofNullable(route.responseConfiguration.loadBalancing).orElseGet(Routes.LoadBalancingConfiguration::new),
+                    route.client, this::log);
+        }
+        if (route.cacheConfiguration != null && route.cacheConfiguration.enabled) {
+            route.cache = new ResponseCache(route.cacheConfiguration, this::log);
+        }
+        if (Resilience.isEnabled(route.clientConfiguration)) {
+            route.resilience = new Resilience(route.id, route.clientConfiguration,
+                    (previous, state) -> onCircuitBreakerStateChange(route, previous, state));
+        }
+    }
+
+    // the client of a pool is shared so the route settings it uses would be silently ignored
+    private void ensureNoClientConfiguration(final Routes.Route route) {
+        final Routes.ClientConfiguration configuration = route.clientConfiguration;
+        final Collection<String> ignored = new ArrayList<>();
+        if (configuration.executor != null) {
+            ignored.add("executor");
+        }
+        if (configuration.timeouts != null && (configuration.timeouts.connect != null || configuration.timeouts.read != null)) {
+            ignored.add("timeouts (connect/read)");
+        }
+        if (configuration.sslConfiguration != null) {
+            ignored.add("sslConfiguration");
+        }
+        if (configuration.properties != null && !configuration.properties.isEmpty()) {
+            ignored.add("properties");
+        }
+        if (!ignored.isEmpty()) {
+            throw new IllegalArgumentException("Route " + route.id + " uses the connection pool '" + configuration.connectionPool +
+                    "', configure " + String.join(", ", ignored) + " on the pool instead of the route");
+        }
+    }
+
+    // avoids to iterate over the configured names for each header/cookie of each request and response
+    private void compileFilters(final Routes.Route route) {
+        final Routes.RequestConfiguration request = route.requestConfiguration;
+        if (request != null) {
+            request.skippedHeaderNames = CaseInsensitiveSet.of(request.skippedHeaders);
+            request.skippedCookieNames = CaseInsensitiveSet.of(request.skippedCookies);
+            request.addedContentType = request.addedHeaders == null ? null : request.addedHeaders.entrySet().stream()
+                    .filter(it -> "Content-Type".equalsIgnoreCase(it.getKey()))
+                    .map(Map.Entry::getValue)
+                    .findFirst()
+                    .orElse(null);
+        }
+        final Routes.ResponseConfiguration response = route.responseConfiguration;
+        if (response != null) {
+            response.skippedHeaderNames = CaseInsensitiveSet.of(response.skippedHeaders);
+            response.skippedCookieNames = CaseInsensitiveSet.of(response.skippedCookies);
+        }
+    }
+
+    protected void onCircuitBreakerStateChange(final Routes.Route route,
+                                               final CircuitBreaker.State previous, final CircuitBreaker.State state) {
+        log("Circuit breaker of route " + route.id + " moved from " + previous + " to " + state);
     }
 
     private Client createClient(final Routes.Route route) {
@@ -199,6 +363,9 @@ public abstract class ConfigurationLoader {
         clientBuilder.readTimeout(route.clientConfiguration.timeouts.read, MILLISECONDS);
         clientBuilder.connectTimeout(route.clientConfiguration.timeouts.connect, MILLISECONDS);
         // clientBuilder.scheduledExecutorService(); // not used by cxf for instance so no need to overkill the conf
+        if (route.clientConfiguration.properties != null) {
+            route.clientConfiguration.properties.forEach(clientBuilder::property);
+        }
 
         if (route.clientConfiguration.sslConfiguration.acceptAnyCertificate) {
             clientBuilder.hostnameVerifier((host, session) -> true);
@@ -221,13 +388,26 @@ public abstract class ConfigurationLoader {
         return UUID.randomUUID().toString();
     }
 
-    private ThreadPoolExecutor createExecutor(final Routes.Route route) {
-        return new ThreadPoolExecutor(
-            route.clientConfiguration.executor.core,
-            Math.max(route.clientConfiguration.executor.max, route.clientConfiguration.executor.core),
-            route.clientConfiguration.executor.keepAlive,
+    private ExecutorService createExecutor(final Routes.Route route) {
+        final Routes.ExecutorConfiguration configuration = route.clientConfiguration.executor;
+        final RouteExecutor.RejectionPolicy rejectionPolicy = RouteExecutor.RejectionPolicy.from(configuration.rejectionPolicy);
+        if ("virtual".equalsIgnoreCase(configuration.type)) {
+            final ExecutorService virtual = createVirtualThreadExecutor(route);
+            if (virtual != null) {
+                return new RouteExecutor(virtual, rejectionPolicy, this::log);
+            }
+            log("Virtual threads are not available, using platform threads for route " + route.id);
+        } else if (configuration.type != null && !"platform".equalsIgnoreCase(configuration.type)) {
+            throw new IllegalArgumentException("Unknown executor type: " + configuration.type);
+        }
+
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            configuration.core,
+            Math.max(configuration.max, configuration.core),
+            configuration.keepAlive,
             MILLISECONDS,
-            new LinkedBlockingQueue<>(),
+            configuration.queueSize != null && configuration.queueSize > 0 ?
+                    new ArrayBlockingQueue<>(configuration.queueSize) : new LinkedBlockingQueue<>(),
             new ThreadFactory() {
                 private final SecurityManager sm = System.getSecurityManager();
                 private final ThreadGroup group = (sm != null) ? sm.getThreadGroup() : Thread.currentThread().getThreadGroup();
@@ -241,7 +421,24 @@ public abstract class ConfigurationLoader {
                     return newThread;
                 }
             },
-            (run, ex) -> log("Proxy rejected task: " + run + ", in " + ex));
+            new ThreadPoolExecutor.AbortPolicy()); // RouteExecutor handles the rejection
+        return new RouteExecutor(executor, rejectionPolicy, this::log);
+    }
+
+    // reflection since we build with java 17
+    private ExecutorService createVirtualThreadExecutor(final Routes.Route route) {
+        try {
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            final Class<?> builderApi = Thread.class.getClassLoader().loadClass("java.lang.Thread$Builder");
+            builderApi.getMethod("name", String.class, long.class).invoke(builder, "meecrowave-proxy#" + route.id + "-", 0L);
+            final ThreadFactory factory = ThreadFactory.class.cast(builderApi.getMethod("factory").invoke(builder));
+            return ExecutorService.class.cast(Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory));
+        } catch (final NoSuchMethodException | ClassNotFoundException | InvocationTargetException e) { // < 21 or preview
+            return null;
+        } catch (final IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     private void enforceClientConfiguration(final Routes.Route route) {
@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Upstream connections shared by the routes referencing the same pool name.
+ *
+ * All these routes use the same client so the underlying HTTP transport (keep-alive connections, TLS sessions,
+ * HTTP/2 streams if the client implementation supports it) is shared. Concurrent calls are limited per origin
+ * (scheme, host and port), calls over the limit wait for a slot up to the acquire timeout then fail with a
+ * {@link RejectedExecutionException}. A call holds its slot until its response payload is fully read or the response
+ * is closed.
+ */
+public class ConnectionPool implements AutoCloseable {
+    private final String name;
+    private final Client client;
+    private final ExecutorService executor;
+    private final int maxConnectionsPerHost;
+    private final long acquireTimeout;
+    private final Consumer<String> logger;
+    private final Map<String, Limiter> limiters = new ConcurrentHashMap<>();
+
+    public ConnectionPool(final String name, final Client client, final ExecutorService executor,
+                          final int maxConnectionsPerHost, final long acquireTimeout, final Consumer<String> logger) {
+        this.name = name;
+        this.client = client;
+        this.executor = executor;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.acquireTimeout = acquireTimeout;
+        this.logger = logger;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Client getClient() {
+        return client;
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    public int getInFlight(final String target) {
+        final Limiter limiter = limiters.get(origin(target));
+        return limiter == null ? 0 : limiter.getInFlight();
+    }
+
+    public int getPending(final String target) {
+        final Limiter limiter = limiters.get(origin(target));
+        return limiter == null ? 0 : limiter.getPending();
+    }
+
+    /**
+     * @param target the upstream base URI.
+     * @param call the call to execute once the origin has a free connection slot.
+     * @return the upstream response.
+     */
+    public CompletionStage<Response> execute(final String target, final UpstreamCall call) {
+        if (maxConnectionsPerHost <= 0) {
+            return doCall(call);
+        }
+        final Limiter limiter = limiters.computeIfAbsent(origin(target), Limiter::new);
+        return limiter.acquire().thenCompose(ignored -> doCall(call).handle((response, error) -> {
+            if (error != null) {
+                limiter.release();
+                throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+            }
+            // the connection is in use until the payload is relayed, not only until the headers are received
+            return new ReleasingResponse(response, limiter::release);
+        }));
+    }
+
+    @Override
+    public void close() {
+        limiters.values().forEach(Limiter::cancel);
+        executor.shutdownNow();
+        client.close();
+    }
+
+    private CompletionStage<Response> doCall(final UpstreamCall call) {
+        try {
+            return call.call();
+        } catch (final IOException | RuntimeException e) {
+            final CompletableFuture<Response> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private static String origin(final String target) {
+        try {
+            final URI uri = URI.create(target);
+            if (uri.getHost() == null) {
+                return target;
+            }
+            final String scheme = uri.getScheme() == null ? "http" : uri.getScheme().toLowerCase(Locale.ROOT);
+            final int port = uri.getPort() > 0 ? uri.getPort() : ("https".equals(scheme) ? 443 : 80);
+            return scheme + "://" + uri.getHost().toLowerCase(Locale.ROOT) + ':' + port;
+        } catch (final IllegalArgumentException iae) {
+            return target;
+        }
+    }
+
+    // asynchronous semaphore: waiting calls don't hold a thread
+    private class Limiter {
+        private final String origin;
+        private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+        private int inFlight;
+
+        private Limiter(final String origin) {
+            this.origin = origin;
+        }
+
+        private CompletableFuture<Void> acquire() {
+            final CompletableFuture<Void> waiter;
+            synchronized (this) {
+                if (inFlight < maxConnectionsPerHost) {
+                    inFlight++;
+                    return CompletableFuture.completedFuture(null);
+                }
+                waiter = new CompletableFuture<>();
+                waiters.add(waiter);
+            }
+            if (acquireTimeout > 0) {
+                CompletableFuture.delayedExecutor(acquireTimeout, MILLISECONDS).execute(() -> {
+                    final boolean expired;
+                    synchronized (this) {
+                        expired = waiters.remove(waiter);
+                    }
+                    if (expired) { // else a slot was handed over meanwhile
+                        logger.accept("Connection pool " + name + " saturated for " + origin);
+                        waiter.completeExceptionally(new RejectedExecutionException(
+                                "No connection available for " + origin + " in pool " + name + " after " + acquireTimeout + "ms"));
+                    }
+                });
+            }
+            return waiter;
+        }
+
+        private void release() {
+            while (true) {
+                final CompletableFuture<Void> next;
+                synchronized (this) {
+                    next = waiters.poll();
+                    if (next == null) {
+                        inFlight--;
+                        return;
+                    }
+                }
+                if (next.complete(null)) { // slot handed over, inFlight is unchanged
+                    return;
+                }
+            }
+        }
+
+        private synchronized int getInFlight() {
+            return inFlight;
+        }
+
+        private synchronized int getPending() {
+            return waiters.size();
+        }
+
+        private void cancel() {
+            final CompletableFuture<?>[] pending;
+            synchronized (this) {
+                pending = waiters.toArray(new CompletableFuture<?>[0]);
+                waiters.clear();
+            }
+            for (final CompletableFuture<?> waiter : pending) {
+                waiter.completeExceptionally(new RejectedExecutionException("Connection pool " + name + " closed"));
+            }
+        }
+    }
+}
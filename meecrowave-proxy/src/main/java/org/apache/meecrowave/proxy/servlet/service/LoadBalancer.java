@@ -0,0 +1,391 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.core.Response;
+
+import org.apache.meecrowave.proxy.servlet.configuration.Routes;
+
+/**
+ * Selects the upstream of a route when it has multiple targets.
+ *
+ * Upstreams can be removed from the selection by active health checks (periodic GET on a configured path)
+ * and passive outlier detection (consecutive failures on proxied calls). If no upstream is available
+ * the selection is done on all upstreams to not fail the request only because of the health state.
+ */
+public class LoadBalancer implements AutoCloseable {
+    private static final int VIRTUAL_NODES = 128;
+
+    private final String routeId;
+    private final Upstream[] upstreams;
+    private final Strategy strategy;
+    private final String hashHeader;
+    private final String hashCookie;
+    private final int consecutiveFailures;
+    private final long ejectionDuration;
+    private final Consumer<String> logger;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    // consistent hashing ring, sorted by hash
+    private final int[] ringHashes;
+    private final Upstream[] ringUpstreams;
+
+    private final ScheduledExecutorService healthChecker;
+
+    public LoadBalancer(final String routeId, final List<String> targets,
+                        final Routes.LoadBalancingConfiguration configuration,
+                        final Client client, final Consumer<String> logger) {
+        if (targets == null || targets.isEmpty()) {
+            throw new IllegalArgumentException("No target for route " + routeId);
+        }
+        this.routeId = routeId;
+        this.upstreams = targets.stream().map(Upstream::new).toArray(Upstream[]::new);
+        this.strategy = Strategy.from(configuration.strategy);
+        this.hashHeader = configuration.hashHeader;
+        this.hashCookie = configuration.hashCookie;
+        this.logger = logger;
+
+        final Routes.OutlierDetectionConfiguration outlierDetection = configuration.outlierDetection;
+        this.consecutiveFailures = outlierDetection == null || outlierDetection.consecutiveFailures == null ?
+                -1 : outlierDetection.consecutiveFailures;
+        this.ejectionDuration = outlierDetection == null || outlierDetection.ejectionDuration == null ?
+                30000L : outlierDetection.ejectionDuration;
+
+        if (strategy == Strategy.CONSISTENT_HASH) {
+            final long[] ring = new long[upstreams.length * VIRTUAL_NODES];
+            for (int i = 0; i < upstreams.length; i++) {
+                for (int v = 0; v < VIRTUAL_NODES; v++) { // pack hash and upstream index to sort both at once
+                    final int hash = hash(upstreams[i].target + '#' + v);
+                    ring[i * VIRTUAL_NODES + v] = ((long) hash << 32) | i;
+                }
+            }
+            Arrays.sort(ring);
+            ringHashes = new int[ring.length];
+            ringUpstreams = new Upstream[ring.length];
+            for (int i = 0; i < ring.length; i++) {
+                ringHashes[i] = (int) (ring[i] >> 32);
+                ringUpstreams[i] = upstreams[(int) ring[i]];
+            }
+        } else {
+            ringHashes = null;
+            ringUpstreams = null;
+        }
+
+        final Routes.HealthCheckConfiguration healthCheck = configuration.healthCheck;
+        if (healthCheck != null && healthCheck.path != null && client != null) {
+            final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+                final Thread thread = new Thread(r, "meecrowave-proxy-health-check#" + routeId);
+                thread.setDaemon(true);
+                thread.setContextClassLoader(LoadBalancer.class.getClassLoader());
+                return thread;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            final long interval = healthCheck.interval == null ? 10000L : healthCheck.interval;
+            final long timeout = healthCheck.timeout == null ? 2000L : healthCheck.timeout;
+            final int healthyThreshold = healthCheck.healthyThreshold == null ? 1 : healthCheck.healthyThreshold;
+            final int unhealthyThreshold = healthCheck.unhealthyThreshold == null ? 2 : healthCheck.unhealthyThreshold;
+            scheduler.scheduleWithFixedDelay(() -> {
+                for (final Upstream upstream : upstreams) {
+                    check(client, upstream, healthCheck.path, timeout, healthyThreshold, unhealthyThreshold);
+                }
+            }, 0, interval, MILLISECONDS);
+            healthChecker = scheduler;
+        } else {
+            healthChecker = null;
+        }
+    }
+
+    public Upstream select(final HttpServletRequest request) {
+        final long now = System.currentTimeMillis();
+        final Upstream upstream;
+        switch (strategy) {
+            case LEAST_IN_FLIGHT:
+                upstream = leastInFlight(now);
+                break;
+            case POWER_OF_TWO_CHOICES:
+                upstream = powerOfTwoChoices(now);
+                break;
+            case CONSISTENT_HASH:
+                upstream = consistentHash(request, now);
+                break;
+            default:
+                upstream = roundRobin(now);
+        }
+        upstream.inFlight.incrementAndGet();
+        return upstream;
+    }
+
+    /**
+     * Must be called once per {@link #select(HttpServletRequest)} call when the upstream call is done.
+     *
+     * @param upstream the selected upstream.
+     * @param success false if the call failed (network error or 5xx) to feed the outlier detection.
+     */
+    public void release(final Upstream upstream, final boolean success) {
+        upstream.inFlight.decrementAndGet();
+        if (success) {
+            upstream.failures.set(0);
+        } else if (consecutiveFailures > 0 && upstream.failures.incrementAndGet() >= consecutiveFailures) {
+            upstream.failures.set(0);
+            upstream.ejectedUntil = System.currentTimeMillis() + ejectionDuration;
+            logger.accept("Ejecting " + upstream.target + " from route " + routeId + " for " + ejectionDuration + "ms");
+        }
+    }
+
+    public Collection<Upstream> getUpstreams() {
+        return Arrays.asList(upstreams);
+    }
+
+    @Override
+    public void close() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+    }
+
+    private Upstream roundRobin(final long now) {
+        final int start = counter.getAndIncrement() & Integer.MAX_VALUE;
+        for (int i = 0; i < upstreams.length; i++) {
+            final Upstream upstream = upstreams[(start + i) % upstreams.length];
+            if (upstream.isAvailable(now)) {
+                return upstream;
+            }
+        }
+        return upstreams[start % upstreams.length];
+    }
+
+    private Upstream leastInFlight(final long now) {
+        final int start = counter.getAndIncrement() & Integer.MAX_VALUE; // rotate to spread ties
+        Upstream selected = null;
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < upstreams.length; i++) {
+            final Upstream upstream = upstreams[(start + i) % upstreams.length];
+            final int inFlight = upstream.inFlight.get();
+            if (inFlight < min && upstream.isAvailable(now)) {
+                min = inFlight;
+                selected = upstream;
+            }
+        }
+        return selected != null ? selected : upstreams[start % upstreams.length];
+    }
+
+    private Upstream powerOfTwoChoices(final long now) {
+        if (upstreams.length == 1) {
+            return upstreams[0];
+        }
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int first = random.nextInt(upstreams.length);
+        final int second = (first + 1 + random.nextInt(upstreams.length - 1)) % upstreams.length;
+        final Upstream a = upstreams[first];
+        final Upstream b = upstreams[second];
+        final boolean aAvailable = a.isAvailable(now);
+        final boolean bAvailable = b.isAvailable(now);
+        if (aAvailable && bAvailable) {
+            return a.inFlight.get() <= b.inFlight.get() ? a : b;
+        }
+        if (aAvailable) {
+            return a;
+        }
+        if (bAvailable) {
+            return b;
+        }
+        return leastInFlight(now);
+    }
+
+    private Upstream consistentHash(final HttpServletRequest request, final long now) {
+        final String key = findHashKey(request);
+        if (key == null) {
+            return roundRobin(now);
+        }
+        final int hash = hash(key);
+        int idx = Arrays.binarySearch(ringHashes, hash);
+        if (idx < 0) {
+            idx = -idx - 1;
+        }
+        for (int i = 0; i < ringHashes.length; i++) {
+            final Upstream upstream = ringUpstreams[(idx + i) % ringHashes.length];
+            if (upstream.isAvailable(now)) {
+                return upstream;
+            }
+        }
+        return ringUpstreams[idx % ringHashes.length];
+    }
+
+    private String findHashKey(final HttpServletRequest request) {
+        if (hashHeader != null) {
+            final String header = request.getHeader(hashHeader);
+            if (header != null) {
+                return header;
+            }
+        }
+        if (hashCookie != null) {
+            final Cookie[] cookies = request.getCookies();
+            if (cookies != null) {
+                for (final Cookie cookie : cookies) {
+                    if (hashCookie.equals(cookie.getName())) {
+                        return cookie.getValue();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private void check(final Client client, final Upstream upstream, final String path, final long timeout,
+                       final int healthyThreshold, final int unhealthyThreshold) {
+        boolean success;
+        CompletableFuture<Response> future = null;
+        try {
+            future = client.target(upstream.target).path(path).request().rx().get().toCompletableFuture();
+            final Response response = future.get(timeout, MILLISECONDS);
+            success = response.getStatus() >= 200 && response.getStatus() < 400;
+            response.close();
+        } catch (final InterruptedException ie) {
+            closeLateResponse(future);
+            Thread.currentThread().interrupt();
+            return;
+        } catch (final TimeoutException te) {
+            closeLateResponse(future);
+            success = false;
+        } catch (final Exception e) {
+            success = false;
+        }
+
+        // only the health check thread touches these counters
+        if (success) {
+            upstream.checkFailures = 0;
+            upstream.checkSuccesses++;
+            if (!upstream.healthy && upstream.checkSuccesses >= healthyThreshold) {
+                upstream.healthy = true;
+                logger.accept(upstream.target + " is healthy again for route " + routeId);
+            }
+        } else {
+            upstream.checkSuccesses = 0;
+            upstream.checkFailures++;
+            if (upstream.healthy && upstream.checkFailures >= unhealthyThreshold) {
+                upstream.healthy = false;
+                logger.accept(upstream.target + " is unhealthy for route " + routeId);
+            }
+        }
+    }
+
+    // not cancelled: cancelling the future would not abort the call and the response would never be closed
+    private static void closeLateResponse(final CompletableFuture<Response> future) {
+        if (future != null) {
+            future.whenComplete((response, error) -> {
+                if (response != null) {
+                    response.close();
+                }
+            });
+        }
+    }
+
+    private static int hash(final String value) { // murmur3 finalizer on top of a FNV-1a to spread close keys
+        int h = 0x811c9dc5;
+        for (final byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    public static class Upstream {
+        private final String target;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private volatile boolean healthy = true;
+        private volatile long ejectedUntil;
+        private int checkSuccesses;
+        private int checkFailures;
+
+        private Upstream(final String target) {
+            this.target = target;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public int getInFlight() {
+            return inFlight.get();
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public boolean isEjected() {
+            return ejectedUntil > System.currentTimeMillis();
+        }
+
+        private boolean isAvailable(final long now) {
+            return healthy && ejectedUntil <= now;
+        }
+
+        @Override
+        public String toString() {
+            return "Upstream{target='" + target + "', inFlight=" + inFlight.get() + ", healthy=" + healthy + '}';
+        }
+    }
+
+    private enum Strategy {
+        ROUND_ROBIN, LEAST_IN_FLIGHT, POWER_OF_TWO_CHOICES, CONSISTENT_HASH;
+
+        private static Strategy from(final String value) {
+            if (value == null) {
+                return ROUND_ROBIN;
+            }
+            switch (value.toLowerCase(Locale.ROOT)) {
+                case "round-robin":
+                    return ROUND_ROBIN;
+                case "least-in-flight":
+                    return LEAST_IN_FLIGHT;
+                case "power-of-two-choices":
+                    return POWER_OF_TWO_CHOICES;
+                case "consistent-hash":
+                    return CONSISTENT_HASH;
+                default:
+                    throw new IllegalArgumentException("Unknown load balancing strategy: " + value);
+            }
+        }
+    }
+}
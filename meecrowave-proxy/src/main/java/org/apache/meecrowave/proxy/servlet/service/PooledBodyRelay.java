@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Default relay, a blocking copy through pooled heap buffers: a bounded set of byte arrays (lock free slots)
+ * is reused instead of allocating one per payload.
+ * When all buffers are in use a temporary one is allocated and counted as a pool miss.
+ */
+public class PooledBodyRelay implements BodyRelay {
+    private final int bufferSize;
+    private final AtomicReferenceArray<byte[]> buffers;
+
+    private final LongAdder relayedBytes = new LongAdder();
+    private final LongAdder poolHits = new LongAdder();
+    private final LongAdder poolMisses = new LongAdder();
+
+    public PooledBodyRelay(final int bufferSize, final int poolSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be > 0: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.buffers = new AtomicReferenceArray<>(Math.max(0, poolSize));
+        for (int i = 0; i < buffers.length(); i++) { // preallocate to get hits from the first requests
+            buffers.set(i, new byte[bufferSize]);
+        }
+    }
+
+    @Override
+    public long relay(final InputStream from, final OutputStream to) throws IOException {
+        final byte[] buffer = acquire();
+        long total = 0;
+        try {
+            int read;
+            while ((read = from.read(buffer)) >= 0) {
+                if (read > 0) {
+                    to.write(buffer, 0, read);
+                    total += read;
+                }
+            }
+        } finally {
+            release(buffer);
+            relayedBytes.add(total);
+        }
+        return total;
+    }
+
+    public long getRelayedBytes() {
+        return relayedBytes.sum();
+    }
+
+    public long getPoolHits() {
+        return poolHits.sum();
+    }
+
+    public long getPoolMisses() {
+        return poolMisses.sum();
+    }
+
+    public double getPoolHitRate() {
+        final long hits = getPoolHits();
+        final long total = hits + getPoolMisses();
+        return total == 0 ? 1. : hits * 1. / total;
+    }
+
+    private byte[] acquire() {
+        final int length = buffers.length();
+        final int start = startIndex(length);
+        for (int i = 0; i < length; i++) {
+            final int idx = (start + i) % length;
+            final byte[] buffer = buffers.get(idx);
+            if (buffer != null && buffers.compareAndSet(idx, buffer, null)) {
+                poolHits.increment();
+                return buffer;
+            }
+        }
+        poolMisses.increment();
+        return new byte[bufferSize];
+    }
+
+    private void release(final byte[] buffer) {
+        final int length = buffers.length();
+        final int start = startIndex(length);
+        for (int i = 0; i < length; i++) {
+            final int idx = (start + i) % length;
+            if (buffers.get(idx) == null && buffers.compareAndSet(idx, null, buffer)) {
+                return;
+            }
+        }
+        // pool is full, let the GC reclaim it
+    }
+
+    private int startIndex(final int length) { // spread threads on the slots to limit CAS contention
+        return length == 0 ? 0 : (int) (Thread.currentThread().getId() % length);
+    }
+
+    @Override
+    public String toString() {
+        return "PooledBodyRelay{" +
+                "bufferSize=" + bufferSize +
+                ", poolSize=" + buffers.length() +
+                ", relayedBytes=" + getRelayedBytes() +
+                ", poolHits=" + getPoolHits() +
+                ", poolMisses=" + getPoolMisses() +
+                '}';
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.net.URI;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.GenericType;
+import jakarta.ws.rs.core.Link;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.NewCookie;
+import jakarta.ws.rs.core.Response;
+
+// upstream response holding a connection pool slot until its payload is fully read or it is closed
+class ReleasingResponse extends Response {
+    private final Response delegate;
+    private final Runnable release;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    ReleasingResponse(final Response delegate, final Runnable release) {
+        this.delegate = delegate;
+        this.release = release;
+    }
+
+    @Override
+    public int getStatus() {
+        return delegate.getStatus();
+    }
+
+    @Override
+    public StatusType getStatusInfo() {
+        return delegate.getStatusInfo();
+    }
+
+    @Override
+    public Object getEntity() {
+        return delegate.getEntity();
+    }
+
+    @Override
+    public <T> T readEntity(final Class<T> entityType) {
+        return onRead(() -> delegate.readEntity(entityType));
+    }
+
+    @Override
+    public <T> T readEntity(final GenericType<T> entityType) {
+        return onRead(() -> delegate.readEntity(entityType));
+    }
+
+    @Override
+    public <T> T readEntity(final Class<T> entityType, final Annotation[] annotations) {
+        return onRead(() -> delegate.readEntity(entityType, annotations));
+    }
+
+    @Override
+    public <T> T readEntity(final GenericType<T> entityType, final Annotation[] annotations) {
+        return onRead(() -> delegate.readEntity(entityType, annotations));
+    }
+
+    @Override
+    public boolean hasEntity() {
+        return delegate.hasEntity();
+    }
+
+    @Override
+    public boolean bufferEntity() {
+        final boolean buffered = delegate.bufferEntity();
+        if (buffered) { // payload fully read
+            release();
+        }
+        return buffered;
+    }
+
+    @Override
+    public void close() {
+        try {
+            delegate.close();
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public MediaType getMediaType() {
+        return delegate.getMediaType();
+    }
+
+    @Override
+    public Locale getLanguage() {
+        return delegate.getLanguage();
+    }
+
+    @Override
+    public int getLength() {
+        return delegate.getLength();
+    }
+
+    @Override
+    public Set<String> getAllowedMethods() {
+        return delegate.getAllowedMethods();
+    }
+
+    @Override
+    public Map<String, NewCookie> getCookies() {
+        return delegate.getCookies();
+    }
+
+    @Override
+    public EntityTag getEntityTag() {
+        return delegate.getEntityTag();
+    }
+
+    @Override
+    public Date getDate() {
+        return delegate.getDate();
+    }
+
+    @Override
+    public Date getLastModified() {
+        return delegate.getLastModified();
+    }
+
+    @Override
+    public URI getLocation() {
+        return delegate.getLocation();
+    }
+
+    @Override
+    public Set<Link> getLinks() {
+        return delegate.getLinks();
+    }
+
+    @Override
+    public boolean hasLink(final String relation) {
+        return delegate.hasLink(relation);
+    }
+
+    @Override
+    public Link getLink(final String relation) {
+        return delegate.getLink(relation);
+    }
+
+    @Override
+    public Link.Builder getLinkBuilder(final String relation) {
+        return delegate.getLinkBuilder(relation);
+    }
+
+    @Override
+    public MultivaluedMap<String, Object> getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public MultivaluedMap<String, String> getStringHeaders() {
+        return delegate.getStringHeaders();
+    }
+
+    @Override
+    public String getHeaderString(final String name) {
+        return delegate.getHeaderString(name);
+    }
+
+    // a stream keeps the slot until it is exhausted or closed, other types are fully read
+    @SuppressWarnings("unchecked")
+    private <T> T onRead(final Supplier<T> reader) {
+        final T entity;
+        try {
+            entity = reader.get();
+        } catch (final RuntimeException re) {
+            release();
+            throw re;
+        }
+        if (InputStream.class.isInstance(entity)) {
+            return (T) new ReleasingInputStream(InputStream.class.cast(entity));
+        }
+        release();
+        return entity;
+    }
+
+    private void release() {
+        if (released.compareAndSet(false, true)) {
+            release.run();
+        }
+    }
+
+    private final class ReleasingInputStream extends FilterInputStream {
+        private ReleasingInputStream(final InputStream delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int read = super.read();
+            if (read < 0) {
+                release();
+            }
+            return read;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int read = super.read(b, off, len);
+            if (read < 0) {
+                release();
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                release();
+            }
+        }
+    }
+}
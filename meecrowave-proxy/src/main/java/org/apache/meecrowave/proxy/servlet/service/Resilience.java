@@ -0,0 +1,345 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.function.Function.identity;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+import jakarta.ws.rs.core.Response;
+
+import org.apache.meecrowave.proxy.servlet.configuration.Routes;
+
+/**
+ * Resilience policies of a route wrapping the upstream calls:
+ *
+ * <ul>
+ *     <li>circuit breaker: calls fail fast with a {@link CircuitBreakerOpenException} when the upstream keeps failing,</li>
+ *     <li>retries: replayable requests are retried on errors and configured statuses,
+ *     bounded by a budget shared by all the requests of the route to not amplify an outage,</li>
+ *     <li>hedging: replayable requests get another call when the first one is slower than a latency percentile,
+ *     the first successful response wins and the others are closed.</li>
+ * </ul>
+ */
+public class Resilience {
+    private final String routeId;
+    private final CircuitBreaker circuitBreaker;
+
+    private final RetryBudget retryBudget;
+    private final int maxAttempts;
+    private final long backoff;
+    private final Collection<Integer> retriedStatuses;
+
+    private final LatencyTracker latencies;
+    private final long hedgingMinDelay;
+    private final int maxHedges;
+
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhaustedRetryBudget = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+
+    public Resilience(final String routeId, final Routes.ClientConfiguration configuration,
+                      final BiConsumer<CircuitBreaker.State, CircuitBreaker.State> circuitBreakerListener) {
+        this.routeId = routeId;
+        this.circuitBreaker = configuration.circuitBreaker == null ?
+                null : new CircuitBreaker(configuration.circuitBreaker, circuitBreakerListener);
+
+        final Routes.RetryConfiguration retry = configuration.retry;
+        if (retry != null) {
+            this.maxAttempts = Math.max(1, retry.maxAttempts == null ? 3 : retry.maxAttempts);
+            this.backoff = retry.backoff == null ? 0 : retry.backoff;
+            this.retriedStatuses = new HashSet<>(retry.statuses == null ? asList(502, 503, 504) : retry.statuses);
+            this.retryBudget = new RetryBudget(
+                    retry.budgetRatio == null ? .2 : retry.budgetRatio,
+                    retry.minRetriesPerSecond == null ? 10 : retry.minRetriesPerSecond,
+                    System::nanoTime);
+        } else {
+            this.maxAttempts = 1;
+            this.backoff = 0;
+            this.retriedStatuses = null;
+            this.retryBudget = null;
+        }
+
+        final Routes.HedgingConfiguration hedging = configuration.hedging;
+        if (hedging != null) {
+            this.latencies = new LatencyTracker(hedging.percentile == null ? 95 : hedging.percentile);
+            this.hedgingMinDelay = TimeUnit.MILLISECONDS.toNanos(hedging.minDelay == null ? 10 : hedging.minDelay);
+            this.maxHedges = Math.max(1, hedging.maxHedges == null ? 1 : hedging.maxHedges);
+        } else {
+            this.latencies = null;
+            this.hedgingMinDelay = 0;
+            this.maxHedges = 0;
+        }
+    }
+
+    public static boolean isEnabled(final Routes.ClientConfiguration configuration) {
+        return configuration.circuitBreaker != null || configuration.retry != null || configuration.hedging != null;
+    }
+
+    /**
+     * @param replayable true if the call can be done more than once (retries and hedging are only done in this case).
+     * @param call the upstream call.
+     * @return the response of the upstream.
+     */
+    public CompletionStage<Response> execute(final boolean replayable, final UpstreamCall call) {
+        if (!replayable) {
+            return single(call);
+        }
+        if (retryBudget != null) {
+            retryBudget.onRequest();
+        }
+        return attempt(call, 1);
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    public long getExhaustedRetryBudget() {
+        return exhaustedRetryBudget.sum();
+    }
+
+    public long getHedges() {
+        return hedges.sum();
+    }
+
+    private CompletableFuture<Response> attempt(final UpstreamCall call, final int attempt) {
+        final CompletableFuture<Response> result = latencies != null ? hedged(call) : single(call);
+        if (attempt >= maxAttempts) {
+            return result;
+        }
+        return result.handle((response, error) -> {
+            if (!shouldRetry(response, error)) {
+                return error != null ? this.<Response>failed(error) : CompletableFuture.completedFuture(response);
+            }
+            if (!retryBudget.tryWithdraw()) {
+                exhaustedRetryBudget.increment();
+                return error != null ? this.<Response>failed(error) : CompletableFuture.completedFuture(response);
+            }
+            if (response != null) {
+                response.close();
+            }
+            retries.increment();
+            return backoff > 0 ?
+                    CompletableFuture.supplyAsync(() -> attempt(call, attempt + 1), CompletableFuture.delayedExecutor(backoff, MILLISECONDS))
+                            .thenCompose(identity()) :
+                    attempt(call, attempt + 1);
+        }).thenCompose(identity());
+    }
+
+    private boolean shouldRetry(final Response response, final Throwable error) {
+        if (error != null) {
+            final Throwable cause = unwrap(error);
+            return !CircuitBreakerOpenException.class.isInstance(cause) && !RejectedExecutionException.class.isInstance(cause);
+        }
+        return retriedStatuses.contains(response.getStatus());
+    }
+
+    private CompletableFuture<Response> hedged(final UpstreamCall call) {
+        final long percentile = latencies.get();
+        if (percentile < 0) { // not enough samples yet
+            return single(call);
+        }
+        final long delay = Math.max(hedgingMinDelay, percentile);
+        final CompletableFuture<Response> result = new CompletableFuture<>();
+        final AtomicInteger inFlight = new AtomicInteger(1);
+        final BiConsumer<Response, Throwable> onCompletion = (response, error) -> {
+            final boolean success = error == null && response.getStatus() < 500;
+            if (success || inFlight.decrementAndGet() == 0) { // first success wins, last failure is propagated
+                final boolean completed = error != null ? result.completeExceptionally(error) : result.complete(response);
+                if (!completed && response != null) {
+                    response.close();
+                }
+            } else if (response != null) {
+                response.close();
+            }
+        };
+        single(call).whenComplete(onCompletion);
+        for (int i = 1; i <= maxHedges; i++) {
+            CompletableFuture.delayedExecutor(delay * i, TimeUnit.NANOSECONDS).execute(() -> {
+                inFlight.incrementAndGet();
+                if (result.isDone()) {
+                    inFlight.decrementAndGet();
+                    return;
+                }
+                hedges.increment();
+                single(call).whenComplete(onCompletion);
+            });
+        }
+        return result;
+    }
+
+    private CompletableFuture<Response> single(final UpstreamCall call) {
+        if (circuitBreaker != null && !circuitBreaker.tryAcquire()) {
+            return failed(new CircuitBreakerOpenException(routeId));
+        }
+        final long start = System.nanoTime();
+        final CompletionStage<Response> stage;
+        try {
+            stage = call.call();
+        } catch (final RejectedExecutionException ree) { // local saturation, not an upstream failure
+            if (circuitBreaker != null) {
+                circuitBreaker.onIgnored();
+            }
+            return failed(ree);
+        } catch (final IOException | RuntimeException e) {
+            if (circuitBreaker != null) {
+                circuitBreaker.onFailure();
+            }
+            return failed(e);
+        }
+        return stage.toCompletableFuture().whenComplete((response, error) -> {
+            final boolean success = error == null && response.getStatus() < 500;
+            if (circuitBreaker != null) {
+                if (success) {
+                    circuitBreaker.onSuccess();
+                } else if (error != null && RejectedExecutionException.class.isInstance(unwrap(error))) {
+                    circuitBreaker.onIgnored();
+                } else {
+                    circuitBreaker.onFailure();
+                }
+            }
+            if (success && latencies != null) {
+                latencies.record(System.nanoTime() - start);
+            }
+        });
+    }
+
+    private <T> CompletableFuture<T> failed(final Throwable error) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+
+    private static Throwable unwrap(final Throwable error) {
+        Throwable current = error;
+        while (CompletionException.class.isInstance(current) && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+
+    // retries allowed over the last 10 seconds: a ratio of the requests plus a minimum per second
+    static class RetryBudget {
+        private static final int BUCKETS = 10; // one per second
+
+        private final double ratio;
+        private final int minPerSecond;
+        private final LongSupplier clock;
+        private final long[] seconds = new long[BUCKETS];
+        private final long[] requests = new long[BUCKETS];
+        private final long[] retries = new long[BUCKETS];
+
+        RetryBudget(final double ratio, final int minPerSecond, final LongSupplier clock) {
+            this.ratio = ratio;
+            this.minPerSecond = minPerSecond;
+            this.clock = clock;
+            Arrays.fill(seconds, Long.MIN_VALUE);
+        }
+
+        synchronized void onRequest() {
+            requests[bucket(currentSecond())]++;
+        }
+
+        synchronized boolean tryWithdraw() {
+            final long now = currentSecond();
+            final int bucket = bucket(now);
+            long totalRequests = 0;
+            long totalRetries = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                if (now - seconds[i] < BUCKETS) {
+                    totalRequests += requests[i];
+                    totalRetries += retries[i];
+                }
+            }
+            if (totalRetries < (long) minPerSecond * BUCKETS + ratio * totalRequests) {
+                retries[bucket]++;
+                return true;
+            }
+            return false;
+        }
+
+        private long currentSecond() {
+            return TimeUnit.NANOSECONDS.toSeconds(clock.getAsLong());
+        }
+
+        private int bucket(final long second) {
+            final int index = (int) Math.floorMod(second, (long) BUCKETS);
+            if (seconds[index] != second) {
+                seconds[index] = second;
+                requests[index] = 0;
+                retries[index] = 0;
+            }
+            return index;
+        }
+    }
+
+    // percentile over the last successful calls, recomputed every few samples since it is read on each request
+    static class LatencyTracker {
+        private static final int MIN_SAMPLES = 32;
+
+        private final double percentile;
+        private final long[] samples = new long[512];
+        private int index;
+        private int count;
+        private int sinceRefresh;
+        private volatile long value = -1;
+
+        LatencyTracker(final double percentile) {
+            this.percentile = Math.min(100, Math.max(0, percentile));
+        }
+
+        long get() {
+            return value;
+        }
+
+        synchronized void record(final long duration) {
+            samples[index] = duration;
+            index = (index + 1) % samples.length;
+            if (count < samples.length) {
+                count++;
+            }
+            if (++sinceRefresh >= MIN_SAMPLES && count >= MIN_SAMPLES) {
+                sinceRefresh = 0;
+                final long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                final int rank = (int) Math.ceil(percentile / 100. * count) - 1;
+                value = sorted[Math.max(0, Math.min(count - 1, rank))];
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Executor of a route, it wraps the actual pool (platform or virtual threads)
+ * to track its usage and apply the rejection policy.
+ */
+public class RouteExecutor extends AbstractExecutorService {
+    private final ExecutorService delegate;
+    private final RejectionPolicy rejectionPolicy;
+    private final Consumer<String> logger;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    public RouteExecutor(final ExecutorService delegate, final RejectionPolicy rejectionPolicy, final Consumer<String> logger) {
+        this.delegate = delegate;
+        this.rejectionPolicy = rejectionPolicy;
+        this.logger = logger;
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        try {
+            delegate.execute(() -> {
+                active.incrementAndGet();
+                try {
+                    command.run();
+                } finally {
+                    active.decrementAndGet();
+                }
+            });
+        } catch (final RejectedExecutionException ree) {
+            rejected.increment();
+            switch (rejectionPolicy) {
+                case CALLER_RUNS:
+                    if (delegate.isShutdown()) {
+                        throw ree;
+                    }
+                    command.run();
+                    break;
+                case FAIL:
+                    throw ree;
+                default:
+                    logger.accept("Proxy rejected task: " + command + ", in " + delegate);
+            }
+        }
+    }
+
+    public ExecutorService getDelegate() {
+        return delegate;
+    }
+
+    public int getQueueSize() {
+        return ThreadPoolExecutor.class.isInstance(delegate) ? ThreadPoolExecutor.class.cast(delegate).getQueue().size() : 0;
+    }
+
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return "RouteExecutor{" +
+                "queueSize=" + getQueueSize() +
+                ", active=" + getActiveCount() +
+                ", rejected=" + getRejectedCount() +
+                ", rejectionPolicy=" + rejectionPolicy +
+                '}';
+    }
+
+    public enum RejectionPolicy {
+        LOG, FAIL, CALLER_RUNS;
+
+        public static RejectionPolicy from(final String value) {
+            if (value == null) {
+                return LOG;
+            }
+            switch (value.toLowerCase(Locale.ROOT)) {
+                case "log":
+                    return LOG;
+                case "fail":
+                    return FAIL;
+                case "caller-runs":
+                    return CALLER_RUNS;
+                default:
+                    throw new IllegalArgumentException("Unknown rejection policy: " + value);
+            }
+        }
+    }
+}
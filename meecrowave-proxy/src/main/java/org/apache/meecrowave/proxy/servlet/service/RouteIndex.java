@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service;
+
+import static java.util.Collections.emptyMap;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.apache.meecrowave.proxy.servlet.configuration.Routes;
+
+/**
+ * Immutable lookup structure for the routes: one case insensitive prefix trie per HTTP method.
+ *
+ * By default the semantic is the declaration order one: a route matches if its method and prefix are null or equal
+ * to the request ones and the first declared matching route wins.
+ *
+ * With {@code longestPrefix}, prefixes ending with {@code *} are wildcards ({@code /foo/*}) and precedence is:
+ * exact prefix, then longest wildcard prefix and finally routes without prefix.
+ * When two routes have the same key the first declared one wins.
+ *
+ * Lookups do not allocate.
+ */
+public final class RouteIndex {
+    private final Map<String, Node> byMethod;
+    private final Node anyMethod;
+    private final boolean longestPrefix;
+
+    private RouteIndex(final Map<String, Node> byMethod, final Node anyMethod, final boolean longestPrefix) {
+        this.byMethod = byMethod;
+        this.anyMethod = anyMethod;
+        this.longestPrefix = longestPrefix;
+    }
+
+    public static RouteIndex of(final Collection<Routes.Route> routes) {
+        return of(routes, false);
+    }
+
+    /**
+     * @param routes the routes in declaration order.
+     * @param longestPrefix true to support wildcard prefixes and prefer the most specific route over the declaration order.
+     * @return the index of the routes.
+     */
+    public static RouteIndex of(final Collection<Routes.Route> routes, final boolean longestPrefix) {
+        if (routes == null || routes.isEmpty()) {
+            return new RouteIndex(emptyMap(), Node.EMPTY, longestPrefix);
+        }
+
+        // method specific tries also get the routes without method to keep the declaration order semantic
+        final Map<String, NodeBuilder> builders = new HashMap<>();
+        final NodeBuilder anyMethod = new NodeBuilder();
+        routes.stream()
+                .map(it -> it.requestConfiguration == null ? null : it.requestConfiguration.method)
+                .filter(Objects::nonNull)
+                .map(it -> it.toUpperCase(Locale.ROOT))
+                .distinct()
+                .forEach(it -> builders.put(it, new NodeBuilder()));
+        int ordinal = 0;
+        for (final Routes.Route route : routes) {
+            final String method = route.requestConfiguration == null ? null : route.requestConfiguration.method;
+            final String prefix = route.requestConfiguration == null ? null : route.requestConfiguration.prefix;
+            final boolean wildcard = longestPrefix && prefix != null && prefix.endsWith("*");
+            final int routeOrdinal = ordinal++;
+            if (method == null) {
+                anyMethod.add(prefix, wildcard, route, routeOrdinal);
+                builders.values().forEach(it -> it.add(prefix, wildcard, route, routeOrdinal));
+            } else {
+                builders.get(method.toUpperCase(Locale.ROOT)).add(prefix, wildcard, route, routeOrdinal);
+            }
+        }
+
+        final Map<String, Node> byMethod = new HashMap<>(builders.size());
+        builders.forEach((k, v) -> byMethod.put(k, v.build()));
+        return new RouteIndex(byMethod, anyMethod.build(), longestPrefix);
+    }
+
+    /**
+     * @param method the HTTP method of the request.
+     * @param path the request path (without the servlet prefix).
+     * @return the matching route or null.
+     */
+    public Routes.Route match(final String method, final String path) {
+        // toUpperCase returns the same instance when already uppercased which is the common case
+        final Node root = method == null ? anyMethod : byMethod.getOrDefault(method.toUpperCase(Locale.ROOT), anyMethod);
+        if (path == null) {
+            return root.catchAll;
+        }
+
+        Node current = root;
+        Routes.Route wildcard = root.wildcard;
+        final int length = path.length();
+        for (int i = 0; i < length; i++) {
+            current = current.child(fold(path.charAt(i)));
+            if (current == null) {
+                return wildcard != null ? wildcard : root.catchAll;
+            }
+            if (current.wildcard != null) {
+                wildcard = current.wildcard;
+            }
+        }
+        if (current.exact == null) {
+            return wildcard != null ? wildcard : root.catchAll;
+        }
+        if (longestPrefix || root.catchAll == null || current.exactOrdinal < root.catchAllOrdinal) {
+            return current.exact;
+        }
+        return root.catchAll;
+    }
+
+    private static char fold(final char c) { // same as equalsIgnoreCase
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static final class Node {
+        private static final Node EMPTY = new Node(new char[0], new Node[0], null, -1, null, null, -1);
+
+        private final char[] keys;
+        private final Node[] children;
+        private final Routes.Route exact;
+        private final int exactOrdinal;
+        private final Routes.Route wildcard;
+        private final Routes.Route catchAll;
+        private final int catchAllOrdinal;
+
+        private Node(final char[] keys, final Node[] children,
+                     final Routes.Route exact, final int exactOrdinal, final Routes.Route wildcard,
+                     final Routes.Route catchAll, final int catchAllOrdinal) {
+            this.keys = keys;
+            this.children = children;
+            this.exact = exact;
+            this.exactOrdinal = exactOrdinal;
+            this.wildcard = wildcard;
+            this.catchAll = catchAll;
+            this.catchAllOrdinal = catchAllOrdinal;
+        }
+
+        private Node child(final char c) {
+            switch (keys.length) {
+                case 0:
+                    return null;
+                case 1:
+                    return keys[0] == c ? children[0] : null;
+                default:
+                    final int idx = Arrays.binarySearch(keys, c);
+                    return idx < 0 ? null : children[idx];
+            }
+        }
+    }
+
+    private static final class NodeBuilder {
+        private final TreeMap<Character, NodeBuilder> children = new TreeMap<>();
+        private Routes.Route exact;
+        private int exactOrdinal = -1;
+        private Routes.Route wildcard;
+        private Routes.Route catchAll;
+        private int catchAllOrdinal = -1;
+
+        // routes are added in declaration order so the first one added for a key has the lowest ordinal
+        private void add(final String prefix, final boolean isWildcard, final Routes.Route route, final int ordinal) {
+            if (prefix == null) {
+                if (catchAll == null) {
+                    catchAll = route;
+                    catchAllOrdinal = ordinal;
+                }
+                return;
+            }
+
+            final int length = isWildcard ? prefix.length() - 1 : prefix.length();
+            NodeBuilder current = this;
+            for (int i = 0; i < length; i++) {
+                current = current.children.computeIfAbsent(fold(prefix.charAt(i)), k -> new NodeBuilder());
+            }
+            if (isWildcard) {
+                if (current.wildcard == null) {
+                    current.wildcard = route;
+                }
+            } else if (current.exact == null) {
+                current.exact = route;
+                current.exactOrdinal = ordinal;
+            }
+        }
+
+        private Node build() {
+            final char[] keys = new char[children.size()];
+            final Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (final Map.Entry<Character, NodeBuilder> child : children.entrySet()) {
+                keys[i] = child.getKey();
+                nodes[i] = child.getValue().build();
+                i++;
+            }
+            return new Node(keys, nodes, exact, exactOrdinal, wildcard, catchAll, catchAllOrdinal);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.apache.meecrowave.proxy.servlet.configuration.Routes;
+
+/**
+ * Holds the active routes and replaces them without interrupting the traffic.
+ *
+ * New routes are loaded (clients, executors, ... included) before being swapped atomically.
+ * Requests acquire the routes they are executed with, previous routes are closed once
+ * all their in-flight requests completed (or after the drain timeout).
+ * A failing reload keeps the current routes.
+ */
+public class RoutesReloader implements AutoCloseable {
+    private final Supplier<Optional<Routes>> loader;
+    private final Consumer<Routes> closer;
+    private final Consumer<String> logger;
+    private final long drainTimeout;
+    private final AtomicReference<Generation> current;
+    private final Collection<Generation> draining = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler;
+    private volatile ScheduledFuture<?> watcher;
+
+    public RoutesReloader(final Routes initial, final Supplier<Optional<Routes>> loader, final Consumer<Routes> closer,
+                          final long drainTimeout, final Consumer<String> logger) {
+        this.loader = loader;
+        this.closer = closer;
+        this.logger = logger;
+        this.drainTimeout = drainTimeout;
+        this.current = new AtomicReference<>(new Generation(initial));
+
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            final Thread thread = new Thread(r, "meecrowave-proxy-routes-reloader");
+            thread.setDaemon(true);
+            thread.setContextClassLoader(RoutesReloader.class.getClassLoader());
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        this.scheduler = executor;
+    }
+
+    /**
+     * Polls the file attributes and reloads the routes when they change.
+     *
+     * @param file the routes file.
+     * @param interval the polling interval in ms.
+     */
+    public void watch(final Path file, final long interval) {
+        final AtomicReference<Object> lastState = new AtomicReference<>(fileState(file));
+        watcher = scheduler.scheduleWithFixedDelay(() -> {
+            final Object state = fileState(file);
+            if (state != null && !Objects.equals(state, lastState.getAndSet(state))) {
+                logger.accept("Routes file " + file + " changed, reloading");
+                reload();
+            }
+        }, interval, interval, MILLISECONDS);
+    }
+
+    /**
+     * @return the current generation with one more in-flight request, the caller must call {@link Generation#release()}.
+     */
+    public Generation acquire() {
+        while (true) {
+            final Generation generation = current.get();
+            if (generation.tryAcquire()) {
+                return generation;
+            }
+        }
+    }
+
+    public Routes getRoutes() {
+        return current.get().routes;
+    }
+
+    /**
+     * @return true if the routes were replaced, false if the loading failed and current routes were kept.
+     */
+    public synchronized boolean reload() {
+        final Routes routes;
+        try {
+            routes = loader.get().orElse(null);
+        } catch (final RuntimeException re) {
+            logger.accept("Can't reload routes, keeping current ones: " + re.getMessage());
+            return false;
+        }
+        final Generation previous = current.getAndSet(new Generation(routes));
+        retire(previous);
+        logger.accept("Reloaded routes: " + routes);
+        return true;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (watcher != null) {
+            watcher.cancel(true);
+        }
+        scheduler.shutdownNow();
+        draining.forEach(Generation::close);
+        current.get().close();
+    }
+
+    private void retire(final Generation generation) {
+        generation.retired = true;
+        draining.add(generation);
+        if (generation.inFlight.get() == 0) {
+            generation.closeAsync();
+        } else if (drainTimeout > 0) {
+            scheduler.schedule(() -> {
+                if (!generation.closed.get()) {
+                    logger.accept("Routes still have " + generation.inFlight.get() + " requests after " + drainTimeout + "ms, closing them");
+                    generation.close();
+                }
+            }, drainTimeout, MILLISECONDS);
+        }
+    }
+
+    private static Object fileState(final Path file) {
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return attributes.lastModifiedTime().toMillis() + "/" + attributes.size();
+        } catch (final IOException e) { // being rewritten or deleted, wait for the next check
+            return null;
+        }
+    }
+
+    public final class Generation {
+        private final Routes routes;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean retired;
+
+        private Generation(final Routes routes) {
+            this.routes = routes;
+        }
+
+        public Routes getRoutes() {
+            return routes;
+        }
+
+        public void release() {
+            if (inFlight.decrementAndGet() == 0 && retired) {
+                closeAsync();
+            }
+        }
+
+        private boolean tryAcquire() {
+            inFlight.incrementAndGet();
+            if (retired) { // swapped meanwhile, use the new routes
+                release();
+                return false;
+            }
+            return true;
+        }
+
+        // closing can wait for the route executor termination so never do it in a request thread
+        private void closeAsync() {
+            try {
+                scheduler.execute(this::close);
+            } catch (final RejectedExecutionException ree) { // reloader closed
+                close();
+            }
+        }
+
+        private void close() {
+            draining.remove(this);
+            if (routes != null && closed.compareAndSet(false, true)) {
+                try {
+                    closer.accept(routes);
+                } catch (final RuntimeException re) {
+                    logger.accept("Can't close routes: " + re.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service.cache;
+
+import static java.util.Collections.singletonList;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.ws.rs.core.Response;
+
+final class CacheEntry {
+    private final int status;
+    private final Map<String, List<String>> headers;
+    private final ByteBuffer body;
+    private final String variant;
+    private final long storedAt;
+    private final long expiresAt;
+    private final String etag;
+    private final String lastModified;
+
+    CacheEntry(final int status, final Map<String, List<String>> headers, final ByteBuffer body, final String variant,
+               final long storedAt, final long expiresAt, final String etag, final String lastModified) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+        this.variant = variant;
+        this.storedAt = storedAt;
+        this.expiresAt = expiresAt;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    CacheEntry withBody(final ByteBuffer newBody) {
+        return new CacheEntry(status, headers, newBody, variant, storedAt, expiresAt, etag, lastModified);
+    }
+
+    CacheEntry revalidated(final long now, final long newExpiresAt) {
+        return new CacheEntry(status, headers, body, variant, now, newExpiresAt, etag, lastModified);
+    }
+
+    boolean isFresh(final long now) {
+        return now < expiresAt;
+    }
+
+    boolean canRevalidate() {
+        return etag != null || lastModified != null;
+    }
+
+    int weight() { // body + rough estimate of the metadata
+        int weight = body.remaining() + 64;
+        for (final Map.Entry<String, List<String>> header : headers.entrySet()) {
+            weight += header.getKey().length() * 2;
+            for (final String value : header.getValue()) {
+                weight += value.length() * 2;
+            }
+        }
+        return weight;
+    }
+
+    Response toResponse(final long now) {
+        final Map<String, List<String>> responseHeaders = new LinkedHashMap<>(headers);
+        responseHeaders.put("Age", singletonList(Long.toString(Math.max(0, (now - storedAt) / 1000))));
+        return new CachedResponse(status, responseHeaders, new ByteBufferInputStream(body.duplicate()));
+    }
+
+    int getStatus() {
+        return status;
+    }
+
+    Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    ByteBuffer getBody() {
+        return body;
+    }
+
+    String getVariant() {
+        return variant;
+    }
+
+    String getEtag() {
+        return etag;
+    }
+
+    String getLastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service.cache;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptySet;
+import static java.util.stream.Collectors.toSet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.GenericType;
+import jakarta.ws.rs.core.Link;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.NewCookie;
+import jakarta.ws.rs.core.Response;
+
+// response served by the cache (or buffered by it), only what the proxy needs is really implemented
+class CachedResponse extends Response {
+    private final int status;
+    private final Map<String, List<String>> headers;
+    private final InputStream entity;
+    private boolean closed;
+
+    CachedResponse(final int status, final Map<String, List<String>> headers, final InputStream entity) {
+        this.status = status;
+        this.headers = headers;
+        this.entity = entity;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public StatusType getStatusInfo() {
+        final Status known = Status.fromStatusCode(status);
+        if (known != null) {
+            return known;
+        }
+        return new StatusType() {
+            @Override
+            public int getStatusCode() {
+                return status;
+            }
+
+            @Override
+            public Status.Family getFamily() {
+                return Status.Family.familyOf(status);
+            }
+
+            @Override
+            public String getReasonPhrase() {
+                return "";
+            }
+        };
+    }
+
+    @Override
+    public Object getEntity() {
+        return entity;
+    }
+
+    @Override
+    public <T> T readEntity(final Class<T> type) {
+        if (closed) {
+            throw new IllegalStateException("Response closed");
+        }
+        if (type.isAssignableFrom(InputStream.class)) {
+            return type.cast(entity);
+        }
+        try {
+            if (byte[].class == type) {
+                return type.cast(readAll());
+            }
+            if (String.class == type) {
+                return type.cast(new String(readAll(), StandardCharsets.UTF_8));
+            }
+        } catch (final IOException e) {
+            throw new ProcessingException(e);
+        }
+        throw new ProcessingException("Unsupported type: " + type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T readEntity(final GenericType<T> entityType) {
+        return (T) readEntity(entityType.getRawType());
+    }
+
+    @Override
+    public <T> T readEntity(final Class<T> entityType, final Annotation[] annotations) {
+        return readEntity(entityType);
+    }
+
+    @Override
+    public <T> T readEntity(final GenericType<T> entityType, final Annotation[] annotations) {
+        return readEntity(entityType);
+    }
+
+    @Override
+    public boolean hasEntity() {
+        return true;
+    }
+
+    @Override
+    public boolean bufferEntity() {
+        return true; // already in memory or mapped
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            entity.close();
+        } catch (final IOException e) {
+            throw new ProcessingException(e);
+        }
+    }
+
+    @Override
+    public MediaType getMediaType() {
+        final String value = getHeaderString("Content-Type");
+        return value == null ? null : MediaType.valueOf(value);
+    }
+
+    @Override
+    public Locale getLanguage() {
+        final String value = getHeaderString("Content-Language");
+        return value == null ? null : Locale.forLanguageTag(value);
+    }
+
+    @Override
+    public int getLength() {
+        final String value = getHeaderString("Content-Length");
+        return value == null ? -1 : Integer.parseInt(value.trim());
+    }
+
+    @Override
+    public Set<String> getAllowedMethods() {
+        final String value = getHeaderString("Allow");
+        return value == null ? emptySet() : Stream.of(value.split(","))
+                .map(String::trim)
+                .filter(it -> !it.isEmpty())
+                .map(it -> it.toUpperCase(Locale.ROOT))
+                .collect(toSet());
+    }
+
+    @Override
+    public Map<String, NewCookie> getCookies() {
+        return emptyMap(); // responses with cookies are not cached
+    }
+
+    @Override
+    public EntityTag getEntityTag() {
+        final String value = getHeaderString("ETag");
+        return value == null ? null : EntityTag.valueOf(value);
+    }
+
+    @Override
+    public Date getDate() {
+        return parseDate(getHeaderString("Date"));
+    }
+
+    @Override
+    public Date getLastModified() {
+        return parseDate(getHeaderString("Last-Modified"));
+    }
+
+    @Override
+    public URI getLocation() {
+        final String value = getHeaderString("Location");
+        return value == null ? null : URI.create(value);
+    }
+
+    @Override
+    public Set<Link> getLinks() {
+        return emptySet();
+    }
+
+    @Override
+    public boolean hasLink(final String relation) {
+        return false;
+    }
+
+    @Override
+    public Link getLink(final String relation) {
+        return null;
+    }
+
+    @Override
+    public Link.Builder getLinkBuilder(final String relation) {
+        return null;
+    }
+
+    @Override
+    public MultivaluedMap<String, Object> getMetadata() {
+        final MultivaluedMap<String, Object> metadata = new MultivaluedHashMap<>();
+        headers.forEach((k, v) -> v.forEach(value -> metadata.add(k, value)));
+        return metadata;
+    }
+
+    @Override
+    public MultivaluedMap<String, String> getStringHeaders() {
+        final MultivaluedMap<String, String> metadata = new MultivaluedHashMap<>();
+        headers.forEach((k, v) -> v.forEach(value -> metadata.add(k, value)));
+        return metadata;
+    }
+
+    @Override
+    public String getHeaderString(final String name) {
+        return headers.entrySet().stream()
+                .filter(it -> it.getKey().equalsIgnoreCase(name))
+                .findFirst()
+                .map(it -> String.join(",", it.getValue()))
+                .orElse(null);
+    }
+
+    private byte[] readAll() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = entity.read(buffer)) >= 0) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static Date parseDate(final String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Date.from(ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+        } catch (final RuntimeException re) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service.cache;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Second tier for entries evicted from memory: bodies are written in files and served memory mapped,
+ * metadata stay in memory. Files are owned by the store and deleted on close, nothing is reloaded on restart.
+ */
+class DiskStore implements AutoCloseable {
+    private final Path directory;
+    private final long maxSize;
+    private final Consumer<String> logger;
+    private final AtomicLong counter = new AtomicLong();
+
+    private final LinkedHashMap<String, DiskEntry> index = new LinkedHashMap<>(16, .75f, true);
+    private long size;
+
+    DiskStore(final Path directory, final long maxSize, final Consumer<String> logger) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.logger = logger;
+        try {
+            Files.createDirectories(directory);
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Can't create cache directory " + directory, e);
+        }
+    }
+
+    CacheEntry get(final String key) {
+        final DiskEntry diskEntry;
+        synchronized (this) {
+            diskEntry = index.get(key);
+        }
+        if (diskEntry == null) {
+            return null;
+        }
+        try (final FileChannel channel = FileChannel.open(diskEntry.file, READ)) {
+            // the mapping stays valid after the channel is closed
+            return diskEntry.entry.withBody(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (final IOException e) { // evicted concurrently or deleted
+            synchronized (this) {
+                if (index.get(key) == diskEntry) {
+                    index.remove(key);
+                    size -= diskEntry.length;
+                }
+            }
+            return null;
+        }
+    }
+
+    void put(final String key, final CacheEntry entry) {
+        final ByteBuffer body = entry.getBody().duplicate();
+        final int length = body.remaining();
+        if (length > maxSize) {
+            return;
+        }
+        final Path file = directory.resolve("entry-" + counter.incrementAndGet() + ".cache");
+        try (final FileChannel channel = FileChannel.open(file, CREATE_NEW, WRITE)) {
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+        } catch (final IOException e) {
+            logger.accept("Can't write cache entry " + file + ": " + e.getMessage());
+            delete(file);
+            return;
+        }
+
+        final DiskEntry diskEntry = new DiskEntry(file, length, entry.withBody(ByteBuffer.allocate(0)));
+        final Collection<Path> toDelete = new ArrayList<>();
+        synchronized (this) {
+            final DiskEntry previous = index.put(key, diskEntry);
+            if (previous != null) {
+                size -= previous.length;
+                toDelete.add(previous.file);
+            }
+            size += length;
+            final Iterator<DiskEntry> eldest = index.values().iterator();
+            while (size > maxSize && eldest.hasNext()) {
+                final DiskEntry victim = eldest.next();
+                eldest.remove();
+                size -= victim.length;
+                toDelete.add(victim.file);
+            }
+        }
+        toDelete.forEach(this::delete);
+    }
+
+    void remove(final String key) {
+        final DiskEntry removed;
+        synchronized (this) { // the file I/O is done out of the monitor
+            removed = index.remove(key);
+            if (removed == null) {
+                return;
+            }
+            size -= removed.length;
+        }
+        delete(removed.file);
+    }
+
+    synchronized long getSize() {
+        return size;
+    }
+
+    @Override
+    public synchronized void close() {
+        index.values().forEach(it -> delete(it.file));
+        index.clear();
+        size = 0;
+    }
+
+    private void delete(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (final IOException e) { // can be still mapped on some OS
+            file.toFile().deleteOnExit();
+        }
+    }
+
+    private static final class DiskEntry {
+        private final Path file;
+        private final long length;
+        private final CacheEntry entry;
+
+        private DiskEntry(final Path file, final long length, final CacheEntry entry) {
+            this.file = file;
+            this.length = length;
+            this.entry = entry;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Size bounded store using a W-TinyLFU like policy:
+ * new entries go in a small LRU window, entries leaving the window only enter the main LRU space
+ * if they are estimated more frequently used than the main space victim.
+ * Frequencies are estimated with an aging count-min sketch so one-hit wonders do not flush hot entries.
+ */
+class MemoryStore {
+    private final long windowMaxWeight;
+    private final long mainMaxWeight;
+    private final FrequencySketch sketch;
+    private final BiConsumer<String, CacheEntry> onEviction;
+
+    private final LinkedHashMap<String, CacheEntry> window = new LinkedHashMap<>(16, .75f, true);
+    private final LinkedHashMap<String, CacheEntry> main = new LinkedHashMap<>(16, .75f, true);
+    private long windowWeight;
+    private long mainWeight;
+
+    MemoryStore(final long maxWeight, final BiConsumer<String, CacheEntry> onEviction) {
+        this.windowMaxWeight = Math.max(1, maxWeight / 100);
+        this.mainMaxWeight = Math.max(1, maxWeight - windowMaxWeight);
+        this.sketch = new FrequencySketch((int) Math.min(1 << 20, Math.max(256, maxWeight / 4096)));
+        this.onEviction = onEviction;
+    }
+
+    synchronized CacheEntry get(final String key) {
+        sketch.increment(key);
+        final CacheEntry entry = window.get(key);
+        return entry != null ? entry : main.get(key);
+    }
+
+    synchronized void put(final String key, final CacheEntry entry) {
+        sketch.increment(key);
+        remove(key);
+        window.put(key, entry);
+        windowWeight += entry.weight();
+        while (windowWeight > windowMaxWeight && !window.isEmpty()) {
+            final Iterator<Map.Entry<String, CacheEntry>> eldest = window.entrySet().iterator();
+            final Map.Entry<String, CacheEntry> candidate = eldest.next();
+            eldest.remove();
+            windowWeight -= candidate.getValue().weight();
+            admit(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    synchronized void remove(final String key) {
+        final CacheEntry fromWindow = window.remove(key);
+        if (fromWindow != null) {
+            windowWeight -= fromWindow.weight();
+        }
+        final CacheEntry fromMain = main.remove(key);
+        if (fromMain != null) {
+            mainWeight -= fromMain.weight();
+        }
+    }
+
+    synchronized long getWeight() {
+        return windowWeight + mainWeight;
+    }
+
+    synchronized int size() {
+        return window.size() + main.size();
+    }
+
+    private void admit(final String key, final CacheEntry candidate) {
+        final int weight = candidate.weight();
+        if (weight > mainMaxWeight) {
+            onEviction.accept(key, candidate);
+            return;
+        }
+        final int candidateFrequency = sketch.frequency(key);
+        while (mainWeight + weight > mainMaxWeight) {
+            final Iterator<Map.Entry<String, CacheEntry>> eldest = main.entrySet().iterator();
+            final Map.Entry<String, CacheEntry> victim = eldest.next();
+            if (candidateFrequency <= sketch.frequency(victim.getKey())) {
+                onEviction.accept(key, candidate);
+                return;
+            }
+            eldest.remove();
+            mainWeight -= victim.getValue().weight();
+            onEviction.accept(victim.getKey(), victim.getValue());
+        }
+        main.put(key, candidate);
+        mainWeight += weight;
+    }
+
+    // 4 rows count-min sketch with saturating 4 bits counters packed in longs, halved periodically
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        private FrequencySketch(final int expectedEntries) {
+            final int size = Integer.highestOneBit(Math.max(64, expectedEntries) - 1) << 1;
+            this.table = new long[size];
+            this.mask = size - 1;
+            this.sampleSize = 10 * size;
+        }
+
+        private int frequency(final String key) {
+            final int hash = spread(key.hashCode());
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; i++) {
+                frequency = Math.min(frequency, counter(hash, i));
+            }
+            return frequency;
+        }
+
+        private void increment(final String key) {
+            final int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                final int index = index(hash, i);
+                final int offset = offset(hash, i);
+                if (((table[index] >>> offset) & 0xFL) != 0xFL) {
+                    table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++additions == sampleSize) {
+                reset();
+            }
+        }
+
+        private void reset() { // aging: halve all counters
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            additions /= 2;
+        }
+
+        private int counter(final int hash, final int row) {
+            return (int) ((table[index(hash, row)] >>> offset(hash, row)) & 0xFL);
+        }
+
+        private int index(final int hash, final int row) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            h += h >>> 32;
+            return ((int) h) & mask;
+        }
+
+        private int offset(final int hash, final int row) { // which of the 16 counters of the long, row specific
+            final int counterIndex = (((hash >>> (row << 3)) & 3) << 2) | row;
+            return counterIndex << 2;
+        }
+
+        private static int spread(final int value) {
+            final int h = value * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
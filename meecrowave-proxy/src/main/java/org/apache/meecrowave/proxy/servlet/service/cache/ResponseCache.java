@@ -0,0 +1,448 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service.cache;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.stream.Collectors.toList;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.core.Response;
+
+import org.apache.meecrowave.proxy.servlet.configuration.Routes;
+
+/**
+ * HTTP cache of a route for GET/HEAD requests.
+ *
+ * It respects Cache-Control (no-store, private, no-cache, max-age, s-maxage), Expires and Vary,
+ * revalidates stale entries with their ETag/Last-Modified and coalesces concurrent misses of the same key
+ * in a single upstream call.
+ * Requests with credentials, ranges or their own conditional headers bypass the cache.
+ */
+public class ResponseCache implements AutoCloseable {
+    private static final List<String> BYPASS_HEADERS = Stream.of(
+            "Authorization", "Range", "If-None-Match", "If-Modified-Since", "If-Match", "If-Unmodified-Since")
+            .collect(toList());
+
+    private final long maxEntrySize;
+    private final long defaultTtl;
+    private final MemoryStore memory;
+    private final DiskStore disk;
+    private final Queue<Map.Entry<String, CacheEntry>> diskWrites = new ConcurrentLinkedQueue<>();
+
+    private final Map<String, List<String>> varyHeaders = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<CacheEntry>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+    private final LongAdder revalidated = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+
+    public ResponseCache(final Routes.CacheConfiguration configuration, final Consumer<String> logger) {
+        this.maxEntrySize = configuration.maxEntrySize == null ? 1024 * 1024 : configuration.maxEntrySize;
+        this.defaultTtl = configuration.defaultTtl == null ? 0 : configuration.defaultTtl;
+        this.disk = configuration.diskDirectory == null ? null : new DiskStore(
+                Paths.get(configuration.diskDirectory),
+                configuration.diskMaxSize == null ? 1024L * 1024 * 1024 : configuration.diskMaxSize,
+                logger);
+        this.memory = new MemoryStore(
+                configuration.maxSize == null ? 64 * 1024 * 1024 : configuration.maxSize,
+                disk == null ? (k, v) -> {} : (k, v) -> diskWrites.add(new AbstractMap.SimpleImmutableEntry<>(k, v)));
+    }
+
+    /**
+     * @param request the incoming request.
+     * @param path the proxied path.
+     * @param upstream the upstream call, it takes the additional (conditional) headers to send.
+     * @return the response, from the cache or the upstream.
+     */
+    public CompletionStage<Response> execute(final HttpServletRequest request, final String path,
+                                             final Function<Map<String, String>, CompletionStage<Response>> upstream) {
+        if (!isCacheable(request)) {
+            bypassed.increment();
+            return upstream.apply(emptyMap());
+        }
+
+        final String primaryKey = request.getMethod().toUpperCase(Locale.ROOT) + ' ' + path +
+                (request.getQueryString() == null ? "" : '?' + request.getQueryString());
+        final List<String> vary = varyHeaders.getOrDefault(primaryKey, emptyList());
+        final String variant = variant(request, vary);
+        final String key = primaryKey + variant;
+
+        final long now = System.currentTimeMillis();
+        final CacheEntry cached = lookup(key);
+        final boolean forceRevalidation = isNoCache(request);
+        if (cached != null && !forceRevalidation && cached.isFresh(now)) {
+            hits.increment();
+            return CompletableFuture.completedFuture(cached.toResponse(now));
+        }
+
+        final CompletableFuture<CacheEntry> promise = new CompletableFuture<>();
+        final CompletableFuture<CacheEntry> existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) { // someone is already fetching it, reuse its result
+            coalesced.increment();
+            return existing.handle((entry, error) -> entry)
+                    .thenCompose(entry -> entry != null && entry.getVariant().equals(variant(request, vary(entry))) ?
+                            CompletableFuture.completedFuture(entry.toResponse(System.currentTimeMillis())) :
+                            upstream.apply(emptyMap()));
+        }
+
+        final Map<String, String> conditionalHeaders;
+        if (cached != null && cached.canRevalidate()) {
+            stale.increment();
+            conditionalHeaders = new HashMap<>(2);
+            if (cached.getEtag() != null) {
+                conditionalHeaders.put("If-None-Match", cached.getEtag());
+            }
+            if (cached.getLastModified() != null) {
+                conditionalHeaders.put("If-Modified-Since", cached.getLastModified());
+            }
+        } else {
+            misses.increment();
+            conditionalHeaders = emptyMap();
+        }
+
+        final CompletionStage<Response> call;
+        try {
+            call = upstream.apply(conditionalHeaders);
+        } catch (final RuntimeException re) {
+            inFlight.remove(key, promise);
+            promise.complete(null);
+            throw re;
+        }
+        return call.handle((response, error) -> {
+            try {
+                if (error != null) {
+                    promise.complete(null);
+                    throw error instanceof RuntimeException ? (RuntimeException) error : new IllegalStateException(error);
+                }
+                final long responseTime = System.currentTimeMillis();
+                if (response.getStatus() == 304 && cached != null && !conditionalHeaders.isEmpty()) {
+                    revalidated.increment();
+                    response.close();
+                    final CacheEntry refreshed = cached.revalidated(responseTime, expiresAt(response, responseTime));
+                    store(key, refreshed);
+                    promise.complete(refreshed);
+                    return refreshed.toResponse(responseTime);
+                }
+                return onUpstreamResponse(request, primaryKey, response, responseTime, promise);
+            } finally {
+                inFlight.remove(key, promise);
+            }
+        });
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getStale() {
+        return stale.sum();
+    }
+
+    public long getRevalidated() {
+        return revalidated.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getBypassed() {
+        return bypassed.sum();
+    }
+
+    public long getDiskHits() {
+        return diskHits.sum();
+    }
+
+    public long getMemorySize() {
+        return memory.getWeight();
+    }
+
+    public long getDiskSize() {
+        return disk == null ? 0 : disk.getSize();
+    }
+
+    @Override
+    public void close() {
+        if (disk != null) {
+            disk.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseCache{" +
+                "hits=" + getHits() +
+                ", misses=" + getMisses() +
+                ", stale=" + getStale() +
+                ", revalidated=" + getRevalidated() +
+                ", coalesced=" + getCoalesced() +
+                ", bypassed=" + getBypassed() +
+                ", diskHits=" + getDiskHits() +
+                ", memorySize=" + getMemorySize() +
+                ", diskSize=" + getDiskSize() +
+                '}';
+    }
+
+    private Response onUpstreamResponse(final HttpServletRequest request, final String primaryKey,
+                                        final Response response, final long now,
+                                        final CompletableFuture<CacheEntry> promise) {
+        final Map<String, List<String>> headers = new LinkedHashMap<>(response.getStringHeaders());
+        final List<String> vary = parseList(header(headers, "Vary"));
+        final long expiresAt = expiresAt(response, now);
+        if (!isCacheable(response, headers, vary, expiresAt, now)) {
+            promise.complete(null);
+            return response;
+        }
+
+        // buffer the payload to be able to store it, if too big just stream it without caching
+        final InputStream stream = response.readEntity(InputStream.class);
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        final byte[] chunk = new byte[8192];
+        try {
+            int read;
+            while ((read = stream.read(chunk)) >= 0) {
+                buffer.write(chunk, 0, read);
+                if (buffer.size() > maxEntrySize) {
+                    promise.complete(null);
+                    return new CachedResponse(response.getStatus(), headers,
+                            new SequenceInputStream(new ByteArrayInputStream(buffer.toByteArray()), stream));
+                }
+            }
+            stream.close();
+        } catch (final IOException e) {
+            promise.complete(null);
+            throw new UncheckedIOException(e);
+        }
+
+        if (vary.isEmpty()) {
+            varyHeaders.remove(primaryKey);
+        } else {
+            varyHeaders.put(primaryKey, vary);
+        }
+        final String variant = variant(request, vary);
+        final CacheEntry entry = new CacheEntry(
+                response.getStatus(), headers, ByteBuffer.wrap(buffer.toByteArray()), variant,
+                now, expiresAt, header(headers, "ETag"), header(headers, "Last-Modified"));
+        store(primaryKey + variant, entry);
+        promise.complete(entry);
+        return entry.toResponse(now);
+    }
+
+    private boolean isCacheable(final HttpServletRequest request) {
+        final String method = request.getMethod();
+        if (!"GET".equalsIgnoreCase(method) && !"HEAD".equalsIgnoreCase(method)) {
+            return false;
+        }
+        for (final String header : BYPASS_HEADERS) {
+            if (request.getHeader(header) != null) {
+                return false;
+            }
+        }
+        final String cacheControl = request.getHeader("Cache-Control");
+        return cacheControl == null || !directives(cacheControl).containsKey("no-store");
+    }
+
+    private boolean isNoCache(final HttpServletRequest request) {
+        final String cacheControl = request.getHeader("Cache-Control");
+        if (cacheControl != null) {
+            final Map<String, String> directives = directives(cacheControl);
+            return directives.containsKey("no-cache") || "0".equals(directives.get("max-age"));
+        }
+        return "no-cache".equalsIgnoreCase(request.getHeader("Pragma"));
+    }
+
+    private boolean isCacheable(final Response response, final Map<String, List<String>> headers,
+                                final List<String> vary, final long expiresAt, final long now) {
+        switch (response.getStatus()) {
+            case 200:
+            case 203:
+            case 300:
+            case 301:
+            case 404:
+            case 410:
+                break;
+            default:
+                return false;
+        }
+        if (vary.contains("*") || header(headers, "Set-Cookie") != null) {
+            return false;
+        }
+        final String cacheControl = header(headers, "Cache-Control");
+        if (cacheControl != null) {
+            final Map<String, String> directives = directives(cacheControl);
+            if (directives.containsKey("no-store") || directives.containsKey("private")) {
+                return false;
+            }
+        }
+        // either fresh for some time or revalidable
+        return expiresAt > now || header(headers, "ETag") != null || header(headers, "Last-Modified") != null;
+    }
+
+    private long expiresAt(final Response response, final long now) {
+        final String cacheControl = response.getHeaderString("Cache-Control");
+        if (cacheControl != null) {
+            final Map<String, String> directives = directives(cacheControl);
+            if (directives.containsKey("no-cache")) {
+                return now;
+            }
+            final String maxAge = directives.getOrDefault("s-maxage", directives.get("max-age"));
+            if (maxAge != null) {
+                try {
+                    return now + Long.parseLong(maxAge) * 1000;
+                } catch (final NumberFormatException nfe) {
+                    return now;
+                }
+            }
+        }
+        final String expires = response.getHeaderString("Expires");
+        if (expires != null) {
+            try {
+                final long expiresDate = ZonedDateTime.parse(expires, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+                final String date = response.getHeaderString("Date");
+                final long base = date == null ?
+                        now : ZonedDateTime.parse(date, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+                return now + Math.max(0, expiresDate - base);
+            } catch (final RuntimeException re) { // invalid means expired
+                return now;
+            }
+        }
+        return now + defaultTtl;
+    }
+
+    private CacheEntry lookup(final String key) {
+        final CacheEntry entry = memory.get(key);
+        if (entry != null || disk == null) {
+            return entry;
+        }
+        final CacheEntry fromDisk = disk.get(key);
+        if (fromDisk != null) {
+            diskHits.increment();
+        }
+        return fromDisk;
+    }
+
+    private void store(final String key, final CacheEntry entry) {
+        memory.put(key, entry);
+        if (disk != null) {
+            disk.remove(key);
+            Map.Entry<String, CacheEntry> evicted;
+            while ((evicted = diskWrites.poll()) != null) { // outside of the memory lock
+                disk.put(evicted.getKey(), evicted.getValue());
+            }
+        }
+    }
+
+    private List<String> vary(final CacheEntry entry) {
+        return parseList(header(entry.getHeaders(), "Vary"));
+    }
+
+    private static String variant(final HttpServletRequest request, final List<String> vary) {
+        if (vary.isEmpty()) {
+            return "";
+        }
+        final StringBuilder builder = new StringBuilder();
+        for (final String header : vary) {
+            builder.append('\n').append(header).append('=');
+            final String value = request.getHeader(header);
+            if (value != null) {
+                builder.append(value);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static String header(final Map<String, List<String>> headers, final String name) {
+        for (final Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name) && !header.getValue().isEmpty()) {
+                return String.join(",", header.getValue());
+            }
+        }
+        return null;
+    }
+
+    private static List<String> parseList(final String value) {
+        if (value == null) {
+            return emptyList();
+        }
+        return Stream.of(value.split(","))
+                .map(String::trim)
+                .filter(it -> !it.isEmpty())
+                .map(it -> it.toLowerCase(Locale.ROOT))
+                .distinct()
+                .sorted()
+                .collect(toList());
+    }
+
+    private static Map<String, String> directives(final String cacheControl) {
+        final Map<String, String> directives = new HashMap<>();
+        for (final String directive : cacheControl.split(",")) {
+            final String trimmed = directive.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            final int eq = trimmed.indexOf('=');
+            if (eq > 0) {
+                String value = trimmed.substring(eq + 1).trim();
+                if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                directives.put(trimmed.substring(0, eq).trim().toLowerCase(Locale.ROOT), value);
+            } else {
+                directives.put(trimmed.toLowerCase(Locale.ROOT), "");
+            }
+        }
+        return directives;
+    }
+}
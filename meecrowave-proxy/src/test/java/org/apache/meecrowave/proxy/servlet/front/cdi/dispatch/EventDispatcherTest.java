@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.front.cdi.dispatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class EventDispatcherTest {
+    @Test
+    public void ringBuffer() {
+        final RingBuffer<Integer> buffer = new RingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+        assertTrue(buffer.isEmpty());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+
+        final List<Integer> values = new ArrayList<>();
+        assertEquals(3, buffer.drain(values::add, 3));
+        assertTrue(buffer.offer(5));
+        assertEquals(2, buffer.drain(values::add, 10));
+        assertTrue(buffer.isEmpty());
+        assertEquals("[0, 1, 2, 3, 5]", values.toString());
+    }
+
+    @Test
+    public void concurrentProducers() throws InterruptedException {
+        final AtomicInteger sum = new AtomicInteger();
+        try (final EventDispatcher dispatcher = new EventDispatcher(
+                "test", 1024, 16, EventDispatcher.DropPolicy.CALLER_RUNS, m -> {})) {
+            final Thread[] producers = new Thread[4];
+            for (int t = 0; t < producers.length; t++) {
+                producers[t] = new Thread(() -> {
+                    for (int i = 0; i < 10000; i++) {
+                        dispatcher.publish(sum::incrementAndGet);
+                    }
+                });
+                producers[t].start();
+            }
+            for (final Thread producer : producers) {
+                producer.join();
+            }
+        }
+        assertEquals(40000, sum.get());
+    }
+
+    @Test
+    public void dropWhenFull() throws InterruptedException {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try (final EventDispatcher dispatcher = new EventDispatcher(
+                "test", 2, 1, EventDispatcher.DropPolicy.DROP, m -> {})) {
+            assertTrue(dispatcher.publish(() -> {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(blocked.await(1, TimeUnit.MINUTES));
+            assertTrue(dispatcher.publish(() -> {}));
+            assertTrue(dispatcher.publish(() -> {}));
+            assertFalse(dispatcher.publish(() -> {}));
+            assertEquals(1, dispatcher.getDropped());
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void failureDoesNotStopTheDispatcher() {
+        final List<String> logs = new ArrayList<>();
+        final AtomicInteger calls = new AtomicInteger();
+        final EventDispatcher dispatcher = new EventDispatcher(
+                "test", 16, 4, EventDispatcher.DropPolicy.DROP, m -> {
+                    synchronized (logs) {
+                        logs.add(m);
+                    }
+                });
+        dispatcher.publish(() -> {
+            throw new IllegalStateException("oops");
+        });
+        dispatcher.publish(calls::incrementAndGet);
+        dispatcher.close();
+        assertEquals(1, calls.get());
+        assertEquals(1, dispatcher.getFailed());
+        assertEquals(1, dispatcher.getDispatched());
+        assertNotEquals(0, dispatcher.getBatches());
+        assertEquals("[Event notification failed: oops]", logs.toString());
+        assertFalse(dispatcher.publish(() -> {}));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class CaseInsensitiveSetTest {
+    @Test
+    public void contains() {
+        final CaseInsensitiveSet set = CaseInsensitiveSet.of(asList("Content-Length", "X-Forwarded-For", "content-length", "Host"));
+        assertEquals(3, set.size());
+        assertTrue(set.contains("content-length"));
+        assertTrue(set.contains("CONTENT-LENGTH"));
+        assertTrue(set.contains("x-forwarded-for"));
+        assertTrue(set.contains("HOST"));
+        assertFalse(set.contains("Hos"));
+        assertFalse(set.contains("Content-Type"));
+        assertFalse(set.contains(null));
+    }
+
+    @Test
+    public void manyNames() {
+        final List<String> names = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            names.add("X-Header-" + i);
+        }
+        final CaseInsensitiveSet set = CaseInsensitiveSet.of(names);
+        for (int i = 0; i < 60; i++) {
+            assertTrue(set.contains("x-header-" + i));
+        }
+        assertFalse(set.contains("x-header-60"));
+    }
+
+    @Test
+    public void emptyAndNull() {
+        assertNull(CaseInsensitiveSet.of(null));
+        assertFalse(CaseInsensitiveSet.of(emptyList()).contains("Host"));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.meecrowave.proxy.servlet.configuration.Routes;
+import org.junit.Test;
+
+public class CircuitBreakerTest {
+    @Test
+    public void lifecycle() {
+        final Routes.CircuitBreakerConfiguration configuration = new Routes.CircuitBreakerConfiguration();
+        configuration.failureRateThreshold = 50;
+        configuration.minimumRequests = 4;
+        configuration.windowSize = 10;
+        configuration.openDuration = 1000L;
+        configuration.halfOpenRequests = 2;
+
+        final AtomicLong clock = new AtomicLong();
+        final List<String> transitions = new ArrayList<>();
+        final CircuitBreaker breaker = new CircuitBreaker(configuration, (from, to) -> transitions.add(from + "->" + to), clock::get);
+
+        // 1 failure out of 3 calls, not enough calls to evaluate the rate
+        for (final boolean success : new boolean[]{true, true, false}) {
+            assertTrue(breaker.tryAcquire());
+            if (success) {
+                breaker.onSuccess();
+            } else {
+                breaker.onFailure();
+            }
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // 2 failures out of 4 calls
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        // probing after the open duration, only halfOpenRequests calls are let through
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        breaker.onSuccess();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        assertEquals(asList("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+    }
+}
@@ -20,6 +20,8 @@ package org.apache.meecrowave.proxy.servlet.service;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import java.util.Optional;
 
@@ -54,6 +56,25 @@ public class ConfigurationLoaderTest {
         }).orElseThrow(AssertionError::new);
     }
 
+    @Test
+    public void connectionPool() {
+        final Routes routes = doLoad().orElseThrow(AssertionError::new);
+        try {
+            final Routes.Route route = routes.routes.iterator().next();
+            assertSame(routes.pools.get("backend"), route.connectionPool);
+            assertSame(route.connectionPool.getClient(), route.client);
+            assertNull(route.executor); // the pool executor is used
+            assertEquals(1234, route.clientConfiguration.timeouts.execution.longValue());
+        } finally {
+            ConfigurationLoader.close(routes, message -> {});
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void connectionPoolWithClientConfiguration() {
+        doLoad();
+    }
+
     private Optional<Routes> doLoad() {
         return new ConfigurationLoader(getClass().getSimpleName() + '/' + testName.getMethodName() + ".json") {
             @Override
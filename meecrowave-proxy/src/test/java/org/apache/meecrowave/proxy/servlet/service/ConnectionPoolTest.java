@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.core.Response;
+
+import org.junit.Test;
+
+public class ConnectionPoolTest {
+    @Test
+    public void limitPerOrigin() throws Exception {
+        try (final ConnectionPool pool = newPool(1, 60000)) {
+            final CompletableFuture<Response> first = new CompletableFuture<>();
+            final AtomicInteger calls = new AtomicInteger();
+            final CompletionStage<Response> firstResult = pool.execute("http://localhost:1234/api", () -> {
+                calls.incrementAndGet();
+                return first;
+            });
+            final CompletionStage<Response> second = pool.execute("http://LOCALHOST:1234/other", () -> {
+                calls.incrementAndGet();
+                return CompletableFuture.completedFuture(Response.status(201).build());
+            });
+            final CompletionStage<Response> otherOrigin = pool.execute("http://localhost:4321/api", () -> {
+                calls.incrementAndGet();
+                return CompletableFuture.completedFuture(Response.status(202).build());
+            });
+
+            assertEquals(202, otherOrigin.toCompletableFuture().get(1, MINUTES).getStatus());
+            assertEquals(2, calls.get());
+            assertEquals(1, pool.getInFlight("http://localhost:1234"));
+            assertEquals(1, pool.getPending("http://localhost:1234"));
+            assertFalse(second.toCompletableFuture().isDone());
+
+            first.complete(Response.status(200).build());
+            final Response firstResponse = firstResult.toCompletableFuture().get(1, MINUTES);
+            assertEquals(200, firstResponse.getStatus());
+            assertFalse(second.toCompletableFuture().isDone()); // payload not relayed yet
+
+            firstResponse.close();
+            final Response secondResponse = second.toCompletableFuture().get(1, MINUTES);
+            assertEquals(201, secondResponse.getStatus());
+            assertEquals(3, calls.get());
+            assertEquals(1, pool.getInFlight("http://localhost:1234"));
+
+            secondResponse.close();
+            secondResponse.close(); // released once
+            assertEquals(0, pool.getInFlight("http://localhost:1234"));
+        }
+    }
+
+    @Test
+    public void acquireTimeout() throws Exception {
+        try (final ConnectionPool pool = newPool(1, 100)) {
+            final CompletableFuture<Response> first = new CompletableFuture<>();
+            final CompletionStage<Response> firstResult = pool.execute("http://localhost:1234", () -> first);
+            try {
+                pool.execute("http://localhost:1234", () -> CompletableFuture.completedFuture(Response.status(200).build()))
+                        .toCompletableFuture().get(1, MINUTES);
+                fail();
+            } catch (final ExecutionException ee) {
+                assertTrue(RejectedExecutionException.class.isInstance(ee.getCause()));
+            }
+            assertEquals(0, pool.getPending("http://localhost:1234"));
+            first.complete(Response.status(200).build());
+            assertEquals(1, pool.getInFlight("http://localhost:1234"));
+            firstResult.toCompletableFuture().get(1, MINUTES).close();
+            assertEquals(0, pool.getInFlight("http://localhost:1234"));
+        }
+    }
+
+    @Test
+    public void releaseOnFailure() throws Exception {
+        try (final ConnectionPool pool = newPool(1, 60000)) {
+            final CompletableFuture<Response> failing = new CompletableFuture<>();
+            final CompletionStage<Response> result = pool.execute("http://localhost:1234", () -> failing);
+            failing.completeExceptionally(new IllegalStateException("failed"));
+            try {
+                result.toCompletableFuture().get(1, MINUTES);
+                fail();
+            } catch (final ExecutionException ee) {
+                assertTrue(IllegalStateException.class.isInstance(ee.getCause()));
+            }
+            assertEquals(0, pool.getInFlight("http://localhost:1234"));
+        }
+    }
+
+    private static ConnectionPool newPool(final int maxConnectionsPerHost, final long acquireTimeout) {
+        final Client client = Client.class.cast(Proxy.newProxyInstance(
+                Thread.currentThread().getContextClassLoader(), new Class<?>[]{Client.class}, (p, m, a) -> null));
+        return new ConnectionPool("test", client, Executors.newSingleThreadExecutor(), maxConnectionsPerHost, acquireTimeout, m -> {});
+    }
+}
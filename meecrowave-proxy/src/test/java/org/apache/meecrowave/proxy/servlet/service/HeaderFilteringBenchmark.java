@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service;
+
+import static java.util.Arrays.asList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compares the header and cookie filtering of the proxy servlet done with the former stream over the configured names
+ * ({@code equalsIgnoreCase}) and with {@link CaseInsensitiveSet}, for 4, 16 and 64 skipped names.
+ * Each request has the same 16 headers and 4 cookies with a case differing from the configuration,
+ * a quarter of them being skipped.
+ *
+ * Usage: {@code HeaderFilteringBenchmark [requests=2000000]}, not run by the build.
+ */
+public final class HeaderFilteringBenchmark {
+    private static final List<String> HEADERS = asList(
+            "Host", "User-Agent", "Accept", "Accept-Language", "Accept-Encoding", "Connection", "Referer", "Cookie",
+            "Upgrade-Insecure-Requests", "Cache-Control", "Content-Type", "Content-Length", "Origin", "Authorization",
+            "X-Forwarded-For", "X-Request-Id");
+    private static final List<String> COOKIES = asList("JSESSIONID", "csrf-token", "tracking", "locale");
+
+    private HeaderFilteringBenchmark() {
+        // no-op
+    }
+
+    public static void main(final String[] args) {
+        final int requests = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        final String[] headers = HEADERS.stream().map(String::toLowerCase).toArray(String[]::new); // as HTTP/2 sends them
+        final String[] cookies = COOKIES.stream().map(String::toUpperCase).toArray(String[]::new);
+        for (final int count : new int[]{4, 16, 64}) {
+            final List<String> skippedHeaders = skipped(HEADERS, count);
+            final List<String> skippedCookies = skipped(COOKIES, count);
+            final CaseInsensitiveSet compiledHeaders = CaseInsensitiveSet.of(skippedHeaders);
+            final CaseInsensitiveSet compiledCookies = CaseInsensitiveSet.of(skippedCookies);
+
+            for (int warmup = 0; warmup < 3; warmup++) { // let the JIT compile both paths
+                stream(headers, cookies, skippedHeaders, skippedCookies, requests / 10);
+                set(headers, cookies, compiledHeaders, compiledCookies, requests / 10);
+            }
+            run(count + " names, stream", requests, () -> stream(headers, cookies, skippedHeaders, skippedCookies, requests));
+            run(count + " names, set", requests, () -> set(headers, cookies, compiledHeaders, compiledCookies, requests));
+        }
+    }
+
+    // a quarter of the request names then unrelated ones, as a configuration listing hop-by-hop and internal headers
+    private static List<String> skipped(final List<String> names, final int count) {
+        final List<String> skipped = new ArrayList<>(count);
+        for (int i = 0; i < names.size() && skipped.size() < Math.max(1, names.size() / 4); i += 4) {
+            skipped.add(names.get(i));
+        }
+        for (int i = 0; skipped.size() < count; i++) {
+            skipped.add("X-Internal-" + i);
+        }
+        return skipped;
+    }
+
+    private static void run(final String name, final int requests, final Task task) {
+        long best = Long.MAX_VALUE;
+        long forwarded = 0;
+        for (int i = 0; i < 5; i++) {
+            final long start = System.nanoTime();
+            forwarded = task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-20s %12.0f requests/s (%d names forwarded)%n", name, requests / (best / 1_000_000_000.), forwarded);
+    }
+
+    // the ProxyServlet.filterHeader/filterCookie fallback used before the names were compiled
+    private static long stream(final String[] headers, final String[] cookies,
+                               final Collection<String> skippedHeaders, final Collection<String> skippedCookies,
+                               final int requests) {
+        long forwarded = 0;
+        for (int i = 0; i < requests; i++) {
+            for (final String header : headers) {
+                if (skippedHeaders.stream().noneMatch(it -> it.equalsIgnoreCase(header))) {
+                    forwarded++;
+                }
+            }
+            for (final String cookie : cookies) {
+                if (skippedCookies.stream().noneMatch(it -> it.equalsIgnoreCase(cookie))) {
+                    forwarded++;
+                }
+            }
+        }
+        return forwarded;
+    }
+
+    private static long set(final String[] headers, final String[] cookies,
+                            final CaseInsensitiveSet skippedHeaders, final CaseInsensitiveSet skippedCookies,
+                            final int requests) {
+        long forwarded = 0;
+        for (int i = 0; i < requests; i++) {
+            for (final String header : headers) {
+                if (!skippedHeaders.contains(header)) {
+                    forwarded++;
+                }
+            }
+            for (final String cookie : cookies) {
+                if (!skippedCookies.contains(cookie)) {
+                    forwarded++;
+                }
+            }
+        }
+        return forwarded;
+    }
+
+    private interface Task {
+        long run();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.HashSet;
+import java.util.Set;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.apache.meecrowave.proxy.servlet.configuration.Routes;
+import org.junit.Test;
+
+public class LoadBalancerTest {
+    @Test
+    public void roundRobin() {
+        try (final LoadBalancer balancer = newBalancer(null)) {
+            final Set<String> targets = new HashSet<>();
+            for (int i = 0; i < 3; i++) {
+                final LoadBalancer.Upstream upstream = balancer.select(null);
+                targets.add(upstream.getTarget());
+                balancer.release(upstream, true);
+            }
+            assertEquals(3, targets.size());
+        }
+    }
+
+    @Test
+    public void leastInFlight() {
+        try (final LoadBalancer balancer = newBalancer("least-in-flight")) {
+            final LoadBalancer.Upstream first = balancer.select(null);
+            final LoadBalancer.Upstream second = balancer.select(null);
+            final LoadBalancer.Upstream third = balancer.select(null);
+            assertNotEquals(first, second);
+            assertNotEquals(second, third);
+            assertNotEquals(first, third);
+            balancer.release(second, true);
+            assertEquals(second, balancer.select(null));
+        }
+    }
+
+    @Test
+    public void consistentHash() {
+        final Routes.LoadBalancingConfiguration configuration = new Routes.LoadBalancingConfiguration();
+        configuration.strategy = "consistent-hash";
+        configuration.hashHeader = "X-User";
+        try (final LoadBalancer balancer = new LoadBalancer("test", asList("http://a", "http://b", "http://c"), configuration, null, m -> {})) {
+            final Set<String> targets = new HashSet<>();
+            for (int user = 0; user < 50; user++) {
+                final HttpServletRequest request = request("user-" + user);
+                final LoadBalancer.Upstream upstream = balancer.select(request);
+                for (int i = 0; i < 5; i++) { // sticky
+                    assertEquals(upstream, balancer.select(request));
+                }
+                targets.add(upstream.getTarget());
+            }
+            assertEquals(3, targets.size());
+        }
+    }
+
+    @Test
+    public void outlierEjection() {
+        final Routes.LoadBalancingConfiguration configuration = new Routes.LoadBalancingConfiguration();
+        configuration.outlierDetection = new Routes.OutlierDetectionConfiguration();
+        configuration.outlierDetection.consecutiveFailures = 2;
+        configuration.outlierDetection.ejectionDuration = 60000L;
+        try (final LoadBalancer balancer = new LoadBalancer("test", asList("http://a", "http://b"), configuration, null, m -> {})) {
+            final LoadBalancer.Upstream failing = balancer.getUpstreams().iterator().next();
+            int failures = 0;
+            while (failures < 2) {
+                final LoadBalancer.Upstream upstream = balancer.select(null);
+                final boolean fails = upstream == failing;
+                balancer.release(upstream, !fails);
+                if (fails) {
+                    failures++;
+                }
+            }
+            assertTrue(failing.isEjected());
+            for (int i = 0; i < 5; i++) {
+                assertEquals("http://b", balancer.select(null).getTarget());
+            }
+        }
+    }
+
+    private LoadBalancer newBalancer(final String strategy) {
+        final Routes.LoadBalancingConfiguration configuration = new Routes.LoadBalancingConfiguration();
+        configuration.strategy = strategy;
+        return new LoadBalancer("test", asList("http://a", "http://b", "http://c"), configuration, null, m -> {});
+    }
+
+    private static HttpServletRequest request(final String user) {
+        return HttpServletRequest.class.cast(Proxy.newProxyInstance(
+                Thread.currentThread().getContextClassLoader(), new Class<?>[]{HttpServletRequest.class},
+                (proxy, method, args) -> {
+                    if ("getHeader".equals(method.getName()) && "X-User".equals(args[0])) {
+                        return user;
+                    }
+                    return null;
+                }));
+    }
+}
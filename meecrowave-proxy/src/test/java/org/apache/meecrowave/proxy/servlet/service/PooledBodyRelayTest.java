@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class PooledBodyRelayTest {
+    @Test
+    public void relay() throws IOException {
+        final PooledBodyRelay relay = new PooledBodyRelay(4, 1);
+        final byte[] payload = "some payload bigger than the buffer".getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < 3; i++) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(payload.length, relay.relay(new ByteArrayInputStream(payload), out));
+            assertEquals(new String(payload, StandardCharsets.UTF_8), new String(out.toByteArray(), StandardCharsets.UTF_8));
+        }
+        assertEquals(3L * payload.length, relay.getRelayedBytes());
+        assertEquals(3, relay.getPoolHits());
+        assertEquals(0, relay.getPoolMisses());
+    }
+
+    @Test
+    public void miss() throws IOException {
+        final PooledBodyRelay relay = new PooledBodyRelay(16, 0);
+        relay.relay(new ByteArrayInputStream(new byte[1]), new ByteArrayOutputStream());
+        assertEquals(0, relay.getPoolHits());
+        assertEquals(1, relay.getPoolMisses());
+        assertEquals(0., relay.getPoolHitRate(), 0.);
+    }
+}
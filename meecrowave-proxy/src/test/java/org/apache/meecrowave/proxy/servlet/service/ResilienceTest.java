@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.ws.rs.core.Response;
+
+import org.apache.meecrowave.proxy.servlet.configuration.Routes;
+import org.junit.Test;
+
+public class ResilienceTest {
+    @Test
+    public void retry() throws Exception {
+        final Routes.ClientConfiguration configuration = new Routes.ClientConfiguration();
+        configuration.retry = new Routes.RetryConfiguration();
+        final Resilience resilience = new Resilience("test", configuration, (a, b) -> {});
+
+        final AtomicInteger calls = new AtomicInteger();
+        final Response response = resilience.execute(true, () -> completedFuture(
+                Response.status(calls.incrementAndGet() < 3 ? 503 : 200).build())).toCompletableFuture().get();
+        assertEquals(200, response.getStatus());
+        assertEquals(3, calls.get());
+        assertEquals(2, resilience.getRetries());
+
+        // not replayable
+        calls.set(0);
+        assertEquals(503, resilience.execute(false, () -> completedFuture(
+                Response.status(calls.incrementAndGet() < 3 ? 503 : 200).build())).toCompletableFuture().get().getStatus());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void retryBudget() {
+        final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+        final Resilience.RetryBudget budget = new Resilience.RetryBudget(.5, 0, clock::get);
+        for (int i = 0; i < 4; i++) {
+            budget.onRequest();
+        }
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10)); // window is over
+        budget.onRequest();
+        budget.onRequest();
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    public void circuitBreaker() throws InterruptedException {
+        final Routes.ClientConfiguration configuration = new Routes.ClientConfiguration();
+        configuration.circuitBreaker = new Routes.CircuitBreakerConfiguration();
+        configuration.circuitBreaker.minimumRequests = 2;
+        final AtomicInteger transitions = new AtomicInteger();
+        final Resilience resilience = new Resilience("test", configuration, (a, b) -> transitions.incrementAndGet());
+
+        final AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            resilience.execute(true, () -> completedFuture(Response.status(500 + calls.incrementAndGet()).build()));
+        }
+        try {
+            resilience.execute(true, () -> completedFuture(Response.status(200 + calls.incrementAndGet()).build()))
+                    .toCompletableFuture().get();
+            fail();
+        } catch (final ExecutionException ee) {
+            assertTrue(CircuitBreakerOpenException.class.isInstance(ee.getCause()));
+        }
+        assertEquals(2, calls.get());
+        assertEquals(1, transitions.get());
+    }
+
+    @Test
+    public void hedging() throws Exception {
+        final Routes.ClientConfiguration configuration = new Routes.ClientConfiguration();
+        configuration.hedging = new Routes.HedgingConfiguration();
+        configuration.hedging.minDelay = 50L;
+        final Resilience resilience = new Resilience("test", configuration, (a, b) -> {});
+
+        // warm up the latency percentile
+        for (int i = 0; i < 64; i++) {
+            resilience.execute(true, () -> completedFuture(Response.status(200).build())).toCompletableFuture().get();
+        }
+
+        final AtomicInteger calls = new AtomicInteger();
+        final CompletableFuture<Response> slow = new CompletableFuture<>();
+        final Response response = resilience.execute(true, () -> calls.incrementAndGet() == 1 ?
+                slow : completedFuture(Response.status(202).build()))
+                .toCompletableFuture().get(1, TimeUnit.MINUTES);
+        assertEquals(202, response.getStatus());
+        assertEquals(2, calls.get());
+        assertEquals(1, resilience.getHedges());
+        slow.complete(Response.status(200).build()); // loser is just closed
+    }
+}
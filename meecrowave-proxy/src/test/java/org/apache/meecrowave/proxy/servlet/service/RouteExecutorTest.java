@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class RouteExecutorTest {
+    @Test
+    public void failFast() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final RouteExecutor executor = newExecutor(RouteExecutor.RejectionPolicy.FAIL);
+        try {
+            saturate(executor, latch);
+            try {
+                executor.execute(() -> {});
+                fail();
+            } catch (final RejectedExecutionException ree) {
+                // expected
+            }
+            assertEquals(1, executor.getActiveCount());
+            assertEquals(1, executor.getQueueSize());
+            assertEquals(1, executor.getRejectedCount());
+        } finally {
+            latch.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, SECONDS));
+        }
+    }
+
+    @Test
+    public void callerRuns() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final RouteExecutor executor = newExecutor(RouteExecutor.RejectionPolicy.CALLER_RUNS);
+        try {
+            saturate(executor, latch);
+            final AtomicReference<Thread> thread = new AtomicReference<>();
+            executor.execute(() -> thread.set(Thread.currentThread()));
+            assertEquals(Thread.currentThread(), thread.get());
+            assertEquals(1, executor.getRejectedCount());
+        } finally {
+            latch.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, SECONDS));
+        }
+    }
+
+    private void saturate(final RouteExecutor executor, final CountDownLatch latch) throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                latch.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(1, SECONDS));
+        executor.execute(() -> {}); // queued
+    }
+
+    private RouteExecutor newExecutor(final RouteExecutor.RejectionPolicy policy) {
+        return new RouteExecutor(
+                new ThreadPoolExecutor(1, 1, 0, MILLISECONDS, new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.AbortPolicy()),
+                policy, m -> {});
+    }
+}
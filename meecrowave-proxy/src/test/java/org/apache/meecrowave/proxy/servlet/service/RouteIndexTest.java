@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.apache.meecrowave.proxy.servlet.configuration.Routes;
+import org.junit.Test;
+
+public class RouteIndexTest {
+    @Test
+    public void exact() {
+        final RouteIndex index = RouteIndex.of(asList(route("1", "GET", "/simple"), route("2", "POST", "/simple")));
+        assertEquals("1", index.match("GET", "/simple").id);
+        assertEquals("1", index.match("get", "/SIMPLE").id);
+        assertEquals("2", index.match("POST", "/simple").id);
+        assertNull(index.match("PUT", "/simple"));
+        assertNull(index.match("GET", "/simple/sub"));
+        assertNull(index.match("GET", "/simpl"));
+    }
+
+    @Test
+    public void wildcard() {
+        final RouteIndex index = RouteIndex.of(asList(
+                route("api", "GET", "/api/*"), route("v1", "GET", "/api/v1/*"), route("exact", "GET", "/api/v1/exact")), true);
+        assertEquals("api", index.match("GET", "/api/").id);
+        assertEquals("api", index.match("GET", "/api/v2/foo").id);
+        assertEquals("v1", index.match("GET", "/api/v1/foo").id);
+        assertEquals("v1", index.match("GET", "/api/v1/exact/sub").id);
+        assertEquals("exact", index.match("GET", "/api/v1/exact").id);
+        assertNull(index.match("GET", "/other"));
+    }
+
+    @Test
+    public void anyMethodAndCatchAll() {
+        final RouteIndex index = RouteIndex.of(asList(
+                route("any", null, "/any"), route("get", "GET", "/any"), route("fallback", null, null)));
+        assertEquals("any", index.match("GET", "/any").id);
+        assertEquals("any", index.match("DELETE", "/any").id);
+        assertEquals("fallback", index.match("GET", "/other").id);
+        assertEquals("fallback", index.match("PATCH", "/other").id);
+    }
+
+    @Test
+    public void declarationOrder() {
+        final RouteIndex index = RouteIndex.of(asList(
+                route("fallback", null, null), route("get", "GET", "/simple"), route("wildcard", "GET", "/api/*")));
+        assertEquals("fallback", index.match("GET", "/simple").id);
+        assertEquals("fallback", index.match("GET", "/api/foo").id);
+        assertEquals("fallback", index.match("GET", "/api/*").id);
+
+        final RouteIndex methodLess = RouteIndex.of(asList(
+                route("get", "GET", "/simple"), route("any", null, "/simple"), route("literal", "GET", "/api/*")));
+        assertEquals("get", methodLess.match("GET", "/simple").id);
+        assertEquals("any", methodLess.match("POST", "/simple").id);
+        assertEquals("literal", methodLess.match("GET", "/API/*").id);
+        assertNull(methodLess.match("GET", "/api/foo"));
+    }
+
+    @Test
+    public void longestPrefix() {
+        final RouteIndex index = RouteIndex.of(asList(
+                route("fallback", null, null), route("get", "GET", "/simple"), route("wildcard", "GET", "/api/*")), true);
+        assertEquals("get", index.match("GET", "/simple").id);
+        assertEquals("wildcard", index.match("GET", "/api/foo").id);
+        assertEquals("fallback", index.match("GET", "/other").id);
+    }
+
+    @Test
+    public void empty() {
+        assertNull(RouteIndex.of(emptyList()).match("GET", "/"));
+        assertNull(RouteIndex.of(null).match("GET", "/"));
+    }
+
+    private static Routes.Route route(final String id, final String method, final String prefix) {
+        final Routes.Route route = new Routes.Route();
+        route.id = id;
+        route.requestConfiguration = new Routes.RequestConfiguration();
+        route.requestConfiguration.method = method;
+        route.requestConfiguration.prefix = prefix;
+        return route;
+    }
+}
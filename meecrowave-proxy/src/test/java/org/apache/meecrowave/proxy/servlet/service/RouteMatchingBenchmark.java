@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.meecrowave.proxy.servlet.configuration.Routes;
+
+/**
+ * Compares the route lookup of the proxy servlet done with the former linear scan (stream over the routes in declaration order)
+ * and with {@link RouteIndex} in first-match and longest-prefix modes, for 10, 100 and 1000 routes.
+ * Routes have exact prefixes and alternate GET/POST, the last one is a catch-all so the three lookups select the same routes.
+ * Half of the requests target a route, the other half falls back to the catch-all.
+ *
+ * Usage: {@code RouteMatchingBenchmark [requests=5000000]}, not run by the build.
+ */
+public final class RouteMatchingBenchmark {
+    private RouteMatchingBenchmark() {
+        // no-op
+    }
+
+    public static void main(final String[] args) {
+        final int requests = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        for (final int count : new int[]{10, 100, 1000}) {
+            final List<Routes.Route> routes = new ArrayList<>(count + 1);
+            for (int i = 0; i < count; i++) {
+                routes.add(route(i % 2 == 0 ? "GET" : "POST", "/service" + i + "/resource"));
+            }
+            final Routes.Route catchAll = route(null, null);
+            routes.add(catchAll);
+            final RouteIndex firstMatch = RouteIndex.of(routes);
+            final RouteIndex longestPrefix = RouteIndex.of(routes, true);
+
+            final String[] methods = new String[64];
+            final String[] paths = new String[64];
+            for (int i = 0; i < paths.length; i++) {
+                final int target = (i * 7919) % count; // spread over the declaration order
+                methods[i] = target % 2 == 0 ? "GET" : "POST";
+                paths[i] = i % 2 == 0 ? "/Service" + target + "/resource" : "/service" + target + "/unknown";
+            }
+
+            for (int warmup = 0; warmup < 3; warmup++) { // let the JIT compile the three paths
+                linear(routes, methods, paths, catchAll, requests / 10);
+                indexed(firstMatch, methods, paths, catchAll, requests / 10);
+                indexed(longestPrefix, methods, paths, catchAll, requests / 10);
+            }
+            run(count + " routes, linear scan", requests, () -> linear(routes, methods, paths, catchAll, requests));
+            run(count + " routes, first-match", requests, () -> indexed(firstMatch, methods, paths, catchAll, requests));
+            run(count + " routes, longest-prefix", requests, () -> indexed(longestPrefix, methods, paths, catchAll, requests));
+        }
+    }
+
+    private static void run(final String name, final int requests, final Task task) {
+        long best = Long.MAX_VALUE;
+        long matched = 0;
+        for (int i = 0; i < 5; i++) {
+            final long start = System.nanoTime();
+            matched = task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-32s %12.0f requests/s (%d matched a prefixed route)%n", name, requests / (best / 1_000_000_000.), matched);
+    }
+
+    // the lookup of ProxyServlet.findRoute before the index
+    private static long linear(final List<Routes.Route> routes, final String[] methods, final String[] paths,
+                               final Routes.Route catchAll, final int requests) {
+        long matched = 0;
+        for (int i = 0; i < requests; i++) {
+            final String method = methods[i & 63];
+            final String path = paths[i & 63];
+            final Routes.Route route = routes.stream()
+                    .filter(it -> it.requestConfiguration.method == null || it.requestConfiguration.method.equalsIgnoreCase(method))
+                    .filter(it -> it.requestConfiguration.prefix == null || it.requestConfiguration.prefix.equalsIgnoreCase(path))
+                    .findFirst()
+                    .orElse(null);
+            if (route != null && route != catchAll) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    private static long indexed(final RouteIndex index, final String[] methods, final String[] paths,
+                                final Routes.Route catchAll, final int requests) {
+        long matched = 0;
+        for (int i = 0; i < requests; i++) {
+            final Routes.Route route = index.match(methods[i & 63], paths[i & 63]);
+            if (route != null && route != catchAll) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    private static Routes.Route route(final String method, final String prefix) {
+        final Routes.Route route = new Routes.Route();
+        route.requestConfiguration = new Routes.RequestConfiguration();
+        route.requestConfiguration.method = method;
+        route.requestConfiguration.prefix = prefix;
+        return route;
+    }
+
+    private interface Task {
+        long run();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.meecrowave.proxy.servlet.configuration.Routes;
+import org.junit.Test;
+
+public class RoutesReloaderTest {
+    @Test
+    public void drainBeforeClosing() throws InterruptedException {
+        final Routes initial = new Routes();
+        final Routes reloaded = new Routes();
+        final Collection<Routes> closed = new CopyOnWriteArrayList<>();
+        try (final RoutesReloader reloader = new RoutesReloader(initial, () -> Optional.of(reloaded), closed::add, 60000, m -> {})) {
+            final RoutesReloader.Generation inFlight = reloader.acquire();
+            assertSame(initial, inFlight.getRoutes());
+
+            assertTrue(reloader.reload());
+            assertSame(reloaded, reloader.getRoutes());
+
+            final RoutesReloader.Generation next = reloader.acquire();
+            assertSame(reloaded, next.getRoutes());
+            next.release();
+
+            Thread.sleep(200);
+            assertTrue(closed.isEmpty()); // still in use
+
+            inFlight.release();
+            for (int i = 0; i < 50 && closed.isEmpty(); i++) {
+                Thread.sleep(100);
+            }
+            assertEquals(1, closed.size());
+            assertSame(initial, closed.iterator().next());
+        }
+        assertEquals(2, closed.size());
+    }
+
+    @Test
+    public void keepRoutesOnFailure() {
+        final Routes initial = new Routes();
+        final Collection<Routes> closed = new CopyOnWriteArrayList<>();
+        try (final RoutesReloader reloader = new RoutesReloader(initial, () -> {
+            throw new IllegalArgumentException("invalid json");
+        }, closed::add, 60000, m -> {})) {
+            assertFalse(reloader.reload());
+            assertSame(initial, reloader.getRoutes());
+            assertTrue(closed.isEmpty());
+        }
+    }
+
+    @Test
+    public void closeInitializedRoutesOnFailure() throws InterruptedException {
+        final ConfigurationLoader loader = new ConfigurationLoader("inline") {
+            @Override
+            protected String readContent() {
+                return "{\"routes\":[" +
+                        "{\"id\":\"initialized\",\"responseConfiguration\":{\"targets\":[\"http://localhost:1\"]," +
+                        "\"loadBalancing\":{\"healthCheck\":{\"path\":\"/health\",\"interval\":60000,\"timeout\":100}}}}," +
+                        "{\"id\":\"broken\",\"clientConfiguration\":{\"connectionPool\":\"missing\"}}]}";
+            }
+
+            @Override
+            protected void log(final String message) {
+                // no-op
+            }
+        };
+        final Routes initial = new Routes();
+        try (final RoutesReloader reloader = new RoutesReloader(
+                initial, loader::load, routes -> ConfigurationLoader.close(routes, m -> {}), 60000, m -> {})) {
+            for (int i = 0; i < 3; i++) {
+                assertFalse(reloader.reload());
+            }
+            assertSame(initial, reloader.getRoutes());
+        }
+        for (int i = 0; i < 50 && hasRouteThreads(); i++) {
+            Thread.sleep(100);
+        }
+        assertFalse(hasRouteThreads());
+    }
+
+    private static boolean hasRouteThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(it -> it.isAlive() && it.getName().endsWith("#initialized"));
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.meecrowave.proxy.servlet.service.cache;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.core.Response;
+
+import org.apache.meecrowave.proxy.servlet.configuration.Routes;
+import org.junit.Test;
+
+public class ResponseCacheTest {
+    @Test
+    public void hit() throws Exception {
+        final ResponseCache cache = new ResponseCache(new Routes.CacheConfiguration(), m -> {});
+        final List<Map<String, String>> calls = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            assertEquals("payload", body(cache.execute(request("GET", new HashMap<>()), "/cached", headers -> {
+                calls.add(headers);
+                return CompletableFuture.completedFuture(response(200, "payload", "Cache-Control", "max-age=60"));
+            })));
+        }
+        assertEquals(1, calls.size());
+        assertEquals(1, cache.getMisses());
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void noStore() throws Exception {
+        final ResponseCache cache = new ResponseCache(new Routes.CacheConfiguration(), m -> {});
+        final List<Map<String, String>> calls = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            cache.execute(request("GET", new HashMap<>()), "/private", headers -> {
+                calls.add(headers);
+                return CompletableFuture.completedFuture(response(200, "payload", "Cache-Control", "no-store"));
+            }).toCompletableFuture().get();
+        }
+        assertEquals(2, calls.size());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void revalidate() throws Exception {
+        final ResponseCache cache = new ResponseCache(new Routes.CacheConfiguration(), m -> {});
+        final List<Map<String, String>> calls = new ArrayList<>();
+        assertEquals("v1", body(cache.execute(request("GET", new HashMap<>()), "/etag", headers -> {
+            calls.add(headers);
+            return CompletableFuture.completedFuture(response(200, "v1", "ETag", "\"1\""));
+        })));
+        assertEquals("v1", body(cache.execute(request("GET", new HashMap<>()), "/etag", headers -> {
+            calls.add(headers);
+            return CompletableFuture.completedFuture(response(304, ""));
+        })));
+        assertEquals(2, calls.size());
+        assertEquals("\"1\"", calls.get(1).get("If-None-Match"));
+        assertEquals(1, cache.getRevalidated());
+    }
+
+    @Test
+    public void coalesce() throws Exception {
+        final ResponseCache cache = new ResponseCache(new Routes.CacheConfiguration(), m -> {});
+        final CompletableFuture<Response> upstream = new CompletableFuture<>();
+        final List<Map<String, String>> calls = new ArrayList<>();
+        final CompletionStage<Response> first = cache.execute(request("GET", new HashMap<>()), "/slow", headers -> {
+            calls.add(headers);
+            return upstream;
+        });
+        final CompletionStage<Response> second = cache.execute(request("GET", new HashMap<>()), "/slow", headers -> {
+            calls.add(headers);
+            return CompletableFuture.completedFuture(response(200, "other"));
+        });
+        upstream.complete(response(200, "slow", "Cache-Control", "max-age=60"));
+        assertEquals("slow", body(first));
+        assertEquals("slow", body(second));
+        assertEquals(1, calls.size());
+        assertEquals(1, cache.getCoalesced());
+    }
+
+    @Test
+    public void vary() throws Exception {
+        final ResponseCache cache = new ResponseCache(new Routes.CacheConfiguration(), m -> {});
+        for (int i = 0; i < 2; i++) {
+            for (final String language : new String[]{"fr", "en"}) {
+                final Map<String, String> requestHeaders = new HashMap<>();
+                requestHeaders.put("Accept-Language", language);
+                assertEquals(language, body(cache.execute(request("GET", requestHeaders), "/i18n", headers ->
+                        CompletableFuture.completedFuture(response(200, language, "Cache-Control", "max-age=60", "Vary", "Accept-Language")))));
+            }
+        }
+        assertEquals(2, cache.getHits());
+    }
+
+    private static String body(final CompletionStage<Response> response) throws ExecutionException, InterruptedException {
+        return response.toCompletableFuture().get().readEntity(String.class);
+    }
+
+    private static Response response(final int status, final String body, final String... headers) {
+        final Map<String, List<String>> responseHeaders = new LinkedHashMap<>();
+        for (int i = 0; i < headers.length; i += 2) {
+            responseHeaders.put(headers[i], singletonList(headers[i + 1]));
+        }
+        return new CachedResponse(status, responseHeaders, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static HttpServletRequest request(final String method, final Map<String, String> headers) {
+        return HttpServletRequest.class.cast(Proxy.newProxyInstance(
+                Thread.currentThread().getContextClassLoader(), new Class<?>[]{HttpServletRequest.class},
+                (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "getMethod":
+                            return method;
+                        case "getHeader":
+                            return headers.entrySet().stream()
+                                    .filter(it -> it.getKey().equalsIgnoreCase(String.valueOf(args[0])))
+                                    .map(Map.Entry::getValue)
+                                    .findFirst()
+                                    .orElse(null);
+                        default:
+                            return null;
+                    }
+                }));
+    }
+}